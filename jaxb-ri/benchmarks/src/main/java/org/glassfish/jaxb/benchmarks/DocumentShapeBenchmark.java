@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Documents that stress one particular code path each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DocumentShapeBenchmark {
+
+    public enum DocumentShape {
+        /** 1000 elements, each with an {@code xsi:type}. */
+        XSI_TYPE,
+        /** 1000 nodes with 3 {@code IDREF}s each. */
+        IDREF,
+        /** a single 1MB base64 element. */
+        BASE64
+    }
+
+    @Param
+    public DocumentShape shape;
+
+    private Marshaller marshaller;
+    private Unmarshaller unmarshaller;
+    private Object value;
+    private byte[] document;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Setup
+    public void setup() throws Exception {
+        switch (shape) {
+            case XSI_TYPE:
+                value = Models.drawing(1000);
+                break;
+            case IDREF:
+                value = Models.graph(1000);
+                break;
+            default:
+                value = Models.attachment(1 << 20);
+        }
+        JAXBContext context = JAXBContext.newInstance(value.getClass());
+        marshaller = context.createMarshaller();
+        unmarshaller = context.createUnmarshaller();
+        document = Models.marshal(context, value);
+    }
+
+    @Benchmark
+    public Object marshal() throws Exception {
+        out.reset();
+        marshaller.marshal(value, out);
+        return out;
+    }
+
+    @Benchmark
+    public Object unmarshal() throws Exception {
+        return unmarshaller.unmarshal(new ByteArrayInputStream(document));
+    }
+}
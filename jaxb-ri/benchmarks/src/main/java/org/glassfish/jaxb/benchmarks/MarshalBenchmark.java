@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import org.glassfish.jaxb.benchmarks.model.po.PurchaseOrderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marshals a purchase order to the different kinds of output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MarshalBenchmark {
+
+    public enum Target {
+        OUTPUT_STREAM, XML_STREAM_WRITER, DOM
+    }
+
+    @Param
+    public Target target;
+
+    @Param({"10", "1000"})
+    public int items;
+
+    private Marshaller marshaller;
+    private PurchaseOrderType po;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private XMLOutputFactory xof;
+    private DocumentBuilderFactory dbf;
+
+    @Setup
+    public void setup() throws Exception {
+        marshaller = JAXBContext.newInstance(PurchaseOrderType.class).createMarshaller();
+        po = Models.purchaseOrder(items);
+        xof = XMLOutputFactory.newInstance();
+        dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+    }
+
+    @Benchmark
+    public Object marshal() throws Exception {
+        switch (target) {
+            case OUTPUT_STREAM:
+                out.reset();
+                marshaller.marshal(po, out);
+                return out;
+            case XML_STREAM_WRITER:
+                out.reset();
+                XMLStreamWriter w = xof.createXMLStreamWriter(out, "UTF-8");
+                marshaller.marshal(po, w);
+                w.close();
+                return out;
+            default:
+                org.w3c.dom.Document doc = dbf.newDocumentBuilder().newDocument();
+                marshaller.marshal(po, doc);
+                return doc;
+        }
+    }
+}
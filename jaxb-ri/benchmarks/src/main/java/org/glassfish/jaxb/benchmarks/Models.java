@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import org.glassfish.jaxb.benchmarks.model.books.BookBean;
+import org.glassfish.jaxb.benchmarks.model.books.BookRecord;
+import org.glassfish.jaxb.benchmarks.model.books.LibraryBean;
+import org.glassfish.jaxb.benchmarks.model.books.LibraryRecord;
+import org.glassfish.jaxb.benchmarks.model.po.Item;
+import org.glassfish.jaxb.benchmarks.model.po.Items;
+import org.glassfish.jaxb.benchmarks.model.po.PurchaseOrderType;
+import org.glassfish.jaxb.benchmarks.model.po.USAddress;
+import org.glassfish.jaxb.benchmarks.model.shapes.Attachment;
+import org.glassfish.jaxb.benchmarks.model.shapes.Drawing;
+import org.glassfish.jaxb.benchmarks.model.shapes.Graph;
+import org.glassfish.jaxb.benchmarks.model.shapes.Shape;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sample data for the benchmarks.
+ *
+ * <p>
+ * Everything is generated from a fixed seed, so that runs compare.
+ */
+final class Models {
+
+    /**
+     * Class graph of a single small schema.
+     */
+    static final Class<?>[] SMALL = {PurchaseOrderType.class};
+
+    /**
+     * All the bean models together.
+     */
+    static final Class<?>[] LARGE = {PurchaseOrderType.class, Drawing.class, Graph.class,
+            Attachment.class, LibraryBean.class};
+
+    private Models() {}
+
+    static PurchaseOrderType purchaseOrder(int items) {
+        DatatypeFactory df;
+        try {
+            df = DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+        Random r = new Random(42);
+
+        PurchaseOrderType po = new PurchaseOrderType();
+        po.setOrderDate(df.newXMLGregorianCalendar("1999-10-20"));
+        po.setShipTo(address("Alice Smith", "123 Maple Street", "Mill Valley", "CA", 90952));
+        po.setBillTo(address("Robert Smith", "8 Oak Avenue", "Old Town", "PA", 95819));
+        po.setComment("Hurry, my lawn is going wild!");
+        Items list = new Items();
+        for (int i = 0; i < items; i++) {
+            Item item = new Item();
+            item.setPartNum(String.format("%03d-AA", i % 1000));
+            item.setProductName("Lawnmower model " + i);
+            item.setQuantity(1 + r.nextInt(100));
+            item.setUSPrice(BigDecimal.valueOf(r.nextInt(100000), 2));
+            if (i % 3 == 0)
+                item.setComment("Confirm this is electric & <quiet>");
+            item.setShipDate(df.newXMLGregorianCalendar(1999, 5 + i % 6, 1 + i % 28,
+                    Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE));
+            list.getItem().add(item);
+        }
+        po.setItems(list);
+        return po;
+    }
+
+    private static USAddress address(String name, String street, String city, String state, int zip) {
+        USAddress a = new USAddress();
+        a.setName(name);
+        a.setStreet(street);
+        a.setCity(city);
+        a.setState(state);
+        a.setZip(BigDecimal.valueOf(zip));
+        a.setCountry("US");
+        return a;
+    }
+
+    static Drawing drawing(int shapes) {
+        Random r = new Random(42);
+        Drawing d = new Drawing();
+        for (int i = 0; i < shapes; i++) {
+            Shape s;
+            switch (i % 3) {
+                case 0:
+                    Shape.Circle c = new Shape.Circle();
+                    c.radius = r.nextDouble() * 10;
+                    s = c;
+                    break;
+                case 1:
+                    Shape.Rectangle rect = new Shape.Rectangle();
+                    rect.width = r.nextInt(100);
+                    rect.height = r.nextInt(100);
+                    s = rect;
+                    break;
+                default:
+                    Shape.Polygon p = new Shape.Polygon();
+                    p.points = new double[8];
+                    for (int j = 0; j < p.points.length; j++)
+                        p.points[j] = r.nextInt(1000) / 10.0;
+                    s = p;
+            }
+            s.color = i % 2 == 0 ? "red" : "blue";
+            s.x = r.nextInt(1000);
+            s.y = r.nextInt(1000);
+            d.shapes.add(s);
+        }
+        return d;
+    }
+
+    static Graph graph(int nodes) {
+        Random r = new Random(42);
+        Graph g = new Graph();
+        for (int i = 0; i < nodes; i++) {
+            Graph.Node n = new Graph.Node();
+            n.id = "n" + i;
+            n.label = "node " + i;
+            g.nodes.add(n);
+        }
+        for (Graph.Node n : g.nodes) {
+            for (int j = 0; j < 3; j++)
+                n.edges.add(g.nodes.get(r.nextInt(nodes)));
+        }
+        return g;
+    }
+
+    static Attachment attachment(int size) {
+        Attachment a = new Attachment();
+        a.name = "payload.bin";
+        a.data = new byte[size];
+        new Random(42).nextBytes(a.data);
+        return a;
+    }
+
+    static LibraryBean libraryBean(int books) {
+        LibraryBean l = new LibraryBean();
+        l.name = "City library";
+        for (int i = 0; i < books; i++) {
+            BookBean b = new BookBean();
+            b.title = "Title " + i;
+            b.author = "Author " + i % 50;
+            b.year = 1900 + i % 120;
+            b.price = 5 + (i % 400) / 4.0;
+            l.book.add(b);
+        }
+        return l;
+    }
+
+    static LibraryRecord libraryRecord(int books) {
+        List<BookRecord> list = new ArrayList<>(books);
+        for (int i = 0; i < books; i++)
+            list.add(new BookRecord("Title " + i, "Author " + i % 50, 1900 + i % 120, 5 + (i % 400) / 4.0));
+        return new LibraryRecord("City library", list);
+    }
+
+    static byte[] marshal(JAXBContext context, Object o) throws JAXBException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        context.createMarshaller().marshal(o, out);
+        return out.toByteArray();
+    }
+}
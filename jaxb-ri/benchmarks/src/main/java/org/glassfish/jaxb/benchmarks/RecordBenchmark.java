@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares records with the equivalent java beans on the same document.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RecordBenchmark {
+
+    public enum Kind {
+        BEAN, RECORD
+    }
+
+    @Param
+    public Kind kind;
+
+    @Param({"1000"})
+    public int books;
+
+    private Marshaller marshaller;
+    private Unmarshaller unmarshaller;
+    private Object library;
+    private byte[] document;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Setup
+    public void setup() throws Exception {
+        library = kind == Kind.BEAN ? Models.libraryBean(books) : Models.libraryRecord(books);
+        JAXBContext context = JAXBContext.newInstance(library.getClass());
+        marshaller = context.createMarshaller();
+        unmarshaller = context.createUnmarshaller();
+        document = Models.marshal(context, library);
+    }
+
+    @Benchmark
+    public Object marshal() throws Exception {
+        out.reset();
+        marshaller.marshal(library, out);
+        return out;
+    }
+
+    @Benchmark
+    public Object unmarshal() throws Exception {
+        return unmarshaller.unmarshal(new ByteArrayInputStream(document));
+    }
+}
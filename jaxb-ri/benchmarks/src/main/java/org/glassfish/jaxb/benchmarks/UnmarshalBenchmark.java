@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Unmarshaller;
+import org.glassfish.jaxb.benchmarks.model.po.PurchaseOrderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unmarshals a purchase order from the different kinds of input.
+ *
+ * <p>
+ * The DOM variant parses the document once up front, so it only measures
+ * the tree walk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UnmarshalBenchmark {
+
+    public enum Source {
+        SAX, STAX, DOM
+    }
+
+    @Param
+    public Source source;
+
+    @Param({"10", "1000"})
+    public int items;
+
+    private Unmarshaller unmarshaller;
+    private byte[] document;
+    private Document dom;
+    private XMLInputFactory xif;
+
+    @Setup
+    public void setup() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(PurchaseOrderType.class);
+        unmarshaller = context.createUnmarshaller();
+        document = Models.marshal(context, Models.purchaseOrder(items));
+        xif = XMLInputFactory.newInstance();
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        dom = dbf.newDocumentBuilder().parse(new ByteArrayInputStream(document));
+    }
+
+    @Benchmark
+    public Object unmarshal() throws Exception {
+        switch (source) {
+            case SAX:
+                return unmarshaller.unmarshal(new ByteArrayInputStream(document));
+            case STAX:
+                XMLStreamReader r = xif.createXMLStreamReader(new ByteArrayInputStream(document));
+                Object o = unmarshaller.unmarshal(r);
+                r.close();
+                return o;
+            default:
+                return unmarshaller.unmarshal(dom);
+        }
+    }
+}
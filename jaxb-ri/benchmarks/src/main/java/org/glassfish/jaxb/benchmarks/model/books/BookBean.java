@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.books;
+
+import jakarta.xml.bind.annotation.XmlType;
+
+/**
+ * Same content as {@link BookRecord}.
+ */
+@XmlType(propOrder = {"title", "author", "year", "price"})
+public class BookBean {
+    public String title;
+    public String author;
+    public int year;
+    public double price;
+}
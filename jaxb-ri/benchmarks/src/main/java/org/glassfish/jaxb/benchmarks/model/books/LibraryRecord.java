@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.books;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.util.List;
+
+// components are named after their elements, annotations on them are not picked up
+@XmlRootElement(name = "library")
+public record LibraryRecord(String name, List<BookRecord> book) {
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.po;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlSchemaType;
+import jakarta.xml.bind.annotation.XmlType;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.math.BigDecimal;
+
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {"productName", "quantity", "usPrice", "comment", "shipDate"})
+public class Item {
+
+    @XmlElement(required = true)
+    protected String productName;
+    protected int quantity;
+    @XmlElement(name = "USPrice", required = true)
+    protected BigDecimal usPrice;
+    protected String comment;
+    @XmlSchemaType(name = "date")
+    protected XMLGregorianCalendar shipDate;
+    @XmlAttribute(name = "partNum", required = true)
+    protected String partNum;
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String value) {
+        this.productName = value;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int value) {
+        this.quantity = value;
+    }
+
+    public BigDecimal getUSPrice() {
+        return usPrice;
+    }
+
+    public void setUSPrice(BigDecimal value) {
+        this.usPrice = value;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String value) {
+        this.comment = value;
+    }
+
+    public XMLGregorianCalendar getShipDate() {
+        return shipDate;
+    }
+
+    public void setShipDate(XMLGregorianCalendar value) {
+        this.shipDate = value;
+    }
+
+    public String getPartNum() {
+        return partNum;
+    }
+
+    public void setPartNum(String value) {
+        this.partNum = value;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.po;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSchemaType;
+import jakarta.xml.bind.annotation.XmlType;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "PurchaseOrderType", propOrder = {"shipTo", "billTo", "comment", "items"})
+@XmlRootElement(name = "purchaseOrder")
+public class PurchaseOrderType {
+
+    @XmlElement(required = true)
+    protected USAddress shipTo;
+    @XmlElement(required = true)
+    protected USAddress billTo;
+    protected String comment;
+    @XmlElement(required = true)
+    protected Items items;
+    @XmlAttribute(name = "orderDate")
+    @XmlSchemaType(name = "date")
+    protected XMLGregorianCalendar orderDate;
+
+    public USAddress getShipTo() {
+        return shipTo;
+    }
+
+    public void setShipTo(USAddress value) {
+        this.shipTo = value;
+    }
+
+    public USAddress getBillTo() {
+        return billTo;
+    }
+
+    public void setBillTo(USAddress value) {
+        this.billTo = value;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String value) {
+        this.comment = value;
+    }
+
+    public Items getItems() {
+        return items;
+    }
+
+    public void setItems(Items value) {
+        this.items = value;
+    }
+
+    public XMLGregorianCalendar getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(XMLGregorianCalendar value) {
+        this.orderDate = value;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.po;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlSchemaType;
+import jakarta.xml.bind.annotation.XmlType;
+
+import java.math.BigDecimal;
+
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "USAddress", propOrder = {"name", "street", "city", "state", "zip"})
+public class USAddress {
+
+    @XmlElement(required = true)
+    protected String name;
+    @XmlElement(required = true)
+    protected String street;
+    @XmlElement(required = true)
+    protected String city;
+    @XmlElement(required = true)
+    protected String state;
+    @XmlElement(required = true)
+    protected BigDecimal zip;
+    @XmlAttribute(name = "country")
+    @XmlSchemaType(name = "NMTOKEN")
+    protected String country;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String value) {
+        this.name = value;
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public void setStreet(String value) {
+        this.street = value;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String value) {
+        this.city = value;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String value) {
+        this.state = value;
+    }
+
+    public BigDecimal getZip() {
+        return zip;
+    }
+
+    public void setZip(BigDecimal value) {
+        this.zip = value;
+    }
+
+    public String getCountry() {
+        return country == null ? "US" : country;
+    }
+
+    public void setCountry(String value) {
+        this.country = value;
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+/**
+ * Purchase order model, in the shape xjc generates it for the
+ * {@code po.xsd} schema of the samples.
+ */
+@XmlSchema(namespace = "http://example.org/po", elementFormDefault = XmlNsForm.QUALIFIED)
+package org.glassfish.jaxb.benchmarks.model.po;
+
+import jakarta.xml.bind.annotation.XmlNsForm;
+import jakarta.xml.bind.annotation.XmlSchema;
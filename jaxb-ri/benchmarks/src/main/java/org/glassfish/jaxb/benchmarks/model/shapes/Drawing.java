@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.shapes;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSeeAlso;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Document where every child carries an {@code xsi:type}.
+ */
+@XmlRootElement(name = "drawing")
+@XmlSeeAlso({Shape.Circle.class, Shape.Rectangle.class, Shape.Polygon.class})
+public class Drawing {
+    @XmlElement(name = "shape")
+    public List<Shape> shapes = new ArrayList<>();
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.shapes;
+
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlID;
+import jakarta.xml.bind.annotation.XmlIDREF;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Document whose nodes point at each other through {@code IDREF}s,
+ * half of them forward references.
+ */
+@XmlRootElement(name = "graph")
+public class Graph {
+    @XmlElement(name = "node")
+    public List<Node> nodes = new ArrayList<>();
+
+    public static class Node {
+        @XmlID
+        @XmlAttribute
+        public String id;
+
+        public String label;
+
+        @XmlIDREF
+        @XmlElement(name = "edge")
+        public List<Node> edges = new ArrayList<>();
+    }
+}
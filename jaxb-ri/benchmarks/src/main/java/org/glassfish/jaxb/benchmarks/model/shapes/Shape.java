@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.benchmarks.model.shapes;
+
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlList;
+import jakarta.xml.bind.annotation.XmlType;
+
+public abstract class Shape {
+    @XmlAttribute
+    public String color;
+
+    public double x;
+    public double y;
+
+    @XmlType(name = "circle")
+    public static class Circle extends Shape {
+        public double radius;
+    }
+
+    @XmlType(name = "rectangle")
+    public static class Rectangle extends Shape {
+        public double width;
+        public double height;
+    }
+
+    @XmlType(name = "polygon")
+    public static class Polygon extends Shape {
+        @XmlList
+        public double[] points;
+    }
+}
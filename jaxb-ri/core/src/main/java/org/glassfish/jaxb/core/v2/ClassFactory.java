@@ -14,11 +14,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.ref.WeakReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,67 +38,84 @@ public final class ClassFactory {
     private static final Logger logger = Utils.getClassLogger();
 
     /**
-     * Cache from a class to its default constructor.
+     * Cache from a class to its default constructor, or null if it doesn't have one.
      *
-     * To avoid synchronization among threads, we use {@link ThreadLocal}.
+     * <p>
+     * {@link ClassValue} is shared by all the threads and doesn't prevent
+     * the class from being unloaded, so the constructor is looked up only once.
      */
-    private static final ThreadLocal<Map<Class, WeakReference<Constructor>>> tls = new ThreadLocal<>() {
+    private static final ClassValue<Constructor<?>> constructors = new ClassValue<>() {
         @Override
-        public Map<Class, WeakReference<Constructor>> initialValue() {
-            return new WeakHashMap<>();
+        protected Constructor<?> computeValue(Class<?> clazz) {
+            if (System.getSecurityManager() == null) {
+                return findDeclaredConstructor(clazz);
+            } else {
+                return AccessController.doPrivileged(new PrivilegedAction<>() {
+                    @Override
+                    public Constructor<?> run() {
+                        return findDeclaredConstructor(clazz);
+                    }
+                });
+            }
         }
     };
 
     private ClassFactory() {}
 
+    /**
+     * Used to release the per-thread cache of constructors.
+     *
+     * @deprecated the cache is no longer kept per thread, so this method does nothing.
+     */
+    @Deprecated(since = "4.0.1", forRemoval = true)
     public static void cleanCache() {
-        if (tls != null) {
-            try {
-                tls.remove();
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Unable to clean Thread Local cache of classes used in Unmarshaller: {0}", e.getLocalizedMessage());
-            }
-        }
+    }
+
+    /**
+     * Gets the default constructor of the class, made accessible if necessary.
+     *
+     * @return null
+     *      if the class doesn't have the default constructor.
+     * @since 4.0.1
+     */
+    @SuppressWarnings({"unchecked"})
+    public static <T> Constructor<T> getDefaultConstructor( Class<T> clazz ) {
+        return (Constructor<T>) constructors.get(clazz);
     }
 
     /**
      * Creates a new instance of the class but throw exceptions without catching it.
      */
     public static <T> T create0( final Class<T> clazz ) throws IllegalAccessException, InvocationTargetException, InstantiationException {
-        Map<Class,WeakReference<Constructor>> m = tls.get();
-        Constructor<T> cons = null;
-        WeakReference<Constructor> consRef = m.get(clazz);
-        if(consRef!=null)
-            cons = consRef.get();
-        if(cons==null) {
-            if (System.getSecurityManager() == null) {
-                cons = tryGetDeclaredConstructor(clazz);
-            } else {
-                cons = AccessController.doPrivileged(new PrivilegedAction<>() {
-                    @Override
-                    public Constructor<T> run() {
-                        return tryGetDeclaredConstructor(clazz);
-                    }
-                });
-            }
+        Constructor<T> cons = getDefaultConstructor(clazz);
+        if(cons==null)
+            // report the error
+            cons = tryGetDeclaredConstructor(clazz);
 
-            int classMod = clazz.getModifiers();
-
-            if(!Modifier.isPublic(classMod) || !Modifier.isPublic(cons.getModifiers())) {
-                // attempt to make it work even if the constructor is not accessible
-                try {
-                    cons.setAccessible(true);
-                } catch(SecurityException e) {
-                    // but if we don't have a permission to do so, work gracefully.
-                    logger.log(Level.FINE,"Unable to make the constructor of "+clazz+" accessible",e);
-                    throw e;
-                }
-            }
+        return cons.newInstance(emptyObject);
+    }
 
-            m.put(clazz,new WeakReference<>(cons));
+    private static Constructor<?> findDeclaredConstructor(Class<?> clazz) {
+        Constructor<?> cons;
+        try {
+            cons = clazz.getDeclaredConstructor(emptyClass);
+        } catch (NoSuchMethodException e) {
+            return null;
         }
 
-        return cons.newInstance(emptyObject);
+        int classMod = clazz.getModifiers();
+
+        if(!Modifier.isPublic(classMod) || !Modifier.isPublic(cons.getModifiers())) {
+            // attempt to make it work even if the constructor is not accessible
+            try {
+                cons.setAccessible(true);
+            } catch(SecurityException e) {
+                // but if we don't have a permission to do so, work gracefully.
+                logger.log(Level.FINE,"Unable to make the constructor of "+clazz+" accessible",e);
+                throw e;
+            }
+        }
+        return cons;
     }
 
     private static <T> Constructor<T> tryGetDeclaredConstructor(Class<T> clazz) {
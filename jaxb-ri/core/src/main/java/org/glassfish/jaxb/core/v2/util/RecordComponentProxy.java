@@ -1,12 +1,8 @@
 package org.glassfish.jaxb.core.v2.util;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.stream.Stream;
 
 public class RecordComponentProxy {
@@ -152,74 +148,4 @@ public class RecordComponentProxy {
 		} catch (Exception e) {
 			return null;
 		}	}
-
-	public static Object instanceOfMap(Class<?> targetClass, Map<String, Object> m) {
-		Constructor<?> constr = targetClass.getDeclaredConstructors()[0];
-		int count = constr.getParameterCount();
-		Object[] objects = new Object[count];
-		Parameter[] params = constr.getParameters();
-
-		for (int i = 0; i < count; i++) {
-			Parameter param = params[i];
-			System.out.println(param);
-			Object o = null;
-
-			Class<?> type = param.getType();
-
-			String name = param.getName();
-
-			if (m.containsKey(name)) {
-				o = m.get(name);
-			} else {
-				o = m.entrySet().stream().filter(e -> e.getKey().equalsIgnoreCase(name)).findFirst()
-						.map(Entry::getValue).orElse(null);
-				// spec multiple ignorecase take first;
-			}
-			// trypecheck
-			objects[i] = o;
-		}
-		try {
-			return constr.newInstance(objects);
-
-		} catch (Exception exception) {
-			throw new RuntimeException("Could not create the record: " + targetClass, exception);
-		}
-	}
-	
-	public static <C> C instanceOfMap2(Class<C> targetClass, Map<RecordComponentProxy, Object> m) {
-		Constructor<C> constr = (Constructor<C>) targetClass.getDeclaredConstructors()[0];
-		int count = constr.getParameterCount();
-		Object[] objects = new Object[count];
-		Parameter[] params = constr.getParameters();
-
-		for (int i = 0; i < count; i++) {
-			Parameter param = params[i];
-			System.out.println(param);
-			Object o = null;
-
-			Class<?> type = param.getType();
-
-			String name = param.getName();
-
-			if (m.containsKey(name)) {
-				o = m.get(name);
-			} else {
-				o = m.entrySet().stream().filter(e -> e.getKey().getName().equalsIgnoreCase(name)).findFirst()
-						.map(Entry::getValue).orElse(null);
-				// spec multiple ignorecase take first;
-			}
-			// trypecheck
-			objects[i] = o;
-		}
-		try {
-			return constr.newInstance(objects);
-
-		} catch (Exception exception) {
-			throw new RuntimeException("Could not create the record: " + targetClass, exception);
-		}
-	}
-
-
-
-
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.core.v2;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.CompletableFuture;
+
+public class ClassFactoryTest {
+
+    @Test
+    public void testConstructorCached() throws Exception {
+        Constructor<Hidden> c = ClassFactory.getDefaultConstructor(Hidden.class);
+        Assert.assertNotNull(c);
+        Assert.assertSame(c, ClassFactory.getDefaultConstructor(Hidden.class));
+        // shared by all the threads
+        Assert.assertSame(c, CompletableFuture.supplyAsync(() -> ClassFactory.getDefaultConstructor(Hidden.class)).get());
+    }
+
+    @Test
+    public void testNonPublicConstructor() {
+        Assert.assertEquals("created", ClassFactory.create(Hidden.class).value);
+    }
+
+    @Test
+    public void testNoDefaultConstructor() {
+        Assert.assertNull(ClassFactory.getDefaultConstructor(NoDefault.class));
+        try {
+            ClassFactory.create(NoDefault.class);
+            Assert.fail();
+        } catch (NoSuchMethodError expected) {
+        }
+    }
+
+    @Test
+    public void testClassCanBeUnloaded() throws Exception {
+        WeakReference<Class<?>> ref = createFromOtherLoader();
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull("the class is still reachable", ref.get());
+    }
+
+    private static WeakReference<Class<?>> createFromOtherLoader() throws Exception {
+        Class<?> c = new ChildLoader().loadClass(Hidden.class.getName());
+        Assert.assertNotSame(Hidden.class, c);
+        Assert.assertNotNull(ClassFactory.getDefaultConstructor(c));
+        Assert.assertSame(c, ClassFactory.create(c).getClass());
+        return new WeakReference<>(c);
+    }
+
+    /**
+     * Defines its own copy of {@link Hidden}.
+     */
+    private static final class ChildLoader extends ClassLoader {
+        ChildLoader() {
+            super(ClassFactoryTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(Hidden.class.getName()))
+                return super.loadClass(name, resolve);
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                byte[] b = in.readAllBytes();
+                return defineClass(name, b, 0, b.length, Hidden.class.getProtectionDomain());
+            } catch (Exception e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+
+    static final class Hidden {
+        final String value;
+
+        private Hidden() {
+            value = "created";
+        }
+    }
+
+    public static final class NoDefault {
+        public NoDefault(String value) {
+        }
+    }
+}
@@ -11,6 +11,7 @@
 package org.glassfish.jaxb.runtime;
 
 import org.glassfish.jaxb.core.WhiteSpaceProcessor;
+import org.glassfish.jaxb.runtime.v2.util.XsdDateTime;
 import jakarta.xml.bind.DatatypeConverter;
 import jakarta.xml.bind.DatatypeConverterInterface;
 
@@ -22,6 +23,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.lang.ref.WeakReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
@@ -54,7 +56,12 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
     }
 
     public static BigInteger _parseInteger(CharSequence s) {
-        return new BigInteger(removeOptionalPlus(WhiteSpaceProcessor.trim(s)).toString());
+        s = WhiteSpaceProcessor.trim(s);
+        if (s.length() <= 18) {
+            // fits in a long, so avoid going through a String
+            return BigInteger.valueOf(_parseLong(s));
+        }
+        return new BigInteger(removeOptionalPlus(s).toString());
     }
 
     public static String _printInteger(BigInteger val) {
@@ -95,7 +102,49 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         return r * sign;
     }
 
+    /**
+     * {@code String->long} conversion that doesn't create a {@link String}
+     * for the common case of at most 18 digits.
+     *
+     * Anything else, including the errors, is left to {@link Long#parseLong(String)}.
+     */
     public static long _parseLong(CharSequence s) {
+        int start = 0;
+        int end = s.length();
+        while (start < end && WhiteSpaceProcessor.isWhiteSpace(s.charAt(start))) {
+            start++;
+        }
+        while (end > start && WhiteSpaceProcessor.isWhiteSpace(s.charAt(end - 1))) {
+            end--;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            char ch = s.charAt(i);
+            if (ch == '-') {
+                negative = true;
+                i++;
+            } else if (ch == '+') {
+                i++;
+            }
+        }
+
+        // 18 digits can't overflow
+        if (i < end && end - i <= 18) {
+            long r = 0;
+            for (; i < end; i++) {
+                char ch = s.charAt(i);
+                if (ch < '0' || '9' < ch) {
+                    break;
+                }
+                r = r * 10 + (ch - '0');
+            }
+            if (i == end) {
+                return negative ? -r : r;
+            }
+        }
+
         return Long.parseLong(removeOptionalPlus(WhiteSpaceProcessor.trim(s)).toString());
     }
 
@@ -341,8 +390,12 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
     }
 
     public static GregorianCalendar _parseDateTime(CharSequence s) {
-        String val = WhiteSpaceProcessor.trim(s).toString();
-        return getDatatypeFactory().newXMLGregorianCalendar(val).toGregorianCalendar();
+        CharSequence val = WhiteSpaceProcessor.trim(s);
+        GregorianCalendar cal = XsdDateTime.parseCalendar(val);
+        if (cal != null) {
+            return cal;
+        }
+        return getDatatypeFactory().newXMLGregorianCalendar(val.toString()).toGregorianCalendar();
     }
 
     public static String _printDateTime(Calendar val) {
@@ -420,6 +473,18 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         return map;
     }
 
+    /**
+     * Gets the 6-bit value of a base64 character.
+     *
+     * @return
+     *      -1 if the character is not in the base64 alphabet,
+     *      or 127 for the padding character.
+     * @since 4.0.1
+     */
+    public static byte decode(char ch) {
+        return ch < 128 ? decodeMap[ch] : -1;
+    }
+
     /**
      * computes the length of binary data speculatively.
      *
@@ -708,6 +773,22 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
 
     private static final Map<ClassLoader, DatatypeFactory> DF_CACHE = Collections.synchronizedMap(new WeakHashMap<>());
 
+    /**
+     * The last factory taken from {@link #DF_CACHE}, so that the common case of
+     * a single context class loader doesn't need to lock the map.
+     */
+    private static volatile LastDatatypeFactory lastDF;
+
+    private static final class LastDatatypeFactory {
+        final WeakReference<ClassLoader> loader;
+        final DatatypeFactory df;
+
+        LastDatatypeFactory(ClassLoader loader, DatatypeFactory df) {
+            this.loader = new WeakReference<>(loader);
+            this.df = df;
+        }
+    }
+
     public static DatatypeFactory getDatatypeFactory() {
         ClassLoader tccl = AccessController.doPrivileged(new PrivilegedAction<>() {
             @Override
@@ -715,6 +796,18 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
                 return Thread.currentThread().getContextClassLoader();
             }
         });
+        LastDatatypeFactory last = lastDF;
+        if (tccl != null && last != null && last.loader.get() == tccl) {
+            return last.df;
+        }
+        DatatypeFactory df = getDatatypeFactory(tccl);
+        if (tccl != null) {
+            lastDF = new LastDatatypeFactory(tccl, df);
+        }
+        return df;
+    }
+
+    private static DatatypeFactory getDatatypeFactory(ClassLoader tccl) {
         DatatypeFactory df = DF_CACHE.get(tccl);
         if (df == null) {
             synchronized (DatatypeConverterImpl.class) {
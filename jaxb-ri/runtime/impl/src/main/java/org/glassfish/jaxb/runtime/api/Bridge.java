@@ -73,11 +73,10 @@ public abstract class Bridge<T> {
         marshal(object,output,null);
     }
     public final void marshal(T object,XMLStreamWriter output, AttachmentMarshaller am) throws JAXBException {
-        Marshaller m = context.marshallerPool.take();
+        Marshaller m = context.borrowMarshaller();
         m.setAttachmentMarshaller(am);
         marshal(m,object,output);
-        m.setAttachmentMarshaller(null);
-        context.marshallerPool.recycle(m);
+        context.returnMarshaller(m);
     }
 
     public abstract void marshal(@NotNull Marshaller m,T object,XMLStreamWriter output) throws JAXBException;
@@ -103,20 +102,19 @@ public abstract class Bridge<T> {
      * @since 2.0.2
      */
     public void marshal(T object,OutputStream output, NamespaceContext nsContext, AttachmentMarshaller am) throws JAXBException {
-        Marshaller m = context.marshallerPool.take();
+        Marshaller m = context.borrowMarshaller();
         m.setAttachmentMarshaller(am);
         marshal(m,object,output,nsContext);
-        m.setAttachmentMarshaller(null);
-        context.marshallerPool.recycle(m);
+        context.returnMarshaller(m);
     }
 
     public abstract void marshal(@NotNull Marshaller m,T object,OutputStream output, NamespaceContext nsContext) throws JAXBException;
 
 
     public final void marshal(T object,Node output) throws JAXBException {
-        Marshaller m = context.marshallerPool.take();
+        Marshaller m = context.borrowMarshaller();
         marshal(m,object,output);
-        context.marshallerPool.recycle(m);
+        context.returnMarshaller(m);
     }
 
     public abstract void marshal(@NotNull Marshaller m,T object,Node output) throws JAXBException;
@@ -132,11 +130,10 @@ public abstract class Bridge<T> {
      * @since 2.0.2
      */
     public final void marshal(T object, ContentHandler contentHandler, AttachmentMarshaller am) throws JAXBException {
-        Marshaller m = context.marshallerPool.take();
+        Marshaller m = context.borrowMarshaller();
         m.setAttachmentMarshaller(am);
         marshal(m,object,contentHandler);
-        m.setAttachmentMarshaller(null);
-        context.marshallerPool.recycle(m);
+        context.returnMarshaller(m);
     }
 
     public abstract void marshal(@NotNull Marshaller m,T object, ContentHandler contentHandler) throws JAXBException;
@@ -145,9 +142,9 @@ public abstract class Bridge<T> {
      * @since 2.0 EA4
      */
     public final void marshal(T object, Result result) throws JAXBException {
-        Marshaller m = context.marshallerPool.take();
+        Marshaller m = context.borrowMarshaller();
         marshal(m,object,result);
-        context.marshallerPool.recycle(m);
+        context.returnMarshaller(m);
     }
 
     public abstract void marshal(@NotNull Marshaller m,T object, Result result) throws JAXBException;
@@ -155,8 +152,7 @@ public abstract class Bridge<T> {
 
 
     private T exit(T r, Unmarshaller u) {
-        u.setAttachmentUnmarshaller(null);
-        context.unmarshallerPool.recycle(u);
+        context.returnUnmarshaller(u);
         return r;
     }
 
@@ -183,7 +179,7 @@ public abstract class Bridge<T> {
      * @since 2.0.3
      */
     public final @NotNull T unmarshal(@NotNull XMLStreamReader in, @Nullable AttachmentUnmarshaller au) throws JAXBException {
-        Unmarshaller u = context.unmarshallerPool.take();
+        Unmarshaller u = context.borrowUnmarshaller();
         u.setAttachmentUnmarshaller(au);
         return exit(unmarshal(u,in),u);
     }
@@ -213,7 +209,7 @@ public abstract class Bridge<T> {
      * @since 2.0.3
      */
     public final @NotNull T unmarshal(@NotNull Source in, @Nullable AttachmentUnmarshaller au) throws JAXBException {
-        Unmarshaller u = context.unmarshallerPool.take();
+        Unmarshaller u = context.borrowUnmarshaller();
         u.setAttachmentUnmarshaller(au);
         return exit(unmarshal(u,in),u);
     }
@@ -237,7 +233,7 @@ public abstract class Bridge<T> {
      * @since 2.0 EA1
      */
     public final @NotNull T unmarshal(@NotNull InputStream in) throws JAXBException {
-        Unmarshaller u = context.unmarshallerPool.take();
+        Unmarshaller u = context.borrowUnmarshaller();
         return exit(unmarshal(u,in),u);
     }
 
@@ -264,7 +260,7 @@ public abstract class Bridge<T> {
      * @since 2.0.3
      */
     public final @NotNull T unmarshal(@NotNull Node n, @Nullable AttachmentUnmarshaller au) throws JAXBException {
-        Unmarshaller u = context.unmarshallerPool.take();
+        Unmarshaller u = context.borrowUnmarshaller();
         u.setAttachmentUnmarshaller(au);
         return exit(unmarshal(u,n),u);
     }
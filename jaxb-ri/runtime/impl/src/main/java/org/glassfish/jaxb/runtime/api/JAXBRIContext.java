@@ -20,6 +20,7 @@ import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.SchemaOutputResolver;
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.XmlAttachmentRef;
 
 import javax.xml.namespace.QName;
@@ -297,6 +298,56 @@ public abstract class JAXBRIContext extends JAXBContext {
      */
     public abstract RuntimeTypeInfoSet getRuntimeTypeInfoSet();
 
+    /**
+     * Gets a {@link Marshaller} from the pool of this context, or a new one if the pool is empty.
+     *
+     * <p>
+     * The marshaller may be configured freely, and must be given back with
+     * {@link #returnMarshaller(Marshaller)} once it is no longer used.
+     * The pool is not tied to threads, so the marshaller may be given back by
+     * another thread than the one that borrowed it.
+     *
+     * @see #POOL_SIZE
+     * @since 4.0.1
+     */
+    public @NotNull Marshaller borrowMarshaller() throws JAXBException {
+        return createMarshaller();
+    }
+
+    /**
+     * Gives back a {@link Marshaller} obtained from {@link #borrowMarshaller()}.
+     * The marshaller is reset to its initial configuration, and must not be used by the caller any more.
+     *
+     * @since 4.0.1
+     */
+    public void returnMarshaller(@NotNull Marshaller marshaller) {
+    }
+
+    /**
+     * Gets an {@link Unmarshaller} from the pool of this context, or a new one if the pool is empty.
+     *
+     * <p>
+     * The unmarshaller may be configured freely, and must be given back with
+     * {@link #returnUnmarshaller(Unmarshaller)} once it is no longer used.
+     * The pool is not tied to threads, so the unmarshaller may be given back by
+     * another thread than the one that borrowed it.
+     *
+     * @see #POOL_SIZE
+     * @since 4.0.1
+     */
+    public @NotNull Unmarshaller borrowUnmarshaller() throws JAXBException {
+        return createUnmarshaller();
+    }
+
+    /**
+     * Gives back an {@link Unmarshaller} obtained from {@link #borrowUnmarshaller()}.
+     * The unmarshaller is reset to its initial configuration, and must not be used by the caller any more.
+     *
+     * @since 4.0.1
+     */
+    public void returnUnmarshaller(@NotNull Unmarshaller unmarshaller) {
+    }
+
     /**
      * Computes a Java identifier from a local name.
      *
@@ -508,4 +559,131 @@ public abstract class JAXBRIContext extends JAXBContext {
      */
     public static final String MAX_ERRORS = "org.glassfish.jaxb.maxErrorsCount";
 
+    /**
+     * If true, properties are accessed through Java reflection only,
+     * instead of through the optimized accessors that are otherwise
+     * prepared when the {@link JAXBContext} is created.
+     * The default value is false.
+     *
+     * Boolean
+     * @since 4.0.1
+     */
+    public static final String DISABLE_ACCESSOR_OPTIMIZATION = "org.glassfish.jaxb.disableAccessorOptimization";
+
+    /**
+     * If true, the number of unmarshalled documents and errors is counted
+     * across all the unmarshallers of the {@link JAXBContext}.
+     * The default value is false.
+     *
+     * Boolean
+     * @see org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl#getUnmarshalMetrics()
+     * @since 4.0.1
+     */
+    public static final String UNMARSHAL_METRICS = "org.glassfish.jaxb.unmarshalMetrics";
+
+    /**
+     * If set, base64 encoded elements bound to {@code byte[]}, {@link jakarta.activation.DataHandler},
+     * {@link java.awt.Image} or {@link javax.xml.transform.Source} are decoded while they are
+     * being parsed, instead of being buffered as text first.
+     * The decoded data beyond this number of bytes is written to a temporary file,
+     * except for {@code byte[]}. Use a negative value to always keep the data in memory.
+     * Not set by default.
+     *
+     * Integer
+     * @since 4.0.1
+     */
+    public static final String BINARY_SPILL_THRESHOLD = "org.glassfish.jaxb.binarySpillThreshold";
+
+    /**
+     * If true, the text of an element read from a coalescing {@link javax.xml.stream.XMLStreamReader}
+     * is passed to the unmarshaller as a view over the reader's own character array,
+     * instead of being copied into a buffer first.
+     * The text of an element must then not be interrupted by comments or processing instructions:
+     * such text is reported as a fatal error, since only its first part can be read, and the rest
+     * of the document is then read without this mode.
+     * The default value is false.
+     *
+     * Boolean
+     * @since 4.0.1
+     */
+    public static final String ZERO_COPY_TEXT = "org.glassfish.jaxb.zeroCopyText";
+
+    /**
+     * If true, the context is created as fast as possible, at the expense of the
+     * marshalling and unmarshalling performance: accessors are not optimized, and
+     * annotations are read from the {@link org.glassfish.jaxb.runtime.v2.model.annotation.AnnotationSnapshot}s
+     * of the packages that have one, instead of through reflection.
+     * If the property is not set, the {@code org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl.fastBoot}
+     * system property still turns off the accessor optimization, as it always did,
+     * but snapshots are only read when this property is true.
+     *
+     * Boolean
+     * @since 4.0.1
+     */
+    public static final String FAST_BOOT = "org.glassfish.jaxb.fastBoot";
+
+    /**
+     * If true, the classes of the context and the classes they refer to are loaded,
+     * and their fields, property methods and annotations read, on all cores of the common
+     * fork join pool before the model is built. This only pre-warms the class loading and
+     * reflection caches of the JDK; the model itself is still built by one thread.
+     * Whether this shortens the creation of a context depends on the classes and the
+     * processors available, so measure it before turning it on. It has no effect on
+     * machines with a single processor.
+     * The default value is false.
+     *
+     * Boolean
+     * @since 4.0.1
+     */
+    public static final String PREWARM_REFLECTION = "org.glassfish.jaxb.prewarmReflection";
+
+    /**
+     * If true, the unmarshaller loaders of a class are built the first time the class
+     * is unmarshalled, instead of when the context is created. This makes contexts with
+     * many classes faster to create, and smaller when only some of the classes are
+     * ever unmarshalled. Loaders are built once per context, by the first thread that needs them.
+     * The default value is false.
+     *
+     * Boolean
+     * @since 4.0.1
+     */
+    public static final String LAZY_BEAN_INFO = "org.glassfish.jaxb.lazyBeanInfo";
+
+    /**
+     * If true, the context keeps its metadata in smaller data structures, and
+     * drops what is only needed to build it as soon as it is created. Lookups are
+     * as fast, but the metadata is no longer kept in declaration order, and the model
+     * has to be built again when it is asked for, for example to generate a schema.
+     * The default value is false.
+     *
+     * Boolean
+     * @since 4.0.1
+     */
+    public static final String COMPACT_METADATA = "org.glassfish.jaxb.compactMetadata";
+
+    /**
+     * The maximum number of marshallers, and of unmarshallers, kept by the pools of the context
+     * for {@link #borrowMarshaller()}, {@link #borrowUnmarshaller()} and the {@link Bridge}s.
+     * More of them can be borrowed at the same time, but the extra ones are not kept
+     * when they are given back. Use zero to not keep any.
+     * The default value is twice the number of processors.
+     *
+     * Integer
+     * @since 4.0.1
+     */
+    public static final String POOL_SIZE = "org.glassfish.jaxb.poolSize";
+
+    /**
+     * If set to a number greater than one, the unmarshallers that have a
+     * {@link jakarta.xml.bind.Unmarshaller#setSchema(javax.xml.validation.Schema) schema}
+     * only validate one document out of this number, counted across the whole context.
+     * The other documents are unmarshalled without validation.
+     * The default value is 1, which validates every document.
+     *
+     * Integer
+     * @see org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshalMetrics#getSkippedValidationCount()
+     * @since 4.0.1
+     */
+    public static final String VALIDATION_SAMPLING = "org.glassfish.jaxb.validationSampling";
+
 }
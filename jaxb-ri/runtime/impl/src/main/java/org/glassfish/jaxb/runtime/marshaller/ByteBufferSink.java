@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.marshaller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Implemented by the user application to receive the marshalled document
+ * in {@link ByteBuffer}s, for example ones taken from a pool of direct buffers.
+ *
+ * <p>
+ * The marshaller asks for a buffer with {@link #getBuffer()}, writes into it
+ * between its position and its limit, and hands it back with {@link #write(ByteBuffer)}
+ * when it is full or the document is complete. The last buffer of a document is
+ * always handed back, even if nothing was written into it.
+ *
+ * <p>
+ * If the marshalling fails, the buffer the marshaller holds at that point is
+ * given back through {@link #release(ByteBuffer)} instead, so every buffer
+ * obtained from {@link #getBuffer()} comes back exactly once. With the encodings
+ * that go through a {@link java.io.Writer}, the partial document is flushed
+ * to {@link #write(ByteBuffer)} as it would be to an {@link java.io.OutputStream}.
+ *
+ * <p>
+ * When a buffer is backed by a writable array, the marshaller encodes into that
+ * array directly. Other buffers, such as direct ones, receive the bytes in bulk
+ * from a small buffer of the marshaller.
+ *
+ * @see org.glassfish.jaxb.runtime.v2.runtime.MarshallerImpl#marshal(Object, ByteBufferSink)
+ * @since 4.0.1
+ */
+public interface ByteBufferSink {
+
+    /**
+     * Returns the buffer to write into next.
+     *
+     * @return
+     *      a buffer with at least one byte remaining. The marshaller owns it
+     *      until it is passed to {@link #write(ByteBuffer)}.
+     */
+    ByteBuffer getBuffer() throws IOException;
+
+    /**
+     * Receives a buffer obtained from {@link #getBuffer()}.
+     *
+     * @param buffer
+     *      the buffer, flipped. Its content is what it had before its original
+     *      position, followed by the bytes the marshaller wrote.
+     *      The marshaller doesn't touch it afterwards.
+     */
+    void write(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Receives a buffer obtained from {@link #getBuffer()} that the marshaller
+     * gives up without writing it, because the marshalling failed.
+     *
+     * <p>
+     * The default implementation does nothing. Sinks that take their buffers
+     * from a pool should return the buffer to it.
+     *
+     * @param buffer
+     *      the buffer, with an undefined position and content.
+     */
+    default void release(ByteBuffer buffer) {
+    }
+
+    /**
+     * Creates a sink that writes everything to a channel, using a single buffer.
+     *
+     * @param channel
+     *      a channel in blocking mode. It is not closed.
+     * @param buffer
+     *      the buffer to write into, which is cleared each time it has been written.
+     */
+    static ByteBufferSink forChannel(WritableByteChannel channel, ByteBuffer buffer) {
+        return new ByteBufferSink() {
+            @Override
+            public ByteBuffer getBuffer() {
+                buffer.clear();
+                return buffer;
+            }
+
+            @Override
+            public void write(ByteBuffer b) throws IOException {
+                while (b.hasRemaining())
+                    channel.write(b);
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.marshaller;
+
+import org.glassfish.jaxb.core.marshaller.CharacterEscapeHandler;
+
+/**
+ * {@link CharacterEscapeHandler} that describes its escaping of ASCII characters
+ * as bytes, so that the UTF-8 marshaller can escape without going through a
+ * {@link java.io.Writer}.
+ *
+ * <p>
+ * When such a handler is set with the {@code org.glassfish.jaxb.characterEscapeHandler}
+ * property and the output is UTF-8, or another encoding that encodes ASCII the same way,
+ * {@link #escape(char, boolean)} is asked once for each ASCII character when a document
+ * is started. Characters outside ASCII are never passed to the handler. Otherwise the
+ * handler is used like any other {@link CharacterEscapeHandler}, so the two methods
+ * should escape the same way.
+ *
+ * @since 4.0.1
+ */
+public interface UTF8EscapeHandler extends CharacterEscapeHandler {
+
+    /**
+     * Returns the bytes to write in place of an ASCII character.
+     *
+     * @param c
+     *      a character between 0 and 0x7F.
+     * @param isAttVal
+     *      true if the character is in an attribute value.
+     * @return
+     *      the replacement, such as {@code "&amp;"}, or null to write the character
+     *      as is. The replacement should be ASCII, so that it is written the same in
+     *      all these encodings. The array is not modified.
+     */
+    byte[] escape(char c, boolean isAttVal);
+}
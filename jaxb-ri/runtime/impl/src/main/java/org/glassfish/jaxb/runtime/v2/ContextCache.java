@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import org.glassfish.jaxb.core.Utils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide cache of the contexts created by {@link ContextFactory}.
+ *
+ * <p>
+ * Libraries often call {@link JAXBContext#newInstance} every time they need a context,
+ * and every call builds the whole model again. Once this cache is enabled, calls with
+ * the same classes (or the same context path and class loader) and the same properties
+ * return the context that was created first. A {@link JAXBContext} is thread safe, so
+ * it can be shared by all of its callers.
+ *
+ * <p>
+ * The cache is disabled unless its size is set with the {@value #MAX_SIZE_PROPERTY}
+ * system property or with {@link #setMaxSize(int)}. It keeps at most that many contexts
+ * per class loader, evicting the least recently used ones. Contexts are held by the class
+ * loader of the classes they were created for, so they do not keep a redeployed
+ * application from being unloaded.
+ *
+ * <p>
+ * Only contexts whose properties are all strings, booleans or numbers are cached.
+ * Contexts created with an annotation reader, type references or subclass replacements
+ * are always built from scratch, as are contexts whose classes come from unrelated
+ * class loaders.
+ *
+ * @since 4.0.1
+ */
+public final class ContextCache {
+
+    /**
+     * System property that sets the initial {@link #getMaxSize() size} of the cache.
+     */
+    public static final String MAX_SIZE_PROPERTY = "org.glassfish.jaxb.runtime.v2.ContextCache.maxSize";
+
+    private static final ContextCache DEFAULT = new ContextCache(initialMaxSize());
+
+    private static int initialMaxSize() {
+        String size = Utils.getSystemProperty(MAX_SIZE_PROPERTY);
+        if (size == null)
+            return 0;
+        try {
+            return Math.max(0, Integer.parseInt(size.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Contexts of one class loader, least recently used first.
+     */
+    private static final class Bucket extends LinkedHashMap<Key,JAXBContext> {
+        private static final long serialVersionUID = 1L;
+
+        Bucket() {
+            super(16, 0.75f, true);
+        }
+    }
+
+    /**
+     * Keeps each bucket reachable from a class of its class loader, and from nothing else.
+     */
+    private static final ClassValue<Bucket[]> PIN = new ClassValue<Bucket[]>() {
+        @Override
+        protected Bucket[] computeValue(Class<?> type) {
+            return new Bucket[1];
+        }
+    };
+
+    private static final class Key {
+        /**
+         * Either the list of classes or the context path.
+         */
+        private final Object types;
+        private final Map<String,Object> properties;
+        private final int hash;
+
+        Key(Object types, Map<String,Object> properties) {
+            this.types = types;
+            this.properties = properties;
+            this.hash = 31 * types.hashCode() + properties.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key that = (Key) o;
+            return hash == that.hash && types.equals(that.types) && properties.equals(that.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Buckets by class loader. Only weakly references both.
+     */
+    private final Map<ClassLoader,WeakReference<Bucket>> buckets = new WeakHashMap<>();
+
+    /**
+     * Contexts of the bootstrap class loader, which is never unloaded.
+     */
+    private final Bucket bootstrapBucket = new Bucket();
+
+    private volatile int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ContextCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the cache used by {@link ContextFactory}.
+     */
+    public static ContextCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the maximum number of contexts kept per class loader.
+     * Zero means the cache is disabled.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of contexts kept per class loader.
+     * Zero disables the cache, and drops all the contexts it holds.
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException(String.valueOf(maxSize));
+        this.maxSize = maxSize;
+        if (maxSize == 0)
+            clear();
+    }
+
+    /**
+     * Gets the number of requests that returned a cached context.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cacheable requests that had to create a new context.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of contexts dropped because their class loader reached the maximum size.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Sets all the counters back to zero.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Gets the number of contexts currently cached.
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Bucket b : buckets()) {
+            synchronized (b) {
+                size += b.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Drops all the cached contexts.
+     */
+    public synchronized void clear() {
+        for (Bucket b : buckets()) {
+            synchronized (b) {
+                b.clear();
+            }
+        }
+    }
+
+    private Set<Bucket> buckets() {
+        // several class loaders may share a bucket
+        Set<Bucket> r = Collections.newSetFromMap(new IdentityHashMap<>());
+        r.add(bootstrapBucket);
+        for (WeakReference<Bucket> ref : buckets.values()) {
+            Bucket b = ref.get();
+            if (b != null)
+                r.add(b);
+        }
+        return r;
+    }
+
+    /**
+     * Creates a context on a cache miss.
+     */
+    interface Factory {
+        JAXBContext create(Class[] classes) throws JAXBException;
+    }
+
+    /**
+     * Resolves a context path to its classes.
+     */
+    interface ClassResolver {
+        Class[] resolve() throws JAXBException;
+    }
+
+    /**
+     * Gets the context for the given classes, creating it if it is not cached.
+     */
+    JAXBContext get(Class[] classes, Map<String,Object> properties, Factory factory) throws JAXBException {
+        if (maxSize == 0 || !isCacheable(properties))
+            return factory.create(classes);
+
+        Class<?> anchor = anchorOf(classes);
+        if (anchor == null)
+            return factory.create(classes);
+
+        Key key = new Key(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(classes))), copy(properties));
+        ClassLoader loader = SecureLoader.getClassClassLoader(anchor);
+
+        Bucket bucket = bucket(loader, anchor);
+        JAXBContext context = lookup(bucket, key);
+        if (context == null)
+            context = put(bucket, key, factory.create(classes));
+        return context;
+    }
+
+    /**
+     * Gets the context for the given context path, creating it if it is not cached.
+     *
+     * <p>
+     * The context is only cached if the class loader defines at least one of its classes.
+     */
+    JAXBContext get(String contextPath, ClassLoader classLoader, Map<String,Object> properties,
+                    ClassResolver resolver, Factory factory) throws JAXBException {
+        if (maxSize == 0 || classLoader == null || !isCacheable(properties))
+            return factory.create(resolver.resolve());
+
+        Key key = new Key(contextPath, copy(properties));
+        Bucket bucket = bucket(classLoader, null);
+        JAXBContext context = bucket == null ? null : lookup(bucket, key);
+        if (context != null)
+            return context;
+
+        Class[] classes = resolver.resolve();
+        context = factory.create(classes);
+        if (bucket == null) {
+            for (Class<?> c : classes) {
+                if (SecureLoader.getClassClassLoader(c) == classLoader) {
+                    bucket = bucket(classLoader, c);
+                    break;
+                }
+            }
+            if (bucket == null)
+                return context;
+        }
+        return put(bucket, key, context);
+    }
+
+    private JAXBContext lookup(Bucket bucket, Key key) {
+        JAXBContext context;
+        synchronized (bucket) {
+            context = bucket.get(key);
+        }
+        if (context != null)
+            hits.increment();
+        else
+            misses.increment();
+        return context;
+    }
+
+    /**
+     * Adds a context that was created after a miss.
+     * Contexts are built outside of any lock, so another thread may have added one meanwhile.
+     *
+     * @return the context to use.
+     */
+    private JAXBContext put(Bucket bucket, Key key, JAXBContext context) {
+        synchronized (bucket) {
+            JAXBContext existing = bucket.putIfAbsent(key, context);
+            if (existing != null)
+                return existing;
+            Iterator<JAXBContext> it = bucket.values().iterator();
+            for (int n = bucket.size() - maxSize; n > 0 && it.hasNext(); n--) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Gets the bucket of a class loader.
+     *
+     * @param anchor
+     *      a class defined by the loader, that keeps a new bucket reachable.
+     *      If null, no new bucket is created.
+     */
+    private synchronized Bucket bucket(ClassLoader loader, Class<?> anchor) {
+        if (loader == null)
+            return bootstrapBucket;
+        WeakReference<Bucket> ref = buckets.get(loader);
+        Bucket bucket = ref == null ? null : ref.get();
+        if (bucket == null && anchor != null) {
+            Bucket[] pin = PIN.get(anchor);
+            bucket = pin[0];
+            if (bucket == null)
+                bucket = pin[0] = new Bucket();
+            buckets.put(loader, new WeakReference<>(bucket));
+        }
+        return bucket;
+    }
+
+    /**
+     * Finds the class whose class loader sees all the other classes.
+     *
+     * @return null if the classes come from unrelated class loaders.
+     */
+    private static Class<?> anchorOf(Class[] classes) {
+        Class<?> anchor = null;
+        ClassLoader loader = null;
+        for (Class<?> c : classes) {
+            if (c == null)
+                return null;
+            ClassLoader l = SecureLoader.getClassClassLoader(c);
+            if (anchor == null || isAncestor(loader, l)) {
+                anchor = c;
+                loader = l;
+            } else if (!isAncestor(l, loader)) {
+                return null;
+            }
+        }
+        return anchor;
+    }
+
+    /**
+     * Checks if {@code ancestor} is {@code loader} or one of its parents.
+     * The bootstrap class loader ({@code null}) is the ancestor of all class loaders.
+     */
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        if (ancestor == null)
+            return true;
+        for (ClassLoader l = loader; l != null; l = SecureLoader.getParentClassLoader(l))
+            if (l == ancestor)
+                return true;
+        return false;
+    }
+
+    private static boolean isCacheable(Map<String,Object> properties) {
+        if (properties == null)
+            return true;
+        for (Object v : properties.values())
+            if (v != null && !(v instanceof String || v instanceof Boolean || v instanceof Number))
+                return false;
+        return true;
+    }
+
+    private static Map<String,Object> copy(Map<String,Object> properties) {
+        if (properties == null || properties.isEmpty())
+            return Collections.emptyMap();
+        return Collections.unmodifiableMap(new HashMap<>(properties));
+    }
+}
@@ -49,6 +49,10 @@ public class ContextFactory {
      * The API will invoke this method via reflection
      */
     public static JAXBContext createContext(Class[] classes, Map<String,Object> properties ) throws JAXBException {
+        return ContextCache.getDefault().get(classes, properties, c -> newContext(c, properties));
+    }
+
+    private static JAXBContext newContext(Class[] classes, Map<String,Object> properties) throws JAXBException {
         MUtils.open(classes);
         // fool-proof check, and copy the map to make it easier to find unrecognized properties.
         if(properties==null)
@@ -97,6 +101,10 @@ public class ContextFactory {
                 "is not active.  Using JAXB's implementation");
         }
 
+        Boolean disableAccessorOptimization = getPropertyValue(properties, JAXBRIContext.DISABLE_ACCESSOR_OPTIMIZATION, Boolean.class);
+        if (disableAccessorOptimization == null)
+            disableAccessorOptimization = false;
+
         Boolean backupWithParentNamespace = getPropertyValue(properties, JAXBRIContext.BACKUP_WITH_PARENT_NAMESPACE, Boolean.class);
 
         RuntimeAnnotationReader ar = getPropertyValue(properties,JAXBRIContext.ANNOTATION_READER,RuntimeAnnotationReader.class);
@@ -122,6 +130,36 @@ public class ContextFactory {
             maxErrorsCount = Integer.MAX_VALUE;
         }
 
+        Boolean unmarshalMetrics = getPropertyValue(properties, JAXBRIContext.UNMARSHAL_METRICS, Boolean.class);
+        if (unmarshalMetrics == null)
+            unmarshalMetrics = false;
+
+        Integer binarySpillThreshold = getPropertyValue(properties, JAXBRIContext.BINARY_SPILL_THRESHOLD, Integer.class);
+
+        Boolean zeroCopyText = getPropertyValue(properties, JAXBRIContext.ZERO_COPY_TEXT, Boolean.class);
+        if (zeroCopyText == null)
+            zeroCopyText = false;
+
+        Boolean fastBoot = getPropertyValue(properties, JAXBRIContext.FAST_BOOT, Boolean.class);
+
+        Boolean prewarmReflection = getPropertyValue(properties, JAXBRIContext.PREWARM_REFLECTION, Boolean.class);
+        if (prewarmReflection == null)
+            prewarmReflection = false;
+
+        Boolean lazyBeanInfo = getPropertyValue(properties, JAXBRIContext.LAZY_BEAN_INFO, Boolean.class);
+        if (lazyBeanInfo == null)
+            lazyBeanInfo = false;
+
+        Boolean compactMetadata = getPropertyValue(properties, JAXBRIContext.COMPACT_METADATA, Boolean.class);
+        if (compactMetadata == null)
+            compactMetadata = false;
+
+        Integer poolSize = getPropertyValue(properties, JAXBRIContext.POOL_SIZE, Integer.class);
+
+        Integer validationSampling = getPropertyValue(properties, JAXBRIContext.VALIDATION_SAMPLING, Integer.class);
+        if (validationSampling == null)
+            validationSampling = 1;
+
         if(!properties.isEmpty()) {
             throw new JAXBException(Messages.UNSUPPORTED_PROPERTY.format(properties.keySet().iterator().next()));
         }
@@ -139,8 +177,18 @@ public class ContextFactory {
         builder.setSupressAccessorWarnings(supressAccessorWarnings);
         builder.setImprovedXsiTypeHandling(improvedXsiTypeHandling);
         builder.setDisableSecurityProcessing(disablesecurityProcessing);
+        builder.setDisableAccessorOptimization(disableAccessorOptimization);
         builder.setBackupWithParentNamespace(backupWithParentNamespace);
         builder.setMaxErrorsCount(maxErrorsCount);
+        builder.setUnmarshalMetrics(unmarshalMetrics);
+        builder.setBinarySpillThreshold(binarySpillThreshold);
+        builder.setZeroCopyText(zeroCopyText);
+        builder.setFastBoot(fastBoot);
+        builder.setPrewarmReflection(prewarmReflection);
+        builder.setLazyBeanInfo(lazyBeanInfo);
+        builder.setCompactMetadata(compactMetadata);
+        builder.setPoolSize(poolSize);
+        builder.setValidationSampling(validationSampling);
         return builder.build();
     }
 
@@ -203,6 +251,14 @@ public class ContextFactory {
      */
     public static JAXBContext createContext( String contextPath,
                                              ClassLoader classLoader, Map<String,Object> properties ) throws JAXBException {
+        return ContextCache.getDefault().get(contextPath, classLoader, properties,
+                () -> loadClasses(contextPath, classLoader), c -> newContext(c, properties));
+    }
+
+    /**
+     * Loads the {@code ObjectFactory} and the {@code jaxb.index} classes of every package of the context path.
+     */
+    private static Class[] loadClasses(String contextPath, ClassLoader classLoader) throws JAXBException {
         FinalArrayList<Class> classes = new FinalArrayList<>();
         StringTokenizer tokens = new StringTokenizer(contextPath,":");
         List<Class> indexedClasses;
@@ -242,8 +298,7 @@ public class ContextFactory {
             }
         }
 
-
-        return createContext(classes.toArray(new Class[0]),properties);
+        return classes.toArray(new Class[0]);
     }
 
     /**
@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.model.annotation;
+
+import jakarta.xml.bind.JAXBException;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.ContextFactory;
+import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeTypeInfoSet;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+/**
+ * Annotations of the classes of one package, recorded at build time so that
+ * {@link SnapshotAnnotationReader} does not have to read them through reflection.
+ *
+ * <p>
+ * A snapshot is stored as the {@value #RESOURCE_NAME} resource of its package,
+ * next to {@code jaxb.index}. It holds every runtime visible annotation of the
+ * package, of its classes (including the inherited ones) and of their declared
+ * fields and methods. Members without annotations are not recorded.
+ *
+ * <p>
+ * Each class is recorded with a fingerprint of its class file. A class whose
+ * class file no longer matches is not read from the snapshot, so a snapshot
+ * that wasn't written again after a change only costs the reflective scan.
+ * The fingerprint is the CRC-32 of the class file, which a jar already records,
+ * so the class files of a jar are not read to check it.
+ *
+ * <p>
+ * Snapshots are written by {@link #write(File, Class[])}, or by running this class
+ * after the classes are compiled, for example in the {@code process-classes} phase:
+ * <pre>
+ * java -cp ... org.glassfish.jaxb.runtime.v2.model.annotation.AnnotationSnapshot target/classes com.acme.po.PurchaseOrder ...
+ * </pre>
+ * The classes are the ones a {@link jakarta.xml.bind.JAXBContext} would be created for.
+ * The model is built from them once, and a snapshot is written for every package
+ * the model reaches. Snapshots are only used by contexts created with
+ * {@link JAXBRIContext#FAST_BOOT}, and they must be written again whenever the classes change.
+ *
+ * @since 4.0.1
+ */
+public final class AnnotationSnapshot {
+
+    /**
+     * Name of the resource, relative to the package.
+     */
+    public static final String RESOURCE_NAME = "jaxb.snapshot";
+
+    private static final int MAGIC = 0x4a584253; // "JXBS"
+    private static final int VERSION = 3;
+
+    /**
+     * Annotations of the package itself.
+     */
+    final AnnotationData[] packageAnnotations;
+
+    /**
+     * Recorded classes, keyed by their name.
+     */
+    final Map<String,ClassData> classes;
+
+    private AnnotationSnapshot(AnnotationData[] packageAnnotations, Map<String,ClassData> classes) {
+        this.packageAnnotations = packageAnnotations;
+        this.classes = classes;
+    }
+
+    /**
+     * Recorded annotations of a class and of its members.
+     */
+    static final class ClassData {
+        /**
+         * @see #fingerprint(Class)
+         */
+        final long fingerprint;
+        final AnnotationData[] annotations;
+        /**
+         * Keyed by the field name.
+         */
+        final Map<String,AnnotationData[]> fields;
+        /**
+         * Keyed by {@link #methodKey(Method)}.
+         */
+        final Map<String,AnnotationData[]> methods;
+
+        ClassData(long fingerprint, AnnotationData[] annotations, Map<String,AnnotationData[]> fields, Map<String,AnnotationData[]> methods) {
+            this.fingerprint = fingerprint;
+            this.annotations = annotations;
+            this.fields = fields;
+            this.methods = methods;
+        }
+    }
+
+    /**
+     * An annotation, with the values of the members that are not set to their default.
+     *
+     * <p>
+     * Values are kept in the form they are read in: boxed primitives, {@link String}s,
+     * {@link ClassRef}s, {@link EnumRef}s, nested {@link AnnotationData} and {@code Object[]}
+     * for arrays. They are converted once the member types are known.
+     */
+    static final class AnnotationData {
+        final String type;
+        final String[] names;
+        final Object[] values;
+
+        AnnotationData(String type, String[] names, Object[] values) {
+            this.type = type;
+            this.names = names;
+            this.values = values;
+        }
+    }
+
+    static final class ClassRef {
+        final String name;
+
+        ClassRef(String name) {
+            this.name = name;
+        }
+    }
+
+    static final class EnumRef {
+        final String name;
+
+        EnumRef(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Key of a method within its class: the name and the parameter types.
+     */
+    static String methodKey(Method m) {
+        Class<?>[] params = m.getParameterTypes();
+        if (params.length == 0)
+            return m.getName();
+        StringBuilder sb = new StringBuilder(m.getName()).append('(');
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(params[i].getName());
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Returns the CRC-32 of the class file of the given class,
+     * or -1 if the class file can't be read.
+     * For a class in a jar, this is the CRC-32 of its jar entry.
+     */
+    static long fingerprint(Class<?> c) {
+        ClassLoader cl = SecureLoader.getClassClassLoader(c);
+        if (cl == null)
+            return -1;
+        URL url = cl.getResource(c.getName().replace('.', '/') + ".class");
+        if (url == null)
+            return -1;
+        try {
+            URLConnection con = url.openConnection();
+            if (con instanceof JarURLConnection) {
+                // from the central directory of the jar, which is already open
+                JarEntry entry = ((JarURLConnection) con).getJarEntry();
+                if (entry != null && entry.getCrc() != -1)
+                    return entry.getCrc();
+            }
+            try (InputStream in = con.getInputStream()) {
+                CRC32 crc = new CRC32();
+                crc.update(in.readAllBytes());
+                return crc.getValue();
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Builds the model of the given classes and writes a snapshot for every package it reaches.
+     *
+     * @param outputDirectory
+     *      root of the class output directory. Snapshots are written to
+     *      the package directories below it.
+     * @return
+     *      the snapshot files that were written.
+     */
+    public static List<File> write(File outputDirectory, Class<?>... classes) throws JAXBException, IOException {
+        JAXBContextImpl context = (JAXBContextImpl) ContextFactory.createContext(classes, Collections.emptyMap());
+        RuntimeTypeInfoSet typeSet = context.getTypeInfoSet();
+
+        Set<Class<?>> all = new LinkedHashSet<>();
+        for (Class<?> c : typeSet.beans().keySet())
+            addWithSuperclasses(all, c);
+        for (Class<?> c : typeSet.enums().keySet())
+            addWithSuperclasses(all, c);
+
+        // one snapshot per package
+        Map<Package,List<Class<?>>> packages = new HashMap<>();
+        for (Class<?> c : all) {
+            Package p = c.getPackage();
+            if (p != null && !c.isArray())
+                packages.computeIfAbsent(p, k -> new ArrayList<>()).add(c);
+        }
+
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<Package,List<Class<?>>> e : packages.entrySet()) {
+            File dir = new File(outputDirectory, e.getKey().getName().replace('.', File.separatorChar));
+            if (!dir.isDirectory() && !dir.mkdirs())
+                throw new IOException(dir.getPath());
+            File file = new File(dir, RESOURCE_NAME);
+            try (OutputStream out = new FileOutputStream(file)) {
+                write(e.getKey(), e.getValue(), out);
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static void addWithSuperclasses(Set<Class<?>> all, Class<?> c) {
+        for (; c != null && c != Object.class; c = c.getSuperclass())
+            all.add(c);
+    }
+
+    /**
+     * Writes the snapshot of the given classes of a package.
+     */
+    static void write(Package pkg, Collection<Class<?>> classes, OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        writeAnnotations(out, pkg.getAnnotations());
+
+        // classes that can't be checked against their class file would never be used
+        List<Class<?>> recorded = new ArrayList<>(classes.size());
+        List<Long> fingerprints = new ArrayList<>(classes.size());
+        for (Class<?> c : classes) {
+            long fingerprint = fingerprint(c);
+            if (fingerprint != -1) {
+                recorded.add(c);
+                fingerprints.add(fingerprint);
+            }
+        }
+
+        out.writeInt(recorded.size());
+        for (int i = 0; i < recorded.size(); i++) {
+            Class<?> c = recorded.get(i);
+            out.writeUTF(c.getName());
+            out.writeLong(fingerprints.get(i));
+            writeAnnotations(out, c.getAnnotations());
+
+            List<Field> fields = new ArrayList<>();
+            for (Field f : c.getDeclaredFields())
+                if (f.getAnnotations().length > 0)
+                    fields.add(f);
+            out.writeInt(fields.size());
+            for (Field f : fields) {
+                out.writeUTF(f.getName());
+                writeAnnotations(out, f.getAnnotations());
+            }
+
+            List<Method> methods = new ArrayList<>();
+            for (Method m : c.getDeclaredMethods())
+                if (m.getAnnotations().length > 0)
+                    methods.add(m);
+            out.writeInt(methods.size());
+            for (Method m : methods) {
+                out.writeUTF(methodKey(m));
+                writeAnnotations(out, m.getAnnotations());
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeAnnotations(DataOutputStream out, Annotation[] annotations) throws IOException {
+        out.writeShort(annotations.length);
+        for (Annotation a : annotations)
+            writeAnnotation(out, a);
+    }
+
+    private static void writeAnnotation(DataOutputStream out, Annotation a) throws IOException {
+        Class<? extends Annotation> type = a.annotationType();
+        // sorted, so that the output does not depend on the reflection order
+        Map<String,Object> values = new TreeMap<>();
+        Method[] members = type.getDeclaredMethods();
+        Arrays.sort(members, Comparator.comparing(Method::getName));
+        for (Method m : members) {
+            if (m.getParameterCount() != 0)
+                continue;
+            try {
+                m.setAccessible(true);
+                Object v = m.invoke(a);
+                // defaults are taken from the annotation type when it is read
+                if (!Objects.deepEquals(v, m.getDefaultValue()))
+                    values.put(m.getName(), v);
+            } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+                throw new IOException(Messages.ANNOTATION_NOT_RECORDED.format(type.getName(), m.getName()), e);
+            }
+        }
+
+        out.writeUTF(type.getName());
+        out.writeShort(values.size());
+        for (Map.Entry<String,Object> e : values.entrySet()) {
+            out.writeUTF(e.getKey());
+            writeValue(out, e.getValue());
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object v) throws IOException {
+        if (v instanceof String) {
+            out.writeByte('s');
+            out.writeUTF((String) v);
+        } else if (v instanceof Class) {
+            out.writeByte('c');
+            out.writeUTF(((Class<?>) v).getName());
+        } else if (v instanceof Enum) {
+            out.writeByte('e');
+            out.writeUTF(((Enum<?>) v).name());
+        } else if (v instanceof Annotation) {
+            out.writeByte('@');
+            writeAnnotation(out, (Annotation) v);
+        } else if (v.getClass().isArray()) {
+            int len = Array.getLength(v);
+            out.writeByte('[');
+            out.writeInt(len);
+            for (int i = 0; i < len; i++)
+                writeValue(out, Array.get(v, i));
+        } else if (v instanceof Boolean) {
+            out.writeByte('Z');
+            out.writeBoolean((Boolean) v);
+        } else if (v instanceof Byte) {
+            out.writeByte('B');
+            out.writeByte((Byte) v);
+        } else if (v instanceof Character) {
+            out.writeByte('C');
+            out.writeChar((Character) v);
+        } else if (v instanceof Short) {
+            out.writeByte('S');
+            out.writeShort((Short) v);
+        } else if (v instanceof Integer) {
+            out.writeByte('I');
+            out.writeInt((Integer) v);
+        } else if (v instanceof Long) {
+            out.writeByte('J');
+            out.writeLong((Long) v);
+        } else if (v instanceof Float) {
+            out.writeByte('F');
+            out.writeFloat((Float) v);
+        } else if (v instanceof Double) {
+            out.writeByte('D');
+            out.writeDouble((Double) v);
+        } else {
+            // not a legal annotation member type
+            throw new IOException(v.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(Package, Collection, OutputStream)}.
+     *
+     * @throws IOException
+     *      if the data is not a snapshot of a supported version.
+     */
+    static AnnotationSnapshot read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC || in.readShort() != VERSION)
+            throw new IOException(Messages.INVALID_ANNOTATION_SNAPSHOT.format());
+
+        AnnotationData[] pkg = readAnnotations(in);
+        int classCount = in.readInt();
+        Map<String,ClassData> classes = new HashMap<>(classCount * 2);
+        for (int i = 0; i < classCount; i++) {
+            String name = in.readUTF();
+            long fingerprint = in.readLong();
+            AnnotationData[] annotations = readAnnotations(in);
+            Map<String,AnnotationData[]> fields = readMembers(in);
+            Map<String,AnnotationData[]> methods = readMembers(in);
+            classes.put(name, new ClassData(fingerprint, annotations, fields, methods));
+        }
+        return new AnnotationSnapshot(pkg, classes);
+    }
+
+    private static Map<String,AnnotationData[]> readMembers(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count == 0)
+            return Collections.emptyMap();
+        Map<String,AnnotationData[]> members = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            members.put(key, readAnnotations(in));
+        }
+        return members;
+    }
+
+    private static AnnotationData[] readAnnotations(DataInputStream in) throws IOException {
+        AnnotationData[] r = new AnnotationData[in.readShort()];
+        for (int i = 0; i < r.length; i++)
+            r[i] = readAnnotation(in);
+        return r;
+    }
+
+    private static AnnotationData readAnnotation(DataInputStream in) throws IOException {
+        String type = in.readUTF();
+        int count = in.readShort();
+        String[] names = new String[count];
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = in.readUTF();
+            values[i] = readValue(in);
+        }
+        return new AnnotationData(type, names, values);
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case 's': return in.readUTF();
+            case 'c': return new ClassRef(in.readUTF());
+            case 'e': return new EnumRef(in.readUTF());
+            case '@': return readAnnotation(in);
+            case '[':
+                Object[] a = new Object[in.readInt()];
+                for (int i = 0; i < a.length; i++)
+                    a[i] = readValue(in);
+                return a;
+            case 'Z': return in.readBoolean();
+            case 'B': return in.readByte();
+            case 'C': return in.readChar();
+            case 'S': return in.readShort();
+            case 'I': return in.readInt();
+            case 'J': return in.readLong();
+            case 'F': return in.readFloat();
+            case 'D': return in.readDouble();
+            default:
+                throw new IOException(Messages.INVALID_ANNOTATION_SNAPSHOT.format());
+        }
+    }
+
+    /**
+     * Writes the snapshots of the classes given as arguments.
+     *
+     * <p>
+     * Usage: {@code AnnotationSnapshot <output directory> <class name>...}
+     * The classes are loaded from the context class loader.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: AnnotationSnapshot <output directory> <class name>...");
+            System.exit(1);
+            return;
+        }
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        Class<?>[] classes = new Class<?>[args.length - 1];
+        for (int i = 1; i < args.length; i++)
+            classes[i - 1] = Class.forName(args[i], false, cl);
+        for (File f : write(new File(args[0]), classes))
+            System.out.println(f);
+    }
+}
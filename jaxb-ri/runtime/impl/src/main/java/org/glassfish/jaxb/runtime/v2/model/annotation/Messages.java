@@ -19,7 +19,12 @@ import java.util.ResourceBundle;
 enum Messages {
     // AnnotationParser
     DUPLICATE_ANNOTATIONS,
-    CLASS_NOT_FOUND
+    CLASS_NOT_FOUND,
+
+    // AnnotationSnapshot
+    ANNOTATION_NOT_RECORDED,
+    INVALID_ANNOTATION_SNAPSHOT,
+    STALE_ANNOTATION_SNAPSHOT
     ;
 
     private static final ResourceBundle rb = ResourceBundle.getBundle(Messages.class.getName());
@@ -16,6 +16,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.glassfish.jaxb.core.v2.model.annotation.Locatable;
@@ -153,18 +154,42 @@ public final class RuntimeInlineAnnotationReader extends AbstractInlineAnnotatio
 
 	@Override
 	public <A extends Annotation> A getRecordComponentAnnotation(Class<A> annotation, Object rc, Locatable srcpos) {
-        return LocatableAnnotation.create(((RecordComponentProxy) rc).getAnnotation(annotation),srcpos);
+        return LocatableAnnotation.create(getAnnotation(annotation, (RecordComponentProxy) rc),srcpos);
 
 	}
 
 	@Override
 	public Annotation[] getAllRecordComponentAnnotations(Object recordComponent, Locatable srcPos) {
-		return ((RecordComponentProxy) recordComponent).getAnnotations();
+		RecordComponentProxy rc = (RecordComponentProxy) recordComponent;
+		Method accessor = rc.getAccessor();
+		if (accessor == null) {
+			return rc.getAnnotations();
+		}
+		Map<Class<? extends Annotation>, Annotation> r = new LinkedHashMap<>();
+		for (Annotation a : rc.getAnnotations()) {
+			r.put(a.annotationType(), a);
+		}
+		for (Annotation a : accessor.getAnnotations()) {
+			r.putIfAbsent(a.annotationType(), a);
+		}
+		return r.values().toArray(new Annotation[0]);
 	}
 
 	@Override
 	public boolean hasRecordComponentAnnotation(Class<? extends Annotation> annotationType, Object rc) {
-		return ((RecordComponentProxy) rc).getAnnotation(annotationType)!=null;
+		return getAnnotation(annotationType, (RecordComponentProxy) rc)!=null;
 
 	}
+
+	/**
+	 * Annotations on a record component are only kept on the component if they can target it,
+	 * which the JAXB ones can't. They are propagated to the accessor method instead.
+	 */
+	private static <A extends Annotation> A getAnnotation(Class<A> annotation, RecordComponentProxy rc) {
+		A a = rc.getAnnotation(annotation);
+		if (a == null && rc.getAccessor() != null) {
+			a = rc.getAccessor().getAnnotation(annotation);
+		}
+		return a;
+	}
 }
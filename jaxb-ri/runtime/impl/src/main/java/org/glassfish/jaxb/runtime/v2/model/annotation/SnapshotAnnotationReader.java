@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.model.annotation;
+
+import org.glassfish.jaxb.core.v2.model.annotation.Locatable;
+import org.glassfish.jaxb.core.v2.model.core.ErrorHandler;
+import org.glassfish.jaxb.runtime.v2.model.annotation.AnnotationSnapshot.AnnotationData;
+import org.glassfish.jaxb.runtime.v2.model.annotation.AnnotationSnapshot.ClassData;
+import org.glassfish.jaxb.runtime.v2.model.annotation.AnnotationSnapshot.ClassRef;
+import org.glassfish.jaxb.runtime.v2.model.annotation.AnnotationSnapshot.EnumRef;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link RuntimeAnnotationReader} that reads annotations from the
+ * {@link AnnotationSnapshot}s of the packages, falling back to
+ * {@link RuntimeInlineAnnotationReader} for classes without one.
+ *
+ * <p>
+ * All the annotations of a class are created when the class is first asked for,
+ * and are then shared by all the lookups. Classes whose class file changed since
+ * the snapshot was written are read through reflection.
+ *
+ * @since 4.0.1
+ */
+public final class SnapshotAnnotationReader extends AbstractInlineAnnotationReaderImpl<Type,Class,Field,Method,Object>
+    implements RuntimeAnnotationReader {
+
+    private static final Logger logger = Logger.getLogger(SnapshotAnnotationReader.class.getName());
+
+    private static final Annotation[] EMPTY = new Annotation[0];
+
+    /**
+     * Marks packages without a snapshot.
+     */
+    private static final Object NO_SNAPSHOT = new Object();
+
+    /**
+     * Marks classes that are not in a snapshot.
+     */
+    private static final ClassAnnotations NOT_RECORDED = new ClassAnnotations(EMPTY, Collections.emptyMap(), Collections.emptyMap());
+
+    private final RuntimeInlineAnnotationReader fallback = new RuntimeInlineAnnotationReader();
+
+    /**
+     * {@link AnnotationSnapshot} or {@link #NO_SNAPSHOT}, keyed by the package.
+     */
+    private final Map<Package,Object> snapshots = new ConcurrentHashMap<>();
+
+    private final Map<Package,Annotation[]> packageAnnotations = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>,ClassAnnotations> classAnnotations = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     */
+    public SnapshotAnnotationReader() {}
+
+    private static final class ClassAnnotations {
+        final Annotation[] annotations;
+        final Map<String,Annotation[]> fields;
+        final Map<String,Annotation[]> methods;
+
+        ClassAnnotations(Annotation[] annotations, Map<String,Annotation[]> fields, Map<String,Annotation[]> methods) {
+            this.annotations = annotations;
+            this.fields = fields;
+            this.methods = methods;
+        }
+    }
+
+    /**
+     * Returns true if the annotations of the given class come from a snapshot.
+     */
+    public boolean isRecorded(Class<?> clazz) {
+        return get(clazz) != NOT_RECORDED;
+    }
+
+    @Override
+    public void setErrorHandler(ErrorHandler errorHandler) {
+        super.setErrorHandler(errorHandler);
+        fallback.setErrorHandler(errorHandler);
+    }
+
+    private AnnotationSnapshot snapshot(Class<?> clazz) {
+        Package p = clazz.getPackage();
+        if (p == null)
+            return null;
+        Object s = snapshots.computeIfAbsent(p, k -> load(clazz));
+        return s == NO_SNAPSHOT ? null : (AnnotationSnapshot) s;
+    }
+
+    private static Object load(Class<?> clazz) {
+        ClassLoader cl = SecureLoader.getClassClassLoader(clazz);
+        if (cl == null)
+            return NO_SNAPSHOT;
+        String resource = clazz.getPackage().getName().replace('.', '/') + '/' + AnnotationSnapshot.RESOURCE_NAME;
+        try (InputStream in = cl.getResourceAsStream(resource)) {
+            if (in == null)
+                return NO_SNAPSHOT;
+            return AnnotationSnapshot.read(in);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, resource, e);
+            return NO_SNAPSHOT;
+        }
+    }
+
+    private ClassAnnotations get(Class<?> clazz) {
+        ClassAnnotations r = classAnnotations.get(clazz);
+        if (r == null) {
+            r = create(clazz);
+            ClassAnnotations old = classAnnotations.putIfAbsent(clazz, r);
+            if (old != null)
+                r = old;
+        }
+        return r;
+    }
+
+    private ClassAnnotations create(Class<?> clazz) {
+        AnnotationSnapshot s = snapshot(clazz);
+        ClassData data = s == null ? null : s.classes.get(clazz.getName());
+        if (data == null)
+            return NOT_RECORDED;
+        if (data.fingerprint != AnnotationSnapshot.fingerprint(clazz)) {
+            logger.log(Level.WARNING, Messages.STALE_ANNOTATION_SNAPSHOT.format(clazz.getName()));
+            return NOT_RECORDED;
+        }
+
+        ClassLoader cl = SecureLoader.getClassClassLoader(clazz);
+        return new ClassAnnotations(create(data.annotations, cl), create(data.fields, cl), create(data.methods, cl));
+    }
+
+    private static Map<String,Annotation[]> create(Map<String,AnnotationData[]> members, ClassLoader cl) {
+        if (members.isEmpty())
+            return Collections.emptyMap();
+        Map<String,Annotation[]> r = new HashMap<>(members.size() * 2);
+        for (Map.Entry<String,AnnotationData[]> e : members.entrySet())
+            r.put(e.getKey(), create(e.getValue(), cl));
+        return r;
+    }
+
+    private static Annotation[] create(AnnotationData[] data, ClassLoader cl) {
+        if (data.length == 0)
+            return EMPTY;
+        List<Annotation> r = new ArrayList<>(data.length);
+        for (AnnotationData d : data) {
+            Annotation a = create(d, cl);
+            // like reflection does, ignore annotations whose type is gone
+            if (a != null)
+                r.add(a);
+        }
+        return r.toArray(EMPTY);
+    }
+
+    private static Annotation create(AnnotationData d, ClassLoader cl) {
+        Class<?> type;
+        try {
+            type = Class.forName(d.type, false, cl);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (!type.isAnnotation())
+            return null;
+
+        Members members = MEMBERS.get(type);
+        Object[] values = members.defaults.clone();
+        for (int i = 0; i < d.names.length; i++) {
+            int idx = members.indexOf(d.names[i]);
+            if (idx >= 0)
+                values[idx] = convert(d.values[i], members.types[idx], cl);
+        }
+
+        try {
+            return (Annotation) Proxy.newProxyInstance(SecureLoader.getClassClassLoader(type),
+                    new Class<?>[]{type}, new Handler(type, members, values));
+        } catch (IllegalArgumentException e) {
+            // annotation type not visible
+            return null;
+        }
+    }
+
+    /**
+     * Members of an annotation type, sorted by name.
+     */
+    private static final class Members {
+        final String[] names;
+        final Class<?>[] types;
+        final Object[] defaults;
+
+        Members(Class<?> type) {
+            Method[] methods = type.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            List<Method> members = new ArrayList<>(methods.length);
+            for (Method m : methods)
+                if (m.getParameterCount() == 0)
+                    members.add(m);
+            names = new String[members.size()];
+            types = new Class<?>[members.size()];
+            defaults = new Object[members.size()];
+            for (int i = 0; i < names.length; i++) {
+                Method m = members.get(i);
+                names[i] = m.getName();
+                types[i] = m.getReturnType();
+                defaults[i] = m.getDefaultValue();
+            }
+        }
+
+        int indexOf(String name) {
+            return Arrays.binarySearch(names, name);
+        }
+    }
+
+    private static final ClassValue<Members> MEMBERS = new ClassValue<Members>() {
+        @Override
+        protected Members computeValue(Class<?> type) {
+            return new Members(type);
+        }
+    };
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(Object raw, Class<?> type, ClassLoader cl) {
+        if (raw instanceof ClassRef) {
+            String name = ((ClassRef) raw).name;
+            try {
+                return loadClass(name, cl);
+            } catch (ClassNotFoundException e) {
+                return new MissingType(name, e);
+            }
+        }
+        if (raw instanceof EnumRef)
+            return Enum.valueOf((Class<? extends Enum>) type, ((EnumRef) raw).name);
+        if (raw instanceof AnnotationData)
+            return create((AnnotationData) raw, cl);
+        if (raw instanceof Object[]) {
+            Object[] items = (Object[]) raw;
+            Class<?> component = type.getComponentType();
+            Object r = Array.newInstance(component, items.length);
+            for (int i = 0; i < items.length; i++) {
+                Object item = convert(items[i], component, cl);
+                if (item instanceof MissingType)
+                    return item;
+                Array.set(r, i, item);
+            }
+            return r;
+        }
+        return raw;
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader cl) throws ClassNotFoundException {
+        switch (name) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "char": return char.class;
+            case "short": return short.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            case "void": return void.class;
+            default: return Class.forName(name, false, cl);
+        }
+    }
+
+    /**
+     * Value of a member of type {@link Class} whose class cannot be loaded.
+     * Reported when the member is read, the same way reflection does.
+     */
+    private static final class MissingType {
+        final String name;
+        final ClassNotFoundException cause;
+
+        MissingType(String name, ClassNotFoundException cause) {
+            this.name = name;
+            this.cause = cause;
+        }
+    }
+
+    /**
+     * Implements an annotation over the recorded values,
+     * following the contract of {@link Annotation}.
+     */
+    private static final class Handler implements InvocationHandler {
+        private final Class<?> type;
+        private final Members members;
+        private final Object[] values;
+
+        Handler(Class<?> type, Members members, Object[] values) {
+            this.type = type;
+            this.members = members;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (args != null && args.length != 0) {
+                if (args.length == 1 && name.equals("equals") && method.getParameterTypes()[0] == Object.class)
+                    return proxy == args[0] || equalsTo(args[0]);
+                throw new AssertionError(method);
+            }
+            int idx = members.indexOf(name);
+            if (idx < 0) {
+                switch (name) {
+                    case "annotationType": return type;
+                    case "hashCode": return hash();
+                    case "toString": return text();
+                    default: throw new AssertionError(method);
+                }
+            }
+            Object v = values[idx];
+            if (v instanceof MissingType) {
+                MissingType m = (MissingType) v;
+                throw new TypeNotPresentException(m.name, m.cause);
+            }
+            if (v != null && v.getClass().isArray() && Array.getLength(v) > 0)
+                v = cloneArray(v);
+            return v;
+        }
+
+        private boolean equalsTo(Object o) {
+            if (!type.isInstance(o))
+                return false;
+            for (int i = 0; i < values.length; i++) {
+                Object theirs;
+                try {
+                    theirs = type.getMethod(members.names[i]).invoke(o);
+                } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+                    return false;
+                }
+                if (!Objects.deepEquals(values[i], theirs))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * As defined by {@link Annotation#hashCode()}.
+         */
+        private int hash() {
+            int h = 0;
+            for (int i = 0; i < values.length; i++)
+                h += (127 * members.names[i].hashCode()) ^ valueHash(values[i]);
+            return h;
+        }
+
+        private String text() {
+            StringBuilder sb = new StringBuilder().append('@').append(type.getName()).append('(');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    sb.append(", ");
+                sb.append(members.names[i]).append('=');
+                Object v = values[i];
+                if (v != null && v.getClass().isArray()) {
+                    String str = Arrays.deepToString(new Object[]{v});
+                    sb.append(str, 1, str.length() - 1);
+                } else if (v instanceof MissingType) {
+                    sb.append(((MissingType) v).name);
+                } else {
+                    sb.append(v);
+                }
+            }
+            return sb.append(')').toString();
+        }
+    }
+
+    private static int valueHash(Object v) {
+        if (v == null || !v.getClass().isArray())
+            return Objects.hashCode(v);
+        if (v instanceof Object[]) return Arrays.hashCode((Object[]) v);
+        if (v instanceof boolean[]) return Arrays.hashCode((boolean[]) v);
+        if (v instanceof byte[]) return Arrays.hashCode((byte[]) v);
+        if (v instanceof char[]) return Arrays.hashCode((char[]) v);
+        if (v instanceof short[]) return Arrays.hashCode((short[]) v);
+        if (v instanceof int[]) return Arrays.hashCode((int[]) v);
+        if (v instanceof long[]) return Arrays.hashCode((long[]) v);
+        if (v instanceof float[]) return Arrays.hashCode((float[]) v);
+        return Arrays.hashCode((double[]) v);
+    }
+
+    private static Object cloneArray(Object v) {
+        int len = Array.getLength(v);
+        Object r = Array.newInstance(v.getClass().getComponentType(), len);
+        System.arraycopy(v, 0, r, 0, len);
+        return r;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends Annotation> A find(Annotation[] annotations, Class<A> type) {
+        if (annotations == null)
+            return null;
+        for (Annotation a : annotations)
+            if (a.annotationType() == type)
+                return (A) a;
+        return null;
+    }
+
+    private static Annotation[] wrap(Annotation[] annotations, Locatable srcPos) {
+        if (annotations == null)
+            return EMPTY;
+        Annotation[] r = new Annotation[annotations.length];
+        for (int i = 0; i < r.length; i++)
+            r[i] = LocatableAnnotation.create(annotations[i], srcPos);
+        return r;
+    }
+
+    @Override
+    public <A extends Annotation> A getFieldAnnotation(Class<A> annotation, Field field, Locatable srcPos) {
+        ClassAnnotations c = get(field.getDeclaringClass());
+        if (c == NOT_RECORDED)
+            return fallback.getFieldAnnotation(annotation, field, srcPos);
+        return LocatableAnnotation.create(find(c.fields.get(field.getName()), annotation), srcPos);
+    }
+
+    @Override
+    public boolean hasFieldAnnotation(Class<? extends Annotation> annotationType, Field field) {
+        ClassAnnotations c = get(field.getDeclaringClass());
+        if (c == NOT_RECORDED)
+            return fallback.hasFieldAnnotation(annotationType, field);
+        return find(c.fields.get(field.getName()), annotationType) != null;
+    }
+
+    @Override
+    public boolean hasClassAnnotation(Class clazz, Class<? extends Annotation> annotationType) {
+        ClassAnnotations c = get(clazz);
+        if (c == NOT_RECORDED)
+            return fallback.hasClassAnnotation(clazz, annotationType);
+        return find(c.annotations, annotationType) != null;
+    }
+
+    @Override
+    public Annotation[] getAllFieldAnnotations(Field field, Locatable srcPos) {
+        ClassAnnotations c = get(field.getDeclaringClass());
+        if (c == NOT_RECORDED)
+            return fallback.getAllFieldAnnotations(field, srcPos);
+        return wrap(c.fields.get(field.getName()), srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getMethodAnnotation(Class<A> annotation, Method method, Locatable srcPos) {
+        ClassAnnotations c = get(method.getDeclaringClass());
+        if (c == NOT_RECORDED)
+            return fallback.getMethodAnnotation(annotation, method, srcPos);
+        return LocatableAnnotation.create(find(c.methods.get(AnnotationSnapshot.methodKey(method)), annotation), srcPos);
+    }
+
+    @Override
+    public boolean hasMethodAnnotation(Class<? extends Annotation> annotation, Method method) {
+        ClassAnnotations c = get(method.getDeclaringClass());
+        if (c == NOT_RECORDED)
+            return fallback.hasMethodAnnotation(annotation, method);
+        return find(c.methods.get(AnnotationSnapshot.methodKey(method)), annotation) != null;
+    }
+
+    @Override
+    public Annotation[] getAllMethodAnnotations(Method method, Locatable srcPos) {
+        ClassAnnotations c = get(method.getDeclaringClass());
+        if (c == NOT_RECORDED)
+            return fallback.getAllMethodAnnotations(method, srcPos);
+        return wrap(c.methods.get(AnnotationSnapshot.methodKey(method)), srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getMethodParameterAnnotation(Class<A> annotation, Method method, int paramIndex, Locatable srcPos) {
+        // not recorded
+        return fallback.getMethodParameterAnnotation(annotation, method, paramIndex, srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getClassAnnotation(Class<A> a, Class clazz, Locatable srcPos) {
+        ClassAnnotations c = get(clazz);
+        if (c == NOT_RECORDED)
+            return fallback.getClassAnnotation(a, clazz, srcPos);
+        return LocatableAnnotation.create(find(c.annotations, a), srcPos);
+    }
+
+    @Override
+    public <A extends Annotation> A getPackageAnnotation(Class<A> a, Class clazz, Locatable srcPos) {
+        AnnotationSnapshot s = snapshot(clazz);
+        if (s == null)
+            return fallback.getPackageAnnotation(a, clazz, srcPos);
+        Annotation[] annotations = packageAnnotations.computeIfAbsent(clazz.getPackage(),
+                p -> create(s.packageAnnotations, SecureLoader.getClassClassLoader(clazz)));
+        return LocatableAnnotation.create(find(annotations, a), srcPos);
+    }
+
+    @Override
+    public Class getClassValue(Annotation a, String name) {
+        return fallback.getClassValue(a, name);
+    }
+
+    @Override
+    public Class[] getClassArrayValue(Annotation a, String name) {
+        return fallback.getClassArrayValue(a, name);
+    }
+
+    @Override
+    protected String fullName(Method m) {
+        return m.getDeclaringClass().getName()+'#'+m.getName();
+    }
+
+    @Override
+    public <A extends Annotation> A getRecordComponentAnnotation(Class<A> annotation, Object rc, Locatable srcpos) {
+        return fallback.getRecordComponentAnnotation(annotation, rc, srcpos);
+    }
+
+    @Override
+    public Annotation[] getAllRecordComponentAnnotations(Object recordComponent, Locatable srcPos) {
+        return fallback.getAllRecordComponentAnnotations(recordComponent, srcPos);
+    }
+
+    @Override
+    public boolean hasRecordComponentAnnotation(Class<? extends Annotation> annotationType, Object rc) {
+        return fallback.hasRecordComponentAnnotation(annotationType, rc);
+    }
+}
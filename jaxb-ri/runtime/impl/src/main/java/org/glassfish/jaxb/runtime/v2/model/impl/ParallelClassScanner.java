@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.model.impl;
+
+import jakarta.xml.bind.annotation.XmlRegistry;
+import jakarta.xml.bind.annotation.XmlSeeAlso;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pre-warms the class loading and reflection caches for the classes a model is going
+ * to be built from, on all cores, ahead of {@link ModelBuilder}.
+ *
+ * <p>
+ * This does not build any part of the model in parallel. {@link ModelBuilder} registers
+ * every type in the shared {@link TypeInfoSetImpl} while it builds it, so the model itself
+ * is built by one thread. What makes it slow for large class sets is mostly loading the
+ * classes, and reading their members and annotations through reflection. This scanner
+ * does that work in parallel, following the same references as the builder: super classes,
+ * the types of fields and of property getters and setters, {@link XmlSeeAlso}, class valued
+ * JAXB annotation members, and the factory methods of {@link XmlRegistry} classes.
+ * The JDK caches the results, so the builder finds them ready.
+ *
+ * <p>
+ * The types of other methods are not followed, since the builder never looks at them.
+ * The scan has no effect on the model. Errors are ignored here and reported
+ * by the builder when it reaches the same class.
+ *
+ * @since 4.0.1
+ */
+public final class ParallelClassScanner {
+
+    private static final Logger logger = Logger.getLogger(ParallelClassScanner.class.getName());
+
+    private static final String ANNOTATION_PACKAGE = XmlSeeAlso.class.getPackage().getName();
+
+    /**
+     * Class valued members of the JAXB annotations, by annotation type.
+     */
+    private static final ClassValue<Method[]> CLASS_MEMBERS = new ClassValue<Method[]>() {
+        @Override
+        protected Method[] computeValue(Class<?> type) {
+            List<Method> r = new ArrayList<>();
+            for (Method m : type.getDeclaredMethods()) {
+                Class<?> rt = m.getReturnType();
+                if (m.getParameterCount() == 0 && (rt == Class.class || rt == Class[].class
+                        || rt.isAnnotation() || (rt.isArray() && rt.getComponentType().isAnnotation())))
+                    r.add(m);
+            }
+            return r.toArray(new Method[0]);
+        }
+    };
+
+    private final Set<Class<?>> visited = ConcurrentHashMap.newKeySet();
+    private final Set<String> packages = ConcurrentHashMap.newKeySet();
+    private final Map<Class,Class> subclassReplacements;
+
+    private ParallelClassScanner(Map<Class,Class> subclassReplacements) {
+        this.subclassReplacements = subclassReplacements;
+    }
+
+    /**
+     * Scans the given classes and everything they refer to, and returns when done.
+     *
+     * @param subclassReplacements
+     *      same as the ones given to the {@link ModelBuilder}.
+     * @return
+     *      the classes that were scanned.
+     */
+    public static Set<Class<?>> scan(Collection<Class> classes, Map<Class,Class> subclassReplacements) {
+        ParallelClassScanner scanner = new ParallelClassScanner(subclassReplacements);
+        List<Class<?>> roots = new ArrayList<>();
+        for (Class c : classes)
+            scanner.add(roots, c);
+        scanner.new Task(null, null, roots).invoke();
+        return scanner.visited;
+    }
+
+    /**
+     * Visits one class, and forks a task for every class it refers to.
+     * Completes once all of them are done, so that references are not followed on the stack.
+     */
+    private final class Task extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Class<?> clazz;
+        private final transient List<Class<?>> found;
+
+        Task(Task parent, Class<?> clazz, List<Class<?>> found) {
+            super(parent);
+            this.clazz = clazz;
+            this.found = found;
+        }
+
+        @Override
+        public void compute() {
+            if (clazz != null) {
+                try {
+                    visit(clazz, found);
+                } catch (RuntimeException | LinkageError e) {
+                    // the builder reports it
+                    logger.log(Level.FINE, "Failed to scan " + clazz, e);
+                }
+            }
+            for (Class<?> c : found) {
+                addToPendingCount(1);
+                new Task(this, c, new ArrayList<>()).fork();
+            }
+            tryComplete();
+        }
+    }
+
+    /**
+     * Adds a class to the list of classes to visit, if it was not seen before.
+     */
+    private void add(List<Class<?>> r, Class<?> c) {
+        while (c.isArray())
+            c = c.getComponentType();
+        if (c.isPrimitive() || SecureLoader.getClassClassLoader(c) == null)
+            return; // JDK classes are leaves, or known to the runtime
+        if (visited.add(c)) {
+            r.add(c);
+            Class<?> replacement = subclassReplacements.get(c);
+            if (replacement != null)
+                add(r, replacement);
+        }
+    }
+
+    private void add(List<Class<?>> r, Type t) {
+        if (t instanceof Class) {
+            add(r, (Class<?>) t);
+        } else if (t instanceof ParameterizedType) {
+            ParameterizedType p = (ParameterizedType) t;
+            add(r, p.getRawType());
+            for (Type a : p.getActualTypeArguments())
+                add(r, a);
+        } else if (t instanceof GenericArrayType) {
+            add(r, ((GenericArrayType) t).getGenericComponentType());
+        } else if (t instanceof WildcardType) {
+            for (Type b : ((WildcardType) t).getUpperBounds())
+                add(r, b);
+        } else if (t instanceof TypeVariable) {
+            // only the erasure, bounds like T extends Comparable<T> refer back to the variable
+            Type b = ((TypeVariable<?>) t).getBounds()[0];
+            if (b instanceof ParameterizedType)
+                b = ((ParameterizedType) b).getRawType();
+            if (b instanceof Class)
+                add(r, (Class<?>) b);
+        }
+    }
+
+    private void visit(Class<?> c, List<Class<?>> found) {
+        annotations(c.getAnnotations(), found);
+
+        Package p = c.getPackage();
+        if (p != null && packages.add(p.getName())) {
+            annotations(p.getAnnotations(), found);
+            try {
+                add(found, Class.forName(p.getName() + ".ObjectFactory", false, SecureLoader.getClassClassLoader(c)));
+            } catch (ClassNotFoundException e) {
+                // not necessarily an error
+            }
+        }
+
+        Class<?> sc = c.getSuperclass();
+        if (sc != null)
+            add(found, sc);
+
+        for (Field f : c.getDeclaredFields()) {
+            annotations(f.getAnnotations(), found);
+            add(found, f.getGenericType());
+        }
+        boolean registry = c.isAnnotationPresent(XmlRegistry.class);
+        for (Method m : c.getDeclaredMethods()) {
+            if (m.isBridge() || m.isSynthetic() || Modifier.isStatic(m.getModifiers()))
+                continue;
+            String name = m.getName();
+            int params = m.getParameterCount();
+            if (params == 0 && (name.startsWith("get") || name.startsWith("is")
+                    || (registry && name.startsWith("create")))) {
+                annotations(m.getAnnotations(), found);
+                add(found, m.getGenericReturnType());
+            } else if (params == 1 && name.startsWith("set")) {
+                annotations(m.getAnnotations(), found);
+                add(found, m.getGenericParameterTypes()[0]);
+            }
+        }
+    }
+
+    /**
+     * Follows the classes named by JAXB annotations, such as {@link XmlSeeAlso}.
+     */
+    private void annotations(Annotation[] annotations, List<Class<?>> found) {
+        for (Annotation a : annotations) {
+            Class<? extends Annotation> type = a.annotationType();
+            if (!type.getPackageName().startsWith(ANNOTATION_PACKAGE))
+                continue;
+            for (Method m : CLASS_MEMBERS.get(type)) {
+                Object v;
+                try {
+                    v = m.invoke(a);
+                } catch (ReflectiveOperationException e) {
+                    continue;
+                }
+                if (v instanceof Class) {
+                    add(found, (Class<?>) v);
+                } else if (v instanceof Class[]) {
+                    for (Class<?> c : (Class<?>[]) v)
+                        add(found, c);
+                } else if (v instanceof Annotation) {
+                    annotations(new Annotation[]{(Annotation) v}, found);
+                } else if (v instanceof Annotation[]) {
+                    annotations((Annotation[]) v, found);
+                }
+            }
+        }
+    }
+}
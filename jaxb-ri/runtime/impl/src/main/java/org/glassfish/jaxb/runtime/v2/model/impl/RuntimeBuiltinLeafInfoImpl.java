@@ -25,6 +25,7 @@ import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Base64Data;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallingContext;
 import org.glassfish.jaxb.runtime.v2.util.ByteArrayOutputStreamEx;
 import org.glassfish.jaxb.runtime.v2.util.DataSourceSource;
+import org.glassfish.jaxb.runtime.v2.util.XsdDateTime;
 import jakarta.activation.DataHandler;
 import jakarta.activation.DataSource;
 import jakarta.activation.MimeType;
@@ -38,6 +39,7 @@ import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageOutputStream;
 import javax.xml.XMLConstants;
 import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.Duration;
 import javax.xml.datatype.XMLGregorianCalendar;
 import javax.xml.namespace.QName;
@@ -59,6 +61,12 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.*;
 import java.util.logging.Level;
@@ -249,7 +257,7 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 @Override
                 @SuppressWarnings({"deprecation"})
                 public Calendar parse(CharSequence text) {
-                    return DatatypeConverterImpl._parseDateTime(text.toString());
+                    return DatatypeConverterImpl._parseDateTime(text);
                 }
                 @Override
                 @SuppressWarnings({"deprecation"})
@@ -262,7 +270,7 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 @Override
                 @SuppressWarnings({"deprecation"})
                 public GregorianCalendar parse(CharSequence text) {
-                    return DatatypeConverterImpl._parseDateTime(text.toString());
+                    return DatatypeConverterImpl._parseDateTime(text);
                 }
                 @Override
                 @SuppressWarnings({"deprecation"})
@@ -275,7 +283,7 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 @Override
                 @SuppressWarnings({"deprecation"})
                 public Date parse(CharSequence text) {
-                    return DatatypeConverterImpl._parseDateTime(text.toString()).getTime();
+                    return DatatypeConverterImpl._parseDateTime(text).getTime();
                 }
                 @Override
                 @SuppressWarnings({"deprecation"})
@@ -551,6 +559,103 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                     return bd;
                 }
             });
+        secondaryList.add(
+            new PcdataImpl<Instant>(Instant.class, DatatypeConstants.DATETIME) {
+                @Override
+                public Instant parse(CharSequence text) throws SAXException {
+                    try {
+                        return XsdDateTime.parseInstant(WhiteSpaceProcessor.trim(text));
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        UnmarshallingContext.getInstance().handleError(e);
+                        return null;
+                    }
+                }
+                @Override
+                public Pcdata print(Instant v) {
+                    return XsdDateTime.printInstant(v);
+                }
+            });
+        secondaryList.add(
+            new PcdataImpl<OffsetDateTime>(OffsetDateTime.class, DatatypeConstants.DATETIME) {
+                @Override
+                public OffsetDateTime parse(CharSequence text) throws SAXException {
+                    try {
+                        return XsdDateTime.parseOffsetDateTime(WhiteSpaceProcessor.trim(text));
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        UnmarshallingContext.getInstance().handleError(e);
+                        return null;
+                    }
+                }
+                @Override
+                public Pcdata print(OffsetDateTime v) {
+                    return XsdDateTime.printOffsetDateTime(v);
+                }
+            });
+        secondaryList.add(
+            new PcdataImpl<LocalDateTime>(LocalDateTime.class, DatatypeConstants.DATETIME) {
+                @Override
+                public LocalDateTime parse(CharSequence text) throws SAXException {
+                    try {
+                        return XsdDateTime.parseLocalDateTime(WhiteSpaceProcessor.trim(text));
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        UnmarshallingContext.getInstance().handleError(e);
+                        return null;
+                    }
+                }
+                @Override
+                public Pcdata print(LocalDateTime v) {
+                    return XsdDateTime.printLocalDateTime(v);
+                }
+            });
+        secondaryList.add(
+            new PcdataImpl<LocalDate>(LocalDate.class, DatatypeConstants.DATE) {
+                @Override
+                public LocalDate parse(CharSequence text) throws SAXException {
+                    try {
+                        return XsdDateTime.parseLocalDate(WhiteSpaceProcessor.trim(text));
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        UnmarshallingContext.getInstance().handleError(e);
+                        return null;
+                    }
+                }
+                @Override
+                public Pcdata print(LocalDate v) {
+                    return XsdDateTime.printLocalDate(v);
+                }
+            });
+        secondaryList.add(
+            new PcdataImpl<LocalTime>(LocalTime.class, DatatypeConstants.TIME) {
+                @Override
+                public LocalTime parse(CharSequence text) throws SAXException {
+                    try {
+                        return XsdDateTime.parseLocalTime(WhiteSpaceProcessor.trim(text));
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        UnmarshallingContext.getInstance().handleError(e);
+                        return null;
+                    }
+                }
+                @Override
+                public Pcdata print(LocalTime v) {
+                    return XsdDateTime.printLocalTime(v);
+                }
+            });
+        secondaryList.add(
+            // javax.xml.datatype.Duration stays the primary binding of xs:duration
+            new PcdataImpl<java.time.Duration>(java.time.Duration.class, createXS("duration")) {
+                @Override
+                public java.time.Duration parse(CharSequence text) throws SAXException {
+                    try {
+                        return XsdDateTime.parseDuration(WhiteSpaceProcessor.trim(text));
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        UnmarshallingContext.getInstance().handleError(e);
+                        return null;
+                    }
+                }
+                @Override
+                public Pcdata print(java.time.Duration v) {
+                    return XsdDateTime.printDuration(v);
+                }
+            });
         secondaryList.add(
             new StringImpl<XMLGregorianCalendar>(XMLGregorianCalendar.class,
                     createXS("anySimpleType"),
@@ -589,8 +694,12 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 @SuppressWarnings({"deprecation"})
                 public XMLGregorianCalendar parse(CharSequence lexical) throws SAXException {
                     try {
-                        return DatatypeConverterImpl.getDatatypeFactory()
-                                .newXMLGregorianCalendar(lexical.toString().trim()); // (.trim() - issue 396)
+                        DatatypeFactory df = DatatypeConverterImpl.getDatatypeFactory();
+                        XMLGregorianCalendar cal = XsdDateTime.parseXMLGregorianCalendar(df, WhiteSpaceProcessor.trim(lexical));
+                        if (cal != null) {
+                            return cal;
+                        }
+                        return df.newXMLGregorianCalendar(lexical.toString().trim()); // (.trim() - issue 396)
                     } catch (Exception e) {
                         UnmarshallingContext.getInstance().handleError(e);
                         return null;
@@ -726,6 +835,11 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Byte v) {
                     return DatatypeConverterImpl._printByte(v);
                 }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Byte v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName, v.intValue(), fieldName);
+                }
             });
         primaryList.add(new StringImpl<Short>(Short.class,
                 createXS("short"),
@@ -742,6 +856,11 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Short v) {
                     return DatatypeConverterImpl._printShort(v);
                 }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Short v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName, v.intValue(), fieldName);
+                }
             });
         primaryList.add(new StringImpl<Integer>(Integer.class,
                 createXS("int"),
@@ -758,6 +877,11 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Integer v) {
                     return DatatypeConverterImpl._printInt(v);
                 }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Integer v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName, v.intValue(), fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<Long>(Long.class,
@@ -775,6 +899,11 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Long v) {
                     return DatatypeConverterImpl._printLong(v);
                 }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Long v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName, v.longValue(), fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<Float>(Float.class,
@@ -791,6 +920,11 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Float v) {
                     return DatatypeConverterImpl._printFloat(v);
                 }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Float v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName, v.floatValue(), fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<Double>(Double.class,
@@ -807,6 +941,11 @@ public abstract class RuntimeBuiltinLeafInfoImpl<T> extends BuiltinLeafInfoImpl<
                 public String print(Double v) {
                     return DatatypeConverterImpl._printDouble(v);
                 }
+
+                @Override
+                public void writeLeafElement(XMLSerializer w, Name tagName, Double v, String fieldName) throws IOException, SAXException, XMLStreamException {
+                    w.leafElement(tagName, v.doubleValue(), fieldName);
+                }
             });
         primaryList.add(
             new StringImpl<BigInteger>(BigInteger.class,
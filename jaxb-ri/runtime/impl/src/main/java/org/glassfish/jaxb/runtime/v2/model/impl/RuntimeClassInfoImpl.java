@@ -17,7 +17,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -47,7 +46,6 @@ import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimePropertyInfo;
 import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeValuePropertyInfo;
 import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.Name;
-import org.glassfish.jaxb.runtime.v2.runtime.RecordBuilder;
 import org.glassfish.jaxb.runtime.v2.runtime.Transducer;
 import org.glassfish.jaxb.runtime.v2.runtime.XMLSerializer;
 import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
@@ -259,34 +257,25 @@ class RuntimeClassInfoImpl extends ClassInfoImpl<Type,Class,Field,Method,Object>
         }
         return new RuntimePropertySeed(super.createFieldSeed(field), acc );
     }
-    
-    
-	@Override
-	protected PropertySeed<Type, Class, Field, Method, Object> createRecordComponentSeed(Object rc) {
-
-		RecordComponentProxy r = (RecordComponentProxy) rc;
-		Accessor acc = new Accessor(clazz) {
-			Map<RecordComponentProxy, Object> store = new HashMap<>();
-
-			@Override
-			public Object get(Object bean) throws AccessorException {
-				try {
-					return r.getAccessor().invoke(bean);
-				} catch (Exception e) {
-					throw new AccessorException(e);
-				}
-			}
-
-			@Override
-			public void set(Object bean, Object value) throws AccessorException {
-				((RecordBuilder) bean).add(r, value);
-				System.out.println("fooooo" + bean + value);
-			}
-		};
-
-		return new RuntimePropertySeed(super.createRecordComponentSeed(rc), acc);
-
-	}
+
+    @Override
+    protected PropertySeed<Type,Class,Field,Method,Object> createRecordComponentSeed(Object rc) {
+        RecordComponentProxy r = (RecordComponentProxy) rc;
+        Accessor acc = new Accessor.RecordComponentReflection(r.getAccessor(), indexOf(r));
+        return new RuntimePropertySeed(super.createRecordComponentSeed(rc), acc);
+    }
+
+    /**
+     * Computes the position of the given component in the canonical constructor.
+     */
+    private int indexOf(RecordComponentProxy r) {
+        RecordComponentProxy[] components = RecordComponentProxy.recordComponents(clazz);
+        for (int i = 0; i < components.length; i++) {
+            if (components[i].getName().equals(r.getName()))
+                return i;
+        }
+        throw new IllegalStateException(r.getName());
+    }
 
     @Override
     public RuntimePropertySeed createAccessorSeed(Method getter, Method setter) {
@@ -21,6 +21,7 @@ import org.glassfish.jaxb.runtime.v2.runtime.property.AttributeProperty;
 import org.glassfish.jaxb.runtime.v2.runtime.property.Property;
 import org.glassfish.jaxb.runtime.v2.runtime.property.PropertyFactory;
 import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.opt.OptimizedAccessorFactory;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Loader;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.StructureLoader;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallingContext;
@@ -36,9 +37,14 @@ import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -68,7 +74,8 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
      * Immutable configured loader for this class.
      *
      * <p>
-     * Set from the link method, but considered final.
+     * Set from the link method, or on first use if {@link JAXBContextImpl#lazyBeanInfo} is set,
+     * but considered final.
      */
     private Loader loader;
     private Loader loaderWithTypeSubst;
@@ -78,6 +85,11 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
      */
     private RuntimeClassInfo ci;
 
+    /**
+     * True if {@link #jaxbType} has sub classes, which is when its loader needs to handle @xsi:type.
+     */
+    private final boolean hasSubClasses;
+
     private final Accessor<? super BeanT,Map<QName,String>> inheritedAttWildcard;
     private final Transducer<BeanT> xducer;
 
@@ -105,15 +117,30 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
 
     private final Method factoryMethod;
 
+    /**
+     * Non-null if {@link #jaxbType} is a record.
+     */
+    private final RecordInstantiator<BeanT> recordInstantiator;
+
+    /**
+     * {@code ()Object} handle to the default constructor of {@link #jaxbType}.
+     * Resolved once and shared by all the unmarshallers.
+     * Null if the class is instantiated by other means, or if it can't be instantiated.
+     */
+    private final MethodHandle constructor;
+
     
     /*package*/ ClassBeanInfoImpl(JAXBContextImpl owner, RuntimeClassInfo ci) {
         super(owner,ci,ci.getClazz(),ci.getTypeName(),ci.isElement(),false,true);
 
         this.ci = ci;
         this.inheritedAttWildcard = ci.getAttributeWildcard();
+        this.hasSubClasses = ci.hasSubClasses();
         this.xducer = ci.getTransducer();
         this.factoryMethod = ci.getFactoryMethod();
         this.retainPropertyInfo = owner.retainPropertyInfo;
+        this.recordInstantiator = RecordComponentProxy.isRecord(jaxbType) ? RecordInstantiator.create(jaxbType) : null;
+        this.constructor = factoryMethod==null && recordInstantiator==null ? findConstructor(jaxbType) : null;
         
         // make the factory accessible
         if(factoryMethod!=null) {
@@ -179,6 +206,7 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
                     String spName = superProperty.getFieldName();
                     if ((spName != null) && (spName.equals(p.getFieldName()))) {
                         superProperty.setHiddenByOverride(true);
+                        bi.hasHiddenProperties = true;
                     }
                 }
             }
@@ -195,7 +223,8 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
         if(superClazz!=null)
             superClazz.link(grammar);
 
-        getLoader(grammar,true);    // make sure to build the loader if we haven't done so.
+        if(!grammar.lazyBeanInfo)
+            getLoader(grammar,true);    // make sure to build the loader if we haven't done so.
 
         // propagate values from super class
         if(superClazz!=null) {
@@ -250,17 +279,55 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
         return tagName.localName;
     }
 
+    /**
+     * Obtains the handle to the default constructor, if the class has an accessible one.
+     */
+    private static MethodHandle findConstructor(Class<?> clazz) {
+        if(clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()))
+            return null;
+
+        Constructor<?> c;
+        try {
+            c = ClassFactory.getDefaultConstructor(clazz);
+        } catch (RuntimeException e) {
+            // left to ClassFactory to report when an instance is actually needed
+            return null;
+        }
+        if(c==null)
+            return null;
+
+        MethodHandle mh = OptimizedAccessorFactory.unreflect(c,false);
+        return mh!=null ? mh.asType(NEW_INSTANCE) : null;
+    }
+
+    private static final MethodType NEW_INSTANCE = MethodType.methodType(Object.class);
+
+    /**
+     * Gets the {@link RecordInstantiator} that creates instances of this record class.
+     *
+     * @return null
+     *      if this class is not a record.
+     */
+    public RecordInstantiator<BeanT> getRecordInstantiator() {
+        return recordInstantiator;
+    }
+
     @Override
     public BeanT createInstance(UnmarshallingContext context) throws IllegalAccessException, InvocationTargetException, InstantiationException, SAXException {
         
         BeanT bean = null;        
         if (factoryMethod == null){
-        	
-        	if(RecordComponentProxy.isRecord(jaxbType)) {
-        		bean=null;
-        	}else {
-        	  bean = ClassFactory.create0(jaxbType);
-            }
+            if(constructor!=null) {
+                try {
+                    bean = (BeanT) (Object) constructor.invokeExact();
+                } catch (Throwable t) {
+                    // the same as Constructor.newInstance
+                    throw new InvocationTargetException(t);
+                }
+            } else
+            // records can only be created once all the components are known. see StructureLoader
+            if(recordInstantiator==null)
+                bean = ClassFactory.create0(jaxbType);
         }else {
             Object o = ClassFactory.create(factoryMethod);
             if( jaxbType.isInstance(o) ){
@@ -332,20 +399,17 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
         if (superClazz != null) {
             superClazz.serializeBody(bean, target);
         }
+        // properties hidden by an override in a subclass are only dropped for that subclass
+        Property<BeanT>[] props = !hasHiddenProperties || bean.getClass()==jaxbType ? properties : getSubClassProperties(bean.getClass());
         try {
-            for (Property<BeanT> p : properties) {
-                if (retainPropertyInfo) {
+            if (retainPropertyInfo) {
+                for (Property<BeanT> p : props) {
                     target.currentProperty.set(p);
+                    p.serializeBody(bean, target, null);
                 }
-                boolean isThereAnOverridingProperty = p.isHiddenByOverride();
-                if (!isThereAnOverridingProperty || bean.getClass().equals(jaxbType)) {
+            } else {
+                for (Property<BeanT> p : props) {
                     p.serializeBody(bean, target, null);
-                } else if (isThereAnOverridingProperty) { 
-                    // need to double check the override - it should be safe to do after the model has been created because it's targeted to override properties only 
-                    Class beanSuperClass = bean.getClass().getSuperclass();
-                    if (Utils.REFLECTION_NAVIGATOR.getDeclaredField(beanSuperClass, p.getFieldName()) == null) {
-                        p.serializeBody(bean, target, null);
-                    }
                 }
             }
         } catch (AccessorException e) {
@@ -353,6 +417,69 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
         }
     }
 
+    /**
+     * True if a subclass overrides one of {@link #properties}.
+     * Set while the subclasses are created, before anything is marshalled.
+     * Otherwise every subclass serializes all of them, without looking up {@link #subClassProperties}.
+     */
+    private boolean hasHiddenProperties;
+
+    /**
+     * {@link #properties} to be serialized for the instances of a subclass of {@link #jaxbType}.
+     *
+     * <p>
+     * This is not a {@link ClassValue} because the cached properties refer back to the
+     * context, which would then stay reachable for as long as the bean class is loaded.
+     * The classes are weakly referenced instead, so that subclasses generated at runtime,
+     * such as proxies, can still be unloaded. The array is copied on write, so that
+     * concurrent marshallers read it without locking; there are few subclasses per class.
+     *
+     * @see #getSubClassProperties(Class)
+     */
+    private volatile SubClassProperties[] subClassProperties = new SubClassProperties[0];
+
+    private static final class SubClassProperties extends WeakReference<Class<?>> {
+        final Property[] properties;
+
+        SubClassProperties(Class<?> beanClass, Property[] properties) {
+            super(beanClass);
+            this.properties = properties;
+        }
+    }
+
+    /**
+     * A property that {@link Property#isHiddenByOverride() is hidden by an override}
+     * is only serialized if the direct superclass of the instance doesn't declare the field.
+     * This is resolved once per subclass instead of once per instance.
+     * The overrides are known once the model has been created, which is before anything is marshalled.
+     */
+    @SuppressWarnings({"unchecked"})
+    private Property<BeanT>[] getSubClassProperties(Class<?> beanClass) {
+        for (SubClassProperties e : subClassProperties)
+            if (e.get() == beanClass)
+                return e.properties;
+
+        FinalArrayList<Property<BeanT>> l = new FinalArrayList<>();
+        for (Property<BeanT> p : properties) {
+            if (!p.isHiddenByOverride()
+             || Utils.REFLECTION_NAVIGATOR.getDeclaredField(beanClass.getSuperclass(), p.getFieldName()) == null) {
+                l.add(p);
+            }
+        }
+        Property<BeanT>[] props = l.size() == properties.length ? properties : l.toArray(new Property[l.size()]);
+
+        synchronized (this) {
+            // drop the classes that were unloaded, and those another thread just added
+            List<SubClassProperties> entries = new ArrayList<>();
+            for (SubClassProperties e : subClassProperties)
+                if (e.get() != null && e.get() != beanClass)
+                    entries.add(e);
+            entries.add(new SubClassProperties(beanClass, props));
+            subClassProperties = entries.toArray(new SubClassProperties[0]);
+        }
+        return props;
+    }
+
     @Override
     public void serializeAttributes(BeanT bean, XMLSerializer target) throws SAXException, IOException, XMLStreamException {
         for( AttributeProperty<BeanT> p : attributeProperties )
@@ -408,26 +535,35 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
 
     @Override
     public Loader getLoader(JAXBContextImpl context, boolean typeSubstitutionCapable) {
-        if(loader==null) {
-            // these variables have to be set before they are initialized,
-            // because the initialization may build other loaders and they may refer to this.
-            StructureLoader sl = new StructureLoader(this);
-            loader = sl;
-            if(ci.hasSubClasses())
-                loaderWithTypeSubst = new XsiTypeLoader(this);
-            else
-                // optimization. we know there can be no @xsi:type
-                loaderWithTypeSubst = loader;
-
-
-            sl.init(context,this,ci.getAttributeWildcard());
-        }
+        ensureLoaderReady();
         if(typeSubstitutionCapable)
             return loaderWithTypeSubst;
         else
             return loader;
     }
 
+    @Override
+    protected void buildLoader(JAXBContextImpl context) {
+        // these variables have to be set before they are initialized,
+        // because the initialization may build other loaders and they may refer to this.
+        StructureLoader sl = new StructureLoader(this);
+        loader = sl;
+        if(hasSubClasses)
+            loaderWithTypeSubst = new XsiTypeLoader(this);
+        else
+            // optimization. we know there can be no @xsi:type
+            loaderWithTypeSubst = loader;
+
+
+        sl.init(context,this,inheritedAttWildcard);
+    }
+
+    @Override
+    protected void discardLoader() {
+        loader = null;
+        loaderWithTypeSubst = null;
+    }
+
     @Override
     public Transducer<BeanT> getTransducer() {
         return xducer;
@@ -62,6 +62,15 @@ public abstract class Coordinator implements ErrorHandler, ValidationEventHandle
             return adapters.put(c,a);
     }
 
+    /**
+     * Forgets all the adapters, including the ones set by the user.
+     *
+     * @since 4.0.1
+     */
+    public final void clearAdapters() {
+        adapters.clear();
+    }
+
     /**
      * Gets the instance of the adapter.
      *
@@ -191,10 +191,12 @@ public final class ElementBeanInfoImpl extends JaxBeanInfo<JAXBElement> {
      * This is a hack.
      */
     private final class IntercepterLoader extends Loader implements Intercepter {
-        private final Loader core;
+        /**
+         * Set once the loaders this one refers to are built, which may refer back to it.
+         */
+        private Loader core;
 
-        public IntercepterLoader(Loader core) {
-            this.core = core;
+        public IntercepterLoader() {
         }
 
         @Override
@@ -263,21 +265,35 @@ public final class ElementBeanInfoImpl extends JaxBeanInfo<JAXBElement> {
 
     @Override
     public Loader getLoader(JAXBContextImpl context, boolean typeSubstitutionCapable) {
-        if(loader==null) {
-            // this has to be done lazily to avoid cyclic reference issue
-            UnmarshallerChain c = new UnmarshallerChain(context);
-            QNameMap<ChildLoader> result = new QNameMap<>();
-            property.buildChildElementUnmarshallers(c,result);
-            if(result.size()==1)
-                // for ElementBeanInfoImpl created from RuntimeElementInfo
-                this.loader = new IntercepterLoader(result.getOne().getValue().loader);
-            else
-                // for special ElementBeanInfoImpl only used for marshalling
-                this.loader = Discarder.INSTANCE;
-        }
+        ensureLoaderReady();
         return loader;
     }
 
+    @Override
+    protected void buildLoader(JAXBContextImpl context) {
+        // this has to be done lazily to avoid cyclic reference issue
+        UnmarshallerChain c = new UnmarshallerChain(context);
+        QNameMap<ChildLoader> result = new QNameMap<>();
+        // the element may refer to itself, through the type of its value.
+        // set the loader first, as StructureLoader does, so the recursion finds it
+        IntercepterLoader il = new IntercepterLoader();
+        this.loader = il;
+        property.buildChildElementUnmarshallers(c,result);
+        if(result.size()==1)
+            // for ElementBeanInfoImpl created from RuntimeElementInfo
+            il.core = result.getOne().getValue().loader;
+        else {
+            // for special ElementBeanInfoImpl only used for marshalling
+            il.core = Discarder.INSTANCE;
+            this.loader = Discarder.INSTANCE;
+        }
+    }
+
+    @Override
+    protected void discardLoader() {
+        loader = null;
+    }
+
     @Override
     public JAXBElement createInstance(UnmarshallingContext context) throws IllegalAccessException, InvocationTargetException, InstantiationException {
         return createInstanceFromValue(null);
@@ -348,6 +364,7 @@ public final class ElementBeanInfoImpl extends JaxBeanInfo<JAXBElement> {
     @Override
     public void link(JAXBContextImpl grammar) {
         super.link(grammar);
-        getLoader(grammar,true);    // make sure to build them, if we hadn't done so
+        if(!grammar.lazyBeanInfo)
+            getLoader(grammar,true);    // make sure to build them, if we hadn't done so
     }
 }
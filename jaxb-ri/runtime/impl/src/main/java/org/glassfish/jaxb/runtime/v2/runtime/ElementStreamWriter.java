@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime;
+
+import com.sun.istack.Pool;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.MarshalException;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.validation.ValidatorHandler;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a document made of a wrapper element and of children written one at a time,
+ * so that a large collection can be marshalled without being held in memory.
+ *
+ * <p>
+ * The wrapper element is the root of the document. It declares the namespace URIs
+ * known to the {@link JAXBContextImpl}, so the children share these declarations.
+ * Each child is marshalled as {@link MarshallerImpl#marshal(Object, javax.xml.transform.Result)}
+ * would, so it must be a root element or a {@link JAXBElement}. Nothing is kept from one
+ * child to the next, including the objects of a child that have an
+ * {@link jakarta.xml.bind.annotation.XmlID}.
+ *
+ * <pre>
+ * try (ElementStreamWriter w = marshaller.openElementStream(new QName("rows"), out)) {
+ *     for (Row row : rows)
+ *         w.write(row);
+ * }
+ * </pre>
+ *
+ * <p>
+ * The marshaller can't be used for anything else until the writer is closed,
+ * and both have to be used by the same thread. If writing a child fails, the
+ * document is abandoned and the writer closed.
+ *
+ * @see MarshallerImpl#openElementStream(javax.xml.namespace.QName, java.io.OutputStream)
+ * @since 4.0.1
+ */
+public final class ElementStreamWriter implements AutoCloseable {
+
+    private final MarshallerImpl marshaller;
+
+    /**
+     * Non-null if the document is validated.
+     */
+    private final Pool<ValidatorHandler> validators;
+    private final ValidatorHandler validator;
+
+    private boolean closed;
+
+    ElementStreamWriter(MarshallerImpl marshaller, Pool<ValidatorHandler> validators, ValidatorHandler validator) {
+        this.marshaller = marshaller;
+        this.validators = validators;
+        this.validator = validator;
+    }
+
+    /**
+     * Writes the next child of the wrapper element.
+     */
+    public void write(Object child) throws JAXBException {
+        if(closed)
+            throw new IllegalStateException("closed");
+        if(child==null)
+            throw new IllegalArgumentException(Messages.NOT_MARSHALLABLE.format());
+        boolean done = false;
+        try {
+            marshaller.writeStreamedItem(child);
+            done = true;
+        } catch( SAXException | XMLStreamException | IOException e ) {
+            throw new MarshalException(e);
+        } finally {
+            if(!done)
+                abandon();
+        }
+    }
+
+    /**
+     * Writes each of the given children, as {@link #write(Object)} does.
+     */
+    public void writeAll(Iterator<?> children) throws JAXBException {
+        while(children.hasNext())
+            write(children.next());
+    }
+
+    /**
+     * Writes each of the given children in order, as {@link #write(Object)} does.
+     * The stream is consumed by the calling thread, even if it is parallel.
+     */
+    public void writeAll(Stream<?> children) throws JAXBException {
+        writeAll(children.iterator());
+    }
+
+    /**
+     * Ends the wrapper element and the document.
+     * Does nothing if the writer is already closed.
+     */
+    @Override
+    public void close() throws JAXBException {
+        if(closed)
+            return;
+        boolean done = false;
+        try {
+            marshaller.endElementStream();
+            done = true;
+        } catch( SAXException | XMLStreamException | IOException e ) {
+            throw new MarshalException(e);
+        } finally {
+            closed = true;
+            marshaller.closeElementStream();
+            if(done && validator!=null)
+                // the validator saw the whole document
+                validators.recycle(validator);
+        }
+    }
+
+    private void abandon() {
+        closed = true;
+        marshaller.closeElementStream();
+    }
+}
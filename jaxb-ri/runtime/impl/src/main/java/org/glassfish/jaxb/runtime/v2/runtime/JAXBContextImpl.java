@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
@@ -38,6 +39,8 @@ import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
 
 import org.glassfish.jaxb.core.api.ErrorListener;
 import org.glassfish.jaxb.core.unmarshaller.DOMScanner;
@@ -59,7 +62,9 @@ import org.glassfish.jaxb.runtime.api.RawAccessor;
 import org.glassfish.jaxb.runtime.api.TypeReference;
 import org.glassfish.jaxb.runtime.v2.model.annotation.RuntimeAnnotationReader;
 import org.glassfish.jaxb.runtime.v2.model.annotation.RuntimeInlineAnnotationReader;
+import org.glassfish.jaxb.runtime.v2.model.annotation.SnapshotAnnotationReader;
 import org.glassfish.jaxb.runtime.v2.model.impl.RuntimeBuiltinLeafInfoImpl;
+import org.glassfish.jaxb.runtime.v2.model.impl.ParallelClassScanner;
 import org.glassfish.jaxb.runtime.v2.model.impl.RuntimeModelBuilder;
 import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeArrayInfo;
 import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeBuiltinLeafInfo;
@@ -75,9 +80,13 @@ import org.glassfish.jaxb.runtime.v2.runtime.property.Property;
 import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Loader;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.TagName;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshalMetrics;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.ElementIndexMap;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallerImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.XMLReaderPool;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallingContext;
 import org.glassfish.jaxb.runtime.v2.schemagen.XmlSchemaGenerator;
+import org.glassfish.jaxb.runtime.v2.util.BoundedPool;
 import org.glassfish.jaxb.runtime.v2.util.QNameMap;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -121,12 +130,18 @@ public final class JAXBContextImpl extends JAXBRIContext {
     private static DocumentBuilder db;
 
     private final QNameMap<JaxBeanInfo> rootMap = new QNameMap<>();
+
+    /**
+     * {@link #rootMap} for unmarshalling, built once the names are known.
+     */
+    private ElementIndexMap<JaxBeanInfo> rootLoaders;
     private final HashMap<QName,JaxBeanInfo> typeMap = new HashMap<>();
 
     /**
      * Map from JAXB-bound {@link Class} to its {@link JaxBeanInfo}.
+     * Only ordered unless {@link #compactMetadata} is set.
      */
-    private final Map<Class,JaxBeanInfo> beanInfoMap = new LinkedHashMap<>();
+    private final Map<Class,JaxBeanInfo> beanInfoMap;
 
     /**
      * All created {@link JaxBeanInfo}s.
@@ -139,27 +154,53 @@ public final class JAXBContextImpl extends JAXBRIContext {
      */
     protected Map<RuntimeTypeInfo,JaxBeanInfo> beanInfos = new LinkedHashMap<>();
 
-    private final Map<Class/*scope*/,Map<QName,ElementBeanInfoImpl>> elements = new LinkedHashMap<>();
+    private final Map<Class/*scope*/,Map<QName,ElementBeanInfoImpl>> elements;
 
     /**
      * Pool of {@link Marshaller}s.
+     * Marshallers are reset when they are returned.
+     *
+     * @see JAXBRIContext#POOL_SIZE
      */
-    public final Pool<Marshaller> marshallerPool = new Pool.Impl<>() {
-        protected @NotNull
-        @Override
-        Marshaller create() {
-            return createMarshaller();
-        }
-    };
+    public final Pool<Marshaller> marshallerPool;
+
+    /**
+     * Pool of {@link Unmarshaller}s.
+     * Unmarshallers are reset when they are returned.
+     *
+     * @see JAXBRIContext#POOL_SIZE
+     */
+    public final Pool<Unmarshaller> unmarshallerPool;
+
+    /**
+     * Pool of the {@link org.xml.sax.XMLReader}s used by the unmarshallers of this context.
+     *
+     * @see JAXBRIContext#POOL_SIZE
+     * @since 4.0.1
+     */
+    public final XMLReaderPool xmlReaderPool;
+
+    /**
+     * Maximum number of schemas whose {@link ValidatorHandler}s are pooled.
+     */
+    private static final int MAX_VALIDATOR_POOLS = 16;
 
-    public final Pool<Unmarshaller> unmarshallerPool = new Pool.Impl<>() {
-        protected @NotNull
+    /**
+     * Pools of {@link ValidatorHandler}s, for the schemas most recently used with this context.
+     * Guarded by itself.
+     */
+    private final Map<Schema,Pool<ValidatorHandler>> validatorPools = new LinkedHashMap<>(16, 0.75f, true) {
         @Override
-        Unmarshaller create() {
-            return createUnmarshaller();
+        protected boolean removeEldestEntry(Entry<Schema,Pool<ValidatorHandler>> eldest) {
+            return size() > MAX_VALIDATOR_POOLS;
         }
     };
 
+    /**
+     * Number of documents {@link #sampleValidation()} has been asked about.
+     */
+    private final AtomicLong validationCounter = new AtomicLong();
+
     /**
      * Used to assign indices to known names in this grammar.
      * Reset to null once the build phase is completed.
@@ -214,11 +255,25 @@ public final class JAXBContextImpl extends JAXBRIContext {
      */
     public final boolean disableSecurityProcessing;
 
+    /**
+     * If true, properties keep using the reflection-based {@link Accessor}s
+     * instead of the optimized ones.
+     *
+     * @see JAXBRIContext#DISABLE_ACCESSOR_OPTIMIZATION
+     */
+    public final boolean disableAccessorOptimization;
+
     private WeakReference<RuntimeTypeInfoSet> typeInfoSetCache;
 
     private @NotNull
     RuntimeAnnotationReader annotationReader;
 
+    /**
+     * True if {@link #annotationReader} was created for this context,
+     * rather than given by the application through {@link JAXBRIContext#ANNOTATION_READER}.
+     */
+    private final boolean ownAnnotationReader;
+
     private /*almost final*/ boolean hasSwaRef;
     private final @NotNull Map<Class,Class> subclassReplacements;
 
@@ -226,6 +281,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
      * If true, we aim for faster {@link JAXBContext} instantiation performance,
      * instead of going after efficient sustained unmarshalling/marshalling performance.
      *
+     * @see JAXBRIContext#FAST_BOOT
      * @since 2.0.4
      */
     public final boolean fastBoot;
@@ -250,6 +306,80 @@ public final class JAXBContextImpl extends JAXBRIContext {
      */
     public final int maxErrorsCount;
 
+    /**
+     * Non-null if {@link JAXBRIContext#UNMARSHAL_METRICS} is enabled.
+     */
+    private final UnmarshalMetrics unmarshalMetrics;
+
+    /**
+     * Number of decoded bytes kept in memory when unmarshalling base64 encoded elements.
+     * Null to buffer the whole text and decode it at once.
+     *
+     * @see JAXBRIContext#BINARY_SPILL_THRESHOLD
+     * @since 4.0.1
+     */
+    public final Integer binarySpillThreshold;
+
+    /**
+     * If true, text read from coalescing {@link javax.xml.stream.XMLStreamReader}s is not copied.
+     *
+     * @see JAXBRIContext#ZERO_COPY_TEXT
+     * @since 4.0.1
+     */
+    public final boolean zeroCopyText;
+
+    /**
+     * If true, the reflection caches of the classes are pre-warmed in parallel
+     * before the model is built by one thread.
+     *
+     * @see JAXBRIContext#PREWARM_REFLECTION
+     * @since 4.0.1
+     */
+    public final boolean prewarmReflection;
+
+    /**
+     * If true, the loaders of the bean infos are built on first use.
+     *
+     * @see JAXBRIContext#LAZY_BEAN_INFO
+     * @since 4.0.1
+     */
+    public final boolean lazyBeanInfo;
+
+    /**
+     * If true, the metadata is kept in smaller data structures.
+     *
+     * @see JAXBRIContext#COMPACT_METADATA
+     * @since 4.0.1
+     */
+    public final boolean compactMetadata;
+
+    /**
+     * Maximum number of marshallers, and of unmarshallers, kept by the pools of this context.
+     *
+     * @see JAXBRIContext#POOL_SIZE
+     * @since 4.0.1
+     */
+    public final int poolSize;
+
+    /**
+     * Only one document out of this number is validated by the unmarshallers that have a schema.
+     *
+     * @see JAXBRIContext#VALIDATION_SAMPLING
+     * @since 4.0.1
+     */
+    public final int validationSampling;
+
+    /**
+     * Guards the building of loaders, which may happen after the context is created.
+     */
+    private final Object loaderLock = new Object();
+
+    /**
+     * Bean infos whose loaders are being built by the thread holding {@link #loaderLock}.
+     * Null when no loader is being built.
+     */
+    private Set<JaxBeanInfo> pendingLoaders;
+
     /**
      * Returns declared XmlNs annotations (from package-level annotation XmlSchema
      *
@@ -264,6 +394,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
         this.defaultNsUri = builder.defaultNsUri;
         this.retainPropertyInfo = builder.retainPropertyInfo;
         this.annotationReader = builder.annotationReader;
+        this.ownAnnotationReader = builder.ownAnnotationReader;
         this.subclassReplacements = builder.subclassReplacements;
         this.c14nSupport = builder.c14nSupport;
         this.classes = builder.classes;
@@ -272,23 +403,57 @@ public final class JAXBContextImpl extends JAXBRIContext {
         this.supressAccessorWarnings = builder.supressAccessorWarnings;
         this.improvedXsiTypeHandling = builder.improvedXsiTypeHandling;
         this.disableSecurityProcessing = builder.disableSecurityProcessing;
+        this.disableAccessorOptimization = builder.disableAccessorOptimization;
         this.backupWithParentNamespace = builder.backupWithParentNamespace;
         this.maxErrorsCount = builder.maxErrorsCount;
+        this.unmarshalMetrics = builder.unmarshalMetrics ? new UnmarshalMetrics() : null;
+        this.binarySpillThreshold = builder.binarySpillThreshold;
+        this.zeroCopyText = builder.zeroCopyText;
+        this.prewarmReflection = builder.prewarmReflection;
+        this.lazyBeanInfo = builder.lazyBeanInfo;
+        this.compactMetadata = builder.compactMetadata;
+        this.poolSize = builder.poolSize != null ? builder.poolSize : 2 * Runtime.getRuntime().availableProcessors();
+        this.marshallerPool = new BoundedPool<>(poolSize) {
+            @Override
+            protected @NotNull Marshaller create() {
+                return createMarshaller();
+            }
+
+            @Override
+            protected boolean reset(@NotNull Marshaller m) {
+                if (!(m instanceof MarshallerImpl) || ((MarshallerImpl) m).getContext() != JAXBContextImpl.this)
+                    return false;
+                ((MarshallerImpl) m).reset();
+                return true;
+            }
+        };
+        this.unmarshallerPool = new BoundedPool<>(poolSize) {
+            @Override
+            protected @NotNull Unmarshaller create() {
+                return createUnmarshaller();
+            }
+
+            @Override
+            protected boolean reset(@NotNull Unmarshaller u) {
+                if (!(u instanceof UnmarshallerImpl) || ((UnmarshallerImpl) u).getContext().getJAXBContext() != JAXBContextImpl.this)
+                    return false;
+                ((UnmarshallerImpl) u).reset();
+                return true;
+            }
+        };
+        this.xmlReaderPool = new XMLReaderPool(disableSecurityProcessing, poolSize);
+        this.validationSampling = builder.validationSampling;
+        this.beanInfoMap = compactMetadata ? new HashMap<>() : new LinkedHashMap<>();
+        this.elements = compactMetadata ? new HashMap<>() : new LinkedHashMap<>();
 
         Collection<TypeReference> typeRefs = builder.typeRefs;
 
-        boolean fastB;
-        try {
-            fastB = Boolean.getBoolean(JAXBContextImpl.class.getName()+".fastBoot");
-        } catch (SecurityException e) {
-            fastB = false;
-        }
-        this.fastBoot = fastB;
+        this.fastBoot = builder.fastBoot;
 
         RuntimeTypeInfoSet typeSet = getTypeInfoSet();
 
         // at least prepare the empty table so that we don't have to check for null later
-        elements.put(null,new LinkedHashMap<>());
+        elements.put(null,compactMetadata ? new HashMap<>() : new LinkedHashMap<>());
 
         // recognize leaf bean infos
         for( RuntimeBuiltinLeafInfo leaf : RuntimeBuiltinLeafInfoImpl.builtinBeanInfos ) {
@@ -339,7 +504,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
 
             RuntimeClassInfo scope = n.getScope();
             Class scopeClazz = scope==null?null:scope.getClazz();
-            Map<QName, ElementBeanInfoImpl> m = elements.computeIfAbsent(scopeClazz, k -> new LinkedHashMap<>());
+            Map<QName, ElementBeanInfoImpl> m = elements.computeIfAbsent(scopeClazz, k -> compactMetadata ? new HashMap<>() : new LinkedHashMap<>());
             m.put(n.getElementName(),bi);
         }
 
@@ -396,6 +561,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
         }
 
         this.nameList = nameBuilder.conclude();
+        this.rootLoaders = new ElementIndexMap<>(this, rootMap);
 
         for (JaxBeanInfo bi : beanInfos.values())
             bi.wrapUp();
@@ -403,6 +569,93 @@ public final class JAXBContextImpl extends JAXBRIContext {
         // no use for them now
         nameBuilder = null;
         beanInfos = null;
+
+        if(compactMetadata) {
+            rootMap.trimToSize();
+            // the reader keeps the model builder, and so the whole model, reachable
+            // through its error handler. The model is built again if it is asked for.
+            // A reader given by the application is left alone, it may be shared.
+            if (ownAnnotationReader)
+                annotationReader.setErrorHandler(e -> {});
+            typeInfoSetCache.clear();
+        }
+    }
+
+    /**
+     * Gets the counters shared by all the unmarshallers of this context.
+     *
+     * @return null
+     *      unless the context was created with {@link JAXBRIContext#UNMARSHAL_METRICS}.
+     * @since 4.0.1
+     */
+    public UnmarshalMetrics getUnmarshalMetrics() {
+        return unmarshalMetrics;
+    }
+
+    /**
+     * Gets the pool of {@link ValidatorHandler}s of the given schema.
+     *
+     * <p>
+     * The handlers are given back without handlers or locator set. A handler must
+     * only be given back once it has processed a whole document.
+     *
+     * @since 4.0.1
+     */
+    public Pool<ValidatorHandler> getValidatorPool(Schema schema) {
+        synchronized (validatorPools) {
+            return validatorPools.computeIfAbsent(schema, s -> new BoundedPool<>(poolSize) {
+                @Override
+                protected @NotNull ValidatorHandler create() {
+                    return s.newValidatorHandler();
+                }
+
+                @Override
+                protected boolean reset(@NotNull ValidatorHandler v) {
+                    v.setErrorHandler(null);
+                    v.setContentHandler(null);
+                    v.setDocumentLocator(null);
+                    return true;
+                }
+            });
+        }
+    }
+
+    /**
+     * Decides whether the next document unmarshalled with a schema is validated.
+     *
+     * @see JAXBRIContext#VALIDATION_SAMPLING
+     * @since 4.0.1
+     */
+    public boolean sampleValidation() {
+        return validationSampling <= 1 || validationCounter.getAndIncrement() % validationSampling == 0;
+    }
+
+    /**
+     * Estimates the number of bytes of heap retained by this context.
+     *
+     * <p>
+     * Meant to compare contexts and their configurations, such as
+     * {@link JAXBRIContext#COMPACT_METADATA}. Objects shared with the rest of the
+     * application, like classes and reflection objects, are not counted, nor are the
+     * loaders that were not built yet. The walk takes time proportional to the size
+     * of the context, so this should not be called on a hot path.
+     *
+     * @return an estimate for a 64-bit JVM with compressed references.
+     * @since 4.0.1
+     */
+    public long estimateRetainedSize() {
+        return RetainedSize.of(this);
+    }
+
+    /**
+     * Returns true if properties of this context should use optimized
+     * {@link Accessor}s.
+     *
+     * @see Accessor#optimize(JAXBContextImpl)
+     */
+    public boolean isAccessorOptimizationEnabled() {
+        // let's not waste time on this for the sake of faster boot.
+        return !disableAccessorOptimization && !fastBoot;
     }
 
     /**
@@ -440,6 +693,10 @@ public final class JAXBContextImpl extends JAXBRIContext {
         IllegalAnnotationsException.Builder errorHandler = new IllegalAnnotationsException.Builder();
         builder.setErrorHandler(errorHandler);
 
+        if (prewarmReflection && typeInfoSetCache == null && Runtime.getRuntime().availableProcessors() > 1)
+            // only when the context is created, the classes are in the JDK caches afterwards
+            ParallelClassScanner.scan(Arrays.asList(classes), subclassReplacements);
+
         for( Class c : classes ) {
             if(c==CompositeStructure.class)
                 // CompositeStructure doesn't have TypeInfo, so skip it.
@@ -618,13 +875,61 @@ public final class JAXBContextImpl extends JAXBRIContext {
      *      null if the given name pair is not recognized.
      */
     public Loader selectRootLoader(UnmarshallingContext.State state, TagName tag ) {
-        JaxBeanInfo beanInfo = rootMap.get(tag.uri,tag.local);
+        JaxBeanInfo beanInfo = rootLoaders.get(tag);
         if(beanInfo==null)
             return null;
 
         return beanInfo.getLoader(this,true);
     }
 
+    /**
+     * Gets the {@link Name#qNameIndex} of an element name.
+     * While the context is being built, only the names created so far are known.
+     *
+     * @return
+     *      -1 if the name is not known.
+     * @since 4.0.1
+     */
+    public int getElementIndex(String nsUri, String localName) {
+        NameBuilder nb = nameBuilder;
+        return nb != null ? nb.getElementIndex(nsUri, localName) : nameList.getElementIndex(nsUri, localName);
+    }
+
+    /**
+     * Builds the loaders of a bean info, and the loaders they refer to.
+     *
+     * <p>
+     * Loaders refer to each other in cycles, so a loader may be returned
+     * before the loaders it refers to are complete. This only happens to
+     * the thread building them: the bean infos are marked ready together,
+     * once the outermost call returns, so other threads wait until then.
+     */
+    /*package*/ void buildLoaders(JaxBeanInfo<?> bi) {
+        synchronized (loaderLock) {
+            if (bi.isLoaderReady())
+                return;
+            if (pendingLoaders != null) {
+                // called back while building another loader
+                if (pendingLoaders.add(bi))
+                    bi.buildLoader(this);
+                return;
+            }
+            pendingLoaders = new HashSet<>();
+            try {
+                pendingLoaders.add(bi);
+                bi.buildLoader(this);
+                for (JaxBeanInfo<?> p : pendingLoaders)
+                    p.setLoaderReady();
+            } catch (RuntimeException | Error e) {
+                for (JaxBeanInfo<?> p : pendingLoaders)
+                    p.discardLoader();
+                throw e;
+            } finally {
+                pendingLoaders = null;
+            }
+        }
+    }
+
     /**
      * Gets the {@link JaxBeanInfo} for the given named XML Schema type.
      *
@@ -675,22 +980,50 @@ public final class JAXBContextImpl extends JAXBRIContext {
 
     /**
      * Cache of UTF-8 encoded local names to improve the performance for the marshalling.
+     *
+     * <p>
+     * Built without locking. Threads racing to build it create equal tables,
+     * and the volatile write publishes the filled-in entries.
      */
-    private Encoded[] utf8nameTable;
+    private volatile Encoded[] utf8nameTable;
 
-    public synchronized Encoded[] getUTF8NameTable() {
-        if(utf8nameTable==null) {
-            Encoded[] x = new Encoded[nameList.localNames.length];
-            for( int i=0; i<x.length; i++ ) {
+    public Encoded[] getUTF8NameTable() {
+        Encoded[] table = utf8nameTable;
+        if(table==null) {
+            table = new Encoded[nameList.localNames.length];
+            for( int i=0; i<table.length; i++ ) {
                 Encoded e = new Encoded(nameList.localNames[i]);
                 e.compact();
-                x[i] = e;
+                table[i] = e;
+            }
+            utf8nameTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Whether all the local names are ASCII, and so are written the same
+     * in any charset that encodes ASCII as UTF-8 does.
+     *
+     * @since 4.0.1
+     */
+    public boolean hasAsciiLocalNames() {
+        Boolean ascii = asciiLocalNames;
+        if(ascii==null) {
+            ascii = true;
+            for( String name : nameList.localNames ) {
+                for( int i=0; i<name.length(); i++ ) {
+                    if(name.charAt(i)>=0x80)
+                        ascii = false;
+                }
             }
-            utf8nameTable = x;
+            asciiLocalNames = ascii;
         }
-        return utf8nameTable;
+        return ascii;
     }
 
+    private volatile Boolean asciiLocalNames;
+
     public int getNumberOfLocalNames() {
         return nameList.localNames.length;
     }
@@ -755,6 +1088,26 @@ public final class JAXBContextImpl extends JAXBRIContext {
         return new UnmarshallerImpl(this,null);
     }
 
+    @Override
+    public @NotNull Marshaller borrowMarshaller() {
+        return marshallerPool.take();
+    }
+
+    @Override
+    public void returnMarshaller(@NotNull Marshaller marshaller) {
+        marshallerPool.recycle(marshaller);
+    }
+
+    @Override
+    public @NotNull Unmarshaller borrowUnmarshaller() {
+        return unmarshallerPool.take();
+    }
+
+    @Override
+    public void returnUnmarshaller(@NotNull Unmarshaller unmarshaller) {
+        unmarshallerPool.recycle(unmarshaller);
+    }
+
     @Override
     public JAXBIntrospector createJAXBIntrospector() {
         return new JAXBIntrospector() {
@@ -1029,6 +1382,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
         private boolean supressAccessorWarnings = false;
         private String defaultNsUri = "";
         private @NotNull RuntimeAnnotationReader annotationReader = new RuntimeInlineAnnotationReader();
+        private boolean ownAnnotationReader = true;
         private @NotNull Map<Class,Class> subclassReplacements = Collections.emptyMap();
         private boolean c14nSupport = false;
         private Class[] classes;
@@ -1037,8 +1391,19 @@ public final class JAXBContextImpl extends JAXBRIContext {
         private boolean allNillable;
         private boolean improvedXsiTypeHandling = true;
         private boolean disableSecurityProcessing = true;
+        private boolean disableAccessorOptimization = false;
         private Boolean backupWithParentNamespace = null; // null for System property to be used
         private int maxErrorsCount;
+        private boolean unmarshalMetrics = false;
+        private Integer binarySpillThreshold = null;
+        private boolean zeroCopyText = false;
+        private Boolean fastBoot = null; // null for System property to be used
+        private boolean annotationSnapshots = false; // only through JAXBRIContext.FAST_BOOT, not the System property
+        private boolean prewarmReflection = false;
+        private boolean lazyBeanInfo = false;
+        private boolean compactMetadata = false;
+        private Integer poolSize = null; // null for the default size
+        private int validationSampling = 1;
 
         public JAXBContextBuilder() {}
 
@@ -1047,6 +1412,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
             this.retainPropertyInfo = baseImpl.retainPropertyInfo;
             this.defaultNsUri = baseImpl.defaultNsUri;
             this.annotationReader = baseImpl.annotationReader;
+            this.ownAnnotationReader = baseImpl.ownAnnotationReader;
             this.subclassReplacements = baseImpl.subclassReplacements;
             this.c14nSupport = baseImpl.c14nSupport;
             this.classes = baseImpl.classes;
@@ -1054,8 +1420,18 @@ public final class JAXBContextImpl extends JAXBRIContext {
             this.xmlAccessorFactorySupport = baseImpl.xmlAccessorFactorySupport;
             this.allNillable = baseImpl.allNillable;
             this.disableSecurityProcessing = baseImpl.disableSecurityProcessing;
+            this.disableAccessorOptimization = baseImpl.disableAccessorOptimization;
             this.backupWithParentNamespace = baseImpl.backupWithParentNamespace;
             this.maxErrorsCount = baseImpl.maxErrorsCount;
+            this.unmarshalMetrics = baseImpl.unmarshalMetrics != null;
+            this.binarySpillThreshold = baseImpl.binarySpillThreshold;
+            this.zeroCopyText = baseImpl.zeroCopyText;
+            this.fastBoot = baseImpl.fastBoot;
+            this.prewarmReflection = baseImpl.prewarmReflection;
+            this.lazyBeanInfo = baseImpl.lazyBeanInfo;
+            this.compactMetadata = baseImpl.compactMetadata;
+            this.poolSize = baseImpl.poolSize;
+            this.validationSampling = baseImpl.validationSampling;
         }
 
         public JAXBContextBuilder setRetainPropertyInfo(boolean val) {
@@ -1095,6 +1471,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
 
         public JAXBContextBuilder setAnnotationReader(RuntimeAnnotationReader val) {
             this.annotationReader = val;
+            this.ownAnnotationReader = val == null;
             return this;
         }
 
@@ -1118,6 +1495,11 @@ public final class JAXBContextImpl extends JAXBRIContext {
             return this;
         }
 
+        public JAXBContextBuilder setDisableAccessorOptimization(boolean val) {
+            this.disableAccessorOptimization = val;
+            return this;
+        }
+
         public JAXBContextBuilder setBackupWithParentNamespace(Boolean backupWithParentNamespace) {
             this.backupWithParentNamespace = backupWithParentNamespace;
             return this;
@@ -1128,6 +1510,56 @@ public final class JAXBContextImpl extends JAXBRIContext {
             return this;
         }
 
+        public JAXBContextBuilder setUnmarshalMetrics(boolean val) {
+            this.unmarshalMetrics = val;
+            return this;
+        }
+
+        public JAXBContextBuilder setBinarySpillThreshold(Integer val) {
+            this.binarySpillThreshold = val;
+            return this;
+        }
+
+        public JAXBContextBuilder setZeroCopyText(boolean val) {
+            this.zeroCopyText = val;
+            return this;
+        }
+
+        /**
+         * Sets {@link JAXBRIContext#FAST_BOOT}. Unlike the System property,
+         * true also reads the annotations from the snapshots of the packages.
+         */
+        public JAXBContextBuilder setFastBoot(Boolean val) {
+            this.fastBoot = val;
+            this.annotationSnapshots = val != null && val;
+            return this;
+        }
+
+        public JAXBContextBuilder setPrewarmReflection(boolean val) {
+            this.prewarmReflection = val;
+            return this;
+        }
+
+        public JAXBContextBuilder setLazyBeanInfo(boolean val) {
+            this.lazyBeanInfo = val;
+            return this;
+        }
+
+        public JAXBContextBuilder setCompactMetadata(boolean val) {
+            this.compactMetadata = val;
+            return this;
+        }
+
+        public JAXBContextBuilder setPoolSize(Integer val) {
+            this.poolSize = val;
+            return this;
+        }
+
+        public JAXBContextBuilder setValidationSampling(int val) {
+            this.validationSampling = val;
+            return this;
+        }
+
         public JAXBContextImpl build() throws JAXBException {
 
             // fool-proof
@@ -1139,8 +1571,17 @@ public final class JAXBContextImpl extends JAXBRIContext {
                 this.subclassReplacements = Collections.emptyMap();
             }
 
+            if (this.fastBoot == null) {
+                try {
+                    this.fastBoot = Boolean.getBoolean(JAXBContextImpl.class.getName()+".fastBoot");
+                } catch (SecurityException e) {
+                    this.fastBoot = false;
+                }
+            }
+
             if (this.annotationReader == null) {
-                this.annotationReader = new RuntimeInlineAnnotationReader();
+                this.annotationReader = this.annotationSnapshots ? new SnapshotAnnotationReader() : new RuntimeInlineAnnotationReader();
+                this.ownAnnotationReader = true;
             }
 
             if (this.typeRefs == null) {
@@ -87,6 +87,7 @@ public abstract class JaxBeanInfo<BeanT> {
     private JaxBeanInfo(JAXBContextImpl grammar, RuntimeTypeInfo rti, Class<BeanT> jaxbType, Object typeName, boolean isElement,boolean isImmutable, boolean hasLifecycleEvents) {
         grammar.beanInfos.put(rti,this);
 
+        this.grammar = grammar;
         this.jaxbType = jaxbType;
         this.typeName = typeName;
         this.flag = (short)((isElement?FLAG_IS_ELEMENT:0)
@@ -388,6 +389,54 @@ public abstract class JaxBeanInfo<BeanT> {
     protected  void link(JAXBContextImpl grammar) {
     }
 
+    /**
+     * The {@link JAXBContextImpl} that owns this bean info, which builds its loaders.
+     */
+    private final JAXBContextImpl grammar;
+
+    /**
+     * True once the loaders of this bean info, and the loaders they refer to, are built.
+     */
+    private volatile boolean loaderReady;
+
+    /**
+     * Makes sure the loaders returned by {@link #getLoader(JAXBContextImpl, boolean)} are built.
+     *
+     * <p>
+     * Only needed by bean infos that build their loaders on first use.
+     * Once they are built this is a single volatile read. Otherwise the thread
+     * builds them, or waits for the thread that does.
+     */
+    protected final void ensureLoaderReady() {
+        if(!loaderReady)
+            grammar.buildLoaders(this);
+    }
+
+    /*package*/ final boolean isLoaderReady() {
+        return loaderReady;
+    }
+
+    /*package*/ final void setLoaderReady() {
+        loaderReady = true;
+    }
+
+    /**
+     * Builds the loaders of this bean info.
+     *
+     * <p>
+     * Called by {@link JAXBContextImpl} at most once, unless it fails,
+     * with the lock of the context held. The loaders built here may already be
+     * returned to the same thread while the ones they refer to are being built.
+     */
+    protected void buildLoader(JAXBContextImpl context) {
+    }
+
+    /**
+     * Drops the loaders set by {@link #buildLoader(JAXBContextImpl)} when building them failed.
+     */
+    protected void discardLoader() {
+    }
+
     /**
      * Called at the end of the {@link JAXBContext} initialization phase
      * to clean up any unnecessary references.
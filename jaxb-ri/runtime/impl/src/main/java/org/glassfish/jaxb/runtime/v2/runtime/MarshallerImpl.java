@@ -12,9 +12,11 @@ package org.glassfish.jaxb.runtime.v2.runtime;
 
 import org.glassfish.jaxb.core.marshaller.*;
 import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.marshaller.ByteBufferSink;
 import org.glassfish.jaxb.runtime.marshaller.NamespacePrefixMapper;
 import org.glassfish.jaxb.runtime.marshaller.NioEscapeHandler;
 import org.glassfish.jaxb.runtime.v2.runtime.output.*;
+import com.sun.istack.Pool;
 import org.glassfish.jaxb.runtime.v2.util.FatalAdapter;
 import jakarta.xml.bind.*;
 import jakarta.xml.bind.annotation.adapters.XmlAdapter;
@@ -26,6 +28,7 @@ import org.xml.sax.SAXException;
 import org.xml.sax.helpers.XMLFilterImpl;
 
 import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventWriter;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
@@ -38,6 +41,9 @@ import javax.xml.validation.ValidatorHandler;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -77,12 +83,30 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
      */
     private Schema schema;
 
+    /**
+     * Pool of the {@link ValidatorHandler}s of {@link #schema}.
+     */
+    private Pool<ValidatorHandler> validators;
+
     /** Marshaller.Listener */
     private Listener externalListener = null;
 
     /** Configured for c14n? */
     private boolean c14nSupport;
 
+    /**
+     * Size of the buffer used to write to a {@link WritableByteChannel}.
+     *
+     * @see #CHANNEL_BUFFER_SIZE
+     */
+    private int channelBufferSize = DEFAULT_CHANNEL_BUFFER_SIZE;
+
+    /**
+     * Start and end tags written by {@link UTF8XmlOutput}, kept across documents.
+     * Created lazily.
+     */
+    private TagTemplates tagTemplates;
+
     // while createing XmlOutput those values may be set.
     // if these are non-null they need to be cleaned up
     private Flushable toBeFlushed;
@@ -104,6 +128,37 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         }
     }
 
+    /**
+     * Puts this marshaller back in the state it was created in,
+     * so that it can be pooled.
+     *
+     * @since 4.0.1
+     */
+    public void reset() {
+        indent = "    ";
+        prefixMapper = null;
+        escapeHandler = null;
+        header = null;
+        schema = null;
+        validators = null;
+        externalListener = null;
+        c14nSupport = context.c14nSupport;
+        channelBufferSize = DEFAULT_CHANNEL_BUFFER_SIZE;
+        serializer.attachmentMarshaller = null;
+        serializer.setObjectIdentityCycleDetection(false);
+        serializer.clearAdapters();
+        try {
+            setEncoding("UTF-8");
+            setSchemaLocation(null);
+            setNoNSSchemaLocation(null);
+            setFormattedOutput(false);
+            setFragment(false);
+            setEventHandler(this);
+        } catch (JAXBException e) {
+            throw new AssertionError(e);    // impossible
+        }
+    }
+
     public JAXBContextImpl getContext() {
         return context;
     }
@@ -118,6 +173,28 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         write(obj, createWriter(out), new StAXPostInitAction(inscopeNamespace,serializer));
     }
 
+    /**
+     * Marshals to a {@link WritableByteChannel} in blocking mode.
+     *
+     * <p>
+     * The document is encoded into a heap buffer of {@link #CHANNEL_BUFFER_SIZE} bytes,
+     * which is written to the channel each time it fills up. The channel is not closed.
+     *
+     * @since 4.0.1
+     */
+    public void marshal(Object obj, WritableByteChannel channel) throws JAXBException {
+        marshal(obj, ByteBufferSink.forChannel(channel, ByteBuffer.allocate(channelBufferSize)));
+    }
+
+    /**
+     * Marshals into the buffers of the given {@link ByteBufferSink}.
+     *
+     * @since 4.0.1
+     */
+    public void marshal(Object obj, ByteBufferSink sink) throws JAXBException {
+        write(obj, createWriter(sink), null);
+    }
+
     @Override
     public void marshal(Object obj, XMLStreamWriter writer) throws JAXBException {
         write(obj, XMLStreamWriterOutput.create(writer,context, escapeHandler), new StAXPostInitAction(writer,serializer));
@@ -232,32 +309,16 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
      * All the marshal method invocation eventually comes down to this call.
      */
     private void write(Object obj, XmlOutput out, Runnable postInitAction) throws JAXBException {
+        Pool<ValidatorHandler> validators = this.validators;
+        ValidatorHandler validator = null;
         try {
             if( obj == null )
                 throw new IllegalArgumentException(Messages.NOT_MARSHALLABLE.format());
 
-            if( schema!=null ) {
+            if( validators!=null ) {
                 // send the output to the validator as well
-                ValidatorHandler validator = schema.newValidatorHandler();
-                validator.setErrorHandler(new FatalAdapter(serializer));
-                // work around a bug in JAXP validator in Tiger
-                XMLFilterImpl f = new XMLFilterImpl() {
-                    @Override
-                    public void startPrefixMapping(String prefix, String uri) throws SAXException {
-                        super.startPrefixMapping(prefix.intern(), uri.intern());
-                    }
-                };
-                f.setContentHandler(validator);
-                out = new ForkXmlOutput(new SAXOutput(f) {
-                    @Override
-                    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws SAXException, IOException, XMLStreamException {
-                        super.startDocument(serializer, false, nsUriIndex2prefixIndex, nsContext);
-                    }
-                    @Override
-                    public void endDocument(boolean fragment) throws SAXException, IOException, XMLStreamException {
-                        super.endDocument(false);
-                    }
-                }, out );
+                validator = validators.take();
+                out = forkToValidator(out, validator);
             }
 
             try {
@@ -269,6 +330,123 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             } finally {
                 serializer.close();
             }
+            if( validator!=null )
+                // the validator saw the whole document
+                validators.recycle(validator);
+        } finally {
+            cleanUp();
+        }
+    }
+
+    /**
+     * Sends the output to the validator as well.
+     */
+    private XmlOutput forkToValidator(XmlOutput out, ValidatorHandler validator) {
+        validator.setErrorHandler(new FatalAdapter(serializer));
+        // work around a bug in JAXP validator in Tiger
+        XMLFilterImpl f = new XMLFilterImpl() {
+            @Override
+            public void startPrefixMapping(String prefix, String uri) throws SAXException {
+                super.startPrefixMapping(prefix.intern(), uri.intern());
+            }
+        };
+        f.setContentHandler(validator);
+        return new ForkXmlOutput(new SAXOutput(f) {
+            @Override
+            public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws SAXException, IOException, XMLStreamException {
+                super.startDocument(serializer, false, nsUriIndex2prefixIndex, nsContext);
+            }
+            @Override
+            public void endDocument(boolean fragment) throws SAXException, IOException, XMLStreamException {
+                super.endDocument(false);
+            }
+        }, out );
+    }
+
+    /**
+     * Starts a document whose root is the given wrapper element, and returns
+     * the writer of its children.
+     *
+     * @see ElementStreamWriter
+     * @since 4.0.1
+     */
+    public ElementStreamWriter openElementStream(QName wrapper, OutputStream out) throws JAXBException {
+        return openElementStream(wrapper, createWriter(out));
+    }
+
+    /**
+     * Starts a document whose root is the given wrapper element, and returns
+     * the writer of its children.
+     *
+     * @see ElementStreamWriter
+     * @since 4.0.1
+     */
+    public ElementStreamWriter openElementStream(QName wrapper, Writer out) throws JAXBException {
+        return openElementStream(wrapper, createWriter(out));
+    }
+
+    /**
+     * Starts a document whose root is the given wrapper element, and returns
+     * the writer of its children. The document is written to the channel as
+     * {@link #marshal(Object, WritableByteChannel)} does.
+     *
+     * @see ElementStreamWriter
+     * @since 4.0.1
+     */
+    public ElementStreamWriter openElementStream(QName wrapper, WritableByteChannel channel) throws JAXBException {
+        return openElementStream(wrapper, createWriter(ByteBufferSink.forChannel(channel, ByteBuffer.allocate(channelBufferSize))));
+    }
+
+    /**
+     * Starts a document whose root is the given wrapper element, and returns
+     * the writer of its children.
+     *
+     * @see ElementStreamWriter
+     * @since 4.0.1
+     */
+    public ElementStreamWriter openElementStream(QName wrapper, XmlOutput out) throws JAXBException {
+        Pool<ValidatorHandler> validators = this.validators;
+        ValidatorHandler validator = null;
+        if( validators!=null ) {
+            validator = validators.take();
+            out = forkToValidator(out, validator);
+        }
+        try {
+            prewrite(out,isFragment(),null);
+            serializer.startElement(wrapper.getNamespaceURI(),wrapper.getLocalPart(),wrapper.getPrefix(),null);
+            serializer.endNamespaceDecls(null);
+            serializer.endAttributes();
+        } catch( SAXException | XMLStreamException | IOException e ) {
+            serializer.close();
+            cleanUp();
+            throw new MarshalException(e);
+        }
+        return new ElementStreamWriter(this, validators, validator);
+    }
+
+    /**
+     * Writes a child of the wrapper element of an {@link ElementStreamWriter}.
+     */
+    void writeStreamedItem(Object item) throws JAXBException, IOException, SAXException, XMLStreamException {
+        serializer.childAsRoot(item);
+        // the objects with an ID are tracked per child, so no child is held on to
+        serializer.reconcileID();
+    }
+
+    /**
+     * Ends the wrapper element and the document of an {@link ElementStreamWriter}.
+     */
+    void endElementStream() throws IOException, SAXException, XMLStreamException {
+        serializer.endElement();
+        postwrite();
+    }
+
+    /**
+     * Releases the output of an {@link ElementStreamWriter}, whether it completed or not.
+     */
+    void closeElementStream() {
+        try {
+            serializer.close();
         } finally {
             cleanUp();
         }
@@ -390,22 +568,12 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         // otherwise createWriter(Writer) inserts a buffering,
         // so no point in doing a buffering here.
 
-        if(encoding.equals("UTF-8")) {
-            Encoded[] table = context.getUTF8NameTable();
-            final UTF8XmlOutput out;
-            CharacterEscapeHandler ceh = createEscapeHandler(encoding);
-            if(isFormattedOutput())
-                out = new IndentingUTF8XmlOutput(os, indent, table, ceh);
-            else {
-                if(c14nSupport)
-                    out = new C14nXmlOutput(os, table, context.c14nSupport, ceh);
-                else
-                    out = new UTF8XmlOutput(os, table, ceh);
-            }
-            if(header!=null)
-                out.setHeader(header);
+        if(encoding.equals("UTF-8"))
+            return createUTF8Writer(os, null);
+
+        XmlOutput out = createEncodingWriter(os, null, encoding);
+        if(out!=null)
             return out;
-        }
 
         try {
             return createWriter(
@@ -418,6 +586,87 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         }
     }
 
+    /**
+     * @since 4.0.1
+     */
+    public XmlOutput createWriter( ByteBufferSink sink ) throws JAXBException {
+        return createWriter(sink, getEncoding());
+    }
+
+    /**
+     * @since 4.0.1
+     */
+    public XmlOutput createWriter( ByteBufferSink sink, String encoding ) throws JAXBException {
+        UTF8XmlOutput out = encoding.equals("UTF-8") ? createUTF8Writer(null, sink)
+                                                     : createEncodingWriter(null, sink, encoding);
+        if(out==null)
+            // other encodings go through a Writer, which is flushed at the end
+            return createWriter(new ByteBufferSinkOutputStream(sink), encoding);
+
+        // if the marshalling fails, the buffer being filled goes back to the sink
+        assert toBeClosed==null;
+        toBeClosed = out::releaseBuffer;
+        return out;
+    }
+
+    /**
+     * Creates a {@link UTF8XmlOutput} that writes in another encoding than UTF-8,
+     * to either the stream or the sink.
+     *
+     * @return
+     *      null if the encoding, the names, the indentation or the escape handler
+     *      require the {@link Writer} based output.
+     */
+    private UTF8XmlOutput createEncodingWriter( OutputStream os, ByteBufferSink sink, String encoding ) {
+        if(c14nSupport || (isFormattedOutput() && !isAscii(indent)) || !context.hasAsciiLocalNames())
+            return null;
+
+        CharsetTextEncoder encoder;
+        try {
+            encoder = CharsetTextEncoder.create(Charset.forName(getJavaEncoding(encoding)), encoding);
+        } catch( UnsupportedEncodingException | IllegalArgumentException e ) {
+            return null;    // the Writer based output reports it
+        }
+        if(encoder==null)
+            return null;
+
+        UTF8XmlOutput out = createUTF8Writer(os, sink);
+        return out.setTextEncoder(encoder) ? out : null;
+    }
+
+    private static boolean isAscii(String s) {
+        for( int i=0; i<s.length(); i++ )
+            if(s.charAt(i)>=0x80)
+                return false;
+        return true;
+    }
+
+    /**
+     * Creates a {@link UTF8XmlOutput} that writes to either the stream or the sink.
+     */
+    private UTF8XmlOutput createUTF8Writer( OutputStream os, ByteBufferSink sink ) {
+        Encoded[] table = context.getUTF8NameTable();
+        final UTF8XmlOutput out;
+        CharacterEscapeHandler ceh = createEscapeHandler("UTF-8");
+        if(isFormattedOutput())
+            out = sink==null ? new IndentingUTF8XmlOutput(os, indent, table, ceh)
+                             : new IndentingUTF8XmlOutput(sink, indent, table, ceh);
+        else {
+            if(c14nSupport)
+                out = sink==null ? new C14nXmlOutput(os, table, context.c14nSupport, ceh)
+                                 : new C14nXmlOutput(sink, table, context.c14nSupport, ceh);
+            else
+                out = sink==null ? new UTF8XmlOutput(os, table, ceh)
+                                 : new UTF8XmlOutput(sink, table, ceh);
+        }
+        if(header!=null)
+            out.setHeader(header);
+        if(tagTemplates==null)
+            tagTemplates = new TagTemplates();
+        out.setTagTemplates(tagTemplates);
+        return out;
+    }
+
 
     @Override
     public Object getProperty(String name) throws PropertyException {
@@ -435,6 +684,8 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             return c14nSupport;
         if ( OBJECT_IDENTITY_CYCLE_DETECTION.equals(name)) 
         	return serializer.getObjectIdentityCycleDetection();
+        if( CHANNEL_BUFFER_SIZE.equals(name) )
+            return channelBufferSize;
 
         return super.getProperty(name);
     }
@@ -488,6 +739,13 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             serializer.setObjectIdentityCycleDetection((Boolean)value);
             return;
         }
+        if( CHANNEL_BUFFER_SIZE.equals(name) ) {
+            checkInteger(name, value);
+            if((Integer)value<=0)
+                throw new PropertyException(name, value);
+            channelBufferSize = (Integer)value;
+            return;
+        }
 
         super.setProperty(name, value);
     }
@@ -516,6 +774,18 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
                         value.getClass().getName() ) );
     }
 
+    /*
+     * assert that the given object is an Integer
+     */
+    private void checkInteger( String name, Object value ) throws PropertyException {
+        if(!(value instanceof Integer))
+            throw new PropertyException(
+                Messages.MUST_BE_X.format(
+                        name,
+                        Integer.class.getName(),
+                        value.getClass().getName() ) );
+    }
+
     @Override
     public <A extends XmlAdapter<?, ?>> void setAdapter(Class<A> type, A adapter) {
         if(type==null)
@@ -552,6 +822,7 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     @Override
     public void setSchema(Schema s) {
         this.schema = s;
+        this.validators = s != null ? context.getValidatorPool(s) : null;
     }
 
     /**
@@ -582,4 +853,12 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     protected static final String XML_HEADERS = "org.glassfish.jaxb.xmlHeaders";
     protected static final String C14N = JAXBRIContext.CANONICALIZATION_SUPPORT;
     protected static final String OBJECT_IDENTITY_CYCLE_DETECTION = "org.glassfish.jaxb.objectIdentitityCycleDetection";
+    /**
+     * Size in bytes of the buffer used by {@link #marshal(Object, WritableByteChannel)}.
+     *
+     * @since 4.0.1
+     */
+    protected static final String CHANNEL_BUFFER_SIZE = "org.glassfish.jaxb.channelBufferSize";
+
+    private static final int DEFAULT_CHANNEL_BUFFER_SIZE = 8192;
 }
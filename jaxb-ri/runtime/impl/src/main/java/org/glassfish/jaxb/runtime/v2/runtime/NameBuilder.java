@@ -102,6 +102,18 @@ public final class NameBuilder {
         return i;
     }
     
+    /**
+     * Gets the {@link Name#qNameIndex} of an element name created so far.
+     *
+     * @return
+     *      -1 if no such element name was created.
+     * @since 4.0.1
+     */
+    public int getElementIndex(String nsUri, String localName) {
+        Integer i = elementQNameIndexMap.get(nsUri, localName);
+        return i != null ? i : -1;
+    }
+
     /**
      * Wraps up everything and creates {@link NameList}.
      */
@@ -116,7 +128,8 @@ public final class NameBuilder {
                 nsUriCannotBeDefaulted,
                 list(localNameIndexMap), 
                 elementQNameIndexMap.size(),
-                attributeQNameIndexMap.size() );
+                attributeQNameIndexMap.size(),
+                elementQNameIndexMap );
         // delete them so that the create method can never be called again
         uriIndexMap = null;
         localNameIndexMap = null;
@@ -10,6 +10,9 @@
 
 package org.glassfish.jaxb.runtime.v2.runtime;
 
+import org.glassfish.jaxb.runtime.v2.util.PerfectQNameMap;
+import org.glassfish.jaxb.runtime.v2.util.QNameMap;
+
 /**
  * Namespace URIs and local names sorted by their indices.
  * Number of Names used for EIIs and AIIs
@@ -48,11 +51,53 @@ public final class NameList {
      */
     public final int numberOfAttributeNames;
     
+    /**
+     * Slots of the element names.
+     */
+    private final PerfectQNameMap<Integer> elementIndices;
+
+    /**
+     * Index of the element name in each slot of {@link #elementIndices}.
+     */
+    private final int[] elementIndexBySlot;
+
     public NameList(String[] namespaceURIs, boolean[] nsUriCannotBeDefaulted, String[] localNames, int numberElementNames, int numberAttributeNames) {
+        this(namespaceURIs, nsUriCannotBeDefaulted, localNames, numberElementNames, numberAttributeNames, new QNameMap<>());
+    }
+
+    /**
+     * @param elementIndices
+     *      maps each element name to its {@link Name#qNameIndex}.
+     * @since 4.0.1
+     */
+    public NameList(String[] namespaceURIs, boolean[] nsUriCannotBeDefaulted, String[] localNames, int numberElementNames, int numberAttributeNames,
+                    QNameMap<Integer> elementIndices) {
         this.namespaceURIs = namespaceURIs;
         this.nsUriCannotBeDefaulted = nsUriCannotBeDefaulted;
         this.localNames = localNames;
         this.numberOfElementNames = numberElementNames;
         this.numberOfAttributeNames = numberAttributeNames;
+        this.elementIndices = new PerfectQNameMap<>(elementIndices);
+        this.elementIndexBySlot = new int[this.elementIndices.capacity()];
+        for (int i = 0; i < elementIndexBySlot.length; i++) {
+            Integer index = this.elementIndices.valueAt(i);
+            elementIndexBySlot[i] = index != null ? index : -1;
+        }
+    }
+
+    /**
+     * Gets the {@link Name#qNameIndex} of an element name.
+     *
+     * @param nsUri
+     *      interned namespace URI.
+     * @param localName
+     *      interned local name.
+     * @return
+     *      -1 if the name is not known.
+     * @since 4.0.1
+     */
+    public int getElementIndex(String nsUri, String localName) {
+        int slot = elementIndices.slotOf(nsUri, localName);
+        return slot < 0 ? -1 : elementIndexBySlot[slot];
     }
 }
@@ -1,24 +1,130 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
 package org.glassfish.jaxb.runtime.v2.runtime;
 
-import java.util.HashMap;
-import java.util.Map;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Patcher;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallingContext;
+import org.xml.sax.SAXException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the component values of a record while its element is being unmarshalled.
+ *
+ * <p>
+ * Records are immutable, so the unmarshaller uses this object as the target
+ * of the properties of the record class, and invokes the canonical constructor
+ * once the element ends.
+ *
+ * <p>
+ * Instances are owned by {@link UnmarshallingContext}, which keeps one per
+ * nesting level of records and reuses them from one record to the next.
+ *
+ * @see RecordInstantiator
+ * @see UnmarshallingContext#startRecord(RecordInstantiator)
+ */
+public final class RecordBuilder {
+
+    private RecordInstantiator<?> instantiator;
+
+    /**
+     * Component values in the declaration order.
+     */
+    private Object[] values = EMPTY;
+
+    /**
+     * IDs of the record, bound to it once it's created.
+     */
+    private final List<String> ids = new ArrayList<>();
+
+    /**
+     * Jobs that set the IDREF components, executed before the record is created.
+     */
+    private final List<Patcher> patchers = new ArrayList<>();
+
+    public RecordBuilder() {}
+
+    /**
+     * Prepares this frame for a new record of the given type.
+     */
+    public void reset(RecordInstantiator<?> instantiator) {
+        this.instantiator = instantiator;
+        int size = instantiator.getComponentCount();
+        if (values.length != size)
+            values = new Object[size];
+        instantiator.fillDefaults(values);
+        ids.clear();
+        patchers.clear();
+    }
+
+    /**
+     * Gets the record class being unmarshalled.
+     */
+    public Class<?> getType() {
+        return instantiator.type;
+    }
+
+    public Object get(int index) {
+        return values[index];
+    }
+
+    public void set(int index, Object value) {
+        // setting null means resetting to the VM default value, just like the other accessors do
+        values[index] = value == null ? instantiator.getDefault(index) : value;
+    }
 
-import org.glassfish.jaxb.core.v2.util.RecordComponentProxy;
+    /**
+     * Adds an ID of the record being unmarshalled.
+     *
+     * @see UnmarshallingContext#addToIdTable(String)
+     */
+    public void addId(String id) {
+        ids.add(id);
+    }
 
-public class RecordBuilder<C> {
-	private Map<RecordComponentProxy, Object> recordStore = new HashMap<>();
-	private Class<C> clazz;
+    public List<String> getIds() {
+        return ids;
+    }
 
-	public RecordBuilder(Class<C> clazz) {
-		this.clazz = clazz;
-	}
+    /**
+     * Adds a job to be executed by {@link #runPatchers()}.
+     *
+     * @see UnmarshallingContext#addPatcher(Object, Patcher)
+     */
+    public void addPatcher(Patcher job) {
+        patchers.add(job);
+    }
 
-	public void add(RecordComponentProxy rc, Object o) {
-		recordStore.put(rc, o);
-	}
+    /**
+     * Executes the jobs added so far. Objects whose IDs aren't bound yet,
+     * including the record itself, can't be referred to.
+     */
+    public void runPatchers() throws SAXException {
+        for (int i = 0; i < patchers.size(); i++)
+            patchers.get(i).run();
+        patchers.clear();
+    }
 
-	public C build() {
-		return RecordComponentProxy.instanceOfMap2(clazz, recordStore);
-	}
+    /**
+     * Creates the record from the collected values, and releases them.
+     */
+    public Object build() throws ReflectiveOperationException {
+        try {
+            return instantiator.newInstance(values);
+        } finally {
+            Arrays.fill(values, null);
+        }
+    }
 
+    private static final Object[] EMPTY = new Object[0];
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime;
+
+import org.glassfish.jaxb.core.v2.util.RecordComponentProxy;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.opt.OptimizedAccessorFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates instances of a record class through its canonical constructor.
+ *
+ * <p>
+ * The canonical constructor and the default value of each component
+ * are resolved once per {@link ClassBeanInfoImpl}. The unmarshaller then
+ * collects the component values into a {@link RecordBuilder}, indexed by
+ * the position of the component in the record declaration, and hands the
+ * whole frame over to {@link #newInstance(Object[])}.
+ *
+ * @see RecordBuilder
+ */
+public final class RecordInstantiator<C> {
+
+    private static final Logger logger = org.glassfish.jaxb.core.Utils.getClassLogger();
+
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    public final Class<C> type;
+
+    private final Constructor<C> constructor;
+
+    /**
+     * {@code (Object[])Object} handle to {@link #constructor}.
+     * Null if the constructor is only accessible through reflection.
+     */
+    private final MethodHandle handle;
+
+    /**
+     * Values of the components that didn't receive any value,
+     * so that primitive components get their VM default instead of null.
+     */
+    private final Object[] defaults;
+
+    private RecordInstantiator(Class<C> type, Constructor<C> constructor, MethodHandle handle, Object[] defaults) {
+        this.type = type;
+        this.constructor = constructor;
+        this.handle = handle;
+        this.defaults = defaults;
+    }
+
+    /**
+     * Resolves the canonical constructor of the given record class.
+     */
+    public static <C> RecordInstantiator<C> create(Class<C> recordClass) {
+        RecordComponentProxy[] components = RecordComponentProxy.recordComponents(recordClass);
+        Class<?>[] types = new Class<?>[components.length];
+        Object[] defaults = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+            if (types[i].isPrimitive())
+                defaults[i] = Array.get(Array.newInstance(types[i], 1), 0);
+        }
+
+        Constructor<C> c;
+        try {
+            c = recordClass.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            // every record has a canonical constructor
+            throw new IllegalStateException(e);
+        }
+
+        if (!Modifier.isPublic(c.getModifiers()) || !Modifier.isPublic(recordClass.getModifiers())) {
+            try {
+                c.setAccessible(true);
+            } catch (SecurityException e) {
+                // without the permission the record can't be created at all,
+                // so fail when the context is created rather than on the first unmarshal.
+                logger.log(Level.FINE, "Unable to make the constructor of " + recordClass + " accessible", e);
+                throw e;
+            }
+        }
+
+        MethodHandle mh = OptimizedAccessorFactory.unreflect(c, false);
+        if (mh != null)
+            mh = mh.asSpreader(Object[].class, types.length).asType(SPREAD_TYPE);
+
+        return new RecordInstantiator<>(recordClass, c, mh, defaults);
+    }
+
+    /**
+     * Number of components of the record.
+     */
+    public int getComponentCount() {
+        return defaults.length;
+    }
+
+    /**
+     * Gets the value used for the component at the given index
+     * when the document doesn't provide one.
+     */
+    public Object getDefault(int index) {
+        return defaults[index];
+    }
+
+    /**
+     * Copies the default component values into the given frame.
+     */
+    void fillDefaults(Object[] frame) {
+        System.arraycopy(defaults, 0, frame, 0, defaults.length);
+    }
+
+    /**
+     * Invokes the canonical constructor.
+     *
+     * @param args
+     *      exactly {@link #getComponentCount()} values in the declaration order.
+     */
+    @SuppressWarnings({"unchecked"})
+    public C newInstance(Object[] args) throws ReflectiveOperationException {
+        if (handle == null)
+            return constructor.newInstance(args);
+        try {
+            return (C) (Object) handle.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the heap retained by a {@link JAXBContextImpl}.
+ *
+ * <p>
+ * Walks the objects reachable from the context through instance fields, and sizes them
+ * as a 64-bit JVM with compressed references lays them out. JDK objects are not looked
+ * into, except for maps, collections and arrays, which are walked through their public API.
+ * Classes, class loaders, reflection objects, annotations, enum constants and static fields
+ * are shared with the rest of the application, and are not counted.
+ */
+final class RetainedSize {
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    /**
+     * Size of a {@code HashMap.Node}.
+     */
+    private static final int MAP_ENTRY = 32;
+    /**
+     * Size of a {@code LinkedHashMap.Entry} or of a {@code TreeMap.Entry}.
+     */
+    private static final int LINKED_MAP_ENTRY = 40;
+    /**
+     * Shallow size of the {@code HashMap} behind a {@code HashSet}.
+     */
+    private static final int SET_MAP = 48;
+    /**
+     * Size of a node of a linked collection.
+     */
+    private static final int NODE = 24;
+
+    /**
+     * Shallow size and readable reference fields of a class.
+     */
+    private static final class Layout {
+        final long size;
+        final Field[] references;
+
+        Layout(long size, Field[] references) {
+            this.size = size;
+            this.references = references;
+        }
+    }
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<Layout>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            long size = HEADER;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                boolean readable = !isJdk(c);
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers()))
+                        continue;
+                    Class<?> t = f.getType();
+                    size += t.isPrimitive() ? sizeOf(t) : REFERENCE;
+                    if (readable && !t.isPrimitive() && trySetAccessible(f))
+                        references.add(f);
+                }
+            }
+            return new Layout(align(size), references.toArray(new Field[0]));
+        }
+    };
+
+    private final Object root;
+    private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Deque<Object> pending = new ArrayDeque<>();
+    private long size;
+
+    private RetainedSize(Object root) {
+        this.root = root;
+    }
+
+    /**
+     * Estimates the number of bytes retained by the given object.
+     */
+    static long of(Object root) {
+        RetainedSize r = new RetainedSize(root);
+        r.add(root);
+        Object o;
+        while ((o = r.pending.poll()) != null)
+            r.visit(o);
+        return r.size;
+    }
+
+    private void add(Object o) {
+        if (o == null || isShared(o) || !seen.add(o))
+            return;
+        pending.push(o);
+    }
+
+    private boolean isShared(Object o) {
+        return o instanceof Class || o instanceof ClassLoader || o instanceof Member
+            || o instanceof MethodHandle || o instanceof Module || o instanceof Package
+            || o instanceof Thread || o instanceof Annotation || o instanceof Enum
+            // other contexts are not retained by this one
+            || (o instanceof JAXBContextImpl && o != root);
+    }
+
+    private void visit(Object o) {
+        Class<?> type = o.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(o);
+            Class<?> component = type.getComponentType();
+            if (component.isPrimitive()) {
+                size += align(ARRAY_HEADER + (long) length * sizeOf(component));
+            } else {
+                size += align(ARRAY_HEADER + (long) length * REFERENCE);
+                for (Object item : (Object[]) o)
+                    add(item);
+            }
+            return;
+        }
+
+        Layout layout = LAYOUTS.get(type);
+        size += layout.size;
+
+        if (o instanceof String) {
+            // compact strings, latin-1 in most cases
+            size += align(ARRAY_HEADER + ((String) o).length());
+        } else if (o instanceof Map) {
+            Map<?,?> map = (Map<?,?>) o;
+            if (o instanceof HashMap || o instanceof ConcurrentHashMap || o instanceof WeakHashMap || o instanceof Hashtable)
+                size += hashTable(map.size(), o instanceof LinkedHashMap ? LINKED_MAP_ENTRY : MAP_ENTRY);
+            else if (o instanceof TreeMap)
+                size += (long) map.size() * LINKED_MAP_ENTRY;
+            // otherwise small maps, whose entries are counted as fields
+            for (Map.Entry<?,?> e : map.entrySet()) {
+                add(e.getKey());
+                add(e.getValue());
+            }
+        } else if (o instanceof Collection) {
+            Collection<?> collection = (Collection<?>) o;
+            if (o instanceof HashSet)
+                size += SET_MAP + hashTable(collection.size(), o instanceof LinkedHashSet ? LINKED_MAP_ENTRY : MAP_ENTRY);
+            else if (o instanceof RandomAccess || o instanceof ArrayDeque)
+                size += align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+            else
+                size += (long) collection.size() * NODE;
+            for (Object item : collection)
+                add(item);
+        }
+
+        for (Field f : layout.references) {
+            try {
+                add(f.get(o));
+            } catch (IllegalAccessException e) {
+                // not counted
+            }
+        }
+    }
+
+    /**
+     * Size of the entries and of the table of a hash map.
+     */
+    private static long hashTable(int entries, int entrySize) {
+        if (entries == 0)
+            return 0; // the table is allocated on the first put
+        return (long) entries * entrySize + align(ARRAY_HEADER + (long) tableSize(entries) * REFERENCE);
+    }
+
+    /**
+     * Table length of a hash map with the default load factor.
+     */
+    private static int tableSize(int entries) {
+        int n = 16;
+        while (n * 0.75f < entries)
+            n <<= 1;
+        return n;
+    }
+
+    private static boolean isJdk(Class<?> c) {
+        String module = c.getModule().getName();
+        return module != null && (module.startsWith("java.") || module.startsWith("jdk."));
+    }
+
+    private static boolean trySetAccessible(Field f) {
+        try {
+            return f.trySetAccessible();
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+
+    private static int sizeOf(Class<?> primitive) {
+        if (primitive == long.class || primitive == double.class)
+            return 8;
+        if (primitive == int.class || primitive == float.class)
+            return 4;
+        if (primitive == short.class || primitive == char.class)
+            return 2;
+        return 1;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -22,7 +22,9 @@ import org.glassfish.jaxb.runtime.v2.runtime.output.Pcdata;
 import org.glassfish.jaxb.runtime.v2.runtime.output.XmlOutput;
 import org.glassfish.jaxb.runtime.v2.runtime.property.Property;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Base64Data;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.DoubleData;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.IntData;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.LongData;
 import org.glassfish.jaxb.runtime.v2.util.CollisionCheckStack;
 import jakarta.activation.MimeType;
 import jakarta.xml.bind.*;
@@ -159,6 +161,16 @@ public final class XMLSerializer extends Coordinator {
      */
     private final IntData intData = new IntData();
 
+    /**
+     * Cached instance of {@link LongData}.
+     */
+    private final LongData longData = new LongData();
+
+    /**
+     * Cached instance of {@link DoubleData}.
+     */
+    private final DoubleData doubleData = new DoubleData();
+
     public AttachmentMarshaller attachmentMarshaller;
 
     /*package*/ XMLSerializer( MarshallerImpl _owner ) {
@@ -336,6 +348,21 @@ public final class XMLSerializer extends Coordinator {
         leafElement(tagName,intData,fieldName);
     }
 
+    public void leafElement( Name tagName, long data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        longData.reset(data);
+        leafElement(tagName,longData,fieldName);
+    }
+
+    public void leafElement( Name tagName, double data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        doubleData.reset(data);
+        leafElement(tagName,doubleData,fieldName);
+    }
+
+    public void leafElement( Name tagName, float data, String fieldName ) throws SAXException, IOException, XMLStreamException {
+        doubleData.reset(data);
+        leafElement(tagName,doubleData,fieldName);
+    }
+
     /**
      * Marshalls text.
      *
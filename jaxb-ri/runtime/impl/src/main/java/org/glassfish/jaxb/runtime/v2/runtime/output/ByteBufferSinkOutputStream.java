@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.output;
+
+import org.glassfish.jaxb.runtime.marshaller.ByteBufferSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link OutputStream} that writes into the buffers of a {@link ByteBufferSink}.
+ *
+ * <p>
+ * Used for the encodings {@link UTF8XmlOutput} doesn't handle.
+ * A buffer is taken when there is something to write into it,
+ * and handed back when it is full or the stream is flushed.
+ *
+ * @since 4.0.1
+ */
+public final class ByteBufferSinkOutputStream extends OutputStream {
+
+    private final ByteBufferSink sink;
+
+    /**
+     * The buffer being filled, or null.
+     */
+    private ByteBuffer target;
+
+    public ByteBufferSinkOutputStream(ByteBufferSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        target().put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            ByteBuffer t = target();
+            int n = Math.min(len, t.remaining());
+            t.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Returns the buffer to write into, handing over the current one if it is full.
+     */
+    private ByteBuffer target() throws IOException {
+        if (target != null && !target.hasRemaining())
+            flush();
+        if (target == null) {
+            ByteBuffer b = sink.getBuffer();
+            if (b == null || !b.hasRemaining())
+                throw new IOException("ByteBufferSink returned a buffer with no space remaining");
+            target = b;
+        }
+        return target;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (target != null) {
+            ByteBuffer b = target;
+            target = null;
+            b.flip();
+            sink.write(b);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -13,6 +13,7 @@ package org.glassfish.jaxb.runtime.v2.runtime.output;
 import com.sun.istack.FinalArrayList;
 import org.glassfish.jaxb.core.marshaller.CharacterEscapeHandler;
 import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.marshaller.ByteBufferSink;
 import org.glassfish.jaxb.runtime.v2.runtime.Name;
 
 import java.io.IOException;
@@ -34,6 +35,17 @@ public class C14nXmlOutput extends UTF8XmlOutput {
             staticAttributes[i] = new StaticAttribute();
     }
 
+    /**
+     * @since 4.0.1
+     */
+    public C14nXmlOutput(ByteBufferSink sink, Encoded[] localNames, boolean namedAttributesAreOrdered, CharacterEscapeHandler escapeHandler) {
+        super(sink, localNames, escapeHandler);
+        this.namedAttributesAreOrdered = namedAttributesAreOrdered;
+
+        for( int i=0; i<staticAttributes.length; i++ )
+            staticAttributes[i] = new StaticAttribute();
+    }
+
     /**
      * Hosts statically known attributes.
      *
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.output;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes text for {@link UTF8XmlOutput} in a charset other than UTF-8.
+ *
+ * <p>
+ * The charset must encode ASCII the way UTF-8 does, so that the tags and
+ * the escaped characters can still be written as they are. Characters the charset
+ * can't encode are written as numeric character references in text and attribute
+ * values, and replaced by the charset's replacement elsewhere. Lone surrogates,
+ * which no reference can stand for in XML, are replaced by the charset's replacement
+ * everywhere, as an {@link java.io.OutputStreamWriter} would.
+ *
+ * <p>
+ * Single-byte charsets, such as ISO-8859-1 and windows-1252, are encoded through
+ * a lookup table. Others go through a {@link CharsetEncoder}, one run of characters
+ * between escaped characters at a time. Instances are not thread-safe.
+ *
+ * @since 4.0.1
+ */
+public abstract class CharsetTextEncoder {
+
+    /**
+     * The longest numeric character reference, {@code "&#1114111;"}, which is also
+     * longer than the replacement of any charset.
+     */
+    private static final int MAX_REFERENCE_LENGTH = 10;
+
+    /**
+     * Tables of single-byte charsets, by charset name.
+     */
+    private static final Map<String, SingleByteTable> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * Whether charsets encode ASCII as UTF-8 does, by charset name.
+     */
+    private static final Map<String, Boolean> ASCII_COMPATIBLE = new ConcurrentHashMap<>();
+
+    final Charset charset;
+
+    /**
+     * The encoding as written in the XML declaration.
+     */
+    final String encoding;
+
+    /**
+     * The charset's replacement, written for lone surrogates.
+     */
+    final byte[] replacement;
+
+    private CharsetTextEncoder(Charset charset, String encoding) {
+        this.charset = charset;
+        this.encoding = encoding;
+        this.replacement = charset.newEncoder().replacement();
+    }
+
+    /**
+     * Creates an encoder for the given charset.
+     *
+     * @param encoding
+     *      the encoding to write in the XML declaration.
+     * @return
+     *      null if the charset can't encode or doesn't encode ASCII as UTF-8 does.
+     */
+    public static CharsetTextEncoder create(Charset charset, String encoding) {
+        if (!charset.canEncode() || !ASCII_COMPATIBLE.computeIfAbsent(charset.name(), n -> isAsciiCompatible(charset)))
+            return null;
+        CharsetEncoder encoder = charset.newEncoder();
+        if (encoder.maxBytesPerChar() == 1f) {
+            SingleByteTable table = TABLES.computeIfAbsent(charset.name(), n -> new SingleByteTable(charset));
+            return new SingleByte(charset, encoding, table);
+        }
+        return new Batched(charset, encoding, encoder);
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        char[] ascii = new char[0x80];
+        byte[] expected = new byte[0x80];
+        for (int i = 0; i < 0x80; i++) {
+            ascii[i] = (char) i;
+            expected[i] = (byte) i;
+        }
+        try {
+            ByteBuffer b = charset.newEncoder().encode(CharBuffer.wrap(ascii));
+            byte[] actual = new byte[b.remaining()];
+            b.get(actual);
+            return Arrays.equals(expected, actual);
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Encodes and escapes a text or attribute value into the given buffer.
+     *
+     * @param entities
+     *      replacements of ASCII characters, from {@link EscapeTable}.
+     * @param maxEntityLength
+     *      the longest replacement.
+     */
+    abstract void setEscape(Encoded out, String text, byte[][] entities, int maxEntityLength);
+
+    /**
+     * Encodes a name or raw markup into the given buffer, leaving room for
+     * one more byte. Characters that can't be encoded are replaced.
+     */
+    void set(Encoded out, String text) {
+        byte[] b = text.getBytes(charset);
+        out.ensureSize(b.length + 1);
+        System.arraycopy(b, 0, out.buf, 0, b.length);
+        out.len = b.length;
+    }
+
+    /**
+     * Writes {@code "&#codePoint;"} at the given position, and returns the position after it.
+     */
+    static int writeReference(byte[] buf, int ptr, int codePoint) {
+        buf[ptr++] = '&';
+        buf[ptr++] = '#';
+        int start = ptr;
+        do {
+            buf[ptr++] = (byte) ('0' + codePoint % 10);
+            codePoint /= 10;
+        } while (codePoint != 0);
+        // the digits were written backwards
+        for (int i = start, j = ptr - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+        buf[ptr++] = ';';
+        return ptr;
+    }
+
+    /**
+     * Bytes of the characters a single-byte charset can encode.
+     */
+    private static final class SingleByteTable {
+        /**
+         * Byte of each character below 0x100, or 0 if it can't be encoded.
+         * The NUL character is never written, so 0 is free.
+         */
+        private final byte[] low = new byte[0x100];
+
+        /**
+         * Characters from 0x100 up that can be encoded, sorted, and their bytes.
+         */
+        private final char[] highChars;
+        private final byte[] highBytes;
+
+        SingleByteTable(Charset charset) {
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            CharsetEncoder encoder = charset.newEncoder();
+            // high characters and their bytes, as (c << 8 | b), so that they sort by character
+            long[] pairs = new long[0x100];
+            int n = 0;
+            for (int b = 1; b < 0x100; b++) {
+                char c = decode(decoder, b);
+                if (c == 0 || !encoder.canEncode(c))
+                    continue;
+                if (c < 0x100)
+                    low[c] = (byte) b;
+                else
+                    pairs[n++] = ((long) c << 8) | b;
+            }
+            Arrays.sort(pairs, 0, n);
+            highChars = new char[n];
+            highBytes = new byte[n];
+            for (int i = 0; i < n; i++) {
+                highChars[i] = (char) (pairs[i] >>> 8);
+                highBytes[i] = (byte) pairs[i];
+            }
+        }
+
+        /**
+         * Returns the character of the given byte, or 0 if there is none.
+         */
+        private static char decode(CharsetDecoder decoder, int b) {
+            try {
+                CharBuffer cb = decoder.reset().decode(ByteBuffer.wrap(new byte[] {(byte) b}));
+                return cb.remaining() == 1 ? cb.get() : 0;
+            } catch (CharacterCodingException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * Returns the byte of the given character, or 0 if it can't be encoded.
+         */
+        byte get(char c) {
+            if (c < 0x100)
+                return low[c];
+            int i = Arrays.binarySearch(highChars, c);
+            return i >= 0 ? highBytes[i] : 0;
+        }
+    }
+
+    private static final class SingleByte extends CharsetTextEncoder {
+        private final SingleByteTable table;
+
+        SingleByte(Charset charset, String encoding, SingleByteTable table) {
+            super(charset, encoding);
+            this.table = table;
+        }
+
+        @Override
+        void setEscape(Encoded out, String text, byte[][] entities, int maxEntityLength) {
+            int length = text.length();
+            out.ensureSize(length * Math.max(maxEntityLength, MAX_REFERENCE_LENGTH) + 1);
+            byte[] buf = out.buf;
+            int ptr = 0;
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                byte[] ent;
+                if (c < 0x80) {
+                    if ((ent = entities[c]) != null) {
+                        System.arraycopy(ent, 0, buf, ptr, ent.length);
+                        ptr += ent.length;
+                    } else {
+                        buf[ptr++] = (byte) c;
+                    }
+                    continue;
+                }
+                byte b = table.get(c);
+                if (b != 0) {
+                    buf[ptr++] = b;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    ptr = writeReference(buf, ptr, Character.toCodePoint(c, text.charAt(++i)));
+                } else if (Character.isSurrogate(c)) {
+                    System.arraycopy(replacement, 0, buf, ptr, replacement.length);
+                    ptr += replacement.length;
+                } else {
+                    ptr = writeReference(buf, ptr, c);
+                }
+            }
+            out.len = ptr;
+        }
+    }
+
+    private static final class Batched extends CharsetTextEncoder {
+        private final CharsetEncoder encoder;
+        private final int maxBytesPerChar;
+
+        Batched(Charset charset, String encoding, CharsetEncoder encoder) {
+            super(charset, encoding);
+            this.encoder = encoder
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            this.maxBytesPerChar = (int) Math.ceil(encoder.maxBytesPerChar());
+        }
+
+        @Override
+        void setEscape(Encoded out, String text, byte[][] entities, int maxEntityLength) {
+            int length = text.length();
+            out.ensureSize(length * Math.max(Math.max(maxEntityLength, MAX_REFERENCE_LENGTH), maxBytesPerChar) + 1);
+            ByteBuffer bb = ByteBuffer.wrap(out.buf);
+            CharBuffer cb = CharBuffer.wrap(text);
+            int start = 0;
+            for (int i = 0; i <= length; i++) {
+                byte[] ent = null;
+                if (i < length) {
+                    char c = text.charAt(i);
+                    if (c >= 0x80 || (ent = entities[c]) == null)
+                        continue;
+                }
+                if (start < i) {
+                    cb.limit(i).position(start);
+                    bb = encode(out, cb, bb);
+                }
+                if (ent != null) {
+                    bb = ensureRemaining(out, bb, ent.length);
+                    bb.put(ent);
+                }
+                start = i + 1;
+            }
+            out.len = bb.position();
+        }
+
+        /**
+         * Encodes a run of characters, writing references for the ones that can't be encoded.
+         *
+         * @return
+         *      the buffer to continue with, which is a new one if it had to grow.
+         */
+        private ByteBuffer encode(Encoded out, CharBuffer cb, ByteBuffer bb) {
+            encoder.reset();
+            while (true) {
+                CoderResult r = encoder.encode(cb, bb, true);
+                if (r.isUnderflow())
+                    break;
+                if (r.isOverflow()) {
+                    // charsets with modes, like ISO-2022 ones, write more than maxBytesPerChar
+                    bb = ensureRemaining(out, bb, bb.capacity());
+                    continue;
+                }
+                if (r.isMalformed()) {
+                    // a lone surrogate
+                    cb.position(cb.position() + r.length());
+                    bb = ensureRemaining(out, bb, replacement.length);
+                    bb.put(replacement);
+                    continue;
+                }
+                char c = cb.get();
+                int codePoint = c;
+                if (r.length() == 2)
+                    codePoint = Character.toCodePoint(c, cb.get());
+                bb = ensureRemaining(out, bb, MAX_REFERENCE_LENGTH);
+                bb.position(writeReference(bb.array(), bb.position(), codePoint));
+            }
+            while (encoder.flush(bb).isOverflow())
+                bb = ensureRemaining(out, bb, bb.capacity());
+            return bb;
+        }
+
+        private static ByteBuffer ensureRemaining(Encoded out, ByteBuffer bb, int n) {
+            if (bb.remaining() >= n)
+                return bb;
+            byte[] buf = Arrays.copyOf(out.buf, bb.capacity() + Math.max(n, bb.capacity()));
+            out.buf = buf;
+            return ByteBuffer.wrap(buf).position(bb.position());
+        }
+    }
+}
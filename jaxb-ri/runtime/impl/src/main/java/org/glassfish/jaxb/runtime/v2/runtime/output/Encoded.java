@@ -78,8 +78,22 @@ public final class Encoded {
      *      if true, characters like \t, \r, and \n are also escaped.
      */
     public void setEscape(String text, boolean isAttribute) {
+        // in the worst case the text is like """""", so we need 6 bytes per char
+        setEscape(text, isAttribute ? attributeEntities : entities, 6);
+    }
+
+    /**
+     * Fill in the buffer by encoding the specified characters
+     * while escaping the ASCII characters that have an entry in the table.
+     *
+     * @param entities
+     *      UTF-8 encoded replacements keyed by character code.
+     * @param maxBytesPerChar
+     *      the longest replacement, or 3 if they are shorter.
+     */
+    void setEscape(String text, byte[][] entities, int maxBytesPerChar) {
         int length = text.length();
-        ensureSize(length*6+1);     // in the worst case the text is like """""", so we need 6 bytes per char
+        ensureSize(length*maxBytesPerChar+1);
 
         int ptr = 0;
 
@@ -108,16 +122,9 @@ public final class Encoded {
             } else {
                 byte[] ent;
 
-                if((ent=attributeEntities[chr])!=null) {
-                    // the majority of the case is just printed as a char,
-                    // so it's very important to reject them as quickly as possible
-
-                    // check again to see if this really needs to be escaped
-                    if(isAttribute || entities[chr]!=null)
-                        ptr1 = writeEntity(ent,ptr1);
-                    else
-                        buf[ptr1++] = (byte)chr;
-                } else
+                if((ent=entities[chr])!=null)
+                    ptr1 = writeEntity(ent,ptr1);
+                else
                     buf[ptr1++] = (byte)chr;
             }
             ptr = ptr1;
@@ -161,8 +168,8 @@ public final class Encoded {
      *
      * In attributes we need to encode more characters.
      */
-    private static final byte[][] entities = new byte[0x80][];
-    private static final byte[][] attributeEntities = new byte[0x80][];
+    static final byte[][] entities = new byte[0x80][];
+    static final byte[][] attributeEntities = new byte[0x80][];
 
     static {
         add('&',"&amp;",false);
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.output;
+
+import org.glassfish.jaxb.core.marshaller.CharacterEscapeHandler;
+import org.glassfish.jaxb.core.marshaller.MinimumEscapeHandler;
+import org.glassfish.jaxb.core.marshaller.NoEscapeHandler;
+import org.glassfish.jaxb.runtime.marshaller.UTF8EscapeHandler;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * How {@link UTF8XmlOutput} escapes text and attribute values: the UTF-8 bytes
+ * written in place of each ASCII character, or null for the ones written as is.
+ * Characters outside ASCII are never escaped.
+ *
+ * <p>
+ * Since escaped characters are ASCII, they can be looked for in UTF-8 encoded
+ * text eight bytes at a time (see {@link #indexOfEscaped(byte[], int, int, boolean)}),
+ * and the runs between them copied as they are.
+ *
+ * @since 4.0.1
+ */
+final class EscapeTable {
+
+    /**
+     * What {@link Encoded#setEscape(String, boolean)} does.
+     */
+    static final EscapeTable DEFAULT = new EscapeTable(Encoded.entities, Encoded.attributeEntities);
+
+    /**
+     * What {@link MinimumEscapeHandler} does.
+     */
+    static final EscapeTable MINIMUM;
+
+    /**
+     * What {@link NoEscapeHandler} does.
+     */
+    static final EscapeTable NONE = new EscapeTable(new byte[0x80][], new byte[0x80][]);
+
+    static {
+        byte[][] text = new byte[0x80][];
+        text['&'] = UTF8XmlOutput.toBytes("&amp;");
+        text['<'] = UTF8XmlOutput.toBytes("&lt;");
+        text['>'] = UTF8XmlOutput.toBytes("&gt;");
+        text['\r'] = UTF8XmlOutput.toBytes("&#13;");
+        byte[][] attribute = text.clone();
+        attribute['\n'] = UTF8XmlOutput.toBytes("&#10;");
+        attribute['"'] = UTF8XmlOutput.toBytes("&quot;");
+        MINIMUM = new EscapeTable(text, attribute);
+    }
+
+    /**
+     * At most this many escaped characters are looked for eight bytes at a time.
+     * Otherwise the bytes are checked one by one.
+     */
+    private static final int MAX_PATTERNS = 8;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    final byte[][] text;
+    final byte[][] attribute;
+
+    /**
+     * Each escaped character repeated in the eight bytes of a long, or null.
+     */
+    private final long[] textPatterns;
+    private final long[] attributePatterns;
+
+    /**
+     * The largest number of bytes a character is written with, escaped or encoded in UTF-8.
+     */
+    final int maxBytesPerChar;
+
+    private EscapeTable(byte[][] text, byte[][] attribute) {
+        this.text = text;
+        this.attribute = attribute;
+        this.textPatterns = patterns(text);
+        this.attributePatterns = patterns(attribute);
+        int max = 3;
+        for (int i = 0; i < 0x80; i++) {
+            if (text[i] != null)
+                max = Math.max(max, text[i].length);
+            if (attribute[i] != null)
+                max = Math.max(max, attribute[i].length);
+        }
+        this.maxBytesPerChar = max;
+    }
+
+    private static long[] patterns(byte[][] entities) {
+        long[] patterns = new long[MAX_PATTERNS];
+        int n = 0;
+        for (int i = 0; i < 0x80; i++) {
+            if (entities[i] != null) {
+                if (n == MAX_PATTERNS)
+                    return null;
+                patterns[n++] = i * ONES;
+            }
+        }
+        long[] r = new long[n];
+        System.arraycopy(patterns, 0, r, 0, n);
+        return r;
+    }
+
+    /**
+     * Returns the table for the given handler, or null if it escapes in a way
+     * a table can't describe.
+     *
+     * @param handler
+     *      null for {@link #DEFAULT}.
+     */
+    static EscapeTable of(CharacterEscapeHandler handler) {
+        if (handler == null)
+            return DEFAULT;
+        if (handler == MinimumEscapeHandler.theInstance)
+            return MINIMUM;
+        if (handler.getClass() == NoEscapeHandler.class)
+            return NONE;
+        if (handler instanceof UTF8EscapeHandler) {
+            UTF8EscapeHandler h = (UTF8EscapeHandler) handler;
+            byte[][] text = new byte[0x80][];
+            byte[][] attribute = new byte[0x80][];
+            for (char c = 0; c < 0x80; c++) {
+                text[c] = h.escape(c, false);
+                attribute[c] = h.escape(c, true);
+            }
+            return new EscapeTable(text, attribute);
+        }
+        return null;
+    }
+
+    byte[][] get(boolean isAttribute) {
+        return isAttribute ? attribute : text;
+    }
+
+    /**
+     * Returns the index of the first byte to escape in {@code b[from..to)}, or -1 if there is none.
+     */
+    int indexOfEscaped(byte[] b, int from, int to, boolean isAttribute) {
+        long[] patterns = isAttribute ? attributePatterns : textPatterns;
+        int i = from;
+        if (patterns != null) {
+            for (; i + 8 <= to; i += 8) {
+                long word = (long) LONGS.get(b, i);
+                long found = 0;
+                for (long p : patterns) {
+                    // sets the high bit of each byte of x that is zero. Bytes above the
+                    // first zero byte may be set too, but the lowest bit set is exact.
+                    long x = word ^ p;
+                    found |= (x - ONES) & ~x & HIGH_BITS;
+                }
+                if (found != 0)
+                    return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        byte[][] entities = get(isAttribute);
+        for (; i < to; i++) {
+            int c = b[i];
+            if (c >= 0 && entities[c] != null)
+                return i;
+        }
+        return -1;
+    }
+}
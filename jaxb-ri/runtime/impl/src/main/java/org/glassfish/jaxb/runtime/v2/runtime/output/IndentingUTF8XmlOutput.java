@@ -11,6 +11,7 @@
 package org.glassfish.jaxb.runtime.v2.runtime.output;
 
 import org.glassfish.jaxb.core.marshaller.CharacterEscapeHandler;
+import org.glassfish.jaxb.runtime.marshaller.ByteBufferSink;
 import org.glassfish.jaxb.runtime.v2.runtime.Name;
 import org.xml.sax.SAXException;
 
@@ -54,18 +55,31 @@ public final class IndentingUTF8XmlOutput extends UTF8XmlOutput {
      */
     public IndentingUTF8XmlOutput(OutputStream out, String indentStr, Encoded[] localNames, CharacterEscapeHandler escapeHandler) {
         super(out, localNames, escapeHandler);
+        this.unitLen = indentStr!=null ? new Encoded(indentStr).len : 0;
+        this.indent8 = createIndent8(indentStr);
+    }
+
+    /**
+     * @param indentStr
+     *      set to null for no indentation and optimal performance.
+     *      otherwise the string is used for indentation.
+     * @since 4.0.1
+     */
+    public IndentingUTF8XmlOutput(ByteBufferSink sink, String indentStr, Encoded[] localNames, CharacterEscapeHandler escapeHandler) {
+        super(sink, localNames, escapeHandler);
+        this.unitLen = indentStr!=null ? new Encoded(indentStr).len : 0;
+        this.indent8 = createIndent8(indentStr);
+    }
 
-        if(indentStr!=null) {
-            Encoded e = new Encoded(indentStr);
-            indent8 = new Encoded();
-            indent8.ensureSize(e.len*8);
-            unitLen = e.len;
-            for( int i=0; i<8; i++ )
-                System.arraycopy(e.buf, 0, indent8.buf, unitLen*i, unitLen);
-        } else {
-            this.indent8 = null;
-            this.unitLen = 0;
-        }
+    private static Encoded createIndent8(String indentStr) {
+        if(indentStr==null)
+            return null;
+        Encoded e = new Encoded(indentStr);
+        Encoded indent8 = new Encoded();
+        indent8.ensureSize(e.len*8);
+        for( int i=0; i<8; i++ )
+            System.arraycopy(e.buf, 0, indent8.buf, e.len*i, e.len);
+        return indent8;
     }
 
     @Override
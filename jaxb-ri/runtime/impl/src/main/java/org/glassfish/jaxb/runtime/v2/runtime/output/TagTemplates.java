@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.output;
+
+import org.glassfish.jaxb.runtime.v2.runtime.Name;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encoded start and end tags of element names, such as
+ * {@code "<p:local"} and {@code "</p:local>"}, so that {@link UTF8XmlOutput}
+ * writes a tag with a single copy.
+ *
+ * <p>
+ * The tags are kept by {@link Name#qNameIndex}, together with the prefix they
+ * were built with, and are rebuilt when a name is written with another prefix.
+ * They are all dropped when a document is written in another charset, since
+ * prefixes may not be ASCII. An instance can therefore be kept by a marshaller
+ * across documents.
+ * It is not thread-safe.
+ *
+ * @since 4.0.1
+ */
+public final class TagTemplates {
+
+    private String[] prefixes = new String[16];
+    private byte[][] startTags = new byte[16][];
+    private byte[][] endTags = new byte[16][];
+
+    /**
+     * The charset the tags are encoded in.
+     */
+    private Charset charset = StandardCharsets.UTF_8;
+
+    public TagTemplates() {}
+
+    /**
+     * Returns {@code "<prefix:local"} for the given name.
+     *
+     * @param prefix
+     *      the prefix the name is written with.
+     * @param encodedPrefix
+     *      the encoded prefix, followed by ':' unless it is empty.
+     * @param localName
+     *      the encoded local name.
+     */
+    byte[] getStartTag(Name name, String prefix, Encoded encodedPrefix, Encoded localName) {
+        int i = name.qNameIndex;
+        if(!matches(i, prefix))
+            build(i, prefix, encodedPrefix, localName);
+        return startTags[i];
+    }
+
+    /**
+     * Returns {@code "</prefix:local>"} for the given name.
+     *
+     * @see #getStartTag(Name, String, Encoded, Encoded)
+     */
+    byte[] getEndTag(Name name, String prefix, Encoded encodedPrefix, Encoded localName) {
+        int i = name.qNameIndex;
+        if(!matches(i, prefix))
+            build(i, prefix, encodedPrefix, localName);
+        return endTags[i];
+    }
+
+    /**
+     * Sets the charset of the document about to be written,
+     * dropping the tags if they were encoded in another one.
+     */
+    void setCharset(Charset charset) {
+        if(!charset.equals(this.charset)) {
+            this.charset = charset;
+            Arrays.fill(prefixes, null);
+            Arrays.fill(startTags, null);
+            Arrays.fill(endTags, null);
+        }
+    }
+
+    private boolean matches(int i, String prefix) {
+        if(i>=prefixes.length)
+            return false;
+        String p = prefixes[i];
+        return p==prefix || (p!=null && p.equals(prefix));
+    }
+
+    private void build(int i, String prefix, Encoded encodedPrefix, Encoded localName) {
+        if(i>=prefixes.length) {
+            int size = Math.max(i+1, prefixes.length*2);
+            String[] p = new String[size];
+            System.arraycopy(prefixes, 0, p, 0, prefixes.length);
+            prefixes = p;
+            byte[][] s = new byte[size][];
+            System.arraycopy(startTags, 0, s, 0, startTags.length);
+            startTags = s;
+            byte[][] e = new byte[size][];
+            System.arraycopy(endTags, 0, e, 0, endTags.length);
+            endTags = e;
+        }
+
+        int nameLen = encodedPrefix.len + localName.len;
+
+        byte[] start = new byte[nameLen+1];
+        start[0] = '<';
+        System.arraycopy(encodedPrefix.buf, 0, start, 1, encodedPrefix.len);
+        System.arraycopy(localName.buf, 0, start, 1+encodedPrefix.len, localName.len);
+
+        byte[] end = new byte[nameLen+3];
+        end[0] = '<';
+        end[1] = '/';
+        System.arraycopy(start, 1, end, 2, nameLen);
+        end[nameLen+2] = '>';
+
+        prefixes[i] = prefix;
+        startTags[i] = start;
+        endTags[i] = end;
+    }
+}
@@ -12,6 +12,7 @@ package org.glassfish.jaxb.runtime.v2.runtime.output;
 
 import org.glassfish.jaxb.core.marshaller.CharacterEscapeHandler;
 import org.glassfish.jaxb.runtime.DatatypeConverterImpl;
+import org.glassfish.jaxb.runtime.marshaller.ByteBufferSink;
 import org.glassfish.jaxb.runtime.v2.runtime.MarshallerImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.Name;
 import org.glassfish.jaxb.runtime.v2.runtime.XMLSerializer;
@@ -20,7 +21,9 @@ import org.xml.sax.SAXException;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * {@link XmlOutput} implementation specialized for UTF-8.
@@ -29,8 +32,29 @@ import java.io.StringWriter;
  * @author Paul Sandoz
  */
 public class UTF8XmlOutput extends XmlOutputAbstractImpl {
+    /**
+     * Null if the output goes to {@link #sink}.
+     */
     protected final OutputStream out;
 
+    /**
+     * Null if the output goes to {@link #out}.
+     */
+    private final ByteBufferSink sink;
+
+    /**
+     * The buffer of {@link #sink} being filled.
+     */
+    private ByteBuffer target;
+
+    /**
+     * True if {@link #octetBuffer} is the array of {@link #target}.
+     * Otherwise it is {@link #stagingBuffer}, which is copied to the target.
+     */
+    private boolean aliased;
+
+    private byte[] stagingBuffer;
+
     /** prefixes encoded. */
     private Encoded[] prefixes = new Encoded[8];
 
@@ -55,11 +79,14 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
 
     /** Buffer of octets for writing. */
     // TODO: Obtain buffer size from property on the JAXB context
-    protected final byte[] octetBuffer = new byte[1024];
+    protected byte[] octetBuffer;
     
     /** Index in buffer to write to. */
     protected int octetBufferIndex;
 
+    /** Index in buffer past the last byte that can be written. */
+    private int octetBufferLimit;
+
     /**
      * Set to true to indicate that we need to write {@code '>'}
      * to close a start tag. Deferring the write of this char
@@ -74,40 +101,127 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
 
     private CharacterEscapeHandler escapeHandler = null;
 
+    /**
+     * How {@link #escapeHandler} escapes, or null if it has to be called.
+     */
+    private final EscapeTable escapeTable;
+
+    /**
+     * Receives the output of {@link #escapeHandler} when it is called. Created lazily.
+     */
+    private EscapedTextWriter escapedTextWriter;
+
+    /**
+     * Characters passed to {@link #escapeHandler}. Reused.
+     */
+    private char[] charBuffer;
+
+    /**
+     * Encodes the text if the output isn't in UTF-8. Null otherwise.
+     */
+    private CharsetTextEncoder textEncoder;
+
+    /**
+     * Start and end tags of element names.
+     */
+    private TagTemplates tagTemplates;
+
     /**
      *
      * @param localNames
      *      local names encoded in UTF-8.
      */
     public UTF8XmlOutput(OutputStream out, Encoded[] localNames, CharacterEscapeHandler escapeHandler) {
+        this(out, null, localNames, escapeHandler);
+        this.octetBuffer = new byte[BUFFER_SIZE];
+        this.octetBufferLimit = BUFFER_SIZE;
+    }
+
+    /**
+     * Creates an output that writes into the buffers of the given sink.
+     *
+     * @param localNames
+     *      local names encoded in UTF-8.
+     * @since 4.0.1
+     */
+    public UTF8XmlOutput(ByteBufferSink sink, Encoded[] localNames, CharacterEscapeHandler escapeHandler) {
+        this(null, sink, localNames, escapeHandler);
+    }
+
+    private UTF8XmlOutput(OutputStream out, ByteBufferSink sink, Encoded[] localNames, CharacterEscapeHandler escapeHandler) {
         this.out = out;
+        this.sink = sink;
         this.localNames = localNames;
         for( int i=0; i<prefixes.length; i++ )
             prefixes[i] = new Encoded();
         this.escapeHandler = escapeHandler;
+        this.escapeTable = EscapeTable.of(escapeHandler);
     }
 
     public void setHeader(String header) {
         this.header = header;
     }
 
+    /**
+     * Makes this output write in another charset than UTF-8.
+     *
+     * <p>
+     * The names and the indentation this output writes are copied as they are,
+     * so they must be ASCII.
+     *
+     * @return
+     *      false if this output can't, because its {@link CharacterEscapeHandler}
+     *      has to write into a {@link Writer}.
+     * @since 4.0.1
+     */
+    public boolean setTextEncoder(CharsetTextEncoder textEncoder) {
+        if (escapeTable == null)
+            return false;
+        this.textEncoder = textEncoder;
+        return true;
+    }
+
+    /**
+     * Sets the tag templates to use, so that they can be kept across documents.
+     * Otherwise this output creates its own.
+     *
+     * @since 4.0.1
+     */
+    public void setTagTemplates(TagTemplates tagTemplates) {
+        this.tagTemplates = tagTemplates;
+    }
+
     @Override
     public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
         super.startDocument(serializer, fragment,nsUriIndex2prefixIndex,nsContext);
 
-        octetBufferIndex = 0;
+        if(tagTemplates==null)
+            tagTemplates = new TagTemplates();
+        tagTemplates.setCharset(textEncoder!=null ? textEncoder.charset : StandardCharsets.UTF_8);
+
+        if(sink!=null) {
+            target = takeBuffer();
+            useTarget();
+        } else
+            octetBufferIndex = 0;
         if(!fragment) {
-            write(XML_DECL);
+            if(textEncoder!=null)
+                write(toBytes("<?xml version=\"1.0\" encoding=\"" + textEncoder.encoding + "\" standalone=\"yes\"?>"));
+            else
+                write(XML_DECL);
         }
         if(header!=null) {
-            textBuffer.set(header);
+            setName(textBuffer, header);
             textBuffer.write(this);
         }
     }
 
     @Override
     public void endDocument(boolean fragment) throws IOException, SAXException, XMLStreamException {
-        flushBuffer();
+        if(sink!=null)
+            drain(true);
+        else
+            flushBuffer();
         super.endDocument(fragment);
     }
 
@@ -134,8 +248,9 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
     public void beginStartTag(Name name) throws IOException {
         closeStartTag();
         int base = pushNsDecls();
-        write('<');
-        writeName(name);
+        int prefix = nsUriIndex2prefixIndex[name.nsUriIndex];
+        writeShared(tagTemplates.getStartTag(name, nsContext.getPrefix(prefix),
+                prefixes[prefix], localNames[name.localNameIndex]));
         writeNsDecls(base);
     }
 
@@ -164,7 +279,7 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
                 e.buf = EMPTY_BYTE_ARRAY;
                 e.len = 0;
             } else {
-                e.set(p);
+                setName(e, p);
                 e.append(':');
             }
         }
@@ -212,7 +327,7 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
 
     private void writeName(int prefix, String localName) throws IOException {
         writePrefix(prefix);
-        textBuffer.set(localName);
+        setName(textBuffer, localName);
         textBuffer.write(this);
     }
 
@@ -232,7 +347,7 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
     public void attribute(int prefix, String localName, String value) throws IOException {
         write(' ');
         if(prefix==-1) {
-            textBuffer.set(localName);
+            setName(textBuffer, localName);
             textBuffer.write(this);
         } else
             writeName(prefix,localName);
@@ -252,9 +367,9 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
             write(EMPTY_TAG);
             closeStartTagPending = false;
         } else {
-            write(CLOSE_TAG);
-            writeName(name);
-            write('>');
+            int prefix = nsUriIndex2prefixIndex[name.nsUriIndex];
+            writeShared(tagTemplates.getEndTag(name, nsContext.getPrefix(prefix),
+                    prefixes[prefix], localNames[name.localNameIndex]));
         }
     }
 
@@ -286,15 +401,120 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
         value.writeTo(this);
     }
 
+    /**
+     * Encodes a name, or other text that isn't escaped.
+     */
+    private void setName(Encoded e, String name) {
+        if (textEncoder != null)
+            textEncoder.set(e, name);
+        else
+            e.set(name);
+    }
+
     private void doText(String value,boolean isAttribute) throws IOException {
-        if (escapeHandler != null) {
-            StringWriter sw = new StringWriter();
-            escapeHandler.escape(value.toCharArray(), 0, value.length(), isAttribute, sw);
-            textBuffer.set(sw.toString());
+        if (escapeTable == null) {
+            doTextWithHandler(value, isAttribute);
+        } else if (textEncoder != null) {
+            textEncoder.setEscape(textBuffer, value, escapeTable.get(isAttribute), escapeTable.maxBytesPerChar);
+            textBuffer.write(this);
+        } else if (value.length() >= BULK_TEXT_LENGTH) {
+            doBulkText(value, isAttribute);
         } else {
-            textBuffer.setEscape(value, isAttribute);
+            textBuffer.setEscape(value, escapeTable.get(isAttribute), escapeTable.maxBytesPerChar);
+            textBuffer.write(this);
+        }
+    }
+
+    /**
+     * Encodes the whole value at once, then copies the runs of bytes
+     * that don't need escaping as they are.
+     */
+    private void doBulkText(String value, boolean isAttribute) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        byte[][] entities = escapeTable.get(isAttribute);
+        int start = 0;
+        while (true) {
+            int i = escapeTable.indexOfEscaped(utf8, start, utf8.length, isAttribute);
+            if (i < 0) {
+                write(utf8, start, utf8.length - start);
+                return;
+            }
+            write(utf8, start, i - start);
+            writeShared(entities[utf8[i]]);
+            start = i + 1;
+        }
+    }
+
+    private void doTextWithHandler(String value, boolean isAttribute) throws IOException {
+        int length = value.length();
+        if (charBuffer == null || charBuffer.length < length)
+            charBuffer = new char[Math.max(length, 64)];
+        value.getChars(0, length, charBuffer, 0);
+        if (escapedTextWriter == null)
+            escapedTextWriter = new EscapedTextWriter();
+        escapeHandler.escape(charBuffer, 0, length, isAttribute, escapedTextWriter);
+        escapedTextWriter.surrogate = 0;
+    }
+
+    /**
+     * Writes the characters it receives to the buffer in UTF-8.
+     */
+    private final class EscapedTextWriter extends Writer {
+        /**
+         * A surrogate waiting for the next character, or 0.
+         */
+        char surrogate;
+
+        @Override
+        public void write(int c) throws IOException {
+            writeChar((char) c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++)
+                writeChar(cbuf[i]);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++)
+                writeChar(str.charAt(i));
+        }
+
+        /**
+         * Encodes the same way as {@link Encoded#set(String)}.
+         */
+        private void writeChar(char chr) throws IOException {
+            UTF8XmlOutput out = UTF8XmlOutput.this;
+            if (surrogate != 0) {
+                int uc = (((surrogate & 0x3ff) << 10) | (chr & 0x3ff)) + 0x10000;
+                surrogate = 0;
+                out.write(0xF0 | (uc >> 18));
+                out.write(0x80 | ((uc >> 12) & 0x3F));
+                out.write(0x80 | ((uc >> 6) & 0x3F));
+                out.write(0x80 + (uc & 0x3F));
+            } else if (chr <= 0x7F) {
+                out.write(chr);
+            } else if (chr <= 0x7FF) {
+                out.write(0xC0 + (chr >> 6));
+                out.write(0x80 + (chr & 0x3F));
+            } else if (Character.MIN_HIGH_SURROGATE <= chr && chr <= Character.MAX_LOW_SURROGATE) {
+                surrogate = chr;
+            } else {
+                out.write(0xE0 + (chr >> 12));
+                out.write(0x80 + ((chr >> 6) & 0x3F));
+                out.write(0x80 + (chr & 0x3F));
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
         }
-        textBuffer.write(this);
     }
 
     public final void text(int value) throws IOException {
@@ -322,6 +542,76 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
         write(buf,idx,11-idx);
     }
 
+    public final void text(long value) throws IOException {
+        if(value==(int)value) {
+            text((int)value);
+            return;
+        }
+        closeStartTag();
+
+        // max is -9223372036854775808 and 20 digits
+        boolean minus = (value<0);
+        textBuffer.ensureSize(20);
+        byte[] buf = textBuffer.buf;
+        int idx = 20;
+
+        do {
+            int r = (int)(value%10);
+            if(r<0) r = -r;
+            buf[--idx] = (byte)('0'|r);
+            value /= 10;
+        } while(value!=0);
+
+        if(minus)   buf[--idx] = (byte)'-';
+
+        write(buf,idx,20-idx);
+    }
+
+    /**
+     * Writes a double the same way {@link DatatypeConverterImpl#_printDouble(double)} does.
+     *
+     * <p>
+     * Integral values below 10<sup>7</sup> are written as digits followed by ".0",
+     * which is what {@link Double#toString(double)} produces for them.
+     * Everything else is printed to ASCII and copied without escaping.
+     */
+    public final void text(double value) throws IOException {
+        if(Math.abs(value)<1e7 && value==(long)value
+                && Double.doubleToRawLongBits(value)!=NEGATIVE_ZERO_DOUBLE) {
+            text((int)value);
+            write('.');
+            write('0');
+        } else {
+            closeStartTag();
+            writeAscii(DatatypeConverterImpl._printDouble(value));
+        }
+    }
+
+    /**
+     * Writes a float the same way {@link DatatypeConverterImpl#_printFloat(float)} does.
+     *
+     * @see #text(double)
+     */
+    public final void text(float value) throws IOException {
+        if(Math.abs(value)<1e7f && value==(int)value
+                && Float.floatToRawIntBits(value)!=NEGATIVE_ZERO_FLOAT) {
+            text((int)value);
+            write('.');
+            write('0');
+        } else {
+            closeStartTag();
+            writeAscii(DatatypeConverterImpl._printFloat(value));
+        }
+    }
+
+    private void writeAscii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++)
+            write(s.charAt(i));
+    }
+
+    private static final long NEGATIVE_ZERO_DOUBLE = Double.doubleToRawLongBits(-0.0d);
+    private static final int NEGATIVE_ZERO_FLOAT = Float.floatToRawIntBits(-0.0f);
+
     /**
      * Writes the given byte[] as base64 encoded binary to the output.
      *
@@ -337,7 +627,7 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
 
         while(dataLen>0) {
             // how many bytes (in data) can we write without overflowing the buffer?
-            int batchSize = Math.min(((octetBuffer.length-octetBufferIndex)/4)*3,dataLen);
+            int batchSize = Math.min(((octetBufferLimit-octetBufferIndex)/4)*3,dataLen);
 
             // write the batch
             octetBufferIndex = DatatypeConverterImpl._printBase64Binary(data,start,batchSize,octetBuffer,octetBufferIndex);
@@ -365,13 +655,9 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
      * but it doesn't perform character escaping.
      */
     public final void write(int i) throws IOException {
-        if (octetBufferIndex < octetBuffer.length) {
-            octetBuffer[octetBufferIndex++] = (byte)i;
-        } else {
-            out.write(octetBuffer);
-            octetBufferIndex = 1;
-            octetBuffer[0] = (byte)i;
-        }
+        if (octetBufferIndex >= octetBufferLimit)
+            flushBuffer();
+        octetBuffer[octetBufferIndex++] = (byte)i;
     }
 
     protected final void write(byte[] b) throws IOException {
@@ -379,21 +665,138 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
     }
     
     protected final void write(byte[] b, int start, int length) throws IOException {
-        if ((octetBufferIndex + length) < octetBuffer.length) {
+        if ((octetBufferIndex + length) < octetBufferLimit) {
             System.arraycopy(b, start, octetBuffer, octetBufferIndex, length);
             octetBufferIndex += length;
-        } else {
+        } else if (sink == null) {
             out.write(octetBuffer, 0, octetBufferIndex);
             out.write(b, start, length);
             octetBufferIndex = 0;
+        } else {
+            while (true) {
+                int n = Math.min(length, octetBufferLimit - octetBufferIndex);
+                System.arraycopy(b, start, octetBuffer, octetBufferIndex, n);
+                octetBufferIndex += n;
+                start += n;
+                length -= n;
+                if (length == 0)
+                    break;
+                flushBuffer();
+            }
+        }
+    }
+
+    /**
+     * Copies an array shared across documents, such as a tag template
+     * or an entity, into the buffer.
+     *
+     * <p>
+     * Unlike {@link #write(byte[], int, int)}, this never passes the array itself
+     * to the {@link OutputStream}.
+     */
+    private void writeShared(byte[] b) throws IOException {
+        if (octetBufferIndex + b.length > octetBufferLimit) {
+            flushBuffer();
+            if (b.length > octetBufferLimit - octetBufferIndex) {
+                // longer than the whole buffer
+                write(b.clone());
+                return;
+            }
         }
+        System.arraycopy(b, 0, octetBuffer, octetBufferIndex, b.length);
+        octetBufferIndex += b.length;
     }
 
     protected final void flushBuffer() throws IOException {
+        if (sink != null) {
+            drain(false);
+            return;
+        }
         out.write(octetBuffer, 0, octetBufferIndex);
         octetBufferIndex = 0;
     }
 
+//
+// writing to the buffers of a ByteBufferSink
+//
+
+    /**
+     * Moves the bytes written so far to {@link #target},
+     * handing the buffers over to the sink as they fill up.
+     *
+     * @param last
+     *      true at the end of the document, to hand over the last buffer.
+     */
+    private void drain(boolean last) throws IOException {
+        if (aliased) {
+            target.position(octetBufferIndex - target.arrayOffset());
+        } else {
+            int off = 0;
+            while (true) {
+                int n = Math.min(octetBufferIndex - off, target.remaining());
+                target.put(octetBuffer, off, n);
+                off += n;
+                if (off == octetBufferIndex)
+                    break;
+                handOver();
+                target = takeBuffer();
+            }
+        }
+        if (last) {
+            handOver();
+            return;
+        }
+        if (aliased || !target.hasRemaining()) {
+            handOver();
+            target = takeBuffer();
+        }
+        useTarget();
+    }
+
+    /**
+     * Sets up {@link #octetBuffer} to write into {@link #target}.
+     */
+    private void useTarget() {
+        aliased = target.hasArray() && !target.isReadOnly() && target.remaining() >= MIN_ALIASED_SIZE;
+        if (aliased) {
+            octetBuffer = target.array();
+            octetBufferIndex = target.arrayOffset() + target.position();
+            octetBufferLimit = target.arrayOffset() + target.limit();
+        } else {
+            if (stagingBuffer == null)
+                stagingBuffer = new byte[BUFFER_SIZE];
+            octetBuffer = stagingBuffer;
+            octetBufferIndex = 0;
+            octetBufferLimit = BUFFER_SIZE;
+        }
+    }
+
+    /**
+     * Gives the buffer being filled back to the sink without writing it,
+     * when the document is abandoned. Does nothing once the document is complete.
+     */
+    public void releaseBuffer() {
+        if (target != null) {
+            ByteBuffer b = target;
+            target = null;
+            sink.release(b);
+        }
+    }
+
+    private ByteBuffer takeBuffer() throws IOException {
+        ByteBuffer b = sink.getBuffer();
+        if (b == null || !b.hasRemaining())
+            throw new IOException("ByteBufferSink returned a buffer with no space remaining");
+        return b;
+    }
+
+    private void handOver() throws IOException {
+        ByteBuffer b = target;
+        target = null;
+        b.flip();
+        sink.write(b);
+    }
+
     static byte[] toBytes(String s) {
         byte[] buf = new byte[s.length()];
         for( int i=s.length()-1; i>=0; i-- )
@@ -420,4 +823,18 @@ public class UTF8XmlOutput extends XmlOutputAbstractImpl {
 
     // no need to copy
     private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+
+    /** Size of the private buffer. */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * Text and attribute values at least this long are escaped by {@link #doBulkText(String, boolean)}.
+     */
+    private static final int BULK_TEXT_LENGTH = 32;
+
+    /**
+     * Buffers of a sink smaller than this are filled from the private buffer,
+     * so that base64 and number encoding always have room to work with.
+     */
+    private static final int MIN_ALIASED_SIZE = 64;
 }
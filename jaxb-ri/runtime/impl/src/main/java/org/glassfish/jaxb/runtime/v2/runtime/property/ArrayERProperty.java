@@ -63,11 +63,12 @@ abstract class ArrayERProperty<BeanT,ListT,ItemT> extends ArrayProperty<BeanT,Li
         private final Accessor acc;
         private final Lister lister;
 
-        public ItemsLoader(Accessor acc, Lister lister, QNameMap<ChildLoader> children) {
+        public ItemsLoader(Accessor acc, Lister lister, ElementIndexMap<ChildLoader> children) {
             super(false);
             this.acc = acc;
             this.lister = lister;
             this.children = children;
+            this.catchAll = children.get(CATCH_ALL);
         }
 
         @Override
@@ -81,13 +82,15 @@ abstract class ArrayERProperty<BeanT,ListT,ItemT> extends ArrayProperty<BeanT,Li
             context.getScope(0).start(acc,lister);
         }
 
-        private final QNameMap<ChildLoader> children;
+        private final ElementIndexMap<ChildLoader> children;
+
+        private final ChildLoader catchAll;
 
         @Override
         public void childElement(UnmarshallingContext.State state, TagName ea) throws SAXException {
-            ChildLoader child = children.get(ea.uri,ea.local);
+            ChildLoader child = children.get(ea);
             if (child == null) {
-                child = children.get(CATCH_ALL);
+                child = catchAll;
             }
             if (child == null) {
                 super.childElement(state,ea);
@@ -154,7 +157,7 @@ abstract class ArrayERProperty<BeanT,ListT,ItemT> extends ArrayProperty<BeanT,Li
             UnmarshallerChain c = new UnmarshallerChain(chain.context);
             QNameMap<ChildLoader> m = new QNameMap<>();
             createBodyUnmarshaller(c,m);
-            Loader loader = new ItemsLoader(acc, lister, m);
+            Loader loader = new ItemsLoader(acc, lister, new ElementIndexMap<>(chain.context, m));
             if(isWrapperNillable || chain.context.allNillable)
                 loader = new XsiNilLoader(loader);
             loaders.put(wrapperTagName,new ChildLoader(loader,null));
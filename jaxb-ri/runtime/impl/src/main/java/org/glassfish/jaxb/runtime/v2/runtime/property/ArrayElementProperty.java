@@ -12,7 +12,6 @@ package org.glassfish.jaxb.runtime.v2.runtime.property;
 
 import org.glassfish.jaxb.runtime.api.AccessorException;
 import org.glassfish.jaxb.core.v2.model.core.PropertyKind;
-import org.glassfish.jaxb.core.v2.model.core.TypeRef;
 import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeElementPropertyInfo;
 import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeTypeRef;
 import org.glassfish.jaxb.core.v2.runtime.RuntimeUtil;
@@ -28,7 +27,6 @@ import org.xml.sax.SAXException;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,11 +38,12 @@ import java.util.Map;
  */
 abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<BeanT,ListT,ItemT> {
 
-    private final Map<Class,TagAndType> typeMap  = new HashMap<>();
+    private final Map<Class,TagAndType> typeMap;
     /**
-     * Set by the constructor and reset in the {@link #wrapUp()} method.
+     * What {@link #createBodyUnmarshaller} needs to know about each type reference.
+     * Kept here because loaders may be built after the {@link #wrapUp()} method.
      */
-    private Map<TypeRef<Type,Class>, JaxBeanInfo> refs = new HashMap<>();
+    private final ItemType[] itemTypes;
     /**
      * Set by the constructor and reset in the {@link #wrapUp()} method.
      */
@@ -62,8 +61,12 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
         List<? extends RuntimeTypeRef> types = prop.getTypes();
 
         Name n = null;
+        Map<Class,TagAndType> typeMap = new HashMap<>();
+        itemTypes = new ItemType[types.size()];
+        boolean leaf = PropertyFactory.isLeaf(prop);
 
-        for (RuntimeTypeRef typeRef : types) {
+        for (int i = 0; i < itemTypes.length; i++) {
+            RuntimeTypeRef typeRef = types.get(i);
             Class type = (Class)typeRef.getTarget().getType();
             if(type.isPrimitive())
                 type = RuntimeUtil.primitiveToBox.get(type);
@@ -73,18 +76,41 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
                                 grammar.nameBuilder.createElementName(typeRef.getTagName()),
                                 beanInfo);
             typeMap.put(type,tt);
-            refs.put(typeRef,beanInfo);
+            itemTypes[i] = new ItemType(tt.tagName, leaf ? null : beanInfo, leaf ? typeRef.getTransducer() : null,
+                    typeRef.isNillable(), typeRef.getDefaultValue());
             if(typeRef.isNillable() && n==null)
                 n = tt.tagName;
         }
 
         nillableTagName = n;
+        this.typeMap = compact(grammar,typeMap);
+    }
+
+    private static final class ItemType {
+        final Name tagName;
+        /**
+         * Null if the items are leaves.
+         */
+        final JaxBeanInfo beanInfo;
+        /**
+         * Non-null if the items are leaves.
+         */
+        final Transducer xducer;
+        final boolean nillable;
+        final String defaultValue;
+
+        ItemType(Name tagName, JaxBeanInfo beanInfo, Transducer xducer, boolean nillable, String defaultValue) {
+            this.tagName = tagName;
+            this.beanInfo = beanInfo;
+            this.xducer = xducer;
+            this.nillable = nillable;
+            this.defaultValue = defaultValue;
+        }
     }
 
     @Override
     public void wrapUp() {
         super.wrapUp();
-        refs = null;
         prop = null;    // avoid keeping model objects live
     }
 
@@ -161,17 +187,15 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
         int offset = chain.allocateOffset();
         Receiver recv = new ReceiverImpl(offset);
 
-        for (RuntimeTypeRef typeRef : prop.getTypes()) {
-
-            Name tagName = chain.context.nameBuilder.createElementName(typeRef.getTagName());
-            Loader item = createItemUnmarshaller(chain,typeRef);
+        for (ItemType itemType : itemTypes) {
+            Loader item = createItemUnmarshaller(chain,itemType);
 
-            if(typeRef.isNillable() || chain.context.allNillable)
+            if(itemType.nillable || chain.context.allNillable)
                 item = new XsiNilLoader.Array(item);
-            if(typeRef.getDefaultValue()!=null)
-                item = new DefaultValueLoaderDecorator(item,typeRef.getDefaultValue());
+            if(itemType.defaultValue!=null)
+                item = new DefaultValueLoaderDecorator(item,itemType.defaultValue);
 
-            loaders.put(tagName,new ChildLoader(item,recv));
+            loaders.put(itemType.tagName,new ChildLoader(item,recv));
         }
     }
 
@@ -191,12 +215,11 @@ abstract class ArrayElementProperty<BeanT,ListT,ItemT> extends ArrayERProperty<B
      * as the handler state.
      *
      */
-    private Loader createItemUnmarshaller(UnmarshallerChain chain, RuntimeTypeRef typeRef) {
-        if(PropertyFactory.isLeaf(typeRef.getSource())) {
-            final Transducer xducer = typeRef.getTransducer();
-            return new TextLoader(xducer);
+    private Loader createItemUnmarshaller(UnmarshallerChain chain, ItemType itemType) {
+        if(itemType.xducer!=null) {
+            return new TextLoader(itemType.xducer);
         } else {
-            return refs.get(typeRef).getLoader(chain.context,true);
+            return itemType.beanInfo.getLoader(chain.context,true);
         }
     }
 
@@ -51,6 +51,8 @@ class ArrayReferenceNodeProperty<BeanT,ListT,ItemT> extends ArrayERProperty<Bean
             JaxBeanInfo bi = p.getOrCreate(e);
             expectedElements.put( e.getElementName().getNamespaceURI(),e.getElementName().getLocalPart(), bi );
         }
+        if(p.compactMetadata)
+            expectedElements.trimToSize();
 
         isMixed = prop.isMixed();
 
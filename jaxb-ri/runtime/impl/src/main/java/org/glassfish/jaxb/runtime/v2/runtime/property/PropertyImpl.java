@@ -19,6 +19,8 @@ import org.xml.sax.SAXException;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * @author Kohsuke Kawaguchi (kk@kohsuke.org)
@@ -79,4 +81,16 @@ abstract class PropertyImpl<BeanT> implements Property<BeanT> {
     public String getFieldName() {
         return fieldName;
     }
+
+    /**
+     * Replaces a map that is not going to be modified any more by a smaller one,
+     * if {@link JAXBContextImpl#compactMetadata} is set.
+     */
+    static <K,V> Map<K,V> compact(JAXBContextImpl context, Map<K,V> map) {
+        if(context.compactMetadata && map.size()==1) {
+            Map.Entry<K,V> e = map.entrySet().iterator().next();
+            return Collections.singletonMap(e.getKey(),e.getValue());
+        }
+        return map;
+    }
 }
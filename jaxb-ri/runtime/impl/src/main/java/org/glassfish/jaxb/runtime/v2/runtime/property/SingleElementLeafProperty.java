@@ -21,13 +21,17 @@ import org.glassfish.jaxb.runtime.v2.runtime.XMLSerializer;
 import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
 import org.glassfish.jaxb.runtime.v2.runtime.reflect.TransducedAccessor;
 import org.glassfish.jaxb.runtime.v2.util.QNameMap;
+import jakarta.activation.DataHandler;
 import jakarta.xml.bind.JAXBElement;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.*;
 import org.xml.sax.SAXException;
 
 import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.Source;
+import java.awt.Image;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 
 /**
  * {@link Property} that contains a leaf value.
@@ -43,6 +47,10 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
     private final TransducedAccessor<BeanT> xacc;
     private final boolean improvedXsiTypeHandling;
     private final boolean idRef;
+    /**
+     * Non-null if the value is base64 encoded and can be decoded by {@link Base64Loader}.
+     */
+    private final Type binaryType;
 
     public SingleElementLeafProperty(JAXBContextImpl context, RuntimeElementPropertyInfo prop) {
         super(context, prop);
@@ -58,6 +66,8 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
 
         improvedXsiTypeHandling = context.improvedXsiTypeHandling;
         idRef = ref.getSource().id() == ID.IDREF;
+        Type t = ref.getTarget().getType();
+        binaryType = t == byte[].class || t == DataHandler.class || t == Image.class || t == Source.class ? t : null;
     }
 
     @Override
@@ -143,7 +153,13 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
 
     @Override
     public void buildChildElementUnmarshallers(UnmarshallerChain chain, QNameMap<ChildLoader> handlers) {
-        Loader l = new LeafPropertyLoader(xacc);
+        Loader l;
+        Integer spillThreshold = chain.context.binarySpillThreshold;
+        if (binaryType != null && spillThreshold != null && defaultValue == null)
+            // reading the temporary file back into a byte[] would defeat the purpose
+            l = new Base64Loader(xacc, binaryType == byte[].class ? -1 : spillThreshold);
+        else
+            l = new LeafPropertyLoader(xacc);
         if (defaultValue != null)
             l = new DefaultValueLoaderDecorator(l, defaultValue);
         if (nillable || chain.context.allNillable)
@@ -12,9 +12,7 @@ package org.glassfish.jaxb.runtime.v2.runtime.property;
 
 import org.glassfish.jaxb.runtime.api.AccessorException;
 import org.glassfish.jaxb.core.v2.model.core.PropertyKind;
-import org.glassfish.jaxb.core.v2.model.core.TypeRef;
 import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeElementPropertyInfo;
-import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeTypeInfo;
 import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimeTypeRef;
 import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.JaxBeanInfo;
@@ -33,7 +31,6 @@ import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,10 +45,15 @@ final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT>
 
     private final QName[] acceptedElements;
 
-    private final Map<Class,TagAndType> typeNames = new HashMap<>();
+    /**
+     * {@link JaxBeanInfo}s and default values of the {@link #acceptedElements}, in the same order.
+     * Kept so that loaders can be built after the {@link #wrapUp()} method.
+     */
+    private final JaxBeanInfo[] acceptedBeanInfos;
+    private final String[] defaultValues;
+
+    private final Map<Class,TagAndType> typeNames;
 
-    private RuntimeElementPropertyInfo prop;
-    
     /**
      * The tag name used to produce xsi:nil. The first one in the list.
      */
@@ -60,32 +62,29 @@ final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT>
     public SingleElementNodeProperty(JAXBContextImpl context, RuntimeElementPropertyInfo prop) {
         super(context,prop);
         acc = prop.getAccessor().optimize(context);
-        this.prop = prop;
 
         QName nt = null;
         boolean nil = false;
 
+        Map<Class,TagAndType> typeNames = new HashMap<>();
         acceptedElements = new QName[prop.getTypes().size()];
-        for( int i=0; i<acceptedElements.length; i++ )
-            acceptedElements[i] = prop.getTypes().get(i).getTagName();
-
-        for (RuntimeTypeRef e : prop.getTypes()) {
-            JaxBeanInfo beanInfo = context.getOrCreate(e.getTarget());
+        acceptedBeanInfos = new JaxBeanInfo[acceptedElements.length];
+        defaultValues = new String[acceptedElements.length];
+        for( int i=0; i<acceptedElements.length; i++ ) {
+            RuntimeTypeRef e = prop.getTypes().get(i);
+            acceptedElements[i] = e.getTagName();
+            acceptedBeanInfos[i] = context.getOrCreate(e.getTarget());
+            defaultValues[i] = e.getDefaultValue();
             if(nt==null)    nt = e.getTagName();
-            typeNames.put( beanInfo.jaxbType, new TagAndType(
-                context.nameBuilder.createElementName(e.getTagName()),beanInfo) );
+            typeNames.put( acceptedBeanInfos[i].jaxbType, new TagAndType(
+                context.nameBuilder.createElementName(e.getTagName()),acceptedBeanInfos[i]) );
             nil |= e.isNillable();
         }
         
         nullTagName = context.nameBuilder.createElementName(nt);
 
         nillable = nil;
-    }
-
-    @Override
-    public void wrapUp() {
-        super.wrapUp();
-        prop = null;
+        this.typeNames = compact(context,typeNames);
     }
 
     @Override
@@ -139,16 +138,16 @@ final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT>
     public void buildChildElementUnmarshallers(UnmarshallerChain chain, QNameMap<ChildLoader> handlers) {
         JAXBContextImpl context = chain.context;
 
-        for (TypeRef<Type,Class> e : prop.getTypes()) {
-            JaxBeanInfo bi = context.getOrCreate((RuntimeTypeInfo) e.getTarget());
+        for( int i=0; i<acceptedElements.length; i++ ) {
+            JaxBeanInfo bi = acceptedBeanInfos[i];
             // if the expected Java type is already final, type substitution won't really work anyway.
             // this also traps cases like trying to substitute xsd:long element with xsi:type='xsd:int'
             Loader l = bi.getLoader(context,!Modifier.isFinal(bi.jaxbType.getModifiers()));
-            if(e.getDefaultValue()!=null)
-                l = new DefaultValueLoaderDecorator(l,e.getDefaultValue());
+            if(defaultValues[i]!=null)
+                l = new DefaultValueLoaderDecorator(l,defaultValues[i]);
             if(nillable || chain.context.allNillable)
                 l = new XsiNilLoader.Single(l,acc);
-            handlers.put( e.getTagName(), new ChildLoader(l,acc));
+            handlers.put( acceptedElements[i], new ChildLoader(l,acc));
         }
     }
 
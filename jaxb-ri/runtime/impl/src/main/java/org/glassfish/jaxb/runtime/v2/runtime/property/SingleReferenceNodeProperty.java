@@ -51,6 +51,8 @@ final class SingleReferenceNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT
         for (RuntimeElement e : prop.getElements()) {
             expectedElements.put( e.getElementName(), context.getOrCreate(e) );
         }
+        if(context.compactMetadata)
+            expectedElements.trimToSize();
 
         if(prop.getWildcard()!=null) {
             domHandler = (DomHandler) ClassFactory.create(prop.getDOMHandler());
@@ -16,6 +16,8 @@ import org.glassfish.jaxb.runtime.api.JAXBRIContext;
 import org.glassfish.jaxb.core.v2.model.core.Adapter;
 import org.glassfish.jaxb.runtime.v2.model.impl.RuntimeModelBuilder;
 import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.RecordBuilder;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.opt.OptimizedAccessorFactory;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Loader;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Receiver;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallingContext;
@@ -248,7 +250,13 @@ public abstract class Accessor<BeanT, ValueT> implements Receiver {
 
         @Override
         public Accessor<BeanT, ValueT> optimize(JAXBContextImpl context) {
-            return this;
+            if (context != null && !context.isAccessorOptimizationEnabled())
+                return this;
+            Accessor<BeanT, ValueT> acc = OptimizedAccessorFactory.get(f);
+            if (acc != null)
+                return acc;
+            else
+                return this;
         }
     }
 
@@ -359,7 +367,13 @@ public abstract class Accessor<BeanT, ValueT> implements Receiver {
 
         @Override
         public Accessor<BeanT, ValueT> optimize(JAXBContextImpl context) {
-            return this;
+            if (context != null && !context.isAccessorOptimizationEnabled())
+                return this;
+            Accessor<BeanT, ValueT> acc = OptimizedAccessorFactory.get(getter, setter);
+            if (acc != null)
+                return acc;
+            else
+                return this;
         }
     }
 
@@ -395,6 +409,80 @@ public abstract class Accessor<BeanT, ValueT> implements Receiver {
         }
     }
 
+    /**
+     * {@link Accessor} for a component of a record.
+     * <p>
+     * Records are immutable, so while unmarshalling the bean is the
+     * {@link RecordBuilder} that collects the arguments of the canonical
+     * constructor, and the value is stored at the position of the component.
+     * Otherwise the value is read through the accessor method of the component.
+     */
+    public static class RecordComponentReflection<BeanT, ValueT> extends Accessor<BeanT, ValueT> {
+        public final Method getter;
+        /**
+         * Position of the component in the canonical constructor.
+         */
+        public final int index;
+
+        private static final Logger logger = org.glassfish.jaxb.core.Utils.getClassLogger();
+
+        @SuppressWarnings({"unchecked"})
+        public RecordComponentReflection(Method getter, int index) {
+            super((Class<ValueT>) getter.getReturnType());
+            this.getter = getter;
+            this.index = index;
+
+            if (!Modifier.isPublic(getter.getModifiers()) || !Modifier.isPublic(getter.getDeclaringClass().getModifiers())) {
+                try {
+                    getter.setAccessible(true);
+                } catch (SecurityException e) {
+                    if (!accessWarned)
+                        // this happens when we don't have enough permission.
+                        logger.log(Level.WARNING, Messages.UNABLE_TO_ACCESS_NON_PUBLIC_METHOD.format(
+                                getter.getDeclaringClass().getName(),
+                                getter.getName()),
+                                e);
+                    accessWarned = true;
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked"})
+        public ValueT get(BeanT bean) throws AccessorException {
+            if (bean instanceof RecordBuilder)
+                return (ValueT) ((RecordBuilder) bean).get(index);
+            try {
+                return (ValueT) getter.invoke(bean);
+            } catch (IllegalAccessException e) {
+                throw new IllegalAccessError(e.getMessage());
+            } catch (InvocationTargetException e) {
+                Throwable t = e.getTargetException();
+                if (t instanceof RuntimeException)
+                    throw (RuntimeException) t;
+                if (t instanceof Error)
+                    throw (Error) t;
+                throw new AccessorException(t);
+            }
+        }
+
+        @Override
+        public void set(BeanT bean, ValueT value) {
+            ((RecordBuilder) bean).set(index, value);
+        }
+
+        @Override
+        public Accessor<BeanT, ValueT> optimize(JAXBContextImpl context) {
+            if (context != null && !context.isAccessorOptimizationEnabled())
+                return this;
+            Accessor<BeanT, ValueT> acc = OptimizedAccessorFactory.getRecordComponent(getter, index);
+            if (acc != null)
+                return acc;
+            else
+                return this;
+        }
+    }
+
     /**
      * Gets the special  used to recover from errors.
      */
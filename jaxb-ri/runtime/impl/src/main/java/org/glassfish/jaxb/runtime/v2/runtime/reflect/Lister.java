@@ -360,7 +360,7 @@ public abstract class Lister<BeanT,PropT,ItemT,PackT> {
                 this.acc = acc;
                 this.context = UnmarshallingContext.getInstance();
                 this.location = new LocatorEx.Snapshot(context.getLocator());
-                context.addPatcher(this);
+                context.addPatcher(bean,this);
             }
 
             public void add(String item) {
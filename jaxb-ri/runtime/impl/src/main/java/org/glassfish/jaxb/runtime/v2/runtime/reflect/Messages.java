@@ -19,6 +19,7 @@ import java.util.ResourceBundle;
 enum Messages {
     // Accessor
     UNABLE_TO_ACCESS_NON_PUBLIC_FIELD,  // 2 args
+    UNABLE_TO_ACCESS_NON_PUBLIC_METHOD,  // 2 args
     UNASSIGNABLE_TYPE, // 2 args
     NO_SETTER, // 1 arg
     NO_GETTER, // 1 arg
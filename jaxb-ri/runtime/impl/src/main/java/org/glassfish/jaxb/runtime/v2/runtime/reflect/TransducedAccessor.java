@@ -23,6 +23,7 @@ import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.Name;
 import org.glassfish.jaxb.runtime.v2.runtime.Transducer;
 import org.glassfish.jaxb.runtime.v2.runtime.XMLSerializer;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.opt.OptimizedTransducedAccessorFactory;
 import org.glassfish.jaxb.core.v2.runtime.unmarshaller.LocatorEx;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.Patcher;
 import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallingContext;
@@ -136,6 +137,11 @@ public abstract class TransducedAccessor<BeanT> {
         if(prop.id()==ID.IDREF)
             return new IDREFTransducedAccessorImpl(prop.getAccessor());
 
+        if(context==null || context.isAccessorOptimizationEnabled()) {
+            TransducedAccessor<T> xa = OptimizedTransducedAccessorFactory.get(prop,xducer);
+            if(xa!=null)    return xa;
+        }
+
         if(xducer.useNamespace())
             return new CompositeContextDependentTransducedAccessorImpl( context, xducer, prop.getAccessor() );
         else
@@ -298,7 +304,7 @@ public abstract class TransducedAccessor<BeanT> {
             } else {
                 // try again later
                 final LocatorEx loc = new LocatorEx.Snapshot(context.getLocator());
-                context.addPatcher(new Patcher() {
+                context.addPatcher(bean,new Patcher() {
                     @Override
                     public void run() throws SAXException {
                         try {
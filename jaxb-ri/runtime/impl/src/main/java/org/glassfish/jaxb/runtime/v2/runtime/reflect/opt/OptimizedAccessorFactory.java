@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.reflect.opt;
+
+import org.glassfish.jaxb.runtime.api.AccessorException;
+import org.glassfish.jaxb.runtime.v2.runtime.RecordBuilder;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates optimized {@link Accessor}s backed by {@link MethodHandle}s.
+ *
+ * <p>
+ * The handles are resolved once when the owning property is built
+ * and erased to {@code Object} signatures, so that every subsequent
+ * {@code get}/{@code set} is a single {@link MethodHandle#invokeExact}
+ * instead of a reflective {@link Field#get} or {@link Method#invoke}.
+ *
+ * <p>
+ * Every factory method returns null if the member cannot be
+ * accessed this way, in which case the caller is expected to keep
+ * using the reflection-based accessor. Non-public members are expected
+ * to have been made accessible by the reflection-based accessor already.
+ */
+public final class OptimizedAccessorFactory {
+
+    private static final Logger logger = org.glassfish.jaxb.core.Utils.getClassLogger();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private OptimizedAccessorFactory() {} // no instantiation please
+
+    /**
+     * Gets the optimized {@link Accessor} that accesses the given getter/setter.
+     *
+     * @return null
+     *      if for some reason it fails to create an optimized version.
+     */
+    public static <B,V> Accessor<B,V> get(Method getter, Method setter) {
+        if(getter==null || setter==null)
+            return null;    // incomplete. leave it to the reflection-based one for the error message
+
+        if(getter.getParameterTypes().length!=0 || setter.getParameterTypes().length!=1
+        || getter.getReturnType()!=setter.getParameterTypes()[0])
+            return null;    // not a well-formed property
+
+        MethodHandle g = unreflect(getter,false);
+        MethodHandle s = unreflect(setter,false);
+        if(g==null || s==null)
+            return null;
+
+        return new MethodHandleAccessor<>(getter.getReturnType(),
+                g.asType(GETTER_TYPE), s.asType(SETTER_TYPE));
+    }
+
+    /**
+     * Gets the optimized {@link Accessor} that accesses the given field.
+     *
+     * @return null
+     *      if for some reason it fails to create an optimized version.
+     */
+    public static <B,V> Accessor<B,V> get(Field field) {
+        int mods = field.getModifiers();
+        if(Modifier.isStatic(mods) || Modifier.isFinal(mods))
+            // static fields are read-only, and final fields can't be set through a handle.
+            return null;
+
+        MethodHandle g = unreflect(field,false);
+        MethodHandle s = unreflect(field,true);
+        if(g==null || s==null)
+            return null;
+
+        return new MethodHandleAccessor<>(field.getType(),
+                g.asType(GETTER_TYPE), s.asType(SETTER_TYPE));
+    }
+
+    /**
+     * Gets the optimized {@link Accessor} for a record component.
+     *
+     * @param getter
+     *      the accessor method of the record component.
+     * @param index
+     *      the position of the component in the canonical constructor.
+     * @return null
+     *      if for some reason it fails to create an optimized version.
+     */
+    public static <B,V> Accessor<B,V> getRecordComponent(Method getter, int index) {
+        MethodHandle g = unreflect(getter,false);
+        if(g==null)
+            return null;
+
+        return new RecordComponentAccessor<>(getter.getReturnType(), g.asType(GETTER_TYPE), index);
+    }
+
+    /**
+     * Obtains a direct {@link MethodHandle} for the given member.
+     *
+     * @param m
+     *      a {@link Field}, {@link Method} or {@link Constructor}.
+     * @param setter
+     *      if the member is a {@link Field}, true to obtain the setter handle
+     *      instead of the getter. Ignored otherwise.
+     * @return null
+     *      if the member is not accessible from this module.
+     */
+    public static MethodHandle unreflect(Member m, boolean setter) {
+        Class<?> owner = m.getDeclaringClass();
+        try {
+            // reflection implicitly reads every module, but method handle lookups don't.
+            Module self = OptimizedAccessorFactory.class.getModule();
+            if(!self.canRead(owner.getModule()))
+                self.addReads(owner.getModule());
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if(m instanceof Field) {
+                Field f = (Field) m;
+                return setter ? lookup.unreflectSetter(f) : lookup.unreflectGetter(f);
+            } else if(m instanceof Constructor) {
+                return lookup.unreflectConstructor((Constructor<?>) m);
+            } else {
+                return lookup.unreflect((Method) m);
+            }
+        } catch (IllegalAccessException | SecurityException e) {
+            if(logger.isLoggable(Level.FINE))
+                logger.log(Level.FINE,"Unable to create a method handle for "+m,e);
+            return null;
+        }
+    }
+
+    /**
+     * Rethrows unchecked failures from the user code as-is,
+     * and wraps everything else into {@link AccessorException}.
+     */
+    static AccessorException handleThrowable(Throwable t) {
+        if(t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if(t instanceof Error)
+            throw (Error) t;
+        return new AccessorException(t);
+    }
+
+    /**
+     * {@link Accessor} that goes through a pair of type-erased {@link MethodHandle}s.
+     */
+    private static final class MethodHandleAccessor<B,V> extends Accessor<B,V> {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        /**
+         * The value to be set when null is given, so that primitive properties are
+         * reset to their VM default just like the reflection-based accessors do.
+         */
+        private final Object uninitializedValue;
+
+        @SuppressWarnings({"unchecked"})
+        MethodHandleAccessor(Class<?> valueType, MethodHandle getter, MethodHandle setter) {
+            super((Class<V>) valueType);
+            this.getter = getter;
+            this.setter = setter;
+            this.uninitializedValue = valueType.isPrimitive() ? Array.get(Array.newInstance(valueType,1),0) : null;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked"})
+        public V get(B bean) throws AccessorException {
+            try {
+                return (V) (Object) getter.invokeExact((Object) bean);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void set(B bean, V value) throws AccessorException {
+            try {
+                setter.invokeExact((Object) bean, value==null ? uninitializedValue : (Object) value);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+    }
+
+    /**
+     * {@link Accessor} for a record component that reads through a type-erased {@link MethodHandle}.
+     *
+     * @see Accessor.RecordComponentReflection
+     */
+    private static final class RecordComponentAccessor<B,V> extends Accessor<B,V> {
+        private final MethodHandle getter;
+        private final int index;
+
+        @SuppressWarnings({"unchecked"})
+        RecordComponentAccessor(Class<?> valueType, MethodHandle getter, int index) {
+            super((Class<V>) valueType);
+            this.getter = getter;
+            this.index = index;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked"})
+        public V get(B bean) throws AccessorException {
+            if(bean instanceof RecordBuilder)
+                return (V) ((RecordBuilder) bean).get(index);
+            try {
+                return (V) (Object) getter.invokeExact((Object) bean);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void set(B bean, V value) {
+            ((RecordBuilder) bean).set(index,value);
+        }
+    }
+}
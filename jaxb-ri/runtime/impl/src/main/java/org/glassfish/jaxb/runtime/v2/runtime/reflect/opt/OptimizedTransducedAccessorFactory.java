@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.reflect.opt;
+
+import org.glassfish.jaxb.core.v2.runtime.RuntimeUtil;
+import org.glassfish.jaxb.runtime.DatatypeConverterImpl;
+import org.glassfish.jaxb.runtime.api.AccessorException;
+import org.glassfish.jaxb.runtime.v2.model.impl.RuntimeBuiltinLeafInfoImpl;
+import org.glassfish.jaxb.runtime.v2.model.runtime.RuntimePropertyInfo;
+import org.glassfish.jaxb.runtime.v2.runtime.Name;
+import org.glassfish.jaxb.runtime.v2.runtime.Transducer;
+import org.glassfish.jaxb.runtime.v2.runtime.XMLSerializer;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.DefaultTransducedAccessor;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.TransducedAccessor;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static org.glassfish.jaxb.runtime.v2.runtime.reflect.opt.OptimizedAccessorFactory.handleThrowable;
+
+/**
+ * Creates optimized {@link TransducedAccessor}s for primitive properties
+ * that use the default {@link Transducer}.
+ *
+ * <p>
+ * The returned accessors read and write the primitive value through
+ * {@link MethodHandle}s typed with the primitive itself, so no boxing
+ * takes place between the bean and the lexical conversion.
+ *
+ * @see TransducedAccessor#get
+ */
+@SuppressWarnings({"deprecation"})
+public final class OptimizedTransducedAccessorFactory {
+
+    private OptimizedTransducedAccessorFactory() {} // no instantiation please
+
+    /**
+     * Gets the optimized {@link TransducedAccessor} if possible.
+     *
+     * @param xducer
+     *      the transducer that the property would otherwise use.
+     * @return null
+     *      if for some reason it fails to create an optimized version.
+     */
+    @SuppressWarnings({"unchecked"})
+    public static <T> TransducedAccessor<T> get(RuntimePropertyInfo prop, Transducer<?> xducer) {
+        Accessor acc = prop.getAccessor();
+
+        Member getter, setter;
+        Class<?> t;
+
+        if(acc.getClass()==Accessor.FieldReflection.class) {
+            Field field = ((Accessor.FieldReflection) acc).f;
+            int mods = field.getModifiers();
+            if(Modifier.isStatic(mods) || Modifier.isFinal(mods))
+                return null;
+            getter = setter = field;
+            t = field.getType();
+        } else
+        if(acc.getClass()==Accessor.GetterSetterReflection.class) {
+            Accessor.GetterSetterReflection gacc = (Accessor.GetterSetterReflection) acc;
+            if(gacc.getter==null || gacc.setter==null)
+                return null;    // incomplete
+            t = gacc.getter.getReturnType();
+            if(gacc.setter.getParameterTypes().length!=1 || gacc.setter.getParameterTypes()[0]!=t)
+                return null;
+            getter = gacc.getter;
+            setter = gacc.setter;
+        } else {
+            return null;
+        }
+
+        if(!t.isPrimitive())
+            return null;
+
+        // only replace the default conversion. MIME types, schema types and such need the real transducer
+        if(xducer!=RuntimeBuiltinLeafInfoImpl.LEAVES.get(RuntimeUtil.primitiveToBox.get(t)))
+            return null;
+
+        MethodHandle g = OptimizedAccessorFactory.unreflect(getter,false);
+        MethodHandle s = OptimizedAccessorFactory.unreflect(setter,true);
+        if(g==null || s==null)
+            return null;
+        g = g.asType(MethodType.methodType(t,Object.class));
+        s = s.asType(MethodType.methodType(void.class,Object.class,t));
+
+        if(t==int.class)        return new IntTransducedAccessor<>(g,s);
+        if(t==long.class)       return new LongTransducedAccessor<>(g,s);
+        if(t==short.class)      return new ShortTransducedAccessor<>(g,s);
+        if(t==byte.class)       return new ByteTransducedAccessor<>(g,s);
+        if(t==boolean.class)    return new BooleanTransducedAccessor<>(g,s);
+        if(t==float.class)      return new FloatTransducedAccessor<>(g,s);
+        if(t==double.class)     return new DoubleTransducedAccessor<>(g,s);
+        return null;
+    }
+
+    /**
+     * Common part of the primitive {@link TransducedAccessor}s.
+     */
+    private static abstract class PrimitiveTransducedAccessor<T> extends DefaultTransducedAccessor<T> {
+        /**
+         * {@code (Object)P} where P is the primitive type.
+         */
+        protected final MethodHandle getter;
+        /**
+         * {@code (Object,P)void} where P is the primitive type.
+         */
+        protected final MethodHandle setter;
+
+        PrimitiveTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public boolean hasValue(T o) {
+            return true;
+        }
+    }
+
+    private static final class IntTransducedAccessor<T> extends PrimitiveTransducedAccessor<T> {
+        IntTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter,setter);
+        }
+
+        private int get(T o) throws AccessorException {
+            try {
+                return (int) getter.invokeExact((Object) o);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public String print(T o) throws AccessorException {
+            return DatatypeConverterImpl._printInt(get(o));
+        }
+
+        @Override
+        public void parse(T o, CharSequence lexical) throws AccessorException {
+            int v = DatatypeConverterImpl._parseInt(lexical);
+            try {
+                setter.invokeExact((Object) o, v);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void writeLeafElement(XMLSerializer w, Name tagName, T o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+            w.leafElement(tagName, get(o), fieldName);
+        }
+    }
+
+    private static final class LongTransducedAccessor<T> extends PrimitiveTransducedAccessor<T> {
+        LongTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter,setter);
+        }
+
+        private long get(T o) throws AccessorException {
+            try {
+                return (long) getter.invokeExact((Object) o);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public String print(T o) throws AccessorException {
+            return DatatypeConverterImpl._printLong(get(o));
+        }
+
+        @Override
+        public void parse(T o, CharSequence lexical) throws AccessorException {
+            long v = DatatypeConverterImpl._parseLong(lexical);
+            try {
+                setter.invokeExact((Object) o, v);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void writeLeafElement(XMLSerializer w, Name tagName, T o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+            w.leafElement(tagName, get(o), fieldName);
+        }
+    }
+
+    private static final class ShortTransducedAccessor<T> extends PrimitiveTransducedAccessor<T> {
+        ShortTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter,setter);
+        }
+
+        private short get(T o) throws AccessorException {
+            try {
+                return (short) getter.invokeExact((Object) o);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public String print(T o) throws AccessorException {
+            return DatatypeConverterImpl._printShort(get(o));
+        }
+
+        @Override
+        public void parse(T o, CharSequence lexical) throws AccessorException {
+            short v = DatatypeConverterImpl._parseShort(lexical);
+            try {
+                setter.invokeExact((Object) o, v);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void writeLeafElement(XMLSerializer w, Name tagName, T o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+            w.leafElement(tagName, (int) get(o), fieldName);
+        }
+    }
+
+    private static final class ByteTransducedAccessor<T> extends PrimitiveTransducedAccessor<T> {
+        ByteTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter,setter);
+        }
+
+        private byte get(T o) throws AccessorException {
+            try {
+                return (byte) getter.invokeExact((Object) o);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public String print(T o) throws AccessorException {
+            return DatatypeConverterImpl._printByte(get(o));
+        }
+
+        @Override
+        public void parse(T o, CharSequence lexical) throws AccessorException {
+            byte v = DatatypeConverterImpl._parseByte(lexical);
+            try {
+                setter.invokeExact((Object) o, v);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void writeLeafElement(XMLSerializer w, Name tagName, T o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+            w.leafElement(tagName, (int) get(o), fieldName);
+        }
+    }
+
+    private static final class BooleanTransducedAccessor<T> extends PrimitiveTransducedAccessor<T> {
+        BooleanTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter,setter);
+        }
+
+        @Override
+        public String print(T o) throws AccessorException {
+            try {
+                return DatatypeConverterImpl._printBoolean((boolean) getter.invokeExact((Object) o));
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void parse(T o, CharSequence lexical) throws AccessorException {
+            Boolean b = DatatypeConverterImpl._parseBoolean(lexical);
+            if(b==null)
+                return;
+            try {
+                setter.invokeExact((Object) o, b.booleanValue());
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+    }
+
+    private static final class FloatTransducedAccessor<T> extends PrimitiveTransducedAccessor<T> {
+        FloatTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter,setter);
+        }
+
+        private float get(T o) throws AccessorException {
+            try {
+                return (float) getter.invokeExact((Object) o);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public String print(T o) throws AccessorException {
+            return DatatypeConverterImpl._printFloat(get(o));
+        }
+
+        @Override
+        public void parse(T o, CharSequence lexical) throws AccessorException {
+            float v = DatatypeConverterImpl._parseFloat(lexical);
+            try {
+                setter.invokeExact((Object) o, v);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void writeLeafElement(XMLSerializer w, Name tagName, T o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+            w.leafElement(tagName, get(o), fieldName);
+        }
+    }
+
+    private static final class DoubleTransducedAccessor<T> extends PrimitiveTransducedAccessor<T> {
+        DoubleTransducedAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter,setter);
+        }
+
+        private double get(T o) throws AccessorException {
+            try {
+                return (double) getter.invokeExact((Object) o);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public String print(T o) throws AccessorException {
+            return DatatypeConverterImpl._printDouble(get(o));
+        }
+
+        @Override
+        public void parse(T o, CharSequence lexical) throws AccessorException {
+            double v = DatatypeConverterImpl._parseDouble(lexical);
+            try {
+                setter.invokeExact((Object) o, v);
+            } catch (Throwable t) {
+                throw handleThrowable(t);
+            }
+        }
+
+        @Override
+        public void writeLeafElement(XMLSerializer w, Name tagName, T o, String fieldName) throws SAXException, AccessorException, IOException, XMLStreamException {
+            w.leafElement(tagName, get(o), fieldName);
+        }
+    }
+}
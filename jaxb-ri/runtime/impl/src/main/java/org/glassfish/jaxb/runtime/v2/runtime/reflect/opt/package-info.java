@@ -15,7 +15,14 @@
  *
  * <h2>How it works</h2>
  * <p>
- * Most of the classes in this package are "templates." At run-time, A template class file is slightly modified to match
- * the target Java Bean, then it will be loaded into the VM.
+ * {@link org.glassfish.jaxb.runtime.v2.runtime.reflect.opt.OptimizedAccessorFactory} and
+ * {@link org.glassfish.jaxb.runtime.v2.runtime.reflect.opt.OptimizedTransducedAccessorFactory} resolve
+ * {@link java.lang.invoke.MethodHandle}s for the fields and getter/setter pairs of the target Java Bean
+ * when the {@link org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl} is built, and the resulting
+ * accessors replace the reflection-based ones.
+ *
+ * <p>
+ * Most of the other classes in this package are "templates." They document the shape of the code
+ * the optimized accessors are equivalent to.
  */
 package org.glassfish.jaxb.runtime.v2.runtime.reflect.opt;
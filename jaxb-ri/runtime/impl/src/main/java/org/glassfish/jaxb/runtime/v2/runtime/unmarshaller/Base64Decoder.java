@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import jakarta.activation.DataHandler;
+import org.glassfish.jaxb.runtime.DatatypeConverterImpl;
+import org.glassfish.jaxb.runtime.v2.util.ByteArrayOutputStreamEx;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Decodes base64 text that is reported in several chunks.
+ *
+ * <p>
+ * The decoded bytes are kept in memory until they exceed the spill threshold,
+ * after which they are written to a temporary file. The file belongs to the
+ * {@link TemporaryFileDataSource} returned by {@link #finish()}, or is deleted
+ * by {@link #discard()} if the decoding doesn't complete.
+ *
+ * @see Base64Loader
+ */
+final class Base64Decoder {
+
+    /**
+     * The value of the padding character.
+     *
+     * @see DatatypeConverterImpl#decode(char)
+     */
+    private static final byte PADDING = 127;
+
+    /**
+     * Number of bytes to be kept in memory. Negative to never spill.
+     */
+    private final int spillThreshold;
+
+    private final byte[] quadruplet = new byte[4];
+    private int q = 0;
+
+    /**
+     * Decoded bytes not written yet, so that the sink is not called for every byte.
+     * Reused by all the chunks.
+     */
+    private final byte[] out = new byte[3 * 1024];
+
+    private ByteArrayOutputStreamEx memory = new ByteArrayOutputStreamEx(1024);
+
+    /**
+     * Non-null once the data has been spilled.
+     */
+    private Path file;
+    private OutputStream fileOut;
+
+    Base64Decoder(int spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Decodes the next part of the base64 text.
+     */
+    void decode(CharSequence text) throws IOException {
+        final byte[] quadruplet = this.quadruplet;
+        final byte[] out = this.out;
+        final int len = text.length();
+        int o = 0;
+
+        for (int i = 0; i < len; i++) {
+            byte v = DatatypeConverterImpl.decode(text.charAt(i));
+            if (v == -1)
+                continue;   // whitespace and such
+
+            quadruplet[q++] = v;
+            if (q == 4) {
+                // quadruplet is now filled.
+                out[o++] = (byte) ((quadruplet[0] << 2) | (quadruplet[1] >> 4));
+                if (quadruplet[2] != PADDING) {
+                    out[o++] = (byte) ((quadruplet[1] << 4) | (quadruplet[2] >> 2));
+                }
+                if (quadruplet[3] != PADDING) {
+                    out[o++] = (byte) ((quadruplet[2] << 6) | (quadruplet[3]));
+                }
+                q = 0;
+
+                if (o > out.length - 3) {
+                    write(out, o);
+                    o = 0;
+                }
+            }
+        }
+        write(out, o);
+    }
+
+    private void write(byte[] buf, int len) throws IOException {
+        if (len == 0)
+            return;
+
+        try {
+            if (fileOut == null && spillThreshold >= 0 && memory.size() + len > spillThreshold) {
+                file = Files.createTempFile("jaxb", ".bin");
+                fileOut = new BufferedOutputStream(Files.newOutputStream(file));
+                memory.writeTo(fileOut);
+                memory = null;
+            }
+
+            if (fileOut != null)
+                fileOut.write(buf, 0, len);
+            else
+                memory.write(buf, 0, len);
+        } catch (IOException e) {
+            discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Completes the decoding.
+     *
+     * @return
+     *      the decoded data, backed by a byte array or by the temporary file.
+     */
+    Base64Data finish() throws IOException {
+        Base64Data data = new Base64Data();
+        if (fileOut != null) {
+            try {
+                fileOut.close();
+            } catch (IOException e) {
+                discard();
+                throw e;
+            }
+            fileOut = null;
+            data.set(new DataHandler(new TemporaryFileDataSource(file.toFile())));
+            file = null;
+        } else {
+            memory.set(data, null);
+        }
+        return data;
+    }
+
+    /**
+     * Closes and deletes the temporary file, if any, when the decoding is abandoned.
+     */
+    void discard() {
+        try {
+            if (fileOut != null)
+                fileOut.close();
+        } catch (IOException e) {
+            // deleted anyway
+        }
+        fileOut = null;
+        try {
+            if (file != null)
+                Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // nothing else to do
+        }
+        file = null;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.TransducedAccessor;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+
+/**
+ * Unmarshals base64 encoded text into a property of the parent element,
+ * decoding large texts while they are being parsed.
+ *
+ * <p>
+ * Short texts are handled just like {@link LeafPropertyLoader} does.
+ * Long texts are reported in chunks by the connector, and only the decoded
+ * bytes are kept, in memory or in a temporary file beyond the
+ * {@link JAXBRIContext#BINARY_SPILL_THRESHOLD spill threshold}.
+ * The property then receives them as {@link Base64Data}.
+ *
+ * @see Base64Decoder
+ */
+public final class Base64Loader extends LeafPropertyLoader {
+
+    private final int spillThreshold;
+
+    /**
+     * @param spillThreshold
+     *      number of decoded bytes kept in memory. Negative to never spill.
+     */
+    public Base64Loader(TransducedAccessor xacc, int spillThreshold) {
+        super(xacc);
+        this.spillThreshold = spillThreshold;
+    }
+
+    @Override
+    public boolean expectTextChunks() {
+        return true;
+    }
+
+    @Override
+    public void textChunk(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+        // the target of a leaf state is otherwise unused
+        Base64Decoder decoder = (Base64Decoder) state.getTarget();
+        if (decoder == null) {
+            decoder = new Base64Decoder(spillThreshold);
+            state.setTarget(decoder);
+        }
+        try {
+            decoder.decode(text);
+        } catch (IOException e) {
+            decoder.discard();
+            handleGenericException(e);
+        }
+    }
+
+    @Override
+    public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+        Base64Decoder decoder = (Base64Decoder) state.getTarget();
+        if (decoder == null) {
+            // the whole text came in one piece
+            super.text(state, text);
+            return;
+        }
+
+        state.setTarget(null);
+        Base64Data data;
+        try {
+            decoder.decode(text);
+            data = decoder.finish();
+        } catch (IOException e) {
+            decoder.discard();
+            handleGenericException(e);
+            return;
+        }
+        super.text(state, data);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import org.glassfish.jaxb.runtime.DatatypeConverterImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.output.Pcdata;
+import org.glassfish.jaxb.runtime.v2.runtime.output.UTF8XmlOutput;
+
+import java.io.IOException;
+
+/**
+ * {@link Pcdata} that represents a single double or float,
+ * printed as {@link DatatypeConverterImpl} would.
+ *
+ * @see IntData
+ */
+public class DoubleData extends Pcdata {
+    /**
+     * The value that this {@link Pcdata} represents.
+     *
+     * Modifiable.
+     */
+    private double data;
+
+    /**
+     * True if {@link #data} holds a float, which prints differently.
+     */
+    private boolean isFloat;
+
+    /**
+     * Default constructor.
+     */
+    public DoubleData() {}
+
+    public void reset(double d) {
+        this.data = d;
+        this.isFloat = false;
+    }
+
+    public void reset(float f) {
+        this.data = f;
+        this.isFloat = true;
+    }
+
+    @Override
+    public String toString() {
+        return isFloat ? DatatypeConverterImpl._printFloat((float)data) : DatatypeConverterImpl._printDouble(data);
+    }
+
+    @Override
+    public int length() {
+        return toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start,end);
+    }
+
+    @Override
+    public void writeTo(UTF8XmlOutput output) throws IOException {
+        if(isFloat)
+            output.text((float)data);
+        else
+            output.text(data);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.property.StructureLoaderBuilder;
+import org.glassfish.jaxb.runtime.v2.util.PerfectQNameMap;
+import org.glassfish.jaxb.runtime.v2.util.QNameMap;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Read-only map from element names to the values loaders dispatch to.
+ *
+ * <p>
+ * When all the names are element names of the {@link JAXBContextImpl}, and their
+ * indices are close enough to each other, the values are kept in an array
+ * indexed by {@link TagName#getElementIndex()}, so that looking up a start tag
+ * is an array access. Otherwise they are kept in a {@link PerfectQNameMap} and
+ * tags are looked up by name.
+ *
+ * @param <V> type of the values
+ * @since 4.0.1
+ */
+public final class ElementIndexMap<V> {
+
+    /**
+     * The array is used if it has at most this many slots per entry, plus {@link #EXTRA_SLOTS}.
+     */
+    private static final int MAX_SLOTS_PER_ENTRY = 4;
+    private static final int EXTRA_SLOTS = 8;
+
+    private static final String INTERNAL = StructureLoaderBuilder.TEXT_HANDLER.getNamespaceURI();
+
+    private final JAXBContextImpl context;
+
+    /**
+     * Values by name. Null if they are kept by element index.
+     */
+    private final PerfectQNameMap<V> byName;
+
+    /**
+     * Values by element index minus {@link #firstIndex}. Null if they are kept by name.
+     */
+    private final Object[] byIndex;
+    private final int firstIndex;
+
+    /**
+     * Values of the names of {@link StructureLoaderBuilder}, which are not element names
+     * and never match a tag. Only used when the values are kept by element index.
+     */
+    private final QNameMap<V> internal;
+
+    /**
+     * The names, for error messages.
+     */
+    private final QName[] names;
+
+    /**
+     * @param context
+     *      the context the names belong to. It may still be being built.
+     */
+    public ElementIndexMap(JAXBContextImpl context, QNameMap<? extends V> map) {
+        this.context = context;
+        this.names = map.keySet().toArray(new QName[0]);
+
+        int count = 0;
+        int min = Integer.MAX_VALUE;
+        int max = -1;
+        boolean indexed = true;
+        for (QNameMap.Entry<? extends V> e : map.entrySet()) {
+            if (e.nsUri.equals(INTERNAL))
+                continue;
+            int i = context.getElementIndex(e.nsUri, e.localName);
+            if (i < 0) {
+                indexed = false;
+                break;
+            }
+            count++;
+            min = Math.min(min, i);
+            max = Math.max(max, i);
+        }
+
+        if (indexed && max - min + 1 <= count * MAX_SLOTS_PER_ENTRY + EXTRA_SLOTS) {
+            this.byName = null;
+            this.firstIndex = count == 0 ? 0 : min;
+            this.byIndex = new Object[count == 0 ? 0 : max - min + 1];
+            this.internal = new QNameMap<>();
+            for (QNameMap.Entry<? extends V> e : map.entrySet()) {
+                if (e.nsUri.equals(INTERNAL))
+                    internal.put(e.nsUri, e.localName, e.getValue());
+                else
+                    byIndex[context.getElementIndex(e.nsUri, e.localName) - firstIndex] = e.getValue();
+            }
+        } else {
+            this.byName = new PerfectQNameMap<>(map);
+            this.firstIndex = 0;
+            this.byIndex = null;
+            this.internal = null;
+        }
+    }
+
+    /**
+     * Gets the value for the name of a start tag.
+     */
+    public V get(TagName tag) {
+        if (byIndex == null)
+            return byName.get(tag.uri, tag.local);
+        return get(tag.getElementIndex());
+    }
+
+    @SuppressWarnings("unchecked")
+    private V get(int elementIndex) {
+        // unknown names have a negative index, which the unsigned comparison excludes
+        int i = elementIndex - firstIndex;
+        return Integer.compareUnsigned(i, byIndex.length) < 0 ? (V) byIndex[i] : null;
+    }
+
+    /**
+     * Gets the value for a name.
+     */
+    public V get(String nsUri, String localName) {
+        if (byIndex == null)
+            return byName.get(nsUri, localName);
+        if (nsUri.equals(INTERNAL))
+            return internal.get(nsUri, localName);
+        return get(context.getElementIndex(nsUri, localName));
+    }
+
+    public V get(QName name) {
+        return get(name.getNamespaceURI(), name.getLocalPart());
+    }
+
+    /**
+     * Whether tags are looked up by their element index.
+     */
+    public boolean isIndexed() {
+        return byIndex != null;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns a new collection of the names of this map.
+     */
+    public Collection<QName> keySet() {
+        return new ArrayList<>(Arrays.asList(names));
+    }
+}
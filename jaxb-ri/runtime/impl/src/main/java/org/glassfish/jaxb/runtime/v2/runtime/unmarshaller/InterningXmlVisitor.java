@@ -71,6 +71,11 @@ public final class InterningXmlVisitor implements XmlVisitor {
         next.text(pcdata);
     }
 
+    @Override
+    public boolean textChunk( CharSequence pcdata ) throws SAXException {
+        return next.textChunk(pcdata);
+    }
+
     @Override
     public UnmarshallingContext getContext() {
         return next.getContext();
@@ -127,6 +127,27 @@ public abstract class Loader {
         return expectText;
     }
 
+    /**
+     * True if this loader can receive the text of its element in several pieces,
+     * through the {@link #textChunk(UnmarshallingContext.State, CharSequence)} method.
+     * False otherwise.
+     */
+    public boolean expectTextChunks() {
+        return false;
+    }
+
+    /**
+     * Called when this loader is an active loader and a long text is still being parsed.
+     *
+     * <p>
+     * The rest of the text is then reported by
+     * {@link #text(UnmarshallingContext.State, CharSequence)} as usual.
+     * Only called if {@link #expectTextChunks()} returns true.
+     */
+    public void textChunk(UnmarshallingContext.State state, CharSequence text) throws SAXException {
+        throw new IllegalStateException();
+    }
+
 
     /**
      * Called when this loaderis an active loaderand we see an end tag.
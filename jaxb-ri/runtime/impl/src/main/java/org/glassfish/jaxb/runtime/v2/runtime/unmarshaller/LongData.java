@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import org.glassfish.jaxb.runtime.v2.runtime.output.Pcdata;
+import org.glassfish.jaxb.runtime.v2.runtime.output.UTF8XmlOutput;
+
+import java.io.IOException;
+
+/**
+ * {@link Pcdata} that represents a single long.
+ *
+ * @see IntData
+ */
+public class LongData extends Pcdata {
+    /**
+     * The long value that this {@link Pcdata} represents.
+     *
+     * Modifiable.
+     */
+    private long data;
+
+    /**
+     * Default constructor.
+     */
+    public LongData() {}
+
+    public void reset(long l) {
+        this.data = l;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(data);
+    }
+
+    @Override
+    public int length() {
+        return toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start,end);
+    }
+
+    @Override
+    public void writeTo(UTF8XmlOutput output) throws IOException {
+        output.text(data);
+    }
+}
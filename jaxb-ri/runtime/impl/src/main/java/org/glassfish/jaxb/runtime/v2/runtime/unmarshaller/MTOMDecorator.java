@@ -113,6 +113,11 @@ final class MTOMDecorator implements XmlVisitor {
             followXop = false;
     }
 
+    @Override
+    public boolean textChunk( CharSequence pcdata ) throws SAXException {
+        return followXop || next.textChunk(pcdata);
+    }
+
     @Override
     public UnmarshallingContext getContext() {
         return next.getContext();
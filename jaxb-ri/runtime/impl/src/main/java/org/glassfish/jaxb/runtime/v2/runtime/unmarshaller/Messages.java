@@ -26,6 +26,7 @@ enum Messages {
     UNABLE_TO_CREATE_MAP, // 1 arg
     UNINTERNED_STRINGS, // no args
     ERRORS_LIMIT_EXCEEDED, // no arg
+    SPLIT_ZERO_COPY_TEXT, // no args
     ;
 
     private static final ResourceBundle rb = ResourceBundle.getBundle(Messages.class.getName());
@@ -43,6 +43,11 @@ public final class SAXConnector implements UnmarshallerHandler {
     private final UnmarshallingContext context;
     private final XmlVisitor.TextPredictor predictor;
 
+    /**
+     * True if a part of the text in {@link #buffer} has already been reported.
+     */
+    private boolean chunked = false;
+
     private static final class TagNameImpl extends TagName {
         String qname;
         @Override
@@ -151,16 +156,22 @@ public final class SAXConnector implements UnmarshallerHandler {
 
 
     @Override
-    public void characters(char[] buf, int start, int len ) {
+    public void characters(char[] buf, int start, int len ) throws SAXException {
         if (logger.isLoggable(Level.FINEST)) {
             logger.log(Level.FINEST, "SAXConnector.characters: {0}", buf);
         }
-        if( predictor.expectText() )
+        if( predictor.expectText() ) {
             buffer.append(buf,start,len);
+            if( buffer.length()>=UnmarshallingContext.TEXT_CHUNK_SIZE && predictor.expectTextChunks()
+                    && next.textChunk(buffer) ) {
+                buffer.setLength(0);
+                chunked = true;
+            }
+        }
     }
 
     @Override
-    public void ignorableWhitespace(char[] buf, int start, int len ) {
+    public void ignorableWhitespace(char[] buf, int start, int len ) throws SAXException {
         if (logger.isLoggable(Level.FINEST)) {
             logger.log(Level.FINEST, "SAXConnector.ignorableWhitespace: {0}", buf);
         }
@@ -178,9 +189,10 @@ public final class SAXConnector implements UnmarshallerHandler {
     }
 
     private void processText( boolean ignorable ) throws SAXException {
-        if (predictor.expectText() && (!ignorable || !WhiteSpaceProcessor.isWhiteSpace(buffer)))
+        if (predictor.expectText() && (chunked || !ignorable || !WhiteSpaceProcessor.isWhiteSpace(buffer)))
             next.text(buffer);
         buffer.setLength(0);
+        chunked = false;
     }
 
 }
@@ -10,11 +10,14 @@
 
 package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
 
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.helpers.ValidationEventImpl;
 import org.glassfish.jaxb.core.WhiteSpaceProcessor;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
@@ -113,9 +116,37 @@ class StAXStreamConnector extends StAXConnector {
      */
     protected boolean textReported = false;
 
+    /**
+     * True if a part of the text in {@link #buffer} has already been reported.
+     */
+    private boolean chunked = false;
+
+    /**
+     * True if the text of an element is reported straight from the
+     * character array of the reader, without copying it into {@link #buffer}.
+     *
+     * <p>
+     * This is only possible if the reader coalesces adjacent text,
+     * since the array is only valid until the next event.
+     *
+     * <p>
+     * Turned off for the rest of the document once the text of an element
+     * turns out to be interrupted by a comment or a processing instruction.
+     *
+     * @see org.glassfish.jaxb.runtime.api.JAXBRIContext#ZERO_COPY_TEXT
+     */
+    private boolean zeroCopy;
+
+    /**
+     * True if the text of the current element was reported from the character array of the reader.
+     */
+    private boolean zeroCopyReported = false;
+
     protected StAXStreamConnector(XMLStreamReader staxStreamReader, XmlVisitor visitor) {
         super(visitor);
         this.staxStreamReader = staxStreamReader;
+        this.zeroCopy = context.getJAXBContext().zeroCopyText
+                && getBoolProp(staxStreamReader, XMLInputFactory.IS_COALESCING);
     }
 
     @Override
@@ -306,24 +337,98 @@ class StAXStreamConnector extends StAXConnector {
     };
 
     protected void handleCharacters() throws XMLStreamException, SAXException {
-        if( predictor.expectText() )
+        if( predictor.expectText() ) {
+            if( zeroCopy && buffer.length()==0 && !chunked && !textReported ) {
+                charArray.set();
+                // whitespace may still turn out to be ignorable, so leave it to processText
+                if( !WhiteSpaceProcessor.isWhiteSpace(charArray) ) {
+                    // the reader coalesces text, so this is all the text there is,
+                    // unless a comment or a processing instruction follows
+                    visitor.text(charArray);
+                    textReported = true;
+                    zeroCopyReported = true;
+                    return;
+                }
+            }
+            if( zeroCopyReported ) {
+                // the first part is gone with the array of the reader, so this can't be fixed up
+                // for this element. Read the text of the rest of the document through the buffer.
+                zeroCopyReported = false;
+                zeroCopy = false;
+                // fatal, so that the default handler doesn't let the truncated value through
+                context.handleEvent(new ValidationEventImpl(ValidationEvent.FATAL_ERROR,
+                        Messages.SPLIT_ZERO_COPY_TEXT.format(), context.getLocator().getLocation()), true);
+            }
             buffer.append(
                 staxStreamReader.getTextCharacters(),
                 staxStreamReader.getTextStart(),
                 staxStreamReader.getTextLength() );
+            if( buffer.length()>=UnmarshallingContext.TEXT_CHUNK_SIZE && predictor.expectTextChunks()
+                    && visitor.textChunk(buffer) ) {
+                buffer.setLength(0);
+                chunked = true;
+            }
+        }
     }
 
     private void processText( boolean ignorable ) throws SAXException {
-        if( predictor.expectText() && (!ignorable || !WhiteSpaceProcessor.isWhiteSpace(buffer) || context.getCurrentState().isMixed())) {
-            if(textReported) {
-                textReported = false;
-            } else {
-                visitor.text(buffer);
-            }
+        zeroCopyReported = false;
+        if(textReported) {
+            textReported = false;
+        } else
+        if( predictor.expectText() && (chunked || !ignorable || !WhiteSpaceProcessor.isWhiteSpace(buffer) || context.getCurrentState().isMixed())) {
+            visitor.text(buffer);
         }
         buffer.setLength(0);
+        chunked = false;
     }
 
+    /**
+     * {@link CharSequence} view over the current text of the reader.
+     */
+    private final class CharSequenceImpl implements CharSequence {
+        char[] ch;
+        int start;
+        int length;
+
+        CharSequenceImpl() {
+        }
+
+        CharSequenceImpl(final char[] ch, final int start, final int length) {
+            this.ch = ch;
+            this.start = start;
+            this.length = length;
+        }
+
+        void set() {
+            ch = staxStreamReader.getTextCharacters();
+            start = staxStreamReader.getTextStart();
+            length = staxStreamReader.getTextLength();
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return ch[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new CharSequenceImpl(ch, this.start + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(ch, start, length);
+        }
+    }
+
+    private final CharSequenceImpl charArray = new CharSequenceImpl();
+
 
 
     /**
@@ -17,13 +17,14 @@ import org.glassfish.jaxb.runtime.api.JAXBRIContext;
 import org.glassfish.jaxb.runtime.v2.runtime.ClassBeanInfoImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.JaxBeanInfo;
-import org.glassfish.jaxb.runtime.v2.runtime.RecordBuilder;
+import org.glassfish.jaxb.runtime.v2.runtime.RecordInstantiator;
 import org.glassfish.jaxb.runtime.v2.runtime.property.AttributeProperty;
 import org.glassfish.jaxb.runtime.v2.runtime.property.Property;
 import org.glassfish.jaxb.runtime.v2.runtime.property.StructureLoaderBuilder;
 import org.glassfish.jaxb.runtime.v2.runtime.property.UnmarshallerChain;
 import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
 import org.glassfish.jaxb.runtime.v2.runtime.reflect.TransducedAccessor;
+import org.glassfish.jaxb.runtime.v2.util.PerfectQNameMap;
 import org.glassfish.jaxb.runtime.v2.util.QNameMap;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -51,7 +52,15 @@ public final class StructureLoader extends Loader {
      * Since creating new QNames is expensive use this optimized
      * version of the map
      */
-    private final QNameMap<ChildLoader> childUnmarshallers = new QNameMap<>();
+    private /*final*/ ElementIndexMap<ChildLoader> childUnmarshallers;
+
+    /**
+     * Namespace URI of the type of the bean, to look child elements up in
+     * when they are not found in their own namespace. Null if this backup is off.
+     *
+     * @see JAXBRIContext#BACKUP_WITH_PARENT_NAMESPACE
+     */
+    private /*final*/ String backupNamespace;
 
     /**
      * Loader that processes elements that didn't match anf of the {@link #childUnmarshallers}.
@@ -68,7 +77,7 @@ public final class StructureLoader extends Loader {
      * Unmarshallers for attribute values.
      * May be null if no attribute is expected and {@link #attCatchAll}==null.
      */
-    private /*final*/ QNameMap<TransducedAccessor> attUnmarshallers;
+    private /*final*/ PerfectQNameMap<TransducedAccessor> attUnmarshallers;
 
     /**
      * This will receive all the attributes
@@ -78,6 +87,11 @@ public final class StructureLoader extends Loader {
 
     private final JaxBeanInfo beanInfo;
 
+    /**
+     * Non-null if the bean is a record.
+     */
+    private final RecordInstantiator<?> recordInstantiator;
+
     /**
      * The number of scopes this dispatcher needs to keep active.
      */
@@ -89,6 +103,7 @@ public final class StructureLoader extends Loader {
     public StructureLoader(ClassBeanInfoImpl beanInfo) {
         super(true);
         this.beanInfo = beanInfo;
+        this.recordInstantiator = beanInfo.getRecordInstantiator();
     }
 
     /**
@@ -100,22 +115,24 @@ public final class StructureLoader extends Loader {
      */
     public void init( JAXBContextImpl context, ClassBeanInfoImpl beanInfo, Accessor<?,Map<QName,String>> attWildcard) {
         UnmarshallerChain chain = new UnmarshallerChain(context);
+        QNameMap<ChildLoader> children = new QNameMap<>();
+        QNameMap<TransducedAccessor> atts = null;
         for (ClassBeanInfoImpl bi = beanInfo; bi != null; bi = bi.superClazz) {
             for (int i = bi.properties.length - 1; i >= 0; i--) {
                 Property p = bi.properties[i];
 
                 switch(p.getKind()) {
                 case ATTRIBUTE:
-                    if(attUnmarshallers==null)
-                        attUnmarshallers = new QNameMap<>();
+                    if(atts==null)
+                        atts = new QNameMap<>();
                     AttributeProperty ap = (AttributeProperty) p;
-                    attUnmarshallers.put(ap.attName.toQName(),ap.xacc);
+                    atts.put(ap.attName.toQName(),ap.xacc);
                     break;
                 case ELEMENT:
                 case REFERENCE:
                 case MAP:
                 case VALUE:
-                    p.buildChildElementUnmarshallers(chain,childUnmarshallers);
+                    p.buildChildElementUnmarshallers(chain,children);
                     break;
                 }
             }
@@ -123,8 +140,12 @@ public final class StructureLoader extends Loader {
 
         this.frameSize = chain.getScopeSize();
 
-        textHandler = childUnmarshallers.get(StructureLoaderBuilder.TEXT_HANDLER);
-        catchAll = childUnmarshallers.get(StructureLoaderBuilder.CATCH_ALL);
+        childUnmarshallers = new ElementIndexMap<>(context, children);
+        if(atts!=null)
+            attUnmarshallers = new PerfectQNameMap<>(atts);
+
+        textHandler = children.get(StructureLoaderBuilder.TEXT_HANDLER);
+        catchAll = children.get(StructureLoaderBuilder.CATCH_ALL);
 
         if(attWildcard!=null) {
             attCatchAll = (Accessor<Object,Map<QName,String>>) attWildcard;
@@ -135,6 +156,16 @@ public final class StructureLoader extends Loader {
         } else {
             attCatchAll = null;
         }
+
+        Boolean backup = context.backupWithParentNamespace != null
+                ? context.backupWithParentNamespace
+                : Boolean.parseBoolean(Utils.getSystemProperty(JAXBRIContext.BACKUP_WITH_PARENT_NAMESPACE));
+        backupNamespace = null;
+        if (backup && catchAll == null && beanInfo.getTypeNames() != null) {
+            Iterator<?> typeNamesIt = beanInfo.getTypeNames().iterator();
+            if (typeNamesIt.hasNext())
+                backupNamespace = ((QName) typeNamesIt.next()).getNamespaceURI().intern();
+        }
     }
 
     @Override
@@ -145,29 +176,30 @@ public final class StructureLoader extends Loader {
         Object child;
         assert !beanInfo.isImmutable();
 
-        // let's see if we can reuse the existing peer object
-        child = context.getInnerPeer();
-
-        if(child != null && beanInfo.jaxbType!=child.getClass()) 
-            child = null;   // unexpected type.
+        if(recordInstantiator!=null) {
+            // records are immutable, so the components are collected first
+            // and the record is created in the leaveElement method.
+            child = context.startRecord(recordInstantiator);
+            state.setTarget(child);
+        } else {
+            // let's see if we can reuse the existing peer object
+            child = context.getInnerPeer();
 
-        if(child != null) 
-            beanInfo.reset(child,context);
+            if(child != null && beanInfo.jaxbType!=child.getClass())
+                child = null;   // unexpected type.
 
-        if(child == null)
-            child = context.createInstance(beanInfo);
+            if(child != null)
+                beanInfo.reset(child,context);
 
-        if(child==null) {
-            
-        	child= new RecordBuilder(beanInfo.jaxbType);
-        }
-        
-        context.recordInnerPeer(child);
+            if(child == null)
+                child = context.createInstance(beanInfo);
 
-        state.setTarget(child);
+            context.recordInnerPeer(child);
 
-        fireBeforeUnmarshal(beanInfo, child, state);
+            state.setTarget(child);
 
+            fireBeforeUnmarshal(beanInfo, child, state);
+        }
 
         context.startScope(frameSize);
 
@@ -222,20 +254,10 @@ public final class StructureLoader extends Loader {
 
     @Override
     public void childElement(UnmarshallingContext.State state, TagName arg) throws SAXException {
-        ChildLoader child = childUnmarshallers.get(arg.uri,arg.local);
+        ChildLoader child = childUnmarshallers.get(arg);
         if(child == null) {
-            Boolean backupWithParentNamespace = state.getContext().getJAXBContext().backupWithParentNamespace;
-			backupWithParentNamespace = backupWithParentNamespace != null
-					? backupWithParentNamespace
-					: Boolean.parseBoolean(Utils.getSystemProperty(JAXBRIContext.BACKUP_WITH_PARENT_NAMESPACE));
-            if ((beanInfo != null) && (beanInfo.getTypeNames() != null) && backupWithParentNamespace) {
-                Iterator<?> typeNamesIt = beanInfo.getTypeNames().iterator();
-                QName parentQName = null;
-                if ((typeNamesIt != null) && (typeNamesIt.hasNext()) && (catchAll == null)) {
-                    parentQName = (QName) typeNamesIt.next();
-                    String parentUri = parentQName.getNamespaceURI();
-                    child = childUnmarshallers.get(parentUri, arg.local);
-                }
+            if (backupNamespace != null) {
+                child = childUnmarshallers.get(backupNamespace, arg.local);
             }
             if (child == null) {
                 child = catchAll;
@@ -266,19 +288,18 @@ public final class StructureLoader extends Loader {
             textHandler.loader.text(state,text);
     }
 
-	@Override
-	public void leaveElement(UnmarshallingContext.State state, TagName ea) throws SAXException {
-		Object o = state.getTarget();
-		if (o instanceof RecordBuilder) {
-			RecordBuilder rb = (RecordBuilder) o;
-			state.setTarget(rb.build());
-		}
-
-		state.getContext().endScope(frameSize);
-		fireAfterUnmarshal(beanInfo, state.getTarget(), state.getPrev());
-	}
+    @Override
+    public void leaveElement(UnmarshallingContext.State state, TagName ea) throws SAXException {
+        UnmarshallingContext context = state.getContext();
+        // finish the packed collections before they are passed to the canonical constructor
+        context.endScope(frameSize);
+        if(recordInstantiator!=null) {
+            state.setTarget(context.endRecord());
+        }
+        fireAfterUnmarshal(beanInfo, state.getTarget(), state.getPrev());
+    }
 
-    private static final QNameMap<TransducedAccessor> EMPTY = new QNameMap<>();
+    private static final PerfectQNameMap<TransducedAccessor> EMPTY = new PerfectQNameMap<>(new QNameMap<>());
 
     public JaxBeanInfo getBeanInfo() {
         return beanInfo;
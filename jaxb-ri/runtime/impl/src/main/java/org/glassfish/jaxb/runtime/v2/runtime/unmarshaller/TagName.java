@@ -11,6 +11,7 @@
 package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
 
 import org.glassfish.jaxb.runtime.v2.runtime.Name;
+import org.glassfish.jaxb.runtime.v2.runtime.NameList;
 import org.xml.sax.Attributes;
 
 import javax.xml.namespace.QName;
@@ -59,9 +60,52 @@ public abstract class TagName {
      */
     public Attributes atts;
 
+    /**
+     * Names of the context, to resolve {@link #elementIndex} with.
+     */
+    private NameList names;
+
+    /**
+     * Cached result of {@link #getElementIndex()}.
+     */
+    private int elementIndex = UNRESOLVED;
+
+    private static final int UNRESOLVED = -2;
+
     public TagName() {
     }
 
+    /**
+     * Called by {@link UnmarshallingContext} for each start tag,
+     * once {@link #uri} and {@link #local} are set and interned.
+     */
+    final void resolveWith(NameList names) {
+        this.names = names;
+        this.elementIndex = UNRESOLVED;
+    }
+
+    /**
+     * Gets the index of this element name in the {@link NameList} of the context.
+     * The name is looked up the first time this is called for a start tag, and
+     * the index is shared by all the loaders the tag is passed to.
+     *
+     * <p>
+     * Only valid for start tags that went through {@link UnmarshallingContext}.
+     *
+     * @return
+     *      {@link Name#qNameIndex}, or -1 if the name is not an
+     *      element name known to the context.
+     * @since 4.0.1
+     */
+    public final int getElementIndex() {
+        int i = elementIndex;
+        if (i == UNRESOLVED) {
+            i = names != null ? names.getElementIndex(uri, local) : -1;
+            elementIndex = i;
+        }
+        return i;
+    }
+
     /**
      * Checks if the given name pair matches this name.
      */
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import jakarta.activation.FileDataSource;
+
+import java.io.Closeable;
+import java.io.File;
+import java.lang.ref.Cleaner;
+
+/**
+ * {@link FileDataSource} over a temporary file that holds decoded base64 data.
+ *
+ * <p>
+ * The file is deleted when the data source is closed, or else once it is
+ * no longer reachable, so that it lives as long as the unmarshalled value
+ * that refers to it.
+ *
+ * @see Base64Decoder
+ */
+final class TemporaryFileDataSource extends FileDataSource implements Closeable {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Cleaner.Cleanable cleanable;
+
+    TemporaryFileDataSource(File file) {
+        super(file);
+        // the action must not refer to this object, or it would never become unreachable
+        cleanable = CLEANER.register(this, new Delete(file));
+    }
+
+    /**
+     * Deletes the file. The data can't be read anymore.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
+    private static final class Delete implements Runnable {
+        private final File file;
+
+        Delete(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+
+import jakarta.xml.bind.ValidationEvent;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the documents and the errors seen by all the unmarshallers of a {@link JAXBContextImpl}.
+ *
+ * <p>
+ * The counters are only kept if the context was created with
+ * {@link JAXBRIContext#UNMARSHAL_METRICS}. They are updated concurrently
+ * by every unmarshaller of the context without contention, so reading them
+ * while unmarshalling is in progress gives an approximate snapshot.
+ *
+ * @see JAXBContextImpl#getUnmarshalMetrics()
+ * @since 4.0.1
+ */
+public final class UnmarshalMetrics {
+
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder reportedEvents = new LongAdder();
+    private final LongAdder suppressedErrors = new LongAdder();
+    private final LongAdder validatedDocuments = new LongAdder();
+    private final LongAdder skippedValidations = new LongAdder();
+    private final LongAdder validationNanos = new LongAdder();
+
+    public UnmarshalMetrics() {}
+
+    /**
+     * Gets the number of documents that unmarshalling has been started for.
+     */
+    public long getDocumentCount() {
+        return documents.sum();
+    }
+
+    /**
+     * Gets the number of {@link ValidationEvent}s passed to the event handlers.
+     */
+    public long getReportedEventCount() {
+        return reportedEvents.sum();
+    }
+
+    /**
+     * Gets the number of errors that were not reported, because the document
+     * already reached the {@link JAXBRIContext#MAX_ERRORS limit}.
+     */
+    public long getSuppressedErrorCount() {
+        return suppressedErrors.sum();
+    }
+
+    /**
+     * Gets the number of documents that were validated against the schema of
+     * the unmarshaller to the end.
+     *
+     * @see jakarta.xml.bind.Unmarshaller#setSchema(javax.xml.validation.Schema)
+     */
+    public long getValidatedDocumentCount() {
+        return validatedDocuments.sum();
+    }
+
+    /**
+     * Gets the number of documents that were not validated against the schema
+     * of the unmarshaller, because of {@link JAXBRIContext#VALIDATION_SAMPLING}.
+     */
+    public long getSkippedValidationCount() {
+        return skippedValidations.sum();
+    }
+
+    /**
+     * Gets the time spent in the validator by the documents
+     * counted by {@link #getValidatedDocumentCount()}, in nanoseconds.
+     */
+    public long getValidationNanos() {
+        return validationNanos.sum();
+    }
+
+    /**
+     * Gets the average time spent in the validator per validated document, in nanoseconds.
+     */
+    public long getValidationNanosPerDocument() {
+        long count = getValidatedDocumentCount();
+        return count == 0 ? 0 : getValidationNanos() / count;
+    }
+
+    /**
+     * Sets all the counters back to zero.
+     */
+    public void reset() {
+        documents.reset();
+        reportedEvents.reset();
+        suppressedErrors.reset();
+        validatedDocuments.reset();
+        skippedValidations.reset();
+        validationNanos.reset();
+    }
+
+    void documentStarted() {
+        documents.increment();
+    }
+
+    void eventReported() {
+        reportedEvents.increment();
+    }
+
+    void errorSuppressed() {
+        suppressedErrors.increment();
+    }
+
+    void documentValidated(long nanos) {
+        validatedDocuments.increment();
+        validationNanos.add(nanos);
+    }
+
+    void validationSkipped() {
+        skippedValidations.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "UnmarshalMetrics{documents=" + getDocumentCount()
+                + ", reportedEvents=" + getReportedEventCount()
+                + ", suppressedErrors=" + getSuppressedErrorCount()
+                + ", validatedDocuments=" + getValidatedDocumentCount()
+                + ", skippedValidations=" + getSkippedValidationCount()
+                + ", validationNanos=" + getValidationNanos() + '}';
+    }
+}
@@ -10,15 +10,14 @@
 
 package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
 
+import com.sun.istack.Pool;
 import org.glassfish.jaxb.runtime.IDResolver;
 import org.glassfish.jaxb.runtime.api.ClassResolver;
 import org.glassfish.jaxb.core.unmarshaller.DOMScanner;
 import org.glassfish.jaxb.core.unmarshaller.InfosetScanner;
-import org.glassfish.jaxb.core.v2.ClassFactory;
 import org.glassfish.jaxb.runtime.v2.runtime.AssociationMap;
 import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.JaxBeanInfo;
-import org.glassfish.jaxb.core.v2.util.XmlFactory;
 import jakarta.xml.bind.*;
 import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 import jakarta.xml.bind.attachment.AttachmentUnmarshaller;
@@ -32,8 +31,6 @@ import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
@@ -44,6 +41,7 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -68,6 +66,11 @@ import java.io.InputStream;
      */
     private Schema schema;
 
+    /**
+     * Pool of the {@link ValidatorHandler}s of {@link #schema}.
+     */
+    private Pool<ValidatorHandler> validators;
+
     public final UnmarshallingContext coordinator;
 
     /** Unmarshaller.Listener */
@@ -90,11 +93,41 @@ import java.io.InputStream;
         }
     }
 
+    /**
+     * Puts this unmarshaller back in the state it was created in,
+     * so that it can be pooled.
+     *
+     * @since 4.0.1
+     */
+    public void reset() {
+        schema = null;
+        validators = null;
+        externalListener = null;
+        attachmentUnmarshaller = null;
+        if (idResolver.getClass() != DefaultIDResolver.class) {
+            idResolver = new DefaultIDResolver();
+        }
+        coordinator.classResolver = null;
+        coordinator.classLoader = null;
+        coordinator.setFactories(null);
+        coordinator.clearAdapters();
+        releaseXMLReader();
+        try {
+            setEventHandler(this);
+        } catch (JAXBException e) {
+            throw new AssertionError(e);    // impossible
+        }
+    }
+
     @Override
     public UnmarshallerHandler getUnmarshallerHandler() {
         return getUnmarshallerHandler(true,null);
     }
 
+    /**
+     * {@link XMLReader} borrowed from {@link JAXBContextImpl#xmlReaderPool}
+     * and not given back yet.
+     */
     private XMLReader reader = null;
 
     /**
@@ -103,27 +136,28 @@ import java.io.InputStream;
      * This method is used when the client-specified
      * {@link SAXSource} object doesn't have XMLReader.
      * 
-     * {@link Unmarshaller} is not re-entrant, so we will
-     * only use one instance of XMLReader.
+     * The reader is borrowed from the pool of the context, and given back
+     * once the document is parsed.
      * 
      * Overriden in order to fix potential security issue.
      */
      @Override
     protected XMLReader getXMLReader() throws JAXBException {
          if (reader == null) {
-             try {
-                 SAXParserFactory parserFactory = XmlFactory.createParserFactory(context.disableSecurityProcessing);
-                 // there is no point in asking a validation because 
-                 // there is no guarantee that the document will come with
-                 // a proper schemaLocation.
-                 parserFactory.setValidating(false);
-                 reader = parserFactory.newSAXParser().getXMLReader();
-             } catch (ParserConfigurationException | SAXException e) {
-                 throw new JAXBException(e);
-             }
+             reader = context.xmlReaderPool.borrow();
          }
          return reader;
      }
+
+    /**
+     * Gives the borrowed {@link XMLReader}, if any, back to the pool of the context.
+     */
+    private void releaseXMLReader() {
+        if (reader != null) {
+            context.xmlReaderPool.recycle(reader);
+            reader = null;
+        }
+    }
     
     private SAXConnector getUnmarshallerHandler( boolean intern, JaxBeanInfo expectedType ) {
         XmlVisitor h = createUnmarshallerHandler(null, false, expectedType);
@@ -153,7 +187,14 @@ import java.io.InputStream;
 
         // delegate to JAXP 1.3 for validation if the client provided a schema
         if (schema != null) {
-            unmarshaller = new ValidatingUnmarshaller(schema,unmarshaller);
+            if (context.sampleValidation()) {
+                unmarshaller = new ValidatingUnmarshaller(validators,unmarshaller);
+            } else {
+                UnmarshalMetrics metrics = context.getUnmarshalMetrics();
+                if (metrics != null) {
+                    metrics.validationSkipped();
+                }
+            }
         }
 
         if(attachmentUnmarshaller!=null && attachmentUnmarshaller.isXOPPackage()) {
@@ -198,7 +239,9 @@ import java.io.InputStream;
 
     private Object unmarshal0( XMLReader reader, InputSource source, JaxBeanInfo expectedType ) throws JAXBException {
 
-        SAXConnector connector = getUnmarshallerHandler(needsInterning(reader),expectedType);
+        boolean pooled = reader == this.reader;
+        SAXConnector connector = getUnmarshallerHandler(
+                pooled ? context.xmlReaderPool.needsInterning() : needsInterning(reader), expectedType);
 
         reader.setContentHandler(connector);
         // saxErrorHandler will be set by the getUnmarshallerHandler method.
@@ -222,15 +265,22 @@ import java.io.InputStream;
         } catch( SAXException e ) {
             coordinator.clearStates();
             throw createUnmarshalException(e);
+        } finally {
+            if (pooled) {
+                // the pool resets the handlers
+                releaseXMLReader();
+            }
         }
 
         Object result = connector.getResult();
 
-        // avoid keeping unnecessary references too long to let the GC
-        // reclaim more memory.
-        // setting null upsets some parsers, so use a dummy instance instead.
-        reader.setContentHandler(dummyHandler);
-        reader.setErrorHandler(dummyHandler);
+        if (!pooled) {
+            // avoid keeping unnecessary references too long to let the GC
+            // reclaim more memory.
+            // setting null upsets some parsers, so use a dummy instance instead.
+            reader.setContentHandler(dummyHandler);
+            reader.setErrorHandler(dummyHandler);
+        }
 
         return result;
     }
@@ -338,6 +388,7 @@ import java.io.InputStream;
             handler.getContext().clearResult();
             return retVal;
         } catch( SAXException e ) {
+            coordinator.clearStates();
             throw createUnmarshalException(e);
         }
     }
@@ -375,6 +426,7 @@ import java.io.InputStream;
         try {
             connector.bridge();
         } catch (XMLStreamException e) {
+            h.getContext().clearStates();
             throw handleStreamException(e);
         }
 
@@ -480,6 +532,7 @@ import java.io.InputStream;
     @Override
     public void setSchema(Schema schema) {
         this.schema = schema;
+        this.validators = schema != null ? context.getValidatorPool(schema) : null;
     }
 
     @Override
@@ -575,22 +628,12 @@ import java.io.InputStream;
         return coordinator;
     }
     
-    @Override
-    @SuppressWarnings("FinalizeDeclaration")
-    protected void finalize() throws Throwable {
-        try {
-            ClassFactory.cleanCache();
-        } finally {
-            super.finalize();
-        }
-    }
-
     /**
-     *  Must be called from same thread which created the UnmarshallerImpl instance.
+     * Nothing to release. Kept for the compatibility with the code
+     * that used this method to clean the per-thread constructor cache.
      */
     @Override
     public void close() throws IOException {
-        ClassFactory.cleanCache();
     }
     
 }
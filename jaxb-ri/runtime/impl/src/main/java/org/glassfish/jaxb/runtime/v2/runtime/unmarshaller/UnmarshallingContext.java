@@ -22,6 +22,9 @@ import org.glassfish.jaxb.runtime.v2.runtime.AssociationMap;
 import org.glassfish.jaxb.runtime.v2.runtime.Coordinator;
 import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
 import org.glassfish.jaxb.runtime.v2.runtime.JaxBeanInfo;
+import org.glassfish.jaxb.runtime.v2.runtime.NameList;
+import org.glassfish.jaxb.runtime.v2.runtime.RecordBuilder;
+import org.glassfish.jaxb.runtime.v2.runtime.RecordInstantiator;
 import org.glassfish.jaxb.core.v2.runtime.unmarshaller.LocatorEx;
 import jakarta.xml.bind.*;
 import jakarta.xml.bind.helpers.ValidationEventImpl;
@@ -153,13 +156,30 @@ public final class UnmarshallingContext extends Coordinator
      */
     public @Nullable ClassLoader classLoader;
 
+    /**
+     * Number of characters that connectors buffer before reporting a text in pieces.
+     *
+     * @see XmlVisitor#textChunk(CharSequence)
+     */
+    static final int TEXT_CHUNK_SIZE = 8192;
+
     /**
      * The variable introduced to avoid reporting n^10 similar errors.
      * After error is reported counter is decremented. When it became 0 - errors should not be reported any more.
      *
-     * volatile is required to ensure that concurrent threads will see changed value
+     * Reset for every document, so the limit applies to each document separately.
      */
-    private static volatile int errorsCounter;
+    private int errorsCounter;
+
+    /**
+     * Non-null if the {@link JAXBContextImpl} collects {@link UnmarshalMetrics}.
+     */
+    private final @Nullable UnmarshalMetrics metrics;
+
+    /**
+     * Names of the {@link JAXBContextImpl}, to resolve the start tags with.
+     */
+    private final NameList nameList;
 
     /**
      * State information for each element.
@@ -382,6 +402,8 @@ public final class UnmarshallingContext extends Coordinator
         this.parent = _parent;
         this.assoc = assoc;
         this.root = this.current = new State(null);
+        this.metrics = _parent.context.getUnmarshalMetrics();
+        this.nameList = _parent.context.nameList;
         errorsCounter = _parent.context.maxErrorsCount;
     }
 
@@ -432,6 +454,11 @@ public final class UnmarshallingContext extends Coordinator
     public void clearStates() {
         State last = current;
         while (last.next != null) last = last.next;
+        for (State s = last; s != null; s = s.prev) {
+            // an element whose base64 text was being decoded into a temporary file
+            if (s.target instanceof Base64Decoder)
+                ((Base64Decoder) s.target).discard();
+        }
         while (last.prev != null) {
             last.loader = null;
             last.nil = false;
@@ -490,6 +517,8 @@ public final class UnmarshallingContext extends Coordinator
         current = root;
 
         patchersLen=0;
+        recordLen=0;
+        errorsCounter = getJAXBContext().maxErrorsCount;
         aborted = false;
         isUnmarshalInProgress = true;
         nsLen=0;
@@ -500,10 +529,14 @@ public final class UnmarshallingContext extends Coordinator
             root.loader = DEFAULT_ROOT_LOADER;
 
         idResolver.startDocument(this);
+
+        if(metrics!=null)
+            metrics.documentStarted();
     }
 
     @Override
     public void startElement(TagName tagName) throws SAXException {
+        tagName.resolveWith(nameList);
         pushCoordinator();
         try {
             _startElement(tagName);
@@ -546,6 +579,17 @@ public final class UnmarshallingContext extends Coordinator
         }
     }
 
+    @Override
+    public boolean textChunk(CharSequence pcdata) throws SAXException {
+        pushCoordinator();
+        try {
+            current.loader.textChunk(current, pcdata);
+            return true;
+        } finally {
+            popCoordinator();
+        }
+    }
+
     @Override
     public void endElement(TagName tagName) throws SAXException {
         pushCoordinator();
@@ -594,6 +638,11 @@ public final class UnmarshallingContext extends Coordinator
         return current.loader.expectText;
     }
 
+    @Override
+    public boolean expectTextChunks() {
+        return current.loader.expectTextChunks();
+    }
+
     /**
      * You should be always getting {@link TextPredictor} from {@link XmlVisitor}.
      */
@@ -680,6 +729,8 @@ public final class UnmarshallingContext extends Coordinator
     public void handleEvent(ValidationEvent event, boolean canRecover ) throws SAXException {
         ValidationEventHandler eventHandler = parent.getEventHandler();
 
+        if(metrics!=null)
+            metrics.eventReported();
         boolean recover = eventHandler.handleEvent(event);
 
         // if the handler says "abort", we will not return the object
@@ -696,6 +747,8 @@ public final class UnmarshallingContext extends Coordinator
     @Override
     public boolean handleEvent(ValidationEvent event) {
         try {
+            if(metrics!=null)
+                metrics.eventReported();
             // if the handler says "abort", we will not return the object.
             boolean recover = parent.getEventHandler().handleEvent(event);
             if(!recover)    aborted = true;
@@ -781,6 +834,23 @@ public final class UnmarshallingContext extends Coordinator
         patchers[patchersLen++] = job;
     }
 
+    /**
+     * Adds a job that sets properties of the given bean.
+     *
+     * <p>
+     * If the bean is the {@link RecordBuilder} of a record, the job is executed
+     * right before the record is created, as the record can't be changed afterward.
+     * Otherwise, it's executed at the last of the unmarshalling.
+     *
+     * @since 4.0.1
+     */
+    public void addPatcher( Object bean, Patcher job ) {
+        if( bean instanceof RecordBuilder )
+            ((RecordBuilder)bean).addPatcher(job);
+        else
+            addPatcher(job);
+    }
+
     /** Executes all the patchers. */
     private void runPatchers() throws SAXException {
         if( patchers!=null ) {
@@ -821,7 +891,11 @@ public final class UnmarshallingContext extends Coordinator
         Object o = current.target;
         if(o==null)
             o = current.prev.target;
-        idResolver.bind(id,o);
+        if(o instanceof RecordBuilder)
+            // bound once the record is created
+            ((RecordBuilder)o).addId(id);
+        else
+            idResolver.bind(id,o);
         return id;
     }
 
@@ -1061,6 +1135,59 @@ public final class UnmarshallingContext extends Coordinator
         return scopes[scopeTop-offset];
     }
 
+//
+//
+//
+// record management
+//
+//
+//
+    /**
+     * {@link RecordBuilder}s of the records being unmarshalled, from the outermost one.
+     * Reused across records and documents.
+     */
+    private RecordBuilder[] records = new RecordBuilder[4];
+    /**
+     * Number of {@link RecordBuilder}s in use.
+     */
+    private int recordLen=0;
+
+    /**
+     * Starts collecting the components of a new record.
+     *
+     * @return
+     *      the object to be used as the target of the properties of the record class,
+     *      until the corresponding {@link #endRecord()} method is invoked.
+     */
+    public RecordBuilder startRecord(RecordInstantiator<?> instantiator) {
+        if(recordLen==records.length)
+            records = Arrays.copyOf(records,records.length*2);
+        RecordBuilder rb = records[recordLen];
+        if(rb==null)
+            records[recordLen] = rb = new RecordBuilder();
+        recordLen++;
+        rb.reset(instantiator);
+        return rb;
+    }
+
+    /**
+     * Creates the record started by the last {@link #startRecord(RecordInstantiator)}.
+     */
+    public Object endRecord() throws SAXException {
+        RecordBuilder rb = records[--recordLen];
+        rb.runPatchers();
+        Object r;
+        try {
+            r = rb.build();
+        } catch (ReflectiveOperationException e) {
+            Loader.reportError("Unable to create an instance of "+rb.getType().getName(),e,false);
+            return null;    // can never be here
+        }
+        for (String id : rb.getIds())
+            idResolver.bind(id,r);
+        return r;
+    }
+
 //
 //
 //
@@ -1289,8 +1416,7 @@ public final class UnmarshallingContext extends Coordinator
      * If the method called and return true it is expected that error will be reported. And that's why
      * errorCounter is automatically decremented during the check.
      *
-     * NOT THREAD SAFE!!! In case of heave concurrency access several additional errors could be reported. It's not expected to be the
-     * problem. Otherwise add synchronization here.
+     * The limit is counted for the current document only.
      *
      * @return true in case if {@link Level#FINEST} is set OR we haven't exceed errors reporting limit.
      */
@@ -1300,11 +1426,15 @@ public final class UnmarshallingContext extends Coordinator
 
         if (errorsCounter >= 0) {
             --errorsCounter;
-            if (errorsCounter == 0) // it's possible to miss this because of concurrency. If required add synchronization here
+            if (errorsCounter == 0)
                 handleEvent(new ValidationEventImpl(ValidationEvent.WARNING, Messages.ERRORS_LIMIT_EXCEEDED.format(),
                         getLocator().getLocation(), null), true);
         }
-        return errorsCounter >= 0;
+        if (errorsCounter >= 0)
+            return true;
+        if (metrics != null)
+            metrics.errorSuppressed();
+        return false;
     }
 }
 
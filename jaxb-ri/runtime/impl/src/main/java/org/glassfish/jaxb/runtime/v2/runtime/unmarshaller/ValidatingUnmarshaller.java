@@ -10,6 +10,8 @@
 
 package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
 
+import com.sun.istack.Nullable;
+import com.sun.istack.Pool;
 import org.glassfish.jaxb.runtime.v2.util.FatalAdapter;
 import org.glassfish.jaxb.core.v2.runtime.unmarshaller.LocatorEx;
 import org.xml.sax.SAXException;
@@ -21,14 +23,29 @@ import javax.xml.validation.ValidatorHandler;
 /**
  * {@link XmlVisitor} decorator that validates the events by using JAXP validation API.
  *
+ * <p>
+ * The {@link ValidatorHandler} is taken from the pool of the schema when a document starts,
+ * and given back when it ends. If a document is aborted, the handler is dropped.
+ *
  * @author Kohsuke Kawaguchi
  */
 final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredictor {
     
     private final XmlVisitor next;
-    private final ValidatorHandler validator;
+    private final Pool<ValidatorHandler> validators;
+    private ValidatorHandler validator;
     private NamespaceContext nsContext = null;
 
+    /**
+     * Non-null if the time spent in the validator is measured.
+     */
+    private final @Nullable UnmarshalMetrics metrics;
+
+    /**
+     * Time spent in the validator for the current document.
+     */
+    private long validationNanos;
+
     /**
      * {@link TextPredictor} of the next {@link XmlVisitor}.
      */
@@ -38,31 +55,54 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
 
     /**
      * Creates a new instance of ValidatingUnmarshaller.
+     *
+     * @param validators
+     *      pool of the handlers of the {@link Schema} to validate against.
      */
-    public ValidatingUnmarshaller( Schema schema, XmlVisitor next ) {
-        this.validator = schema.newValidatorHandler();
+    public ValidatingUnmarshaller( Pool<ValidatorHandler> validators, XmlVisitor next ) {
+        this.validators = validators;
         this.next = next;
         this.predictor = next.getPredictor();
-        // if the user bothers to use a validator, make validation errors fatal
-        // so that it will abort unmarshalling.
-        validator.setErrorHandler(new FatalAdapter(getContext()));
+        this.metrics = getContext().getJAXBContext().getUnmarshalMetrics();
     }
 
     @Override
     public void startDocument(LocatorEx locator, NamespaceContext nsContext) throws SAXException {
         this.nsContext = nsContext;
+        validator = validators.take();
+        // if the user bothers to use a validator, make validation errors fatal
+        // so that it will abort unmarshalling.
+        validator.setErrorHandler(new FatalAdapter(getContext()));
+        validationNanos = 0;
+        long t = start();
         validator.setDocumentLocator(locator);
         validator.startDocument();
+        stop(t);
         next.startDocument(locator,nsContext);
     }
 
     @Override
     public void endDocument() throws SAXException {
         this.nsContext = null;
+        long t = start();
         validator.endDocument();
+        stop(t);
+        validators.recycle(validator);
+        validator = null;
+        if (metrics != null)
+            metrics.documentValidated(validationNanos);
         next.endDocument();
     }
 
+    private long start() {
+        return metrics != null ? System.nanoTime() : 0;
+    }
+
+    private void stop(long start) {
+        if (metrics != null)
+            validationNanos += System.nanoTime() - start;
+    }
+
     @Override
     public void startElement(TagName tagName) throws SAXException {
         if(nsContext != null) {
@@ -71,13 +111,17 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
                 validator.startPrefixMapping(tagNamePrefix, nsContext.getNamespaceURI(tagNamePrefix));
             }
         }
+        long t = start();
         validator.startElement(tagName.uri,tagName.local,tagName.getQname(),tagName.atts);
+        stop(t);
         next.startElement(tagName);
     }
 
     @Override
     public void endElement(TagName tagName ) throws SAXException {
+        long t = start();
         validator.endElement(tagName.uri,tagName.local,tagName.getQname());
+        stop(t);
         next.endElement(tagName);
     }
 
@@ -95,6 +139,20 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
 
     @Override
     public void text( CharSequence pcdata ) throws SAXException {
+        validate(pcdata);
+        if(predictor.expectText())
+            next.text(pcdata);
+    }
+
+    @Override
+    public boolean textChunk( CharSequence pcdata ) throws SAXException {
+        if(!next.textChunk(pcdata))
+            return false;   // validated with the rest of the text
+        validate(pcdata);
+        return true;
+    }
+
+    private void validate( CharSequence pcdata ) throws SAXException {
         int len = pcdata.length();
         if(buf.length<len) {
             buf = new char[len];
@@ -102,9 +160,9 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
         for( int i=0;i<len; i++ )
             buf[i] = pcdata.charAt(i);  // isn't this kinda slow?
 
+        long t = start();
         validator.characters(buf,0,len);
-        if(predictor.expectText())
-            next.text(pcdata);
+        stop(t);
     }
 
     @Override
@@ -126,4 +184,10 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
         // send text, ignoring optimization hints from the unmarshaller
         return true;
     }
+
+    @Override
+    public boolean expectTextChunks() {
+        // the validator is fine with the text in pieces
+        return predictor.expectTextChunks();
+    }
 }
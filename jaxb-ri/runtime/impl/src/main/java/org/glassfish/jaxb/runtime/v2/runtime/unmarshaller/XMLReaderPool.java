@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.unmarshaller;
+
+import com.sun.istack.NotNull;
+import jakarta.xml.bind.JAXBException;
+import org.glassfish.jaxb.core.v2.util.XmlFactory;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.glassfish.jaxb.runtime.v2.util.BoundedPool;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+/**
+ * Pool of the {@link XMLReader}s used by the {@link UnmarshallerImpl}s of a {@link JAXBContextImpl}
+ * when the client does not provide one.
+ *
+ * <p>
+ * All the readers come from the same {@link SAXParserFactory}, which is configured once,
+ * so whether they intern names is only checked once too.
+ *
+ * @since 4.0.1
+ */
+public final class XMLReaderPool extends BoundedPool<XMLReader> {
+
+    private static final DefaultHandler dummyHandler = new DefaultHandler();
+
+    private final boolean disableSecurityProcessing;
+
+    /**
+     * Created on first use. Guarded by this object, as factories are not thread safe.
+     */
+    private SAXParserFactory parserFactory;
+
+    /**
+     * Set once the first reader is created.
+     */
+    private volatile boolean needsInterning;
+
+    public XMLReaderPool(boolean disableSecurityProcessing, int capacity) {
+        super(capacity);
+        this.disableSecurityProcessing = disableSecurityProcessing;
+    }
+
+    /**
+     * Gets a pooled reader, or creates a new one if the pool is empty.
+     */
+    public @NotNull XMLReader borrow() throws JAXBException {
+        XMLReader reader = poll();
+        return reader != null ? reader : newReader();
+    }
+
+    /**
+     * Whether the readers of this pool report names that are not interned.
+     * Only meaningful once a reader has been obtained from this pool.
+     */
+    public boolean needsInterning() {
+        return needsInterning;
+    }
+
+    private synchronized XMLReader newReader() throws JAXBException {
+        try {
+            if (parserFactory == null) {
+                SAXParserFactory f = XmlFactory.createParserFactory(disableSecurityProcessing);
+                // there is no point in asking a validation because
+                // there is no guarantee that the document will come with
+                // a proper schemaLocation.
+                f.setValidating(false);
+                parserFactory = f;
+            }
+            XMLReader reader = parserFactory.newSAXParser().getXMLReader();
+            needsInterning = UnmarshallerImpl.needsInterning(reader);
+            return reader;
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new JAXBException(e);
+        }
+    }
+
+    @Override
+    protected @NotNull XMLReader create() {
+        try {
+            return newReader();
+        } catch (JAXBException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected boolean reset(@NotNull XMLReader reader) {
+        // setting null upsets some parsers, so use a dummy instance instead.
+        reader.setContentHandler(dummyHandler);
+        reader.setErrorHandler(dummyHandler);
+        return true;
+    }
+}
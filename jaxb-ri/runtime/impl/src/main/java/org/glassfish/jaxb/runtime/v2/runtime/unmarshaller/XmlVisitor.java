@@ -105,6 +105,31 @@ public interface XmlVisitor {
      */
     void text( CharSequence pcdata ) throws SAXException;
 
+    /**
+     * Reports a part of a long text, while the rest of it is still being parsed.
+     *
+     * <p>
+     * The caller may only use this method if {@link TextPredictor#expectTextChunks()}
+     * returns true. The last part of the text is reported by {@link #text(CharSequence)},
+     * even if it is empty or whitespace.
+     *
+     * <p>
+     * A visitor that doesn't take chunks returns false. The caller then keeps
+     * the chunk, and reports it with the rest of the text through
+     * {@link #text(CharSequence)}.
+     *
+     * @param pcdata
+     *      represents character data. This object can be mutable
+     *      (such as {@link StringBuilder}); it only needs to be fixed
+     *      while this method is executing.
+     * @return
+     *      true if the chunk was taken, false if it has to be reported again.
+     * @since 4.0.1
+     */
+    default boolean textChunk( CharSequence pcdata ) throws SAXException {
+        return false;
+    }
+
     /**
      * Returns the {@link UnmarshallingContext} at the end of the chain.
      *
@@ -135,5 +160,16 @@ public interface XmlVisitor {
          * an empty {@link XmlVisitor#text} event.
          */
         boolean expectText();
+
+        /**
+         * Returns true if the text expected as the next event can be reported
+         * in several pieces through {@link XmlVisitor#textChunk(CharSequence)}.
+         *
+         * <p>
+         * This allows the connector to avoid buffering a long text as a whole.
+         */
+        default boolean expectTextChunks() {
+            return false;
+        }
     }
 }
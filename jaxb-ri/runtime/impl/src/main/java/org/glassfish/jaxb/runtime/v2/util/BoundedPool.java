@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.util;
+
+import com.sun.istack.NotNull;
+import com.sun.istack.Nullable;
+import com.sun.istack.Pool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link Pool} that keeps at most a fixed number of objects.
+ *
+ * <p>
+ * Objects are kept in an array of slots that are taken and filled with
+ * compare-and-set, so that no thread ever blocks on the pool, and no object is
+ * tied to the thread that used it last. This makes the pool as good a fit for
+ * virtual threads as for platform threads. Objects given back to a full pool
+ * are left to the garbage collector.
+ *
+ * @param <T> type of the pooled objects
+ * @since 4.0.1
+ */
+public abstract class BoundedPool<T> implements Pool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * @param capacity
+     *      the maximum number of objects kept by this pool. Zero or less to keep none.
+     */
+    protected BoundedPool(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(capacity, 0));
+    }
+
+    /**
+     * Gets a pooled object, or creates a new one if the pool is empty.
+     */
+    @Override
+    public final @NotNull T take() {
+        T t = poll();
+        return t != null ? t : create();
+    }
+
+    /**
+     * Gets a pooled object.
+     *
+     * @return
+     *      null if the pool is empty.
+     */
+    public final @Nullable T poll() {
+        for (int i = 0; i < slots.length(); i++) {
+            T t = slots.get(i);
+            if (t != null && slots.compareAndSet(i, t, null))
+                return t;
+        }
+        return null;
+    }
+
+    /**
+     * Resets an object and returns it to the pool.
+     * The object must not be used by the caller any more.
+     */
+    @Override
+    public final void recycle(@NotNull T t) {
+        if (!reset(t))
+            return;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, t))
+                return;
+        }
+        // full
+    }
+
+    /**
+     * Gets the maximum number of objects kept by this pool.
+     */
+    public final int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Creates a new object when the pool is empty.
+     */
+    protected abstract @NotNull T create();
+
+    /**
+     * Puts an object given back to the pool back in the state it was created in.
+     *
+     * @return
+     *      false if the object cannot be reused, in which case it is not pooled.
+     */
+    protected abstract boolean reset(@NotNull T t);
+}
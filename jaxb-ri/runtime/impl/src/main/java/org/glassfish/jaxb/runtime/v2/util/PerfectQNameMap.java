@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.util;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only copy of a {@link QNameMap}, laid out for the fastest lookups.
+ *
+ * <p>
+ * The entries are kept in flat arrays indexed by a multiplicative hash of the names.
+ * When the map is created, a few table sizes and multipliers are tried until every
+ * entry lands in a slot of its own, so a lookup is one array index and two identity
+ * comparisons. If no such layout is found, colliding entries are probed linearly.
+ *
+ * <p>
+ * Like {@link QNameMap}, keys must be interned, and are compared by identity.
+ *
+ * @param <V> type of the values
+ * @since 4.0.1
+ */
+public final class PerfectQNameMap<V> {
+
+    private static final int[] MULTIPLIERS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1};
+
+    /**
+     * The table is at most this many times larger than the smallest one that fits the entries.
+     */
+    private static final int MAX_GROWTH = 4;
+
+    private final String[] nsUris;
+    private final String[] localNames;
+    private final Object[] values;
+    private final int multiplier;
+    private final int shift;
+    private final int mask;
+    private final int size;
+
+    /**
+     * True if every entry is in the slot its hash points to.
+     */
+    private final boolean perfect;
+
+    public PerfectQNameMap(QNameMap<? extends V> map) {
+        this.size = map.size();
+        int minCapacity = 2;
+        while (minCapacity <= size)
+            minCapacity <<= 1;
+
+        for (int capacity = minCapacity; capacity <= minCapacity * MAX_GROWTH; capacity <<= 1) {
+            for (int m : MULTIPLIERS) {
+                int[] slots = place(map, capacity, m);
+                if (slots != null) {
+                    this.multiplier = m;
+                    this.shift = Integer.numberOfLeadingZeros(capacity - 1);
+                    this.mask = capacity - 1;
+                    this.nsUris = new String[capacity];
+                    this.localNames = new String[capacity];
+                    this.values = new Object[capacity];
+                    int n = 0;
+                    for (QNameMap.Entry<? extends V> e : map.entrySet())
+                        set(slots[n++], e);
+                    this.perfect = true;
+                    return;
+                }
+            }
+        }
+
+        // no perfect layout. probe linearly
+        int capacity = minCapacity * 2;
+        this.multiplier = MULTIPLIERS[0];
+        this.shift = Integer.numberOfLeadingZeros(capacity - 1);
+        this.mask = capacity - 1;
+        this.nsUris = new String[capacity];
+        this.localNames = new String[capacity];
+        this.values = new Object[capacity];
+        this.perfect = false;
+        for (QNameMap.Entry<? extends V> e : map.entrySet()) {
+            int i = index(e.nsUri, e.localName);
+            while (localNames[i] != null)
+                i = (i + 1) & mask;
+            set(i, e);
+        }
+    }
+
+    /**
+     * Computes the slot of each entry, or returns null if two entries share a slot.
+     */
+    private static int[] place(QNameMap<?> map, int capacity, int multiplier) {
+        int shift = Integer.numberOfLeadingZeros(capacity - 1);
+        boolean[] used = new boolean[capacity];
+        int[] slots = new int[map.size()];
+        int n = 0;
+        for (QNameMap.Entry<?> e : map.entrySet()) {
+            int i = (hash(e.nsUri, e.localName) * multiplier) >>> shift;
+            if (used[i])
+                return null;
+            used[i] = true;
+            slots[n++] = i;
+        }
+        return slots;
+    }
+
+    private void set(int i, QNameMap.Entry<? extends V> e) {
+        nsUris[i] = e.nsUri;
+        localNames[i] = e.localName;
+        values[i] = e.getValue();
+    }
+
+    private static int hash(String nsUri, String localName) {
+        return localName.hashCode() * 31 + nsUri.hashCode();
+    }
+
+    private int index(String nsUri, String localName) {
+        return (hash(nsUri, localName) * multiplier) >>> shift;
+    }
+
+    /**
+     * Returns the value mapped to the given keys, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String nsUri, String localName) {
+        int i = slotOf(nsUri, localName);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * Returns the slot of the given keys, or -1 if they are not in the map.
+     * Slots are below {@link #capacity()}, so that values of another type,
+     * such as primitives, can be kept in an array of their own.
+     */
+    public int slotOf(String nsUri, String localName) {
+        int i = index(nsUri, localName);
+        while (true) {
+            String l = localNames[i];
+            if (l == localName && nsUris[i] == nsUri)
+                return i;
+            if (l == null || perfect)
+                return -1;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    public int capacity() {
+        return localNames.length;
+    }
+
+    /**
+     * Returns the value in the given slot, or {@code null} if the slot is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether every lookup is a single array access.
+     */
+    public boolean isPerfect() {
+        return perfect;
+    }
+
+    /**
+     * Returns a new collection of the keys of this map.
+     */
+    public Collection<QName> keySet() {
+        List<QName> keys = new ArrayList<>(size);
+        for (int i = 0; i < localNames.length; i++) {
+            if (localNames[i] != null)
+                keys.add(new QName(nsUris[i], localNames[i]));
+        }
+        return keys;
+    }
+}
@@ -40,7 +40,7 @@ public final class QNameMap<V> {
     /**
      * The table, resized as necessary. Length MUST Always be a power of two.
      */
-    transient Entry<V>[] table = new Entry[DEFAULT_INITIAL_CAPACITY];
+    transient Entry<V>[] table;
 
     /**
      * The number of key-value mappings contained in this identity hash map.
@@ -193,6 +193,21 @@ public final class QNameMap<V> {
         return h & (length-1);
     }
 
+    /**
+     * Shrinks the table to the smallest size that holds the current entries,
+     * for maps that are not going to be modified any more.
+     *
+     * @return this map.
+     */
+    public QNameMap<V> trimToSize() {
+        int capacity = 1;
+        while (capacity * DEFAULT_LOAD_FACTOR < size)
+            capacity <<= 1;
+        if (capacity < table.length)
+            resize(capacity);
+        return this;
+    }
+
     /**
      * Add a new entry with the specified keys, value and hash code to
      * the specified bucket.  It is the responsibility of this
@@ -0,0 +1,682 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.util;
+
+import org.glassfish.jaxb.runtime.DatatypeConverterImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.output.Pcdata;
+import org.glassfish.jaxb.runtime.v2.runtime.output.UTF8XmlOutput;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Parses and prints the XML Schema date and time types without going through
+ * {@link DatatypeFactory}.
+ *
+ * <p>
+ * The parser only handles the common lexical forms of {@code xs:dateTime},
+ * {@code xs:date} and {@code xs:time}, that is a four digit year and no hour 24.
+ * Methods that produce legacy types return null for anything else, so that the caller
+ * can fall back to {@link DatatypeFactory} and keep its exact behavior.
+ * Methods that produce {@code java.time} types do that fallback themselves.
+ *
+ * <p>
+ * The printed values are returned as {@link Pcdata} that writes itself
+ * to {@link UTF8XmlOutput} without escaping, since the lexical forms are plain ASCII.
+ *
+ * @since 4.0.1
+ */
+public final class XsdDateTime {
+
+    private XsdDateTime() {}
+
+    private static final int UNDEFINED = DatatypeConstants.FIELD_UNDEFINED;
+
+    /**
+     * Same as what {@link XMLGregorianCalendar#toGregorianCalendar()} uses.
+     */
+    private static final Date PURE_GREGORIAN_CHANGE = new Date(Long.MIN_VALUE);
+
+    /**
+     * The fields of a lexical value.
+     */
+    private static final class Fields {
+        boolean hasDate;
+        boolean hasTime;
+        int year;
+        int month;
+        int day;
+        int hour;
+        int minute;
+        int second;
+        int nano;
+        /**
+         * Range of the fractional second in the text, including the '.'. -1 if absent.
+         */
+        int fractionStart = -1;
+        int fractionEnd;
+        /**
+         * Timezone offset in minutes, or {@link #UNDEFINED}.
+         */
+        int offset = UNDEFINED;
+
+        LocalDateTime toLocalDateTime() {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        }
+
+        ZoneOffset toZoneOffset(LocalDateTime local) {
+            if (offset == UNDEFINED)
+                // same as the legacy types do
+                return ZoneId.systemDefault().getRules().getOffset(local);
+            return ZoneOffset.ofTotalSeconds(offset * 60);
+        }
+    }
+
+    /**
+     * Parses a trimmed {@code xs:dateTime}, {@code xs:date} or {@code xs:time} value.
+     *
+     * @return
+     *      null if the text is not one of the handled forms.
+     */
+    private static Fields parse(CharSequence s) {
+        final int len = s.length();
+        Fields f = new Fields();
+        int i = 0;
+
+        if (len >= 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            f.hasDate = true;
+            f.year = digits(s, 0, 4);
+            f.month = digits(s, 5, 2);
+            f.day = digits(s, 8, 2);
+            if (f.year <= 0 || f.month < 1 || f.month > 12 || f.day < 1 || f.day > lengthOfMonth(f.year, f.month))
+                return null;
+            i = 10;
+            if (i < len && s.charAt(i) == 'T') {
+                i++;
+                f.hasTime = true;
+            }
+        } else {
+            f.hasTime = true;
+        }
+
+        if (f.hasTime) {
+            if (len < i + 8 || s.charAt(i + 2) != ':' || s.charAt(i + 5) != ':')
+                return null;
+            f.hour = digits(s, i, 2);
+            f.minute = digits(s, i + 3, 2);
+            f.second = digits(s, i + 6, 2);
+            if (f.hour < 0 || f.hour > 23 || f.minute < 0 || f.minute > 59 || f.second < 0 || f.second > 59)
+                return null;
+            i += 8;
+
+            if (i < len && s.charAt(i) == '.') {
+                f.fractionStart = i++;
+                int nano = 0;
+                int n = 0;
+                for (; i < len && isDigit(s.charAt(i)); i++, n++) {
+                    if (n < 9)
+                        nano = nano * 10 + (s.charAt(i) - '0');
+                }
+                if (n == 0)
+                    return null;
+                for (; n < 9; n++)
+                    nano *= 10;
+                f.nano = nano;
+                f.fractionEnd = i;
+            }
+        }
+
+        if (i < len) {
+            char ch = s.charAt(i);
+            if (ch == 'Z') {
+                f.offset = 0;
+                i++;
+            } else if (ch == '+' || ch == '-') {
+                if (len != i + 6 || s.charAt(i + 3) != ':')
+                    return null;
+                int h = digits(s, i + 1, 2);
+                int m = digits(s, i + 4, 2);
+                if (h < 0 || h > 14 || m < 0 || m > 59 || (h == 14 && m != 0))
+                    return null;
+                f.offset = (h * 60 + m) * (ch == '-' ? -1 : 1);
+                i += 6;
+            }
+        }
+
+        return i == len ? f : null;
+    }
+
+    /**
+     * Parses a fixed number of decimal digits.
+     *
+     * @return -1 if there is a non-digit.
+     */
+    private static int digits(CharSequence s, int start, int count) {
+        int r = 0;
+        for (int i = start; i < start + count; i++) {
+            char ch = s.charAt(i);
+            if (!isDigit(ch))
+                return -1;
+            r = r * 10 + (ch - '0');
+        }
+        return r;
+    }
+
+    private static boolean isDigit(char ch) {
+        return '0' <= ch && ch <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Falls back to {@link DatatypeFactory} for the forms that {@link #parse(CharSequence)} doesn't handle.
+     */
+    @SuppressWarnings({"deprecation"})
+    private static Fields parseOrFallBack(CharSequence s) {
+        Fields f = parse(s);
+        if (f != null)
+            return f;
+
+        XMLGregorianCalendar cal = DatatypeConverterImpl.getDatatypeFactory().newXMLGregorianCalendar(s.toString());
+        if (cal.getEon() != null)
+            throw new DateTimeException("Year out of range: " + s);
+        f = new Fields();
+        f.hasDate = cal.getYear() != UNDEFINED && cal.getMonth() != UNDEFINED && cal.getDay() != UNDEFINED;
+        f.hasTime = cal.getHour() != UNDEFINED && cal.getMinute() != UNDEFINED && cal.getSecond() != UNDEFINED;
+        f.year = cal.getYear();
+        f.month = cal.getMonth();
+        f.day = cal.getDay();
+        f.hour = cal.getHour();
+        f.minute = cal.getMinute();
+        f.second = cal.getSecond();
+        if (cal.getFractionalSecond() != null)
+            f.nano = cal.getFractionalSecond().movePointRight(9).intValue();
+        f.offset = cal.getTimezone();
+        return f;
+    }
+
+    private static Fields parse(CharSequence s, boolean date, boolean time) {
+        Fields f = parseOrFallBack(s);
+        if (f.hasDate != date || f.hasTime != time)
+            throw new IllegalArgumentException(s.toString());
+        return f;
+    }
+
+    /**
+     * Parses a trimmed value into a {@link GregorianCalendar}, the same way
+     * {@link XMLGregorianCalendar#toGregorianCalendar()} does.
+     *
+     * @return
+     *      null if the value is not in one of the common forms of {@code xs:dateTime} and {@code xs:date}.
+     */
+    public static GregorianCalendar parseCalendar(CharSequence text) {
+        Fields f = parse(text);
+        if (f == null || !f.hasDate)
+            return null;
+
+        GregorianCalendar cal = new GregorianCalendar(toTimeZone(f.offset), Locale.getDefault(Locale.Category.FORMAT));
+        cal.clear();
+        cal.setGregorianChange(PURE_GREGORIAN_CHANGE);
+        cal.set(Calendar.ERA, GregorianCalendar.AD);
+        cal.set(Calendar.YEAR, f.year);
+        cal.set(Calendar.MONTH, f.month - 1);
+        cal.set(Calendar.DAY_OF_MONTH, f.day);
+        if (f.hasTime) {
+            cal.set(Calendar.HOUR_OF_DAY, f.hour);
+            cal.set(Calendar.MINUTE, f.minute);
+            cal.set(Calendar.SECOND, f.second);
+            if (f.fractionStart >= 0)
+                cal.set(Calendar.MILLISECOND, f.nano / 1_000_000);
+        }
+        return cal;
+    }
+
+    /**
+     * Same time zone as {@link XMLGregorianCalendar#getTimeZone(int)} creates.
+     */
+    private static TimeZone toTimeZone(int offset) {
+        if (offset == UNDEFINED)
+            return TimeZone.getDefault();
+
+        StringBuilder id = new StringBuilder(9).append("GMT");
+        if (offset < 0) {
+            id.append('-');
+            offset = -offset;
+        } else {
+            id.append('+');
+        }
+        id.append(offset / 60);
+        int minutes = offset % 60;
+        if (minutes != 0) {
+            if (minutes < 10)
+                id.append('0');
+            id.append(minutes);
+        }
+        return TimeZone.getTimeZone(id.toString());
+    }
+
+    /**
+     * Parses a trimmed value into an {@link XMLGregorianCalendar}.
+     *
+     * @return
+     *      null if the value is not in one of the common forms of {@code xs:dateTime},
+     *      {@code xs:date} and {@code xs:time}.
+     */
+    public static XMLGregorianCalendar parseXMLGregorianCalendar(DatatypeFactory df, CharSequence text) {
+        Fields f = parse(text);
+        if (f == null)
+            return null;
+
+        BigDecimal fraction = null;
+        if (f.fractionStart >= 0) {
+            char[] buf = new char[f.fractionEnd - f.fractionStart];
+            for (int i = 0; i < buf.length; i++)
+                buf[i] = text.charAt(f.fractionStart + i);
+            fraction = new BigDecimal(buf);
+        }
+
+        if (f.hasDate) {
+            if (f.hasTime)
+                return df.newXMLGregorianCalendar(BigInteger.valueOf(f.year), f.month, f.day,
+                        f.hour, f.minute, f.second, fraction, f.offset);
+            return df.newXMLGregorianCalendar(BigInteger.valueOf(f.year), f.month, f.day,
+                    UNDEFINED, UNDEFINED, UNDEFINED, null, f.offset);
+        }
+        return df.newXMLGregorianCalendar(null, UNDEFINED, UNDEFINED,
+                f.hour, f.minute, f.second, fraction, f.offset);
+    }
+
+    /**
+     * Parses an {@code xs:dateTime}. A missing timezone means the default time zone.
+     */
+    public static Instant parseInstant(CharSequence text) {
+        Fields f = parse(text, true, true);
+        LocalDateTime local = f.toLocalDateTime();
+        return local.toInstant(f.toZoneOffset(local));
+    }
+
+    /**
+     * Parses an {@code xs:dateTime}. A missing timezone means the default time zone.
+     */
+    public static OffsetDateTime parseOffsetDateTime(CharSequence text) {
+        Fields f = parse(text, true, true);
+        LocalDateTime local = f.toLocalDateTime();
+        return OffsetDateTime.of(local, f.toZoneOffset(local));
+    }
+
+    /**
+     * Parses an {@code xs:dateTime}, ignoring the timezone.
+     */
+    public static LocalDateTime parseLocalDateTime(CharSequence text) {
+        return parse(text, true, true).toLocalDateTime();
+    }
+
+    /**
+     * Parses an {@code xs:date}, ignoring the timezone.
+     */
+    public static LocalDate parseLocalDate(CharSequence text) {
+        Fields f = parse(text, true, false);
+        return LocalDate.of(f.year, f.month, f.day);
+    }
+
+    /**
+     * Parses an {@code xs:time}, ignoring the timezone.
+     */
+    public static LocalTime parseLocalTime(CharSequence text) {
+        Fields f = parse(text, false, true);
+        return LocalTime.of(f.hour, f.minute, f.second, f.nano);
+    }
+
+    /**
+     * Parses a trimmed {@code xs:duration}.
+     *
+     * <p>
+     * Years and months have no fixed length, so they are only accepted if they are zero.
+     */
+    public static Duration parseDuration(CharSequence s) {
+        final int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < len && s.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i >= len || s.charAt(i++) != 'P')
+            throw new IllegalArgumentException(s.toString());
+
+        // position of the last designator in "YMDTHMS"
+        int last = -1;
+        boolean time = false;
+        boolean empty = true;
+        long seconds = 0;
+        int nano = 0;
+
+        try {
+            while (i < len) {
+                if (s.charAt(i) == 'T') {
+                    if (time)
+                        throw new IllegalArgumentException(s.toString());
+                    time = true;
+                    last = 3;
+                    empty = true;
+                    i++;
+                    continue;
+                }
+
+                int start = i;
+                long value = 0;
+                for (; i < len && isDigit(s.charAt(i)); i++) {
+                    value = Math.addExact(Math.multiplyExact(value, 10), s.charAt(i) - '0');
+                }
+                if (i == start)
+                    throw new IllegalArgumentException(s.toString());
+                int fraction = 0;
+                int fractionDigits = 0;
+                if (i < len && s.charAt(i) == '.') {
+                    for (i++; i < len && isDigit(s.charAt(i)); i++, fractionDigits++) {
+                        if (fractionDigits < 9)
+                            fraction = fraction * 10 + (s.charAt(i) - '0');
+                    }
+                    if (fractionDigits == 0)
+                        throw new IllegalArgumentException(s.toString());
+                }
+                if (i >= len)
+                    throw new IllegalArgumentException(s.toString());
+
+                int designator = (time ? "HMS" : "YMD").indexOf(s.charAt(i++)) + (time ? 4 : 0);
+                if (designator < (time ? 4 : 0) || designator <= last || (fractionDigits > 0 && designator != 6))
+                    throw new IllegalArgumentException(s.toString());
+                last = designator;
+                empty = false;
+
+                switch (designator) {
+                    case 0:
+                    case 1:
+                        if (value != 0)
+                            throw new IllegalArgumentException(
+                                    "Years and months can not be represented as java.time.Duration: " + s);
+                        break;
+                    case 2:
+                        seconds = Math.addExact(seconds, Math.multiplyExact(value, 86400));
+                        break;
+                    case 4:
+                        seconds = Math.addExact(seconds, Math.multiplyExact(value, 3600));
+                        break;
+                    case 5:
+                        seconds = Math.addExact(seconds, Math.multiplyExact(value, 60));
+                        break;
+                    case 6:
+                        seconds = Math.addExact(seconds, value);
+                        for (int n = Math.min(fractionDigits, 9); n < 9; n++)
+                            fraction *= 10;
+                        nano = fraction;
+                        break;
+                }
+            }
+        } catch (ArithmeticException e) {
+            throw new DateTimeException("Duration out of range: " + s, e);
+        }
+
+        if (empty)
+            throw new IllegalArgumentException(s.toString());
+
+        Duration d = Duration.ofSeconds(seconds, nano);
+        return negative ? d.negated() : d;
+    }
+
+    /**
+     * Prints as {@code xs:dateTime} in UTC.
+     */
+    public static Text printInstant(Instant v) {
+        return printOffsetDateTime(v.atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Prints as {@code xs:dateTime} with the timezone.
+     */
+    public static Text printOffsetDateTime(OffsetDateTime v) {
+        if (v.getOffset().getTotalSeconds() % 60 != 0)
+            // xs:dateTime can't have seconds in the timezone
+            v = v.withOffsetSameInstant(ZoneOffset.UTC);
+        Text t = new Text();
+        t.date(v.getYear(), v.getMonthValue(), v.getDayOfMonth());
+        t.append('T');
+        t.time(v.getHour(), v.getMinute(), v.getSecond(), v.getNano());
+        t.offset(v.getOffset().getTotalSeconds() / 60);
+        return t;
+    }
+
+    /**
+     * Prints as {@code xs:dateTime} without timezone.
+     */
+    public static Text printLocalDateTime(LocalDateTime v) {
+        Text t = new Text();
+        t.date(v.getYear(), v.getMonthValue(), v.getDayOfMonth());
+        t.append('T');
+        t.time(v.getHour(), v.getMinute(), v.getSecond(), v.getNano());
+        return t;
+    }
+
+    /**
+     * Prints as {@code xs:date} without timezone.
+     */
+    public static Text printLocalDate(LocalDate v) {
+        Text t = new Text();
+        t.date(v.getYear(), v.getMonthValue(), v.getDayOfMonth());
+        return t;
+    }
+
+    /**
+     * Prints as {@code xs:time} without timezone.
+     */
+    public static Text printLocalTime(LocalTime v) {
+        Text t = new Text();
+        t.time(v.getHour(), v.getMinute(), v.getSecond(), v.getNano());
+        return t;
+    }
+
+    /**
+     * Prints as {@code xs:duration} using days, hours, minutes and seconds.
+     */
+    public static Text printDuration(Duration v) {
+        long seconds = v.getSeconds();
+        int nano = v.getNano();
+        long days;
+        int rest;
+        boolean negative = seconds < 0;
+        if (negative) {
+            // the nanoseconds are always positive
+            if (nano != 0) {
+                seconds++;
+                nano = 1_000_000_000 - nano;
+            }
+            // negate after the division, which can't overflow
+            days = -(seconds / 86400);
+            rest = (int) -(seconds % 86400);
+        } else {
+            days = seconds / 86400;
+            rest = (int) (seconds % 86400);
+        }
+
+        Text t = new Text();
+        if (negative)
+            t.append('-');
+        t.append('P');
+        if (days != 0) {
+            t.number(days, 1);
+            t.append('D');
+        }
+        if (rest != 0 || nano != 0 || days == 0) {
+            t.append('T');
+            if (rest / 3600 != 0) {
+                t.number(rest / 3600, 1);
+                t.append('H');
+            }
+            if (rest / 60 % 60 != 0) {
+                t.number(rest / 60 % 60, 1);
+                t.append('M');
+            }
+            if (rest % 60 != 0 || nano != 0 || rest == 0) {
+                t.number(rest % 60, 1);
+                t.fraction(nano);
+                t.append('S');
+            }
+        }
+        return t;
+    }
+
+    /**
+     * ASCII text of a printed value.
+     */
+    public static final class Text extends Pcdata {
+        private final char[] buf = new char[48];
+        private int len;
+
+        private Text() {}
+
+        void append(char ch) {
+            buf[len++] = ch;
+        }
+
+        /**
+         * Appends a non-negative number with leading zeros up to the given width.
+         */
+        void number(long value, int width) {
+            int digits = 1;
+            for (long v = value; v >= 10; v /= 10)
+                digits++;
+            for (int i = digits; i < width; i++)
+                buf[len++] = '0';
+            int end = len += digits;
+            do {
+                buf[--end] = (char) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+        }
+
+        void date(int year, int month, int day) {
+            if (year < 0) {
+                append('-');
+                year = -year;
+            }
+            number(year, 4);
+            append('-');
+            number(month, 2);
+            append('-');
+            number(day, 2);
+        }
+
+        void time(int hour, int minute, int second, int nano) {
+            number(hour, 2);
+            append(':');
+            number(minute, 2);
+            append(':');
+            number(second, 2);
+            fraction(nano);
+        }
+
+        void fraction(int nano) {
+            if (nano == 0)
+                return;
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            append('.');
+            number(nano, digits);
+        }
+
+        /**
+         * @param offset in minutes.
+         */
+        void offset(int offset) {
+            if (offset == 0) {
+                append('Z');
+                return;
+            }
+            if (offset < 0) {
+                append('-');
+                offset = -offset;
+            } else {
+                append('+');
+            }
+            number(offset / 60, 2);
+            append(':');
+            number(offset % 60, 2);
+        }
+
+        @Override
+        public int length() {
+            return len;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= len)
+                throw new IndexOutOfBoundsException(index);
+            return buf[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buf, 0, len);
+        }
+
+        @Override
+        public void writeTo(char[] buf, int start) {
+            System.arraycopy(this.buf, 0, buf, start, len);
+        }
+
+        @Override
+        public void writeTo(UTF8XmlOutput output) throws IOException {
+            // all ASCII, and nothing to escape
+            for (int i = 0; i < len; i++)
+                output.write(buf[i]);
+        }
+    }
+}
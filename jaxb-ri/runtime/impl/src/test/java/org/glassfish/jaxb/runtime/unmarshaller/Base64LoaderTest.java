@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.unmarshaller;
+
+import jakarta.activation.DataHandler;
+import jakarta.activation.FileDataSource;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.UnmarshalException;
+import org.glassfish.jaxb.core.v2.runtime.unmarshaller.LocatorEx;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.SAXConnector;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.TagName;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallerImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshallingContext;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.XmlVisitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class Base64LoaderTest {
+
+    private static final byte[] DATA = new byte[100_000];
+
+    static {
+        new Random(42).nextBytes(DATA);
+    }
+
+    private static String document() {
+        String b64 = Base64.getMimeEncoder().encodeToString(DATA);
+        return "<bean><bytes>" + b64 + "</bytes><handler>" + b64 + "</handler></bean>";
+    }
+
+    private static Unmarshaller createUnmarshaller(Integer threshold) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        if (threshold != null)
+            properties.put(JAXBRIContext.BINARY_SPILL_THRESHOLD, threshold);
+        return JAXBContext.newInstance(new Class[] {Bean.class}, properties).createUnmarshaller();
+    }
+
+    @Test
+    public void testSpillSAX() throws Exception {
+        Bean b = (Bean) createUnmarshaller(1024).unmarshal(new StringReader(document()));
+        check(b, true);
+    }
+
+    @Test
+    public void testSpillStAX() throws Exception {
+        XMLInputFactory xif = XMLInputFactory.newInstance();
+        Bean b = (Bean) createUnmarshaller(1024).unmarshal(
+                xif.createXMLStreamReader(new StringReader(document())));
+        check(b, true);
+    }
+
+    @Test
+    public void testInMemory() throws Exception {
+        check((Bean) createUnmarshaller(-1).unmarshal(new StringReader(document())), false);
+        check((Bean) createUnmarshaller(null).unmarshal(new StringReader(document())), false);
+    }
+
+    @Test
+    public void testCloseDeletesFile() throws Exception {
+        Bean b = (Bean) createUnmarshaller(1024).unmarshal(new StringReader(document()));
+        FileDataSource ds = (FileDataSource) b.handler.getDataSource();
+        Assert.assertTrue(ds.getFile().exists());
+        ((Closeable) ds).close();
+        Assert.assertFalse(ds.getFile().exists());
+    }
+
+    @Test
+    public void testAbortDeletesFile() throws Exception {
+        Set<Path> before = temporaryFiles();
+        String doc = document();
+        // ends in the middle of the handler element
+        String truncated = doc.substring(0, doc.length() - 1000);
+        Unmarshaller u = createUnmarshaller(1024);
+        try {
+            u.unmarshal(new StringReader(truncated));
+            Assert.fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        try {
+            u.unmarshal(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(truncated)));
+            Assert.fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        Assert.assertEquals(before, temporaryFiles());
+    }
+
+    @Test
+    public void testVisitorWithoutChunks() throws Exception {
+        UnmarshallerImpl u = (UnmarshallerImpl) createUnmarshaller(1024);
+        XmlVisitor next = u.createUnmarshallerHandler(null, false, null);
+        // a visitor written before chunks existed
+        XmlVisitor visitor = new XmlVisitor() {
+            @Override
+            public void startDocument(LocatorEx locator, NamespaceContext nsContext) throws SAXException {
+                next.startDocument(locator, nsContext);
+            }
+            @Override
+            public void endDocument() throws SAXException {
+                next.endDocument();
+            }
+            @Override
+            public void startElement(TagName tagName) throws SAXException {
+                next.startElement(tagName);
+            }
+            @Override
+            public void endElement(TagName tagName) throws SAXException {
+                next.endElement(tagName);
+            }
+            @Override
+            public void startPrefixMapping(String prefix, String nsUri) throws SAXException {
+                next.startPrefixMapping(prefix, nsUri);
+            }
+            @Override
+            public void endPrefixMapping(String prefix) throws SAXException {
+                next.endPrefixMapping(prefix);
+            }
+            @Override
+            public void text(CharSequence pcdata) throws SAXException {
+                next.text(pcdata);
+            }
+            @Override
+            public UnmarshallingContext getContext() {
+                return next.getContext();
+            }
+            @Override
+            public TextPredictor getPredictor() {
+                return next.getPredictor();
+            }
+        };
+        SAXParserFactory spf = SAXParserFactory.newInstance();
+        spf.setNamespaceAware(true);
+        XMLReader reader = spf.newSAXParser().getXMLReader();
+        SAXConnector connector = new SAXConnector(visitor, null);
+        reader.setContentHandler(connector);
+        reader.parse(new InputSource(new StringReader(document())));
+        check((Bean) connector.getResult(), false);
+    }
+
+    private static Set<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(p -> p.getFileName().toString().matches("jaxb.*\\.bin"))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private static void check(Bean b, boolean spilled) throws Exception {
+        Assert.assertArrayEquals(DATA, b.bytes);
+        Assert.assertEquals(spilled, b.handler.getDataSource() instanceof FileDataSource);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = b.handler.getInputStream()) {
+            in.transferTo(out);
+        }
+        Assert.assertArrayEquals(DATA, out.toByteArray());
+    }
+
+    @XmlRootElement(name = "bean")
+    public static class Bean {
+        public byte[] bytes;
+        public DataHandler handler;
+    }
+}
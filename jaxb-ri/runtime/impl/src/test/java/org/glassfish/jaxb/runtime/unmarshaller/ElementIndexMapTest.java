@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.unmarshaller;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.property.StructureLoaderBuilder;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.ElementIndexMap;
+import org.glassfish.jaxb.runtime.v2.util.QNameMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+public class ElementIndexMapTest {
+
+    @Test
+    public void testIndexedWhenAllNamesAreKnown() throws Exception {
+        JAXBContextImpl ctx = (JAXBContextImpl) JAXBContext.newInstance(Order.class);
+        Assert.assertTrue(ctx.getElementIndex("", "customer") >= 0);
+
+        QNameMap<String> map = new QNameMap<>();
+        map.put("", "customer", "c");
+        map.put("", "line", "l");
+        map.put(StructureLoaderBuilder.TEXT_HANDLER, "t");
+        ElementIndexMap<String> known = new ElementIndexMap<>(ctx, map);
+        Assert.assertTrue(known.isIndexed());
+        Assert.assertEquals("l", known.get("", "line"));
+        Assert.assertEquals("t", known.get(StructureLoaderBuilder.TEXT_HANDLER));
+        Assert.assertNull(known.get("", "note"));
+        Assert.assertNull(known.get("", "unknown"));
+        Assert.assertEquals(3, known.size());
+        Assert.assertEquals(3, known.keySet().size());
+
+        map.put("urn:other", "line", "o");
+        ElementIndexMap<String> unknown = new ElementIndexMap<>(ctx, map);
+        Assert.assertFalse(unknown.isIndexed());
+        Assert.assertEquals("o", unknown.get("urn:other", "line"));
+    }
+
+    @Test
+    public void testUnmarshalWithUnknownElements() throws Exception {
+        JAXBContext ctx = JAXBContext.newInstance(Order.class);
+        Order o = (Order) ctx.createUnmarshaller().unmarshal(new StringReader(
+                "<order><unknown><customer>x</customer></unknown>"
+                + "<customer>bob</customer>"
+                + "<lines><line>1</line><extra/><line>2</line></lines>"
+                + "<note>n</note></order>"));
+        Assert.assertEquals("bob", o.customer);
+        Assert.assertEquals(List.of(1, 2), o.lines);
+        Assert.assertEquals("n", o.note);
+    }
+
+    @XmlRootElement(name = "order")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Order {
+        public String customer;
+        @XmlElementWrapper(name = "lines")
+        @XmlElement(name = "line")
+        public List<Integer> lines;
+        public String note;
+    }
+}
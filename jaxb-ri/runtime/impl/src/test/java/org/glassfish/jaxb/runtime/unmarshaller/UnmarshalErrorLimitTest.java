@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.unmarshaller;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshalMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class UnmarshalErrorLimitTest {
+
+    private static final String DOCUMENT = "<bean><a/><b/><c/><d/><e/></bean>";
+
+    @Test
+    public void testLimitIsPerDocument() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(JAXBRIContext.MAX_ERRORS, 3);
+        properties.put(JAXBRIContext.UNMARSHAL_METRICS, true);
+        JAXBContext ctx = JAXBContext.newInstance(new Class[] {Bean.class}, properties);
+
+        AtomicInteger events = new AtomicInteger();
+        Unmarshaller u = ctx.createUnmarshaller();
+        u.setEventHandler(event -> {
+            events.incrementAndGet();
+            return true;
+        });
+
+        for (int i = 1; i <= 2; i++) {
+            Assert.assertNotNull(u.unmarshal(new StringReader(DOCUMENT)));
+            // 3 errors and the warning about the limit
+            Assert.assertEquals(4 * i, events.get());
+        }
+
+        UnmarshalMetrics metrics = ((JAXBContextImpl) ctx).getUnmarshalMetrics();
+        Assert.assertEquals(2, metrics.getDocumentCount());
+        Assert.assertEquals(8, metrics.getReportedEventCount());
+        Assert.assertEquals(4, metrics.getSuppressedErrorCount());
+    }
+
+    @Test
+    public void testMetricsAreOptional() throws Exception {
+        JAXBContext ctx = JAXBContext.newInstance(Bean.class);
+        Assert.assertNull(((JAXBContextImpl) ctx).getUnmarshalMetrics());
+    }
+
+    @XmlRootElement(name = "bean")
+    public static class Bean {
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.unmarshaller;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.unmarshaller.UnmarshalMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.ValidatorHandler;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ValidationSamplingTest {
+
+    private static final String XSD =
+            "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+            + "<xs:element name=\"bean\"><xs:complexType>"
+            + "<xs:attribute name=\"size\" type=\"xs:int\"/>"
+            + "</xs:complexType></xs:element>"
+            + "</xs:schema>";
+
+    private static final String VALID = "<bean size=\"1\"/>";
+    private static final String INVALID = "<bean size=\"1\" color=\"red\"/>";
+
+    private static Schema schema() throws Exception {
+        return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                .newSchema(new StreamSource(new StringReader(XSD)));
+    }
+
+    @Test
+    public void testValidatorReused() throws Exception {
+        JAXBContextImpl ctx = (JAXBContextImpl) JAXBContext.newInstance(Bean.class);
+        Schema schema = schema();
+        Assert.assertEquals(1, unmarshal(ctx, schema, VALID).size);
+
+        ValidatorHandler validator = ctx.getValidatorPool(schema).take();
+        ctx.getValidatorPool(schema).recycle(validator);
+        Assert.assertEquals(1, unmarshal(ctx, schema, VALID).size);
+        Assert.assertSame(validator, ctx.getValidatorPool(schema).take());
+    }
+
+    @Test
+    public void testInvalidAfterReuse() throws Exception {
+        JAXBContextImpl ctx = (JAXBContextImpl) JAXBContext.newInstance(Bean.class);
+        Schema schema = schema();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(1, unmarshal(ctx, schema, VALID).size);
+            try {
+                unmarshal(ctx, schema, INVALID);
+                Assert.fail();
+            } catch (UnmarshalException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testSampling() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(JAXBRIContext.VALIDATION_SAMPLING, 2);
+        properties.put(JAXBRIContext.UNMARSHAL_METRICS, true);
+        JAXBContextImpl ctx = (JAXBContextImpl) JAXBContext.newInstance(new Class[] {Bean.class}, properties);
+        Schema schema = schema();
+
+        for (int i = 0; i < 4; i++)
+            Assert.assertEquals(1, unmarshal(ctx, schema, VALID).size);
+        UnmarshalMetrics metrics = ctx.getUnmarshalMetrics();
+        Assert.assertEquals(2, metrics.getValidatedDocumentCount());
+        Assert.assertEquals(2, metrics.getSkippedValidationCount());
+        Assert.assertTrue(metrics.getValidationNanos() > 0);
+
+        int rejected = 0;
+        for (int i = 0; i < 4; i++) {
+            try {
+                unmarshal(ctx, schema, INVALID);
+            } catch (UnmarshalException e) {
+                rejected++;
+            }
+        }
+        Assert.assertEquals(2, rejected);
+    }
+
+    private static Bean unmarshal(JAXBContext ctx, Schema schema, String xml) throws Exception {
+        Unmarshaller u = ctx.createUnmarshaller();
+        u.setSchema(schema);
+        return (Bean) u.unmarshal(new StringReader(xml));
+    }
+
+    @XmlRootElement(name = "bean")
+    public static class Bean {
+        @XmlAttribute
+        public int size;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.unmarshaller;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.XMLReader;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+public class XMLReaderPoolTest {
+
+    @Test
+    public void testReaderSharedByUnmarshallers() throws Exception {
+        JAXBContextImpl ctx = (JAXBContextImpl) JAXBContext.newInstance(Bean.class);
+        Assert.assertEquals("a", unmarshal(ctx, "<bean name=\"a\"/>").name);
+
+        XMLReader reader = ctx.xmlReaderPool.poll();
+        Assert.assertNotNull(reader);
+        ctx.xmlReaderPool.recycle(reader);
+
+        Bean b = (Bean) ctx.createUnmarshaller().unmarshal(new StreamSource(new StringReader("<bean name=\"b\"/>")));
+        Assert.assertEquals("b", b.name);
+        Assert.assertSame(reader, ctx.xmlReaderPool.poll());
+    }
+
+    @Test
+    public void testReaderGivenBackOnError() throws Exception {
+        JAXBContextImpl ctx = (JAXBContextImpl) JAXBContext.newInstance(Bean.class);
+        try {
+            unmarshal(ctx, "<bean name=\"a\">");
+            Assert.fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        XMLReader reader = ctx.xmlReaderPool.poll();
+        Assert.assertNotNull(reader);
+        ctx.xmlReaderPool.recycle(reader);
+
+        Assert.assertEquals("c", unmarshal(ctx, "<bean name=\"c\"/>").name);
+        Assert.assertSame(reader, ctx.xmlReaderPool.poll());
+    }
+
+    private static Bean unmarshal(JAXBContext ctx, String xml) throws Exception {
+        return (Bean) ctx.createUnmarshaller().unmarshal(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @XmlRootElement(name = "bean")
+    public static class Bean {
+        @XmlAttribute
+        public String name;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.unmarshaller;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.XmlMixed;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.DatatypeConverterImpl;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ZeroCopyTextTest {
+
+    private static final String DOCUMENT = "<bean>\n"
+            + "  <i> 42 </i>\n"
+            + "  <l>-9000000000</l>\n"
+            + "  <b>true</b>\n"
+            + "  <big>123456789012345678901234567890</big>\n"
+            + "  <s>a &amp; <![CDATA[b]]></s>\n"
+            + "  <blank>  </blank>\n"
+            + "  <m>x<b>true</b>y</m>\n"
+            + "</bean>";
+
+    @Test
+    public void testCoalescingReader() throws Exception {
+        check(true);
+    }
+
+    @Test
+    public void testNonCoalescingReader() throws Exception {
+        check(false);
+    }
+
+    private static void check(boolean coalescing) throws Exception {
+        JAXBContext ctx = JAXBContext.newInstance(new Class[] {Bean.class},
+                Collections.singletonMap(JAXBRIContext.ZERO_COPY_TEXT, true));
+        XMLInputFactory xif = XMLInputFactory.newInstance();
+        xif.setProperty(XMLInputFactory.IS_COALESCING, coalescing);
+
+        Bean b = (Bean) ctx.createUnmarshaller().unmarshal(
+                xif.createXMLStreamReader(new StringReader(DOCUMENT)));
+        Assert.assertEquals(42, b.i);
+        Assert.assertEquals(-9000000000L, b.l);
+        Assert.assertTrue(b.b);
+        Assert.assertEquals(new BigInteger("123456789012345678901234567890"), b.big);
+        Assert.assertEquals("a & b", b.s);
+        Assert.assertEquals("  ", b.blank);
+        Assert.assertEquals(3, b.m.content.size());
+        Assert.assertEquals("x", b.m.content.get(0));
+        Assert.assertEquals("y", b.m.content.get(2));
+    }
+
+    @Test
+    public void testTextSplitByComment() throws Exception {
+        JAXBContext ctx = JAXBContext.newInstance(new Class[] {Bean.class},
+                Collections.singletonMap(JAXBRIContext.ZERO_COPY_TEXT, true));
+        XMLInputFactory xif = XMLInputFactory.newInstance();
+        xif.setProperty(XMLInputFactory.IS_COALESCING, true);
+        String doc = "<bean><i>4<!--c-->2</i><s>a<?p?>b<!--c-->c</s><l>7</l></bean>";
+
+        // never lost silently
+        try {
+            ctx.createUnmarshaller().unmarshal(xif.createXMLStreamReader(new StringReader(doc)));
+            Assert.fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+
+        // the rest of the document is read through the buffer
+        List<ValidationEvent> events = new ArrayList<>();
+        Unmarshaller u = ctx.createUnmarshaller();
+        u.setEventHandler(events::add);
+        Bean b = (Bean) u.unmarshal(xif.createXMLStreamReader(new StringReader(doc)));
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("abc", b.s);
+        Assert.assertEquals(7, b.l);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testParseLong() {
+        Assert.assertEquals(123L, DatatypeConverterImpl._parseLong(" +123\n"));
+        Assert.assertEquals(-123L, DatatypeConverterImpl._parseLong("-123"));
+        Assert.assertEquals(Long.MAX_VALUE, DatatypeConverterImpl._parseLong(Long.toString(Long.MAX_VALUE)));
+        Assert.assertEquals(Long.MIN_VALUE, DatatypeConverterImpl._parseLong(Long.toString(Long.MIN_VALUE)));
+        for (String invalid : new String[] {"", " ", "+", "-", "+-1", "1 2", "1a", "9223372036854775808"}) {
+            try {
+                DatatypeConverterImpl._parseLong(invalid);
+                Assert.fail(invalid);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @XmlRootElement(name = "bean")
+    public static class Bean {
+        public int i;
+        public long l;
+        public boolean b;
+        public BigInteger big;
+        public String s;
+        public String blank;
+        public Mixed m;
+    }
+
+    public static class Mixed {
+        @XmlMixed
+        @XmlAnyElement
+        public List<Object> content;
+    }
+}
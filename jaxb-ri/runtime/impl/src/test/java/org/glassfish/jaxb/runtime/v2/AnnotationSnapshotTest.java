@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSeeAlso;
+import jakarta.xml.bind.annotation.XmlType;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.model.annotation.AnnotationSnapshot;
+import org.glassfish.jaxb.runtime.v2.model.annotation.SnapshotAnnotationReader;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+public class AnnotationSnapshotTest {
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeSnapshot() throws Exception {
+        File dir = new File(Order.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        files = AnnotationSnapshot.write(dir, Order.class);
+    }
+
+    @AfterClass
+    public static void deleteSnapshot() {
+        for (File f : files)
+            f.delete();
+    }
+
+    @Test
+    public void testRecorded() {
+        SnapshotAnnotationReader reader = new SnapshotAnnotationReader();
+        Assert.assertTrue(reader.isRecorded(Order.class));
+        Assert.assertTrue(reader.isRecorded(Line.class));
+        Assert.assertFalse(reader.isRecorded(AnnotationSnapshotTest.class));
+    }
+
+    @Test
+    public void testStaleClassRejected() throws Exception {
+        File file = null;
+        for (File f : files)
+            if (f.getParentFile().equals(new File(new File(Order.class.getProtectionDomain().getCodeSource().getLocation().toURI()),
+                    Order.class.getPackage().getName().replace('.', File.separatorChar))))
+                file = f;
+        byte[] original = Files.readAllBytes(file.toPath());
+        try {
+            // the fingerprint follows the class name
+            byte[] name = Order.class.getName().getBytes(StandardCharsets.UTF_8);
+            byte[] stale = original.clone();
+            int i = indexOf(stale, name) + name.length;
+            stale[i + 7] ^= 1;
+            Files.write(file.toPath(), stale);
+
+            SnapshotAnnotationReader reader = new SnapshotAnnotationReader();
+            Assert.assertFalse(reader.isRecorded(Order.class));
+            Assert.assertTrue(reader.isRecorded(Line.class));
+            // read through reflection instead
+            Assert.assertNotNull(reader.getClassAnnotation(XmlRootElement.class, Order.class, null));
+        } finally {
+            Files.write(file.toPath(), original);
+        }
+    }
+
+    @Test
+    public void testFingerprintInJar() throws Exception {
+        File snapshot = snapshotOf(Order.class);
+        byte[] original = Files.readAllBytes(snapshot.toPath());
+        byte[] name = Order.class.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] stale = original.clone();
+        stale[indexOf(stale, name) + name.length + 7] ^= 1;
+
+        for (boolean fresh : new boolean[] {true, false}) {
+            File jar = File.createTempFile("snapshot", ".jar");
+            try {
+                try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+                    put(out, Order.class);
+                    put(out, Line.class);
+                    put(out, Order.class.getPackage().getName().replace('.', '/') + '/' + AnnotationSnapshot.RESOURCE_NAME, fresh ? original : stale);
+                }
+                try (URLClassLoader cl = new JarFirstClassLoader(jar)) {
+                    Class<?> order = cl.loadClass(Order.class.getName());
+                    Assert.assertNotSame(Order.class, order);
+                    Assert.assertEquals("jar", cl.getResource(resourceName(Order.class)).getProtocol());
+                    SnapshotAnnotationReader reader = new SnapshotAnnotationReader();
+                    Assert.assertEquals(fresh, reader.isRecorded(order));
+                    Assert.assertTrue(reader.isRecorded(cl.loadClass(Line.class.getName())));
+                }
+            } finally {
+                jar.delete();
+            }
+        }
+    }
+
+    private static File snapshotOf(Class<?> c) throws Exception {
+        File dir = new File(new File(c.getProtectionDomain().getCodeSource().getLocation().toURI()),
+                c.getPackage().getName().replace('.', File.separatorChar));
+        for (File f : files)
+            if (f.getParentFile().equals(dir))
+                return f;
+        throw new AssertionError();
+    }
+
+    private static String resourceName(Class<?> c) {
+        return c.getName().replace('.', '/') + ".class";
+    }
+
+    private static void put(JarOutputStream out, Class<?> c) throws IOException {
+        try (InputStream in = c.getClassLoader().getResourceAsStream(resourceName(c))) {
+            put(out, resourceName(c), in.readAllBytes());
+        }
+    }
+
+    private static void put(JarOutputStream out, String name, byte[] data) throws IOException {
+        out.putNextEntry(new JarEntry(name));
+        out.write(data);
+        out.closeEntry();
+    }
+
+    /**
+     * Loads the classes of the test package from the jar, rather than from the test classes.
+     */
+    private static final class JarFirstClassLoader extends URLClassLoader {
+        JarFirstClassLoader(File jar) throws IOException {
+            super(new URL[] {jar.toURI().toURL()}, AnnotationSnapshotTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null && findResource(name.replace('.', '/') + ".class") != null)
+                    c = findClass(name);
+                return c != null ? c : super.loadClass(name, resolve);
+            }
+        }
+
+        @Override
+        public URL getResource(String name) {
+            URL url = findResource(name);
+            return url != null ? url : super.getResource(name);
+        }
+    }
+
+    private static int indexOf(byte[] b, byte[] part) {
+        outer:
+        for (int i = 0; i + part.length <= b.length; i++) {
+            for (int j = 0; j < part.length; j++)
+                if (b[i + j] != part[j])
+                    continue outer;
+            // not the prefix of a nested class name
+            if (i + part.length < b.length && b[i + part.length] == '$')
+                continue;
+            return i;
+        }
+        throw new AssertionError();
+    }
+
+    @Test
+    public void testAnnotationContract() throws Exception {
+        SnapshotAnnotationReader reader = new SnapshotAnnotationReader();
+        for (String name : new String[]{"id", "lines", "note"}) {
+            Field f = Order.class.getDeclaredField(name);
+            Assert.assertEquals(f.getAnnotations().length, reader.getAllFieldAnnotations(f, null).length);
+            for (java.lang.annotation.Annotation expected : f.getAnnotations()) {
+                java.lang.annotation.Annotation actual = reader.getFieldAnnotation(expected.annotationType(), f, null);
+                // compares every member of the annotation
+                Assert.assertEquals(expected, actual);
+            }
+        }
+        XmlType type = reader.getClassAnnotation(XmlType.class, Line.class, null);
+        Assert.assertArrayEquals(new String[]{"product", "quantity"}, type.propOrder());
+        Assert.assertEquals(XmlType.DEFAULT.class, type.factoryClass());
+        Assert.assertArrayEquals(new Class<?>[]{Line.class},
+                reader.getClassAnnotation(XmlSeeAlso.class, Order.class, null).value());
+    }
+
+    @Test
+    public void testSameOutput() throws Exception {
+        Order o = new Order();
+        o.id = 7;
+        o.note = "rush";
+        o.lines = new ArrayList<>();
+        o.lines.add(new Line("apple", 3));
+        o.lines.add(new Line("pear", 1));
+
+        JAXBContext fast = JAXBContext.newInstance(new Class<?>[]{Order.class},
+                Collections.singletonMap(JAXBRIContext.FAST_BOOT, true));
+        Assert.assertEquals(marshal(JAXBContext.newInstance(Order.class), o), marshal(fast, o));
+    }
+
+    private static String marshal(JAXBContext context, Object o) throws Exception {
+        StringWriter sw = new StringWriter();
+        context.createMarshaller().marshal(o, sw);
+        return sw.toString();
+    }
+
+    @XmlRootElement(name = "order", namespace = "urn:orders")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    @XmlSeeAlso(Line.class)
+    public static class Order {
+        @XmlAttribute(required = true)
+        public int id;
+        @XmlElementWrapper(name = "lines")
+        @XmlElement(name = "line")
+        public List<Line> lines;
+        @XmlElement(nillable = true, defaultValue = "none")
+        public String note;
+    }
+
+    @XmlType(propOrder = {"product", "quantity"})
+    public static class Line {
+        private String product;
+        private int quantity;
+
+        public Line() {}
+
+        Line(String product, int quantity) {
+            this.product = product;
+            this.quantity = quantity;
+        }
+
+        public String getProduct() {
+            return product;
+        }
+
+        public void setProduct(String product) {
+            this.product = product;
+        }
+
+        @XmlElement(name = "qty")
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.PropertyException;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+import org.glassfish.jaxb.runtime.marshaller.ByteBufferSink;
+import org.glassfish.jaxb.runtime.v2.runtime.MarshallerImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class ByteBufferMarshalTest {
+
+    private static final String CHANNEL_BUFFER_SIZE = "org.glassfish.jaxb.channelBufferSize";
+
+    @Test
+    public void testChannel() throws Exception {
+        Document doc = document();
+        for (boolean formatted : new boolean[] {false, true}) {
+            MarshallerImpl m = marshaller(formatted);
+            m.setProperty(CHANNEL_BUFFER_SIZE, 100);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            m.marshal(doc, Channels.newChannel(out));
+            Assert.assertArrayEquals(toBytes(doc, formatted), out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testDirectBuffers() throws Exception {
+        assertSink(ByteBuffer::allocateDirect, 37);
+        assertSink(ByteBuffer::allocateDirect, 4096);
+    }
+
+    @Test
+    public void testHeapBuffers() throws Exception {
+        assertSink(ByteBuffer::allocate, 37);
+        assertSink(ByteBuffer::allocate, 100);
+        assertSink(ByteBuffer::allocate, 100000);
+    }
+
+    @Test
+    public void testOtherEncoding() throws Exception {
+        Document doc = document();
+        MarshallerImpl m = marshaller(false);
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        m.marshal(doc, expected);
+
+        CollectingSink sink = new CollectingSink(ByteBuffer::allocateDirect, 50);
+        m.marshal(doc, sink);
+        Assert.assertArrayEquals(expected.toByteArray(), sink.bytes());
+        Assert.assertEquals(0, sink.outstanding);
+    }
+
+    @Test
+    public void testBufferContentBeforePositionIsKept() throws Exception {
+        Document doc = document();
+        List<ByteBuffer> written = new ArrayList<>();
+        marshaller(false).marshal(doc, new ByteBufferSink() {
+            @Override
+            public ByteBuffer getBuffer() {
+                // a header in front of each frame, and room for a trailer after it
+                ByteBuffer b = ByteBuffer.allocate(300).put((byte) 'H');
+                b.limit(299);
+                return b;
+            }
+
+            @Override
+            public void write(ByteBuffer b) {
+                Assert.assertEquals('H', b.get());
+                written.add(b);
+            }
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer b : written)
+            out.write(b.array(), b.position(), b.remaining());
+        Assert.assertArrayEquals(toBytes(doc, false), out.toByteArray());
+    }
+
+    @Test
+    public void testBufferReleasedOnFailure() throws Exception {
+        Broken broken = new Broken();
+        broken.title = document().title;
+        for (String encoding : new String[] {"UTF-8", "ISO-8859-1", "UTF-16"}) {
+            for (IntFunction<ByteBuffer> allocator : List.<IntFunction<ByteBuffer>>of(ByteBuffer::allocate, ByteBuffer::allocateDirect)) {
+                Marshaller m = JAXBContext.newInstance(Broken.class).createMarshaller();
+                m.setProperty(Marshaller.JAXB_ENCODING, encoding);
+                CollectingSink sink = new CollectingSink(allocator, 4096);
+                try {
+                    ((MarshallerImpl) m).marshal(broken, sink);
+                    Assert.fail();
+                } catch (Exception e) {
+                    // expected
+                }
+                Assert.assertEquals(encoding, 0, sink.outstanding);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidBufferSize() throws Exception {
+        MarshallerImpl m = marshaller(false);
+        Assert.assertEquals(8192, m.getProperty(CHANNEL_BUFFER_SIZE));
+        try {
+            m.setProperty(CHANNEL_BUFFER_SIZE, 0);
+            Assert.fail();
+        } catch (PropertyException e) {
+            // expected
+        }
+    }
+
+    private static void assertSink(IntFunction<ByteBuffer> allocator, int size) throws Exception {
+        Document doc = document();
+        for (boolean formatted : new boolean[] {false, true}) {
+            CollectingSink sink = new CollectingSink(allocator, size);
+            marshaller(formatted).marshal(doc, sink);
+            Assert.assertArrayEquals(toBytes(doc, formatted), sink.bytes());
+            Assert.assertEquals(0, sink.outstanding);
+        }
+    }
+
+    private static MarshallerImpl marshaller(boolean formatted) throws Exception {
+        Marshaller m = JAXBContext.newInstance(Document.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+        return (MarshallerImpl) m;
+    }
+
+    private static byte[] toBytes(Document doc, boolean formatted) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller(formatted).marshal(doc, out);
+        return out.toByteArray();
+    }
+
+    private static Document document() {
+        Document doc = new Document();
+        doc.title = "Veränderungen & <Fortschritte> 😀";
+        doc.data = new byte[5000];
+        for (int i = 0; i < doc.data.length; i++)
+            doc.data[i] = (byte) i;
+        doc.items = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+            doc.items.add("item \"" + i + "\"");
+        doc.numbers = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+            doc.numbers.add(i * 1000003L);
+        return doc;
+    }
+
+    private static final class CollectingSink implements ByteBufferSink {
+        private final IntFunction<ByteBuffer> allocator;
+        private final int size;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int outstanding;
+
+        CollectingSink(IntFunction<ByteBuffer> allocator, int size) {
+            this.allocator = allocator;
+            this.size = size;
+        }
+
+        @Override
+        public ByteBuffer getBuffer() {
+            Assert.assertEquals(0, outstanding);
+            outstanding++;
+            return allocator.apply(size);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer) {
+            outstanding--;
+            byte[] b = new byte[buffer.remaining()];
+            buffer.get(b);
+            out.write(b, 0, b.length);
+        }
+
+        @Override
+        public void release(ByteBuffer buffer) {
+            outstanding--;
+        }
+
+        byte[] bytes() {
+            return out.toByteArray();
+        }
+    }
+
+    @XmlRootElement
+    @XmlType(propOrder = {"title", "broken"})
+    public static class Broken {
+        public String title;
+
+        public String getBroken() {
+            throw new IllegalStateException("broken");
+        }
+
+        public void setBroken(String broken) {
+        }
+    }
+
+    @XmlRootElement
+    public static class Document {
+        public String title;
+        public byte[] data;
+        public List<String> items;
+        public List<Long> numbers;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlValue;
+import org.glassfish.jaxb.runtime.marshaller.NamespacePrefixMapper;
+import org.glassfish.jaxb.runtime.v2.runtime.MarshallerImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+
+public class CharsetOutputTest {
+
+    private static final String PREFIX_MAPPER = "org.glassfish.jaxb.namespacePrefixMapper";
+
+    private static final String[] ENCODINGS = {
+            "ISO-8859-1", "windows-1252", "US-ASCII", "Shift_JIS", "EUC-JP", "GB18030",
+    };
+
+    private static final String[] VALUES = {
+            "plain",
+            "a&b<c>d\"e'f g\nh",
+            "Zürich € 😀 &",
+            "日本語のテキスト, « quoted » and ÿ",
+            "a rather long value & one with <everything> \"to\" escape\n in it, ünïcödé 😀 too",
+    };
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Item.class);
+        Marshaller m = context.createMarshaller();
+        for (String encoding : ENCODINGS) {
+            m.setProperty(Marshaller.JAXB_ENCODING, encoding);
+            for (String value : VALUES) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                m.marshal(new Item(value), out);
+                String xml = out.toString(Charset.forName(encoding));
+                Assert.assertTrue(xml, xml.startsWith("<?xml version=\"1.0\" encoding=\"" + encoding + "\""));
+                Item item = (Item) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(out.toByteArray()));
+                Assert.assertEquals(encoding, value, item.text);
+                Assert.assertEquals(encoding, value, item.value);
+            }
+        }
+    }
+
+    @Test
+    public void testCharacterReferences() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Item.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        for (String encoding : new String[] {"ISO-8859-1", "Shift_JIS"}) {
+            m.setProperty(Marshaller.JAXB_ENCODING, encoding);
+            Assert.assertEquals(encoding,
+                    "<item value=\"&#8364;&#128512;&#10;&amp;\">&#8364;&#128512;\n&amp;</item>",
+                    marshal(m, new Item("€😀\n&"), encoding));
+        }
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        Assert.assertEquals("<item value=\"ü\">ü</item>", marshal(m, new Item("ü"), "ISO-8859-1"));
+    }
+
+    @Test
+    public void testLoneSurrogates() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Item.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        Item item = new Item("lone \ud800 and \udc00 surrogates \ud800");
+        for (String encoding : new String[] {"ISO-8859-1", "Shift_JIS"}) {
+            m.setProperty(Marshaller.JAXB_ENCODING, encoding);
+            // no character reference can stand for them
+            Assert.assertEquals(encoding,
+                    "<item value=\"lone ? and ? surrogates ?\">lone ? and ? surrogates ?</item>",
+                    marshal(m, item, encoding));
+        }
+    }
+
+    @Test
+    public void testChannel() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Item.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.setProperty("org.glassfish.jaxb.channelBufferSize", 16);
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            value.append("ü€ ");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((MarshallerImpl) m).marshal(new Item(value.toString()), Channels.newChannel(out));
+        String expected = value.toString().replace("€", "&#8364;");
+        Assert.assertEquals("<item value=\"" + expected + "\">" + expected + "</item>",
+                out.toString(Charset.forName("ISO-8859-1")));
+    }
+
+    @Test
+    public void testNonAsciiPrefixAfterUTF8() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Prefixed.class);
+        Prefixed p = new Prefixed();
+        p.child = "c";
+        NamespacePrefixMapper mapper = new NamespacePrefixMapper() {
+            @Override
+            public String getPreferredPrefix(String namespaceUri, String suggestion, boolean requirePrefix) {
+                return "\u00fc";
+            }
+        };
+        Marshaller fresh = context.createMarshaller();
+        fresh.setProperty(PREFIX_MAPPER, mapper);
+        fresh.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        String expected = marshal(fresh, p, "ISO-8859-1");
+        Assert.assertTrue(expected, expected.contains("<\u00fc:prefixed xmlns:\u00fc=\"urn:p\"><\u00fc:child>c</\u00fc:child></\u00fc:prefixed>"));
+
+        Marshaller m = context.createMarshaller();
+        m.setProperty(PREFIX_MAPPER, mapper);
+        marshal(m, p, "UTF-8");
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.marshal(p, out);
+        Assert.assertEquals(expected, out.toString(Charset.forName("ISO-8859-1")));
+        Prefixed read = (Prefixed) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals("c", read.child);
+
+        // and back
+        m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+        Assert.assertEquals(expected.replace("ISO-8859-1", "UTF-8"), marshal(m, p, "UTF-8"));
+    }
+
+    private static String marshal(Marshaller m, Object o, String encoding) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.marshal(o, out);
+        return out.toString(Charset.forName(encoding));
+    }
+
+    @XmlRootElement(namespace = "urn:p")
+    public static class Prefixed {
+        @XmlElement(namespace = "urn:p")
+        public String child;
+    }
+
+    @XmlRootElement
+    public static class Item {
+        @XmlAttribute
+        public String value;
+        @XmlValue
+        public String text;
+
+        public Item() {
+        }
+
+        Item(String value) {
+            this.value = value;
+            this.text = value;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementRef;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.model.annotation.RuntimeInlineAnnotationReader;
+import org.glassfish.jaxb.runtime.v2.model.impl.ModelBuilder;
+import org.glassfish.jaxb.runtime.v2.runtime.JAXBContextImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CompactMetadataTest {
+
+    private static final String XML =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<catalog name=\"books\">"
+            + "<item id=\"1\"><title>Dune</title></item>"
+            + "<item id=\"2\"><title>Emma</title><note>used</note></item>"
+            + "<catalog name=\"nested\"/>"
+            + "</catalog>";
+
+    private static JAXBContextImpl compact() throws Exception {
+        return (JAXBContextImpl) JAXBContext.newInstance(new Class<?>[]{Catalog.class},
+                Collections.singletonMap(JAXBRIContext.COMPACT_METADATA, true));
+    }
+
+    @Test
+    public void testSameRoundTrip() throws Exception {
+        Assert.assertEquals(XML, roundTrip(JAXBContext.newInstance(Catalog.class)));
+        Assert.assertEquals(XML, roundTrip(compact()));
+    }
+
+    @Test
+    public void testSmaller() throws Exception {
+        long size = ((JAXBContextImpl) JAXBContext.newInstance(Catalog.class)).estimateRetainedSize();
+        long compactSize = compact().estimateRetainedSize();
+        Assert.assertTrue(compactSize > 0);
+        Assert.assertTrue(compactSize + " < " + size, compactSize < size);
+    }
+
+    @Test
+    public void testModelBuiltAgain() throws Exception {
+        Assert.assertNotNull(compact().getRuntimeTypeInfoSet().getClassInfo(Item.class));
+    }
+
+    @Test
+    public void testApplicationReaderUntouched() throws Exception {
+        RuntimeInlineAnnotationReader reader = new RuntimeInlineAnnotationReader();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(JAXBRIContext.COMPACT_METADATA, true);
+        properties.put(JAXBRIContext.ANNOTATION_READER, reader);
+        JAXBContext.newInstance(new Class<?>[]{Catalog.class}, properties);
+        // still the handler of the model builder
+        Assert.assertEquals(ModelBuilder.class, reader.getErrorHandler().getClass().getEnclosingClass());
+    }
+
+    private static String roundTrip(JAXBContext context) throws Exception {
+        Object o = context.createUnmarshaller().unmarshal(new StringReader(XML));
+        StringWriter sw = new StringWriter();
+        context.createMarshaller().marshal(o, sw);
+        return sw.toString();
+    }
+
+    @XmlRootElement(name = "catalog")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Catalog {
+        @XmlAttribute
+        public String name;
+        @XmlElement(name = "item")
+        public List<Item> items;
+        @XmlElementRef
+        public Catalog nested;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Item {
+        @XmlAttribute
+        public int id;
+        public String title;
+        public String note;
+    }
+}
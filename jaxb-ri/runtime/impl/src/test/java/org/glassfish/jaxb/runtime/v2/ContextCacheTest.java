@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.model.annotation.RuntimeInlineAnnotationReader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class ContextCacheTest {
+
+    private final ContextCache cache = ContextCache.getDefault();
+    private int maxSize;
+
+    @Before
+    public void enable() {
+        maxSize = cache.getMaxSize();
+        cache.setMaxSize(2);
+        cache.clear();
+        cache.resetStatistics();
+    }
+
+    @After
+    public void restore() {
+        cache.setMaxSize(maxSize);
+        cache.clear();
+    }
+
+    @Test
+    public void testHit() throws Exception {
+        JAXBContext c1 = JAXBContext.newInstance(A.class);
+        JAXBContext c2 = JAXBContext.newInstance(A.class);
+        Assert.assertSame(c1, c2);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testPropertiesAreKey() throws Exception {
+        Map<String,Object> c14n = Collections.singletonMap(JAXBRIContext.CANONICALIZATION_SUPPORT, true);
+        JAXBContext c1 = JAXBContext.newInstance(new Class<?>[]{A.class}, c14n);
+        JAXBContext c2 = JAXBContext.newInstance(A.class);
+        Assert.assertNotSame(c1, c2);
+        Assert.assertSame(c1, JAXBContext.newInstance(new Class<?>[]{A.class}, c14n));
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        JAXBContext a = JAXBContext.newInstance(A.class);
+        JAXBContext.newInstance(B.class);
+        JAXBContext.newInstance(A.class, B.class);
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotSame(a, JAXBContext.newInstance(A.class));
+    }
+
+    @Test
+    public void testNotCacheable() throws Exception {
+        Map<String,Object> reader = Collections.singletonMap(JAXBRIContext.ANNOTATION_READER, new RuntimeInlineAnnotationReader());
+        Assert.assertNotSame(JAXBContext.newInstance(new Class<?>[]{A.class}, reader),
+                JAXBContext.newInstance(new Class<?>[]{A.class}, reader));
+        Assert.assertEquals(0, cache.getMissCount());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        cache.setMaxSize(0);
+        Assert.assertNotSame(JAXBContext.newInstance(A.class), JAXBContext.newInstance(A.class));
+        Assert.assertEquals(0, cache.getHitCount());
+    }
+
+    @XmlRootElement
+    public static class A {
+        public String value;
+    }
+
+    @XmlRootElement
+    public static class B {
+        public int value;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlID;
+import jakarta.xml.bind.annotation.XmlIDREF;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.v2.runtime.ElementStreamWriter;
+import org.glassfish.jaxb.runtime.v2.runtime.MarshallerImpl;
+import org.glassfish.jaxb.runtime.v2.runtime.XMLSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class ElementStreamWriterTest {
+
+    private static final QName TABLE = new QName("urn:t", "table");
+
+    @Test
+    public void testSameAsCollection() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Table.class);
+        Table table = new Table();
+        for (int i = 0; i < 100; i++)
+            table.rows.add(new Row("r" + i));
+
+        for (boolean formatted : new boolean[] {false, true}) {
+            MarshallerImpl m = (MarshallerImpl) context.createMarshaller();
+            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            m.marshal(table, expected);
+
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            try (ElementStreamWriter w = m.openElementStream(TABLE, actual)) {
+                w.writeAll(IntStream.range(0, 100).mapToObj(i -> new Row("r" + i)));
+            }
+            Assert.assertEquals(expected.toString(StandardCharsets.UTF_8), actual.toString(StandardCharsets.UTF_8));
+
+            StringWriter writer = new StringWriter();
+            try (ElementStreamWriter w = m.openElementStream(TABLE, writer)) {
+                w.writeAll(table.rows.iterator());
+            }
+            Table read = (Table) context.createUnmarshaller().unmarshal(new ByteArrayInputStream(actual.toByteArray()));
+            Assert.assertEquals(100, read.rows.size());
+            Assert.assertEquals("r99", read.rows.get(99).id);
+            Assert.assertEquals(1, writer.toString().split("xmlns=").length - 1);
+        }
+    }
+
+    @Test
+    public void testNullChildRejected() throws Exception {
+        MarshallerImpl m = (MarshallerImpl) JAXBContext.newInstance(Table.class).createMarshaller();
+        StringWriter out = new StringWriter();
+        try (ElementStreamWriter w = m.openElementStream(TABLE, out)) {
+            w.write(new Row("a"));
+            try {
+                w.write(null);
+                Assert.fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            w.write(new Row("b"));
+        }
+        Table read = (Table) JAXBContext.newInstance(Table.class).createUnmarshaller().unmarshal(new StringReader(out.toString()));
+        Assert.assertEquals(2, read.rows.size());
+    }
+
+    @Test
+    public void testFailedChildClosesWriter() throws Exception {
+        MarshallerImpl m = (MarshallerImpl) JAXBContext.newInstance(Table.class).createMarshaller();
+        ElementStreamWriter w = m.openElementStream(TABLE, new ByteArrayOutputStream());
+        try {
+            w.write(new Object());
+            Assert.fail();
+        } catch (JAXBException e) {
+            // expected
+        }
+        try {
+            w.write(new Row("a"));
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        w.close();
+
+        // the marshaller can be used again
+        StringWriter out = new StringWriter();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.marshal(new Row("b"), out);
+        Assert.assertTrue(out.toString(), out.toString().startsWith("<row ") && out.toString().contains("id=\"b\""));
+    }
+
+    @Test
+    public void testIdChildrenNotKept() throws Exception {
+        MarshallerImpl m = (MarshallerImpl) JAXBContext.newInstance(Node.class).createMarshaller();
+        List<ValidationEvent> events = new ArrayList<>();
+        m.setEventHandler(events::add);
+        Field f = MarshallerImpl.class.getDeclaredField("serializer");
+        f.setAccessible(true);
+        XMLSerializer serializer = (XMLSerializer) f.get(m);
+        Node a = new Node("a");
+        a.ref = a;
+        Node b = new Node("b");
+        b.ref = a;
+        StringWriter out = new StringWriter();
+        try (ElementStreamWriter w = m.openElementStream(TABLE, out)) {
+            w.write(a);
+            Assert.assertEquals(0, idObjects(serializer));
+            w.write(b);
+            Assert.assertEquals(0, idObjects(serializer));
+        }
+        Assert.assertTrue(events.isEmpty());
+        Assert.assertTrue(out.toString(), out.toString().contains("<node id=\"b\" ref=\"a\"/>"));
+    }
+
+    private static int idObjects(XMLSerializer serializer) throws ReflectiveOperationException {
+        int n = 0;
+        for (String name : new String[] {"objectsWithId", "idReferencedObjects"}) {
+            Field f = XMLSerializer.class.getDeclaredField(name);
+            f.setAccessible(true);
+            n += ((Set<?>) f.get(serializer)).size();
+        }
+        return n;
+    }
+
+    @XmlRootElement(namespace = "urn:t")
+    public static class Table {
+        @XmlElement(name = "row", namespace = "urn:t")
+        public ArrayList<Row> rows = new ArrayList<>();
+    }
+
+    @XmlRootElement(namespace = "urn:t")
+    public static class Row {
+        @XmlAttribute
+        public String id;
+
+        public Row() {
+        }
+
+        Row(String id) {
+            this.id = id;
+        }
+    }
+
+    @XmlRootElement
+    public static class Node {
+        @XmlID
+        @XmlAttribute
+        public String id;
+
+        @XmlIDREF
+        @XmlAttribute
+        public Node ref;
+
+        public Node() {
+        }
+
+        Node(String id) {
+            this.id = id;
+        }
+    }
+}
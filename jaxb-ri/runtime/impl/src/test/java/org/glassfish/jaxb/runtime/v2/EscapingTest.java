@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlValue;
+import org.glassfish.jaxb.core.marshaller.CharacterEscapeHandler;
+import org.glassfish.jaxb.runtime.marshaller.UTF8EscapeHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class EscapingTest {
+
+    private static final String ESCAPE_HANDLER = "org.glassfish.jaxb.characterEscapeHandler";
+
+    private static final String[] VALUES = {
+            "plain",
+            "a&b<c>d\"e'f\tg\nh\ri",
+            "Zürich € 😀 &",
+            "a rather long value without anything to escape in it at all",
+            "a rather long value & one with <everything> \"to\" escape\t\n\r in it, ünïcödé 😀 too",
+            "<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<&&&&&&&&&&&&&&&&&&&&&&&&&&&&&&&&",
+    };
+
+    @Test
+    public void testSameAsWriter() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Item.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        for (String value : VALUES) {
+            Item item = new Item(value);
+            StringWriter expected = new StringWriter();
+            m.marshal(item, expected);
+            Assert.assertEquals(value, expected.toString(), toUTF8(m, item));
+        }
+    }
+
+    @Test
+    public void testUTF8EscapeHandler() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Item.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.setProperty(ESCAPE_HANDLER, new ApostropheEscapeHandler());
+        String expected = "<item value=\"it&apos;s ü\">it&apos;s ü</item>";
+        Assert.assertEquals(expected, toUTF8(m, new Item("it's ü")));
+        String longValue = "it's a rather long value, so that it's written in bulk. it's";
+        Assert.assertEquals(expected.replace("it&apos;s ü", longValue.replace("'", "&apos;")),
+                toUTF8(m, new Item(longValue)));
+    }
+
+    @Test
+    public void testCharacterEscapeHandler() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Item.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.setProperty(ESCAPE_HANDLER, (CharacterEscapeHandler) (ch, start, length, isAttVal, out) -> {
+            for (int i = start; i < start + length; i++) {
+                if (ch[i] == 'x')
+                    out.write("&#120;");
+                else
+                    out.write(ch[i]);
+            }
+        });
+        Assert.assertEquals("<item value=\"&#120; ü 😀\">&#120; ü 😀</item>", toUTF8(m, new Item("x ü 😀")));
+    }
+
+    private static String toUTF8(Marshaller m, Object o) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.marshal(o, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static final class ApostropheEscapeHandler implements UTF8EscapeHandler {
+        @Override
+        public byte[] escape(char c, boolean isAttVal) {
+            return c == '\'' ? "&apos;".getBytes(StandardCharsets.US_ASCII) : null;
+        }
+
+        @Override
+        public void escape(char[] ch, int start, int length, boolean isAttVal, Writer out) throws IOException {
+            for (int i = start; i < start + length; i++) {
+                if (ch[i] == '\'')
+                    out.write("&apos;");
+                else
+                    out.write(ch[i]);
+            }
+        }
+    }
+
+    @XmlRootElement
+    public static class Item {
+        @XmlAttribute
+        public String value;
+        @XmlValue
+        public String text;
+
+        public Item() {
+        }
+
+        Item(String value) {
+            this.value = value;
+            this.text = value;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementDecl;
+import jakarta.xml.bind.annotation.XmlElementRef;
+import jakarta.xml.bind.annotation.XmlRegistry;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSeeAlso;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LazyBeanInfoTest {
+
+    private static final String XML =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<node name=\"root\">"
+            + "<child name=\"a\"><child name=\"b\"/></child>"
+            + "<child xsi:type=\"leafNode\" name=\"c\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">"
+            + "<value>7</value></child>"
+            + "<tag>x</tag><tag>y</tag>"
+            + "</node>";
+
+    private static JAXBContext lazy() throws Exception {
+        return JAXBContext.newInstance(new Class<?>[]{Node.class},
+                Collections.singletonMap(JAXBRIContext.LAZY_BEAN_INFO, true));
+    }
+
+    @Test
+    public void testSameRoundTrip() throws Exception {
+        Assert.assertEquals(roundTrip(JAXBContext.newInstance(Node.class)), roundTrip(lazy()));
+        Assert.assertEquals(XML, roundTrip(lazy()));
+    }
+
+    @Test
+    public void testConcurrentFirstUse() throws Exception {
+        JAXBContext context = lazy();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Callable<String> task = () -> roundTrip(context);
+                results.add(executor.submit(task));
+            }
+            for (Future<String> f : results)
+                Assert.assertEquals(XML, f.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRecursiveElementRef() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<node xmlns=\"urn:t\"><node><node/></node><node/></node>";
+        for (boolean lazy : new boolean[] {false, true}) {
+            JAXBContext context = JAXBContext.newInstance(new Class<?>[]{RefFactory.class},
+                    Collections.singletonMap(JAXBRIContext.LAZY_BEAN_INFO, lazy));
+            JAXBElement<?> e = (JAXBElement<?>) context.createUnmarshaller().unmarshal(new StringReader(xml));
+            Assert.assertEquals(2, ((RefNode) e.getValue()).children.size());
+            StringWriter sw = new StringWriter();
+            context.createMarshaller().marshal(e, sw);
+            Assert.assertEquals(xml, sw.toString());
+        }
+    }
+
+    private static String roundTrip(JAXBContext context) throws Exception {
+        Object o = context.createUnmarshaller().unmarshal(new StringReader(XML));
+        StringWriter sw = new StringWriter();
+        context.createMarshaller().marshal(o, sw);
+        return sw.toString();
+    }
+
+    @XmlRootElement(name = "node")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    @XmlSeeAlso(LeafNode.class)
+    public static class Node {
+        @XmlAttribute
+        public String name;
+        @XmlElement(name = "child")
+        public List<Node> children;
+        @XmlElement(name = "tag")
+        public List<String> tags;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class RefNode {
+        @XmlElementRef(name = "node", namespace = "urn:t", type = JAXBElement.class)
+        public List<JAXBElement<RefNode>> children;
+    }
+
+    @XmlRegistry
+    public static class RefFactory {
+        @XmlElementDecl(name = "node", namespace = "urn:t")
+        public JAXBElement<RefNode> createNode(RefNode value) {
+            return new JAXBElement<>(new QName("urn:t", "node"), RefNode.class, value);
+        }
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class LeafNode extends Node {
+        public int value;
+    }
+}
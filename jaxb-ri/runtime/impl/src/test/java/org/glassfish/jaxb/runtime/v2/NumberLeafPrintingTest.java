@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+public class NumberLeafPrintingTest {
+
+    @Test
+    public void testLongs() throws Exception {
+        check(0L, "0");
+        check(-1L, "-1");
+        check(99999L, "99999");
+        check(-100000L, "-100000");
+        check(999999999L, "999999999");
+        check(Integer.MAX_VALUE + 1L, "2147483648");
+        check(Long.MIN_VALUE, "-9223372036854775808");
+        check(Long.MAX_VALUE, "9223372036854775807");
+    }
+
+    @Test
+    public void testInts() throws Exception {
+        check(0, "0");
+        check(-7, "-7");
+        check(1000000, "1000000");
+        check(Integer.MIN_VALUE, "-2147483648");
+        check(Integer.MAX_VALUE, "2147483647");
+    }
+
+    @Test
+    public void testShorts() throws Exception {
+        check((short) 0, "0");
+        check((short) -1, "-1");
+        check(Short.MIN_VALUE, "-32768");
+        check(Short.MAX_VALUE, "32767");
+    }
+
+    @Test
+    public void testDoubles() throws Exception {
+        check(0.0, "0.0");
+        check(-0.0, "-0.0");
+        check(1.0, "1.0");
+        check(-1.0, "-1.0");
+        check(0.5, "0.5");
+        check(0.1, "0.1");
+        check(123.456, "123.456");
+        check(-2.75, "-2.75");
+        check(0.001, "0.001");
+        check(1e-7, "1.0E-7");
+        check(9999999.0, "9999999.0");
+        check(9999999.5, "9999999.5");
+        check(-9999999.0, "-9999999.0");
+        check(1e7, "1.0E7");
+        check(Double.NaN, "NaN");
+        check(Double.POSITIVE_INFINITY, "INF");
+        check(Double.NEGATIVE_INFINITY, "-INF");
+        check(Double.MIN_VALUE, "4.9E-324");
+        check(Double.MAX_VALUE, "1.7976931348623157E308");
+    }
+
+    @Test
+    public void testFloats() throws Exception {
+        check(0.0f, "0.0");
+        check(-0.0f, "-0.0");
+        check(1.5f, "1.5");
+        check(0.1f, "0.1");
+        check(123.456f, "123.456");
+        check(-2.75f, "-2.75");
+        check(9999998.0f, "9999998.0");
+        check(1e7f, "1.0E7");
+        check(Float.NaN, "NaN");
+        check(Float.POSITIVE_INFINITY, "INF");
+        check(Float.NEGATIVE_INFINITY, "-INF");
+        check(Float.MIN_VALUE, "1.4E-45");
+        check(Float.MAX_VALUE, "3.4028235E38");
+    }
+
+    private static void check(long l, String printed) throws Exception {
+        Bean b = new Bean();
+        b.l = l;
+        b.boxedL = l;
+        check(b, "l", printed);
+    }
+
+    private static void check(int i, String printed) throws Exception {
+        Bean b = new Bean();
+        b.i = i;
+        b.boxedI = i;
+        check(b, "i", printed);
+    }
+
+    private static void check(short s, String printed) throws Exception {
+        Bean b = new Bean();
+        b.s = s;
+        b.boxedS = s;
+        check(b, "s", printed);
+    }
+
+    private static void check(double d, String printed) throws Exception {
+        Bean b = new Bean();
+        b.d = d;
+        b.boxedD = d;
+        check(b, "d", printed);
+    }
+
+    private static void check(float f, String printed) throws Exception {
+        Bean b = new Bean();
+        b.f = f;
+        b.boxedF = f;
+        check(b, "f", printed);
+    }
+
+    /**
+     * The unboxed field of the given name and its boxed counterpart are printed as given,
+     * and the other unboxed fields as zero.
+     */
+    private static void check(Bean b, String name, String printed) throws Exception {
+        StringBuilder expected = new StringBuilder("<bean>");
+        for (String field : new String[] {"l", "i", "s", "d", "f"}) {
+            boolean floating = field.equals("d") || field.equals("f");
+            String value = field.equals(name) ? printed : floating ? "0.0" : "0";
+            expected.append('<').append(field).append('>').append(value).append("</").append(field).append('>');
+        }
+        String boxed = "boxed" + Character.toUpperCase(name.charAt(0));
+        expected.append('<').append(boxed).append('>').append(printed).append("</").append(boxed).append('>');
+        expected.append("</bean>");
+
+        Marshaller m = JAXBContext.newInstance(Bean.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        m.marshal(b, bytes);
+        Assert.assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+
+        StringWriter sw = new StringWriter();
+        XMLStreamWriter xsw = XMLOutputFactory.newInstance().createXMLStreamWriter(sw);
+        m.marshal(b, xsw);
+        xsw.flush();
+        Assert.assertEquals(expected.toString(), sw.toString());
+    }
+
+    @XmlRootElement(name = "bean")
+    @XmlType(propOrder = {"l", "i", "s", "d", "f", "boxedL", "boxedI", "boxedS", "boxedD", "boxedF"})
+    public static class Bean {
+        public long l;
+        public int i;
+        public short s;
+        public double d;
+        public float f;
+        public Long boxedL;
+        public Integer boxedI;
+        public Short boxedS;
+        public Double boxedD;
+        public Float boxedF;
+    }
+}
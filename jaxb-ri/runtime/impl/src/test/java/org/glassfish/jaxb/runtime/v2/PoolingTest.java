@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.ValidationEventHandler;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PoolingTest {
+
+    private static final String XML =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<item name=\"a\"/>";
+
+    @Test
+    public void testMarshallerReset() throws Exception {
+        JAXBRIContext context = (JAXBRIContext) JAXBContext.newInstance(Item.class);
+        Marshaller m = context.borrowMarshaller();
+        ValidationEventHandler defaultHandler = m.getEventHandler();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        m.setEventHandler(event -> true);
+        context.returnMarshaller(m);
+
+        Marshaller again = context.borrowMarshaller();
+        Assert.assertSame(m, again);
+        Assert.assertEquals(false, again.getProperty(Marshaller.JAXB_FRAGMENT));
+        Assert.assertEquals("UTF-8", again.getProperty(Marshaller.JAXB_ENCODING));
+        Assert.assertSame(defaultHandler, again.getEventHandler());
+        Assert.assertEquals(XML, marshal(again, item("a")));
+    }
+
+    @Test
+    public void testUnmarshallerReset() throws Exception {
+        JAXBRIContext context = (JAXBRIContext) JAXBContext.newInstance(Item.class);
+        Unmarshaller u = context.borrowUnmarshaller();
+        u.setListener(new Unmarshaller.Listener() {});
+        context.returnUnmarshaller(u);
+
+        Unmarshaller again = context.borrowUnmarshaller();
+        Assert.assertSame(u, again);
+        Assert.assertNull(again.getListener());
+        Assert.assertEquals("a", ((Item) again.unmarshal(new StringReader(XML))).name);
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        JAXBRIContext context = (JAXBRIContext) JAXBContext.newInstance(new Class<?>[]{Item.class},
+                Collections.singletonMap(JAXBRIContext.POOL_SIZE, 1));
+        Marshaller first = context.borrowMarshaller();
+        Marshaller second = context.borrowMarshaller();
+        Assert.assertNotSame(first, second);
+        context.returnMarshaller(first);
+        context.returnMarshaller(second);
+        Assert.assertSame(first, context.borrowMarshaller());
+        Assert.assertNotSame(second, context.borrowMarshaller());
+    }
+
+    @Test
+    public void testForeignMarshallerNotPooled() throws Exception {
+        JAXBRIContext context = (JAXBRIContext) JAXBContext.newInstance(Item.class);
+        Marshaller foreign = JAXBContext.newInstance(Item.class).createMarshaller();
+        context.returnMarshaller(foreign);
+        Assert.assertNotSame(foreign, context.borrowMarshaller());
+    }
+
+    @Test
+    public void testConcurrentBorrow() throws Exception {
+        JAXBRIContext context = (JAXBRIContext) JAXBContext.newInstance(new Class<?>[]{Item.class},
+                Collections.singletonMap(JAXBRIContext.POOL_SIZE, 2));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String name = "n" + i;
+                Callable<String> task = () -> {
+                    Unmarshaller u = context.borrowUnmarshaller();
+                    Marshaller m = context.borrowMarshaller();
+                    try {
+                        Item item = (Item) u.unmarshal(new StringReader(
+                                "<item name=\"" + name + "\"/>"));
+                        return marshal(m, item);
+                    } finally {
+                        context.returnMarshaller(m);
+                        context.returnUnmarshaller(u);
+                    }
+                };
+                results.add(executor.submit(task));
+            }
+            for (int i = 0; i < results.size(); i++)
+                Assert.assertTrue(results.get(i).get().endsWith("<item name=\"n" + i + "\"/>"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.name = name;
+        return item;
+    }
+
+    private static String marshal(Marshaller m, Object o) throws Exception {
+        StringWriter sw = new StringWriter();
+        m.marshal(o, sw);
+        return sw.toString();
+    }
+
+    @XmlRootElement(name = "item")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Item {
+        @XmlAttribute
+        public String name;
+    }
+}
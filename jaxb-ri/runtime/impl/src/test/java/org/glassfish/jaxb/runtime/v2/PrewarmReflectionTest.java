@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElements;
+import jakarta.xml.bind.annotation.XmlRegistry;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSeeAlso;
+import jakarta.xml.bind.annotation.XmlTransient;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.model.impl.ParallelClassScanner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class PrewarmReflectionTest {
+
+    @Test
+    public void testScan() {
+        // cycles and self referencing bounds must not keep the scan from completing
+        ParallelClassScanner.scan(Collections.singletonList(Node.class), Collections.emptyMap());
+        ParallelClassScanner.scan(Collections.singletonList(Ranked.class), Collections.emptyMap());
+    }
+
+    @Test
+    public void testOnlyPropertyTypesScanned() {
+        Set<Class<?>> scanned = ParallelClassScanner.scan(List.of(Holder.class, Factory.class), Collections.emptyMap());
+        Assert.assertTrue(scanned.contains(Square.class));
+        Assert.assertTrue(scanned.contains(Circle.class));
+        Assert.assertTrue(scanned.contains(Made.class));
+        // neither a property nor a factory method
+        Assert.assertFalse(scanned.contains(Unused.class));
+    }
+
+    @Test
+    public void testSameModel() throws Exception {
+        Node n = new Node();
+        n.name = "root";
+        n.children = new ArrayList<>();
+        Node leaf = new Leaf();
+        leaf.name = "leaf";
+        n.children.add(leaf);
+        n.shape = new Square();
+
+        JAXBContext prewarmed = JAXBContext.newInstance(new Class<?>[]{Node.class},
+                Collections.singletonMap(JAXBRIContext.PREWARM_REFLECTION, true));
+        Assert.assertEquals(marshal(JAXBContext.newInstance(Node.class), n), marshal(prewarmed, n));
+    }
+
+    private static String marshal(JAXBContext context, Object o) throws Exception {
+        StringWriter sw = new StringWriter();
+        context.createMarshaller().marshal(o, sw);
+        return sw.toString();
+    }
+
+    @XmlRootElement
+    @XmlSeeAlso(Leaf.class)
+    public static class Node {
+        public String name;
+        @XmlElement(name = "child")
+        public List<Node> children;
+        @XmlElements({@XmlElement(name = "square", type = Square.class), @XmlElement(name = "circle", type = Circle.class)})
+        public Object shape;
+    }
+
+    public static class Leaf extends Node {
+        public int depth;
+    }
+
+    public static class Square {
+        public int side;
+    }
+
+    public static class Circle {
+        public int radius;
+    }
+
+    public static class Holder {
+        private Square square;
+
+        public Square getSquare() {
+            return square;
+        }
+
+        public void setSquare(Square square) {
+            this.square = square;
+        }
+
+        public void setCircle(Circle circle) {
+        }
+
+        public Unused compute(Unused unused) {
+            return unused;
+        }
+    }
+
+    @XmlRegistry
+    public static class Factory {
+        public Made createMade() {
+            return new Made();
+        }
+    }
+
+    public static class Made {
+        public int size;
+    }
+
+    public static class Unused {
+    }
+
+    @XmlTransient
+    public static class Ranked<T extends Comparable<T>> {
+        public T rank;
+        public List<? extends Ranked<T>> others;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.marshaller.NamespacePrefixMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class TagTemplatesTest {
+
+    @Test
+    public void testPrefixChangesBetweenDocuments() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Root.class).createMarshaller();
+        Root root = new Root();
+        root.child = "c";
+
+        String first = marshal(m, root);
+        Assert.assertTrue(first, first.contains("<root xmlns=\"urn:a\"><child>c</child></root>"));
+
+        m.setProperty("org.glassfish.jaxb.namespacePrefixMapper", new NamespacePrefixMapper() {
+            @Override
+            public String getPreferredPrefix(String namespaceUri, String suggestion, boolean requirePrefix) {
+                return "x";
+            }
+        });
+        String second = marshal(m, root);
+        Assert.assertTrue(second, second.contains("<x:root xmlns:x=\"urn:a\"><x:child>c</x:child></x:root>"));
+
+        m.setProperty("org.glassfish.jaxb.namespacePrefixMapper", new NamespacePrefixMapper() {
+            @Override
+            public String getPreferredPrefix(String namespaceUri, String suggestion, boolean requirePrefix) {
+                return "y";
+            }
+        });
+        String third = marshal(m, root);
+        Assert.assertTrue(third, third.contains("<y:root xmlns:y=\"urn:a\"><y:child>c</y:child></y:root>"));
+    }
+
+    private static String marshal(Marshaller m, Object o) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.marshal(o, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @XmlRootElement(namespace = "urn:a")
+    public static class Root {
+        @XmlElement(namespace = "urn:a")
+        public String child;
+    }
+}
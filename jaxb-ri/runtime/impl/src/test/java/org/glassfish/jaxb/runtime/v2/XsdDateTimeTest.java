@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.v2.util.XsdDateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.GregorianCalendar;
+
+public class XsdDateTimeTest {
+
+    private static final String[] DATE_TIMES = {
+            "2022-03-04T05:06:07",
+            "2022-03-04T05:06:07Z",
+            "2022-03-04T05:06:07.1Z",
+            "2022-03-04T05:06:07.123456789+05:30",
+            "2022-03-04T05:06:07.0001-14:00",
+            "2000-02-29T23:59:59-00:00",
+            "2022-03-04",
+            "2022-03-04Z",
+            "2022-03-04+01:00",
+            "05:06:07",
+            "05:06:07.250Z",
+    };
+
+    @Test
+    public void testCalendar() throws Exception {
+        DatatypeFactory df = DatatypeFactory.newInstance();
+        for (String s : DATE_TIMES) {
+            XMLGregorianCalendar expected = df.newXMLGregorianCalendar(s);
+            GregorianCalendar cal = XsdDateTime.parseCalendar(s);
+            if (s.charAt(2) == ':') {
+                // left to DatatypeFactory
+                Assert.assertNull(s, cal);
+                continue;
+            }
+            Assert.assertEquals(s, expected.toGregorianCalendar(), cal);
+            Assert.assertEquals(s, expected.toGregorianCalendar().getTimeZone().getID(), cal.getTimeZone().getID());
+        }
+    }
+
+    @Test
+    public void testXMLGregorianCalendar() throws Exception {
+        DatatypeFactory df = DatatypeFactory.newInstance();
+        for (String s : DATE_TIMES) {
+            XMLGregorianCalendar expected = df.newXMLGregorianCalendar(s);
+            XMLGregorianCalendar cal = XsdDateTime.parseXMLGregorianCalendar(df, s);
+            Assert.assertEquals(s, expected, cal);
+            Assert.assertEquals(s, expected.toXMLFormat(), cal.toXMLFormat());
+            Assert.assertEquals(s, expected.getXMLSchemaType(), cal.getXMLSchemaType());
+        }
+    }
+
+    @Test
+    public void testUnhandledForms() {
+        for (String s : new String[] {"-0001-01-01", "12022-01-01", "2022-01-01T24:00:00", "2022-02-29",
+                "2022-01-01T01:02", "2022-01-01T01:02:03.", "2022-01-01T01:02:03+1:00", "2022-01"}) {
+            Assert.assertNull(s, XsdDateTime.parseCalendar(s));
+        }
+    }
+
+    @Test
+    public void testJavaTime() {
+        Assert.assertEquals(Instant.parse("2022-03-04T05:06:07.123Z"),
+                XsdDateTime.parseInstant("2022-03-04T06:06:07.123+01:00"));
+        Assert.assertEquals(OffsetDateTime.of(2022, 3, 4, 5, 6, 7, 0, ZoneOffset.ofHours(-3)),
+                XsdDateTime.parseOffsetDateTime("2022-03-04T05:06:07-03:00"));
+        Assert.assertEquals(LocalDateTime.of(2022, 3, 5, 0, 0),
+                XsdDateTime.parseLocalDateTime("2022-03-04T24:00:00"));
+        Assert.assertEquals(LocalDate.of(2022, 3, 4), XsdDateTime.parseLocalDate("2022-03-04Z"));
+        Assert.assertEquals(LocalTime.of(5, 6, 7, 500_000_000), XsdDateTime.parseLocalTime("05:06:07.5"));
+
+        Assert.assertEquals("2022-03-04T05:06:07.123Z",
+                XsdDateTime.printInstant(Instant.parse("2022-03-04T05:06:07.123Z")).toString());
+        Assert.assertEquals("2022-03-04T05:06:07+05:30",
+                XsdDateTime.printOffsetDateTime(OffsetDateTime.parse("2022-03-04T05:06:07+05:30")).toString());
+        Assert.assertEquals("0099-03-04T05:06:07.000000001",
+                XsdDateTime.printLocalDateTime(LocalDateTime.of(99, 3, 4, 5, 6, 7, 1)).toString());
+        Assert.assertEquals("2022-03-04", XsdDateTime.printLocalDate(LocalDate.of(2022, 3, 4)).toString());
+        Assert.assertEquals("00:00:00", XsdDateTime.printLocalTime(LocalTime.MIDNIGHT).toString());
+
+        try {
+            XsdDateTime.parseLocalDateTime("2022-03-04");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            XsdDateTime.parseLocalDate("2022-03-04T05:06:07Z");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDuration() {
+        Assert.assertEquals(Duration.ofDays(1).plusHours(2).plusMinutes(3).plusMillis(4500),
+                XsdDateTime.parseDuration("P0Y0M1DT2H3M4.5S"));
+        Assert.assertEquals(Duration.ofSeconds(-90), XsdDateTime.parseDuration("-PT1M30S"));
+        Assert.assertEquals(Duration.ofHours(36), XsdDateTime.parseDuration("PT36H"));
+        for (String s : new String[] {"P1Y", "P1M", "P", "PT", "P1DT", "1D", "PT1S1M", "PT.5S", "P1.5D", "P1D1D"}) {
+            try {
+                XsdDateTime.parseDuration(s);
+                Assert.fail(s);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+
+        Assert.assertEquals("PT0S", XsdDateTime.printDuration(Duration.ZERO).toString());
+        Assert.assertEquals("P1D", XsdDateTime.printDuration(Duration.ofDays(1)).toString());
+        Assert.assertEquals("P1DT2H3M4.5S",
+                XsdDateTime.printDuration(XsdDateTime.parseDuration("P1DT2H3M4.5S")).toString());
+        Assert.assertEquals("-PT1.5S", XsdDateTime.printDuration(Duration.ofMillis(-1500)).toString());
+        for (Duration d : new Duration[] {Duration.ofSeconds(Long.MIN_VALUE, 1), Duration.ofSeconds(Long.MAX_VALUE, 999_999_999)}) {
+            Assert.assertEquals(d, XsdDateTime.parseDuration(XsdDateTime.printDuration(d)));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        JAXBContext ctx = JAXBContext.newInstance(Bean.class);
+        Bean b = new Bean();
+        b.instant = Instant.parse("2022-03-04T05:06:07.123Z");
+        b.offsetDateTime = OffsetDateTime.parse("2022-03-04T05:06:07-02:00");
+        b.localDateTime = LocalDateTime.of(2022, 3, 4, 5, 6, 7);
+        b.localDate = LocalDate.of(2022, 3, 4);
+        b.localTime = LocalTime.of(5, 6, 7);
+        b.duration = Duration.ofMinutes(90);
+
+        StringWriter w = new StringWriter();
+        Marshaller m = ctx.createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        m.marshal(b, w);
+        Assert.assertEquals("<bean><instant>2022-03-04T05:06:07.123Z</instant>"
+                + "<offsetDateTime>2022-03-04T05:06:07-02:00</offsetDateTime>"
+                + "<localDateTime>2022-03-04T05:06:07</localDateTime>"
+                + "<localDate>2022-03-04</localDate>"
+                + "<localTime>05:06:07</localTime>"
+                + "<duration>PT1H30M</duration></bean>", w.toString());
+
+        Bean r = (Bean) ctx.createUnmarshaller().unmarshal(new StringReader(w.toString()));
+        Assert.assertEquals(b.instant, r.instant);
+        Assert.assertEquals(b.offsetDateTime, r.offsetDateTime);
+        Assert.assertEquals(b.localDateTime, r.localDateTime);
+        Assert.assertEquals(b.localDate, r.localDate);
+        Assert.assertEquals(b.localTime, r.localTime);
+        Assert.assertEquals(b.duration, r.duration);
+    }
+
+    @XmlRootElement(name = "bean")
+    public static class Bean {
+        public Instant instant;
+        public OffsetDateTime offsetDateTime;
+        public LocalDateTime localDateTime;
+        public LocalDate localDate;
+        public LocalTime localTime;
+        public Duration duration;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Field;
+
+public class ConstructorHandleTest {
+
+    @Test
+    public void testNonPublicConstructor() throws Exception {
+        JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(Hidden.class);
+        Assert.assertNotNull(constructor(context, Hidden.class));
+
+        Hidden h = (Hidden) context.createUnmarshaller().unmarshal(new StringReader("<hidden><name>n</name></hidden>"));
+        Assert.assertEquals("n", h.name);
+        Assert.assertTrue(h.constructed);
+    }
+
+    @Test
+    public void testConstructorFailure() throws Exception {
+        JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(Failing.class);
+        Assert.assertNotNull(constructor(context, Failing.class));
+        try {
+            context.createUnmarshaller().unmarshal(new StringReader("<failing/>"));
+            Assert.fail();
+        } catch (UnmarshalException e) {
+            // the exception of the constructor is reported, as with Constructor.newInstance
+            Throwable t = e;
+            while (t != null && !(t instanceof IllegalStateException))
+                t = t.getCause();
+            Assert.assertNotNull(e.toString(), t);
+            Assert.assertEquals("failing", t.getMessage());
+        }
+    }
+
+    @Test
+    public void testAbstractClassWithoutHandle() throws Exception {
+        JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(Hidden.class, Abstract.class);
+        Assert.assertNull(constructor(context, Abstract.class));
+    }
+
+    private static Object constructor(JAXBContextImpl context, Class<?> c) throws Exception {
+        Field f = ClassBeanInfoImpl.class.getDeclaredField("constructor");
+        f.setAccessible(true);
+        return f.get(context.getBeanInfo(c));
+    }
+
+    @XmlRootElement
+    static class Hidden {
+        public String name;
+        final transient boolean constructed;
+
+        private Hidden() {
+            constructed = true;
+        }
+    }
+
+    @XmlRootElement
+    public static class Failing {
+        public Failing() {
+            throw new IllegalStateException("failing");
+        }
+    }
+
+    @XmlRootElement
+    public abstract static class Abstract {
+        public String name;
+    }
+}
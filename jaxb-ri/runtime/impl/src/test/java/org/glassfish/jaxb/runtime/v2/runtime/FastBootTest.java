@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.model.annotation.RuntimeInlineAnnotationReader;
+import org.glassfish.jaxb.runtime.v2.model.annotation.SnapshotAnnotationReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+public class FastBootTest {
+
+    private static final String SYSTEM_PROPERTY = JAXBContextImpl.class.getName() + ".fastBoot";
+
+    @Test
+    public void testSystemPropertyDoesNotReadSnapshots() throws Exception {
+        System.setProperty(SYSTEM_PROPERTY, "true");
+        try {
+            JAXBContextImpl c = (JAXBContextImpl) JAXBContext.newInstance(Bean.class);
+            Assert.assertTrue(c.fastBoot);
+            Assert.assertTrue(annotationReader(c) instanceof RuntimeInlineAnnotationReader);
+        } finally {
+            System.clearProperty(SYSTEM_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testPropertyReadsSnapshots() throws Exception {
+        JAXBContextImpl c = (JAXBContextImpl) JAXBContext.newInstance(new Class<?>[] {Bean.class},
+                Collections.singletonMap(JAXBRIContext.FAST_BOOT, true));
+        Assert.assertTrue(c.fastBoot);
+        Assert.assertTrue(annotationReader(c) instanceof SnapshotAnnotationReader);
+
+        c = (JAXBContextImpl) JAXBContext.newInstance(Bean.class);
+        Assert.assertFalse(c.fastBoot);
+        Assert.assertTrue(annotationReader(c) instanceof RuntimeInlineAnnotationReader);
+    }
+
+    private static Object annotationReader(JAXBContextImpl c) throws Exception {
+        Field f = JAXBContextImpl.class.getDeclaredField("annotationReader");
+        f.setAccessible(true);
+        return f.get(c);
+    }
+
+    @XmlRootElement
+    public static class Bean {
+        public String value;
+    }
+}
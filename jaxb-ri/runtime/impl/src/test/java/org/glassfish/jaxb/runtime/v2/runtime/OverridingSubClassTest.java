@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+
+public class OverridingSubClassTest {
+
+    @Test
+    public void testOverriddenPropertyWrittenOnce() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Sub.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+        Base base = new Base();
+        base.name = "b";
+        base.other = "o";
+        Assert.assertEquals("<base><name>b</name><other>o</other></base>", marshal(m, base));
+
+        for (int i = 0; i < 2; i++) {   // the second time from the cache
+            Sub sub = new Sub();
+            sub.name = "s";
+            sub.other = "o";
+            Assert.assertEquals("<sub><other>o</other><name>s</name></sub>", marshal(m, sub));
+
+            // a subclass the context doesn't know is written as its nearest known class
+            SubSub subSub = new SubSub();
+            subSub.name = "s";
+            subSub.other = "o";
+            Assert.assertEquals("<sub><other>o</other><name>s</name></sub>", marshal(m, subSub));
+        }
+    }
+
+    @Test
+    public void testNoLookupWithoutOverride() throws Exception {
+        JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(Sub.class, Plain.class);
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+        PlainSub p = new PlainSub();
+        p.name = "p";
+        Assert.assertEquals("<plain><name>p</name></plain>", marshal(m, p));
+        Assert.assertEquals(0, subClassProperties(context, Plain.class));
+
+        Assert.assertEquals("<sub><name>s</name></sub>", marshal(m, new SubSub() {{ name = "s"; }}));
+        Assert.assertEquals(1, subClassProperties(context, Base.class));
+    }
+
+    private static int subClassProperties(JAXBContextImpl context, Class<?> c) throws Exception {
+        Field f = ClassBeanInfoImpl.class.getDeclaredField("subClassProperties");
+        f.setAccessible(true);
+        return ((Object[]) f.get(context.getBeanInfo(c))).length;
+    }
+
+    @Test
+    public void testSubClassCanBeUnloaded() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Sub.class).createMarshaller();
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+        WeakReference<Class<?>> ref = marshalFromOtherLoader(m);
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull("the subclass is still reachable", ref.get());
+    }
+
+    private static WeakReference<Class<?>> marshalFromOtherLoader(Marshaller m) throws Exception {
+        Class<?> c = new ChildLoader().loadClass(SubSub.class.getName());
+        Assert.assertNotSame(SubSub.class, c);
+        Sub sub = (Sub) c.getConstructor().newInstance();
+        sub.name = "s";
+        Assert.assertEquals("<sub><name>s</name></sub>", marshal(m, sub));
+        return new WeakReference<>(c);
+    }
+
+    private static String marshal(Marshaller m, Object o) throws Exception {
+        StringWriter w = new StringWriter();
+        m.marshal(o, w);
+        return w.toString();
+    }
+
+    /**
+     * Defines its own copy of {@link SubSub}.
+     */
+    private static final class ChildLoader extends ClassLoader {
+        ChildLoader() {
+            super(OverridingSubClassTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(SubSub.class.getName()))
+                return super.loadClass(name, resolve);
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                byte[] b = in.readAllBytes();
+                return defineClass(name, b, 0, b.length, SubSub.class.getProtectionDomain());
+            } catch (Exception e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+
+    @XmlRootElement
+    public static class Base {
+        public String name;
+        public String other;
+    }
+
+    @XmlRootElement
+    public static class Sub extends Base {
+        public String name;
+    }
+
+    public static class SubSub extends Sub {
+    }
+
+    @XmlRootElement
+    public static class Plain {
+        public String name;
+    }
+
+    public static class PlainSub extends Plain {
+    }
+}
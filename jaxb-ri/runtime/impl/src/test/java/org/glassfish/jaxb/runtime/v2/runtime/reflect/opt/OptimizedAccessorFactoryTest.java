@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.runtime.reflect.opt;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import org.glassfish.jaxb.runtime.api.JAXBRIContext;
+import org.glassfish.jaxb.runtime.v2.runtime.reflect.Accessor;
+
+import junit.framework.TestCase;
+
+public class OptimizedAccessorFactoryTest extends TestCase {
+
+    @XmlRootElement
+    @XmlAccessorType(XmlAccessType.FIELD)
+    static class FieldBean {
+        private int count;
+        @XmlAttribute
+        private long id;
+        private boolean flag;
+        private double ratio;
+        private String name;
+    }
+
+    @XmlRootElement
+    static class PropertyBean {
+        private short size;
+        private String label;
+
+        public short getSize() {
+            return size;
+        }
+
+        public void setSize(short size) {
+            this.size = size;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+
+    public void testFieldAccessor() throws Exception {
+        // the reflection-based accessor makes the field accessible before it is optimized
+        Accessor<FieldBean, Object> acc = new Accessor.FieldReflection<FieldBean, Object>(
+                FieldBean.class.getDeclaredField("count")).optimize(null);
+        assertFalse(acc instanceof Accessor.FieldReflection);
+        assertNotNull(acc);
+        assertEquals(int.class, acc.getValueType());
+
+        FieldBean bean = new FieldBean();
+        acc.set(bean, 42);
+        assertEquals(42, bean.count);
+        assertEquals(42, acc.get(bean));
+
+        // null resets a primitive to its default
+        acc.set(bean, null);
+        assertEquals(0, bean.count);
+    }
+
+    public void testGetterSetterAccessor() throws Exception {
+        Accessor<PropertyBean, Object> acc = OptimizedAccessorFactory.get(
+                PropertyBean.class.getMethod("getLabel"), PropertyBean.class.getMethod("setLabel", String.class));
+        assertNotNull(acc);
+
+        PropertyBean bean = new PropertyBean();
+        acc.set(bean, "abc");
+        assertEquals("abc", bean.getLabel());
+        assertEquals("abc", acc.get(bean));
+
+        assertNull(OptimizedAccessorFactory.get(PropertyBean.class.getMethod("getLabel"), null));
+    }
+
+    public void testRoundTrip() throws Exception {
+        FieldBean fb = new FieldBean();
+        fb.count = 7;
+        fb.id = 1234567890123L;
+        fb.flag = true;
+        fb.ratio = 0.5;
+        fb.name = "x";
+
+        PropertyBean pb = new PropertyBean();
+        pb.setSize((short) 12);
+        pb.setLabel("y");
+
+        for (Boolean disabled : new Boolean[] {Boolean.FALSE, Boolean.TRUE}) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put(JAXBRIContext.DISABLE_ACCESSOR_OPTIMIZATION, disabled);
+            JAXBContext c = JAXBContext.newInstance(new Class[] {FieldBean.class, PropertyBean.class}, properties);
+
+            StringWriter sw = new StringWriter();
+            c.createMarshaller().marshal(fb, sw);
+            FieldBean fb2 = (FieldBean) c.createUnmarshaller().unmarshal(new StringReader(sw.toString()));
+            assertEquals(fb.count, fb2.count);
+            assertEquals(fb.id, fb2.id);
+            assertEquals(fb.flag, fb2.flag);
+            assertEquals(fb.ratio, fb2.ratio);
+            assertEquals(fb.name, fb2.name);
+
+            sw = new StringWriter();
+            c.createMarshaller().marshal(pb, sw);
+            PropertyBean pb2 = (PropertyBean) c.createUnmarshaller().unmarshal(new StringReader(sw.toString()));
+            assertEquals(pb.getSize(), pb2.getSize());
+            assertEquals(pb.getLabel(), pb2.getLabel());
+        }
+    }
+}
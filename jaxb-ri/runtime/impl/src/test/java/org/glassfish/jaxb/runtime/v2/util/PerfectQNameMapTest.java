@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.jaxb.runtime.v2.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+
+public class PerfectQNameMapTest {
+
+    @Test
+    public void testLookups() {
+        for (int size : new int[] {0, 1, 2, 5, 17, 100, 1000}) {
+            QNameMap<Integer> map = new QNameMap<>();
+            for (int i = 0; i < size; i++) {
+                // the same local names in two namespaces
+                map.put(("urn:" + (i % 2)).intern(), ("e" + i / 2).intern(), i);
+            }
+            PerfectQNameMap<Integer> perfect = new PerfectQNameMap<>(map);
+            Assert.assertEquals(size, perfect.size());
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals(Integer.valueOf(i), perfect.get(("urn:" + (i % 2)).intern(), ("e" + i / 2).intern()));
+            }
+            Assert.assertNull(perfect.get("urn:2", "e0"));
+            Assert.assertNull(perfect.get("urn:0", ("e" + size).intern()));
+            Assert.assertEquals(new HashSet<>(map.keySet()), new HashSet<>(perfect.keySet()));
+        }
+    }
+
+    @Test
+    public void testSmallMapsArePerfect() {
+        QNameMap<String> map = new QNameMap<>();
+        for (String name : new String[] {"name", "id", "value", "items", "item", "note", "title", "author"})
+            map.put("", name, name);
+        PerfectQNameMap<String> perfect = new PerfectQNameMap<>(map);
+        Assert.assertTrue(perfect.isPerfect());
+        Assert.assertEquals("title", perfect.get("", "title"));
+    }
+}
@@ -0,0 +1,9 @@
+package org.glassfish.jaxb.runtime.test.record;
+
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "graph")
+public record Graph(List<Node> node) {
+}
@@ -0,0 +1,14 @@
+package org.glassfish.jaxb.runtime.test.record;
+
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlID;
+import jakarta.xml.bind.annotation.XmlIDREF;
+
+public record Node(
+		@XmlAttribute @XmlID String id,
+		@XmlAttribute @XmlIDREF Node ref,
+		@XmlIDREF List<Node> see
+		) {
+}
@@ -1,6 +1,7 @@
 package org.glassfish.jaxb.runtime.test.record;
 
 import java.io.ByteArrayInputStream;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -9,6 +10,7 @@ import java.util.List;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.ValidationEvent;
 import jakarta.xml.bind.annotation.XmlRootElement;
 
 public class TestRecord {
@@ -64,6 +66,49 @@ public class TestRecord {
 
 	}
 
+	@org.junit.Test
+	public void roundTripBookStoreTest() throws Throwable {
+		List<Book> books = new ArrayList<>();
+		books.add(new Book("theName", "theAuthor", "thePublisher", "theIsbn"));
+		books.add(new Book("otherName", "otherAuthor", null, "otherIsbn"));
+		Bookstore store = new Bookstore("theName", "theLocation", books);
+
+		JAXBContext context = JAXBContext.newInstance(Bookstore.class);
+		StringWriter stringWriter = new StringWriter();
+		context.createMarshaller().marshal(store, stringWriter);
+
+		Object result = context.createUnmarshaller().unmarshal(new StringReader(stringWriter.toString()));
+		org.junit.Assert.assertEquals(store, result);
+	}
+
+	@org.junit.Test
+	public void idRefTest() throws Throwable {
+		String xml = "<graph><node id=\"a\"/><node id=\"b\" ref=\"a\"><see>a</see><see>b</see></node></graph>";
+		Graph graph = (Graph) JAXBContext.newInstance(Graph.class).createUnmarshaller().unmarshal(new StringReader(xml));
+		Node a = graph.node().get(0);
+		Node b = graph.node().get(1);
+		org.junit.Assert.assertEquals("a", a.id());
+		org.junit.Assert.assertSame(a, b.ref());
+		// a record can't refer to itself, it doesn't exist until its element ends
+		org.junit.Assert.assertEquals(List.of(a), b.see());
+	}
+
+	@org.junit.Test
+	public void forwardIdRefTest() throws Throwable {
+		String xml = "<graph><node id=\"a\" ref=\"b\"><see>c</see></node><node id=\"b\"/><node id=\"c\"/></graph>";
+		List<ValidationEvent> events = new ArrayList<>();
+		Unmarshaller unmarshaller = JAXBContext.newInstance(Graph.class).createUnmarshaller();
+		unmarshaller.setEventHandler(events::add);
+		Graph graph = (Graph) unmarshaller.unmarshal(new StringReader(xml));
+		// records are immutable, so references to later elements are reported
+		org.junit.Assert.assertEquals(2, events.size());
+		org.junit.Assert.assertNull(graph.node().get(0).ref());
+		for (Node n : graph.node().subList(1, 3)) {
+			org.junit.Assert.assertNull(n.ref());
+			org.junit.Assert.assertNull(n.see());
+		}
+	}
+
 	@org.junit.Test
 	public void helperTest() throws Throwable {
 		Foo f = new Foo();